@@ -0,0 +1,83 @@
+package com.notificacionesvoz.benchmarks;
+
+import com.notificacionesvoz.utilidades.AnalizadorComportamientoConductor;
+import com.notificacionesvoz.utilidades.AnalizadorFlujoAceleracion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por muestra del análisis escalar, por lotes y en flujo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class AnalizadorComportamientoConductorBenchmark {
+
+    private static final int MUESTRAS = 1024;
+
+    private AnalizadorComportamientoConductor analizador;
+    private AnalizadorFlujoAceleracion analizadorFlujo;
+    private final long[] marcasTiempo = new long[MUESTRAS];
+    private final float[] longitudinales = new float[MUESTRAS];
+    private final float[] laterales = new float[MUESTRAS];
+    private final int[] velocidades = new int[MUESTRAS];
+    private final int[] limites = new int[MUESTRAS];
+    private final byte[] mascaras = new byte[MUESTRAS];
+
+    @Setup
+    public void preparar() {
+        analizador = new AnalizadorComportamientoConductor();
+        analizadorFlujo = new AnalizadorFlujoAceleracion(analizador);
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < MUESTRAS; i++) {
+            marcasTiempo[i] = i * 10_000_000L;
+            longitudinales[i] = (float) (aleatorio.nextGaussian() * 4.0);
+            laterales[i] = (float) (aleatorio.nextGaussian() * 3.0);
+            velocidades[i] = 40 + aleatorio.nextInt(80);
+            limites[i] = 30 + 10 * aleatorio.nextInt(9);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MUESTRAS)
+    public void analizarAceleracion(Blackhole sumidero) {
+        for (int i = 0; i < MUESTRAS; i++) {
+            sumidero.consume(analizador.analizarAceleracion(longitudinales[i], laterales[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MUESTRAS)
+    public void evaluarEscalar(Blackhole sumidero) {
+        for (int i = 0; i < MUESTRAS; i++) {
+            sumidero.consume(analizador.esExcesoVelocidad(velocidades[i], limites[i]));
+            sumidero.consume(analizador.esFrenadaBrusca(longitudinales[i]));
+            sumidero.consume(analizador.esAceleracionBrusca(longitudinales[i]));
+            sumidero.consume(analizador.esGiroBrusco(laterales[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MUESTRAS)
+    public int evaluarLote() {
+        return analizador.evaluarLote(velocidades, limites, longitudinales, laterales, 0, MUESTRAS, mascaras);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MUESTRAS)
+    public int analizarFlujo() {
+        return analizadorFlujo.procesar(marcasTiempo, longitudinales, laterales, MUESTRAS,
+                (categoria, marcaTiempoNs, valorPico) -> { });
+    }
+}
@@ -0,0 +1,71 @@
+package com.notificacionesvoz.benchmarks;
+
+import com.notificacionesvoz.utilidades.AnalizadorComportamientoConductor;
+import com.notificacionesvoz.utilidades.AnalizadorFlota;
+import com.notificacionesvoz.utilidades.LoteTelemetriaFlota;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por muestra del análisis de flota según el número de hilos; con vehículos
+ * de sobra, el tiempo por muestra debería bajar casi en proporción a los hilos
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AnalizadorFlotaBenchmark {
+
+    private static final int VEHICULOS = 10_000;
+    private static final int MUESTRAS_POR_VEHICULO = 10;
+    private static final int MUESTRAS = VEHICULOS * MUESTRAS_POR_VEHICULO;
+
+    @Param({"1", "2", "4", "8"})
+    public int hilos;
+
+    private ForkJoinPool pool;
+    private AnalizadorFlota flota;
+    private LoteTelemetriaFlota lote;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        pool = new ForkJoinPool(hilos);
+        flota = new AnalizadorFlota(new AnalizadorComportamientoConductor(), 30_000, pool,
+            hilos * AnalizadorFlota.PARTICIONES_POR_HILO);
+        // Se reprocesa siempre el mismo lote: las marcas retroceden entre invocaciones,
+        // lo que solo afecta a qué se notifica, no al trabajo por muestra
+        lote = new LoteTelemetriaFlota(MUESTRAS);
+        Random aleatorio = new Random(42);
+        for (int muestra = 0; muestra < MUESTRAS_POR_VEHICULO; muestra++) {
+            for (long vehiculo = 0; vehiculo < VEHICULOS; vehiculo++) {
+                lote.agregar(vehiculo, muestra * 10L, 60 + aleatorio.nextInt(40), 80,
+                    (float) (aleatorio.nextGaussian() * 4.0), (float) (aleatorio.nextGaussian() * 3.0));
+            }
+        }
+        flota.procesar(lote);
+    }
+
+    @TearDown(Level.Trial)
+    public void liberar() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MUESTRAS)
+    public int procesarLote() {
+        return flota.procesar(lote).obtenerCantidad();
+    }
+}
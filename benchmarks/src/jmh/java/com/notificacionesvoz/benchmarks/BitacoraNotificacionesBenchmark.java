@@ -0,0 +1,75 @@
+package com.notificacionesvoz.benchmarks;
+
+import com.notificacionesvoz.datos.bitacora.BitacoraNotificaciones;
+import com.notificacionesvoz.datos.bitacora.RegistroBitacora;
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de añadir un registro a BitacoraNotificaciones, incluida la rotación de segmentos
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class BitacoraNotificacionesBenchmark {
+
+    private File directorio;
+    private BitacoraNotificaciones bitacora;
+    private NotificacionVoz notificacion;
+
+    @Setup(Level.Iteration)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("bitacora").toFile();
+        bitacora = new BitacoraNotificaciones(directorio);
+        notificacion = new NotificacionVoz.Constructor()
+            .establecerMensaje("Reduce la velocidad, vas a 92 en zona de 80")
+            .establecerCategoria("exceso_velocidad")
+            .establecerPrioridad(NotificacionVoz.Prioridad.ALTA)
+            .establecerMetadatosTipados(new MetadatosNotificacion.Constructor()
+                .establecerDecimal(MetadatosNotificacion.VELOCIDAD_KMH, 92.5)
+                .establecerEntero(MetadatosNotificacion.LIMITE_VELOCIDAD_KMH, 80)
+                .establecerDecimal(MetadatosNotificacion.LATITUD, 4.6097)
+                .establecerDecimal(MetadatosNotificacion.LONGITUD, -74.0817)
+                .construir())
+            .construir();
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiar() {
+        bitacora.close();
+        File[] segmentos = directorio.listFiles();
+        if (segmentos != null) {
+            for (File segmento : segmentos) {
+                segmento.delete();
+            }
+        }
+        directorio.delete();
+    }
+
+    @Benchmark
+    public boolean registrar() {
+        return bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean registrarCuatroHilos() {
+        return bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion);
+    }
+}
@@ -0,0 +1,47 @@
+package com.notificacionesvoz.benchmarks;
+
+import com.notificacionesvoz.datos.fabrica.FabricaMensajesNotificacion;
+import com.notificacionesvoz.dominio.modelo.TipoNotificacion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de obtener mensajes predefinidos y dinámicos
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FabricaMensajesNotificacionBenchmark {
+
+    private final Locale espanol = new Locale("es", "ES");
+    private int velocidad = 90;
+
+    @Benchmark
+    public String obtenerMensaje() {
+        return FabricaMensajesNotificacion.obtenerMensaje(TipoNotificacion.FRENADA_BRUSCA, espanol);
+    }
+
+    @Benchmark
+    public String obtenerMensajeEspanol() {
+        return FabricaMensajesNotificacion.obtenerMensajeEspanol(TipoNotificacion.GIRO_BRUSCO);
+    }
+
+    @Benchmark
+    public String obtenerMensajeIngles() {
+        return FabricaMensajesNotificacion.obtenerMensajeIngles(TipoNotificacion.EXCESO_VELOCIDAD);
+    }
+
+    @Benchmark
+    public String obtenerMensajeExcesoVelocidad() {
+        velocidad = velocidad == 140 ? 90 : velocidad + 1;
+        return FabricaMensajesNotificacion.obtenerMensajeExcesoVelocidad(velocidad, 80);
+    }
+}
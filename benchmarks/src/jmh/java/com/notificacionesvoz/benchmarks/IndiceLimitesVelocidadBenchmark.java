@@ -0,0 +1,82 @@
+package com.notificacionesvoz.benchmarks;
+
+import com.notificacionesvoz.datos.limites.IndiceLimitesVelocidad;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de una consulta al índice de límites sobre una ciudad sintética: una
+ * cuadrícula de 200 × 200 calles (~80 000 tramos) en unos 11 × 11 km
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class IndiceLimitesVelocidadBenchmark {
+
+    private static final int CALLES = 200;
+    private static final double PASO_GRADOS = 0.0005; // ~55 m entre calles
+    private static final double LATITUD_ORIGEN = 4.60;
+    private static final double LONGITUD_ORIGEN = -74.10;
+    private static final int CONSULTAS = 1024;
+
+    private File archivo;
+    private IndiceLimitesVelocidad indice;
+    private final double[] latitudes = new double[CONSULTAS];
+    private final double[] longitudes = new double[CONSULTAS];
+    private final float[] rumbos = new float[CONSULTAS];
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        archivo = File.createTempFile("limites", ".idx");
+        IndiceLimitesVelocidad.Constructor constructor = new IndiceLimitesVelocidad.Constructor();
+        for (int i = 0; i < CALLES; i++) {
+            for (int j = 0; j < CALLES - 1; j++) {
+                int limite = i % 10 == 0 ? 60 : 30;
+                // Tramos entre cruces consecutivos, en ambas direcciones de la cuadrícula
+                constructor.agregarTramo(LATITUD_ORIGEN + i * PASO_GRADOS, LONGITUD_ORIGEN + j * PASO_GRADOS,
+                    LATITUD_ORIGEN + i * PASO_GRADOS, LONGITUD_ORIGEN + (j + 1) * PASO_GRADOS, limite, false);
+                constructor.agregarTramo(LATITUD_ORIGEN + j * PASO_GRADOS, LONGITUD_ORIGEN + i * PASO_GRADOS,
+                    LATITUD_ORIGEN + (j + 1) * PASO_GRADOS, LONGITUD_ORIGEN + i * PASO_GRADOS, limite, false);
+            }
+        }
+        constructor.escribir(archivo);
+        indice = new IndiceLimitesVelocidad(archivo);
+
+        Random aleatorio = new Random(42);
+        double lado = (CALLES - 1) * PASO_GRADOS;
+        for (int i = 0; i < CONSULTAS; i++) {
+            latitudes[i] = LATITUD_ORIGEN + aleatorio.nextDouble() * lado;
+            longitudes[i] = LONGITUD_ORIGEN + aleatorio.nextDouble() * lado;
+            rumbos[i] = aleatorio.nextFloat() * 360f;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        archivo.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONSULTAS)
+    public int obtenerLimite() {
+        int suma = 0;
+        for (int i = 0; i < CONSULTAS; i++) {
+            suma += indice.obtenerLimiteKmh(latitudes[i], longitudes[i], rumbos[i]);
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,70 @@
+package com.notificacionesvoz.benchmarks;
+
+import com.notificacionesvoz.utilidades.LimitadorNotificaciones;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de LimitadorNotificaciones.intentarNotificar en un hilo y con contención
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LimitadorNotificacionesBenchmark {
+
+    private static final String[] CATEGORIAS = {
+        "frenada_brusca", "aceleracion_brusca", "giro_brusco", "exceso_velocidad"
+    };
+
+    private LimitadorNotificaciones limitador;
+    private LimitadorNotificaciones limitadorConPresupuesto;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        limitador = new LimitadorNotificaciones(3000);
+        limitadorConPresupuesto = new LimitadorNotificaciones(3000, 5, 60_000);
+    }
+
+    @State(Scope.Thread)
+    public static class EstadoHilo {
+        int indice;
+
+        String siguienteCategoria() {
+            indice = (indice + 1) & 3;
+            return CATEGORIAS[indice];
+        }
+    }
+
+    @Benchmark
+    public boolean unHilo(EstadoHilo estado) {
+        return limitador.intentarNotificar(estado.siguienteCategoria());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean cuatroHilos(EstadoHilo estado) {
+        return limitador.intentarNotificar(estado.siguienteCategoria());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean cuatroHilosMismaCategoria() {
+        return limitador.intentarNotificar("frenada_brusca");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean cuatroHilosConPresupuestoGlobal(EstadoHilo estado) {
+        return limitadorConPresupuesto.intentarNotificar(estado.siguienteCategoria());
+    }
+}
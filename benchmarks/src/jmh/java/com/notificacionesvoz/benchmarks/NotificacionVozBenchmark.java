@@ -0,0 +1,40 @@
+package com.notificacionesvoz.benchmarks;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de construir una notificación con NotificacionVoz.Constructor
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NotificacionVozBenchmark {
+
+    private final String mensaje = "Frenada brusca detectada. Conduzca con precaución.";
+
+    @Benchmark
+    public NotificacionVoz construirMinima() {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje(mensaje)
+                .construir();
+    }
+
+    @Benchmark
+    public NotificacionVoz construirCompleta() {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje(mensaje)
+                .establecerPrioridad(NotificacionVoz.Prioridad.ALTA)
+                .establecerCategoria("frenada_brusca")
+                .establecerMarcaTiempo(1_700_000_000_000L)
+                .construir();
+    }
+}
@@ -0,0 +1,132 @@
+package com.notificacionesvoz.herramientas;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de reproducir una o varias trazas
+ *
+ * Por categoría cuenta las detecciones del analizador y cuántas dejó pasar o suprimió
+ * el limitador; además, el volumen de muestras y el rendimiento de la reproducción.
+ */
+public class InformeReproduccion {
+
+    private final Map<String, Contadores> categorias = new TreeMap<>();
+    private long muestras;
+    private long duracionTrazaMs;
+    private long tiempoRealNs;
+
+    /**
+     * Registra una detección y la decisión del limitador sobre ella
+     */
+    void registrarDeteccion(@NonNull String categoria, boolean notificada) {
+        Contadores contadores = categorias.get(categoria);
+        if (contadores == null) {
+            contadores = new Contadores();
+            categorias.put(categoria, contadores);
+        }
+        contadores.detecciones++;
+        if (notificada) {
+            contadores.notificadas++;
+        }
+    }
+
+    void registrarTraza(long muestras, long duracionTrazaMs, long tiempoRealNs) {
+        this.muestras += muestras;
+        this.duracionTrazaMs += duracionTrazaMs;
+        this.tiempoRealNs += tiempoRealNs;
+    }
+
+    /**
+     * Suma a este informe los resultados de otro (p. ej. de otra traza)
+     */
+    public void acumular(@NonNull InformeReproduccion otro) {
+        for (Map.Entry<String, Contadores> entrada : otro.categorias.entrySet()) {
+            Contadores contadores = categorias.get(entrada.getKey());
+            if (contadores == null) {
+                contadores = new Contadores();
+                categorias.put(entrada.getKey(), contadores);
+            }
+            contadores.detecciones += entrada.getValue().detecciones;
+            contadores.notificadas += entrada.getValue().notificadas;
+        }
+        registrarTraza(otro.muestras, otro.duracionTrazaMs, otro.tiempoRealNs);
+    }
+
+    public long obtenerDetecciones(@NonNull String categoria) {
+        Contadores contadores = categorias.get(categoria);
+        return contadores != null ? contadores.detecciones : 0;
+    }
+
+    public long obtenerNotificadas(@NonNull String categoria) {
+        Contadores contadores = categorias.get(categoria);
+        return contadores != null ? contadores.notificadas : 0;
+    }
+
+    public long obtenerSuprimidas(@NonNull String categoria) {
+        return obtenerDetecciones(categoria) - obtenerNotificadas(categoria);
+    }
+
+    public long obtenerMuestras() {
+        return muestras;
+    }
+
+    /**
+     * Tiempo cubierto por las trazas (de la primera a la última muestra de cada una)
+     */
+    public long obtenerDuracionTrazaMs() {
+        return duracionTrazaMs;
+    }
+
+    /**
+     * Tiempo real que llevó la reproducción
+     */
+    public long obtenerTiempoRealNs() {
+        return tiempoRealNs;
+    }
+
+    public double obtenerMuestrasPorSegundo() {
+        return tiempoRealNs > 0 ? muestras * 1e9 / tiempoRealNs : 0;
+    }
+
+    /**
+     * Cuántas veces más rápido que el viaje original se reprodujeron las trazas
+     */
+    public double obtenerFactorTiempoReal() {
+        return tiempoRealNs > 0 ? duracionTrazaMs * 1e6 / tiempoRealNs : 0;
+    }
+
+    /**
+     * Informe legible, una categoría por línea
+     */
+    @NonNull
+    public String formatear() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "%-20s %12s %12s %12s%n",
+            "categoria", "detecciones", "notificadas", "suprimidas"));
+        for (Map.Entry<String, Contadores> entrada : categorias.entrySet()) {
+            Contadores contadores = entrada.getValue();
+            texto.append(String.format(Locale.ROOT, "%-20s %12d %12d %12d%n", entrada.getKey(),
+                contadores.detecciones, contadores.notificadas,
+                contadores.detecciones - contadores.notificadas));
+        }
+        texto.append(String.format(Locale.ROOT,
+            "muestras=%d traza=%.1f s real=%.3f s %.0f muestras/s (x%.0f tiempo real)%n",
+            muestras, duracionTrazaMs / 1000.0, tiempoRealNs / 1e9,
+            obtenerMuestrasPorSegundo(), obtenerFactorTiempoReal()));
+        return texto.toString();
+    }
+
+    @Override
+    public String toString() {
+        return formatear();
+    }
+
+    private static final class Contadores {
+        long detecciones;
+        long notificadas;
+    }
+}
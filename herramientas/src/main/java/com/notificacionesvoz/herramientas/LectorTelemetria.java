@@ -0,0 +1,248 @@
+package com.notificacionesvoz.herramientas;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lector en flujo de trazas de telemetría grabadas
+ *
+ * Formato: CSV con una muestra por línea y las columnas
+ * <pre>marca_tiempo_ms,velocidad_kmh,limite_kmh,aceleracion_longitudinal,aceleracion_lateral</pre>
+ * La primera línea puede ser la cabecera y las que empiezan por '#' son comentarios.
+ * Las aceleraciones van en m/s² (longitudinal negativa al frenar) y un límite 0 indica
+ * que no se conoce. Las marcas de tiempo no pueden retroceder.
+ *
+ * Lee por bloques y convierte los números directamente desde los bytes, sin crear
+ * un String por línea ni por campo, para que el coste lo ponga el análisis y no el
+ * formato de entrada.
+ */
+public class LectorTelemetria implements Closeable {
+
+    public static final String CABECERA =
+        "marca_tiempo_ms,velocidad_kmh,limite_kmh,aceleracion_longitudinal,aceleracion_lateral";
+    public static final int NUMERO_COLUMNAS = 5;
+
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+    private static final double[] POTENCIAS_DIEZ = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9
+    };
+
+    private final InputStream entrada;
+    private final byte[] bloque = new byte[TAMANO_BLOQUE];
+    private int posicionBloque;
+    private int finBloque;
+
+    private byte[] linea = new byte[256];
+    private int longitudLinea;
+    private long numeroLinea;
+    private final int[] iniciosCampo = new int[NUMERO_COLUMNAS];
+    private final int[] finesCampo = new int[NUMERO_COLUMNAS];
+
+    private boolean hayDatos = false;
+    private long ultimaMarcaTiempoMs = Long.MIN_VALUE;
+
+    public LectorTelemetria(@NonNull File archivo) throws IOException {
+        this(new FileInputStream(archivo));
+    }
+
+    /**
+     * @param entrada Flujo con el CSV; el lector lo cierra en {@link #close()}
+     */
+    public LectorTelemetria(@NonNull InputStream entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * Lee el siguiente lote de muestras
+     * @param lote Lote a rellenar; se vacía antes de leer
+     * @return Número de muestras leídas; 0 al llegar al final de la traza
+     * @throws IOException si falla la lectura o una línea no tiene el formato esperado
+     */
+    public int leer(@NonNull LoteTelemetria lote) throws IOException {
+        lote.vaciar();
+        while (!lote.estaLleno() && leerLinea()) {
+            numeroLinea++;
+            if (longitudLinea == 0 || linea[0] == '#') {
+                continue;
+            }
+            if (!hayDatos && esCabecera()) {
+                hayDatos = true;
+                continue;
+            }
+            hayDatos = true;
+            separarCampos();
+            long marcaTiempoMs = analizarEntero(0);
+            if (marcaTiempoMs < ultimaMarcaTiempoMs) {
+                throw errorFormato("la marca de tiempo retrocede");
+            }
+            ultimaMarcaTiempoMs = marcaTiempoMs;
+            lote.agregar(marcaTiempoMs,
+                (int) Math.round(analizarDecimal(1)),
+                (int) Math.round(analizarDecimal(2)),
+                (float) analizarDecimal(3),
+                (float) analizarDecimal(4));
+        }
+        return lote.obtenerCantidad();
+    }
+
+    /**
+     * Número de la última línea leída (empezando en 1), para mensajes de error
+     */
+    public long obtenerNumeroLinea() {
+        return numeroLinea;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    /**
+     * Copia la siguiente línea (sin '\n' ni '\r' final) en el buffer de línea
+     * @return false al final del flujo sin más datos
+     */
+    private boolean leerLinea() throws IOException {
+        longitudLinea = 0;
+        boolean leido = false;
+        while (true) {
+            if (posicionBloque == finBloque) {
+                finBloque = entrada.read(bloque, 0, bloque.length);
+                posicionBloque = 0;
+                if (finBloque <= 0) {
+                    finBloque = 0;
+                    return leido;
+                }
+            }
+            leido = true;
+            byte b = bloque[posicionBloque++];
+            if (b == '\n') {
+                break;
+            }
+            if (longitudLinea == linea.length) {
+                byte[] mayor = new byte[linea.length * 2];
+                System.arraycopy(linea, 0, mayor, 0, longitudLinea);
+                linea = mayor;
+            }
+            linea[longitudLinea++] = b;
+        }
+        if (longitudLinea > 0 && linea[longitudLinea - 1] == '\r') {
+            longitudLinea--;
+        }
+        return true;
+    }
+
+    private boolean esCabecera() {
+        byte primero = linea[0];
+        return (primero >= 'a' && primero <= 'z') || (primero >= 'A' && primero <= 'Z');
+    }
+
+    private void separarCampos() throws IOException {
+        int campo = 0;
+        iniciosCampo[0] = 0;
+        for (int i = 0; i < longitudLinea; i++) {
+            if (linea[i] == ',') {
+                if (campo == NUMERO_COLUMNAS - 1) {
+                    throw errorFormato("se esperaban " + NUMERO_COLUMNAS + " columnas");
+                }
+                finesCampo[campo++] = i;
+                iniciosCampo[campo] = i + 1;
+            }
+        }
+        if (campo != NUMERO_COLUMNAS - 1) {
+            throw errorFormato("se esperaban " + NUMERO_COLUMNAS + " columnas");
+        }
+        finesCampo[campo] = longitudLinea;
+    }
+
+    private long analizarEntero(int campo) throws IOException {
+        int inicio = saltarEspacios(iniciosCampo[campo], finesCampo[campo]);
+        int fin = recortarEspacios(inicio, finesCampo[campo]);
+        boolean negativo = inicio < fin && linea[inicio] == '-';
+        int i = negativo ? inicio + 1 : inicio;
+        if (i == fin) {
+            throw errorFormato("columna " + (campo + 1) + " vacía");
+        }
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = linea[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw errorFormato("columna " + (campo + 1) + " no es un entero");
+            }
+            valor = valor * 10 + digito;
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Convierte un decimal simple (signo, dígitos y punto). Lo que no encaja en esa
+     * forma, como la notación exponencial, pasa por Double.parseDouble.
+     */
+    private double analizarDecimal(int campo) throws IOException {
+        int inicio = saltarEspacios(iniciosCampo[campo], finesCampo[campo]);
+        int fin = recortarEspacios(inicio, finesCampo[campo]);
+        if (inicio == fin) {
+            throw errorFormato("columna " + (campo + 1) + " vacía");
+        }
+        int i = inicio;
+        boolean negativo = linea[i] == '-';
+        if (negativo || linea[i] == '+') {
+            i++;
+        }
+        long mantisa = 0;
+        int decimales = 0;
+        int digitos = 0;
+        boolean punto = false;
+        for (; i < fin; i++) {
+            byte b = linea[i];
+            if (b == '.' && !punto) {
+                punto = true;
+            } else if (b >= '0' && b <= '9' && digitos < 18) {
+                mantisa = mantisa * 10 + (b - '0');
+                digitos++;
+                if (punto) {
+                    decimales++;
+                }
+            } else {
+                return analizarDecimalLento(campo, inicio, fin);
+            }
+        }
+        if (digitos == 0) {
+            throw errorFormato("columna " + (campo + 1) + " no es un número");
+        }
+        double valor = decimales < POTENCIAS_DIEZ.length
+            ? mantisa / POTENCIAS_DIEZ[decimales] : mantisa / Math.pow(10, decimales);
+        return negativo ? -valor : valor;
+    }
+
+    private double analizarDecimalLento(int campo, int inicio, int fin) throws IOException {
+        try {
+            return Double.parseDouble(new String(linea, inicio, fin - inicio, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException excepcion) {
+            throw errorFormato("columna " + (campo + 1) + " no es un número");
+        }
+    }
+
+    private int saltarEspacios(int inicio, int fin) {
+        while (inicio < fin && linea[inicio] == ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    private int recortarEspacios(int inicio, int fin) {
+        while (fin > inicio && linea[fin - 1] == ' ') {
+            fin--;
+        }
+        return fin;
+    }
+
+    private IOException errorFormato(String detalle) {
+        return new IOException("Línea " + numeroLinea + ": " + detalle);
+    }
+}
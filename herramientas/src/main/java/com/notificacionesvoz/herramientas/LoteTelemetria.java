@@ -0,0 +1,83 @@
+package com.notificacionesvoz.herramientas;
+
+/**
+ * Lote de muestras de telemetría en arrays paralelos
+ *
+ * Se reutiliza entre lecturas: {@link LectorTelemetria#leer(LoteTelemetria)} lo vacía y
+ * lo vuelve a llenar, así que recorrer una traza larga no reserva memoria por muestra.
+ */
+public final class LoteTelemetria {
+
+    private final long[] marcasTiempoMs;
+    private final int[] velocidadesKmh;
+    private final int[] limitesKmh;
+    private final float[] aceleracionesLongitudinales;
+    private final float[] aceleracionesLaterales;
+    private int cantidad;
+
+    /**
+     * @param capacidad Número máximo de muestras por lote
+     */
+    public LoteTelemetria(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad del lote debe ser mayor que 0");
+        }
+        this.marcasTiempoMs = new long[capacidad];
+        this.velocidadesKmh = new int[capacidad];
+        this.limitesKmh = new int[capacidad];
+        this.aceleracionesLongitudinales = new float[capacidad];
+        this.aceleracionesLaterales = new float[capacidad];
+    }
+
+    void vaciar() {
+        cantidad = 0;
+    }
+
+    boolean estaLleno() {
+        return cantidad == marcasTiempoMs.length;
+    }
+
+    void agregar(long marcaTiempoMs, int velocidadKmh, int limiteKmh,
+                 float aceleracionLongitudinal, float aceleracionLateral) {
+        marcasTiempoMs[cantidad] = marcaTiempoMs;
+        velocidadesKmh[cantidad] = velocidadKmh;
+        limitesKmh[cantidad] = limiteKmh;
+        aceleracionesLongitudinales[cantidad] = aceleracionLongitudinal;
+        aceleracionesLaterales[cantidad] = aceleracionLateral;
+        cantidad++;
+    }
+
+    /**
+     * Número de muestras válidas; los arrays pueden ser más largos
+     */
+    public int obtenerCantidad() {
+        return cantidad;
+    }
+
+    public int obtenerCapacidad() {
+        return marcasTiempoMs.length;
+    }
+
+    public long[] obtenerMarcasTiempoMs() {
+        return marcasTiempoMs;
+    }
+
+    public int[] obtenerVelocidadesKmh() {
+        return velocidadesKmh;
+    }
+
+    /**
+     * Límite de la vía en km/h; 0 o negativo si no se conoce
+     */
+    public int[] obtenerLimitesKmh() {
+        return limitesKmh;
+    }
+
+    public float[] obtenerAceleracionesLongitudinales() {
+        return aceleracionesLongitudinales;
+    }
+
+    public float[] obtenerAceleracionesLaterales() {
+        return aceleracionesLaterales;
+    }
+}
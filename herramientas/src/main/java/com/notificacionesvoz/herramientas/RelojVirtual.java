@@ -0,0 +1,37 @@
+package com.notificacionesvoz.herramientas;
+
+import com.notificacionesvoz.utilidades.Reloj;
+
+/**
+ * Reloj que solo avanza cuando se le indica
+ *
+ * Durante una reproducción marca el instante de la muestra en curso, de modo que el
+ * limitador mide los enfriamientos en tiempo de la traza y no en tiempo real.
+ * No es thread-safe: la reproducción ocurre en un único hilo.
+ */
+public class RelojVirtual implements Reloj {
+
+    private long ahoraMs;
+
+    public RelojVirtual() {
+        this(0L);
+    }
+
+    public RelojVirtual(long inicioMs) {
+        this.ahoraMs = inicioMs;
+    }
+
+    /**
+     * Avanza hasta un instante; si es anterior al actual el reloj no se mueve (monotónico)
+     */
+    public void avanzarHasta(long instanteMs) {
+        if (instanteMs > ahoraMs) {
+            ahoraMs = instanteMs;
+        }
+    }
+
+    @Override
+    public long ahoraMs() {
+        return ahoraMs;
+    }
+}
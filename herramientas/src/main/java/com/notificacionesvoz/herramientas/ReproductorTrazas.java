@@ -0,0 +1,222 @@
+package com.notificacionesvoz.herramientas;
+
+import androidx.annotation.NonNull;
+
+import com.notificacionesvoz.utilidades.AnalizadorComportamientoConductor;
+import com.notificacionesvoz.utilidades.AnalizadorFlujoAceleracion;
+import com.notificacionesvoz.utilidades.LimitadorNotificaciones;
+import com.notificacionesvoz.utilidades.PresupuestoNotificaciones;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reproduce trazas de telemetría grabadas a través del analizador y el limitador
+ *
+ * Cada muestra se evalúa en orden con un {@link RelojVirtual} que marca el instante de
+ * la muestra, así que los enfriamientos del limitador se cumplen en tiempo de la traza
+ * y el resultado es el mismo en cada ejecución, vaya la CPU a la velocidad que vaya.
+ * Sirve para ajustar umbrales y enfriamientos con viajes reales en lugar de con los
+ * eventos de ejemplo de la app de demostración.
+ *
+ * Las maniobras se detectan con {@link AnalizadorFlujoAceleracion} (filtro, histéresis
+ * y duración mínima, igual que en el dispositivo). El exceso de velocidad cuenta una
+ * detección cada vez que la velocidad pasa a superar el límite más el umbral.
+ *
+ * Uso desde línea de comandos:
+ * <pre>
+ * ./gradlew :herramientas:run --args="[opciones] traza.csv [traza2.csv ...]"
+ *   --umbral-velocidad=KMH      km/h sobre el límite
+ *   --umbral-frenada=MS2        m/s² (negativo)
+ *   --umbral-aceleracion=MS2
+ *   --umbral-giro=MS2
+ *   --enfriamiento-ms=MS        enfriamiento por categoría del limitador
+ *   --maximo-global=N           presupuesto global (junto con --ventana-global-ms)
+ *   --ventana-global-ms=MS
+ *   --duracion-minima-ms=MS     duración mínima de una maniobra
+ *   --ventana-filtro=N          muestras del filtro paso bajo
+ * </pre>
+ * El formato de las trazas se describe en {@link LectorTelemetria}.
+ */
+public class ReproductorTrazas {
+
+    public static final long ENFRIAMIENTO_PREDETERMINADO_MS = 30_000;
+    public static final int TAMANO_LOTE = 4096;
+
+    private final AnalizadorComportamientoConductor analizador;
+    private final long enfriamientoMs;
+    private final int maximoGlobal;
+    private final long ventanaGlobalMs;
+    private final int ventanaFiltro;
+    private final long duracionMinimaMs;
+
+    public ReproductorTrazas(@NonNull AnalizadorComportamientoConductor analizador, long enfriamientoMs) {
+        this(analizador, enfriamientoMs, 0, 0,
+            AnalizadorFlujoAceleracion.VENTANA_FILTRO_PREDETERMINADA,
+            AnalizadorFlujoAceleracion.DURACION_MINIMA_PREDETERMINADA_MS);
+    }
+
+    /**
+     * Constructor
+     * @param analizador Analizador con los umbrales a evaluar
+     * @param enfriamientoMs Enfriamiento por categoría del limitador
+     * @param maximoGlobal Notificaciones por ventana del presupuesto global, o 0 para no aplicarlo
+     * @param ventanaGlobalMs Ventana del presupuesto global
+     * @param ventanaFiltro Muestras del filtro paso bajo del análisis en flujo
+     * @param duracionMinimaMs Duración mínima de una maniobra para detectarla
+     */
+    public ReproductorTrazas(@NonNull AnalizadorComportamientoConductor analizador, long enfriamientoMs,
+                             int maximoGlobal, long ventanaGlobalMs, int ventanaFiltro, long duracionMinimaMs) {
+        if (enfriamientoMs < 0) {
+            throw new IllegalArgumentException("El enfriamiento no puede ser negativo");
+        }
+        if (maximoGlobal < 0) {
+            throw new IllegalArgumentException("El máximo global no puede ser negativo");
+        }
+        this.analizador = analizador;
+        this.enfriamientoMs = enfriamientoMs;
+        this.maximoGlobal = maximoGlobal;
+        this.ventanaGlobalMs = ventanaGlobalMs;
+        this.ventanaFiltro = ventanaFiltro;
+        this.duracionMinimaMs = duracionMinimaMs;
+    }
+
+    /**
+     * Reproduce una traza completa con un limitador y un análisis en flujo nuevos
+     * @throws IOException si la traza no se puede leer o tiene un formato incorrecto
+     */
+    @NonNull
+    public InformeReproduccion reproducir(@NonNull LectorTelemetria lector) throws IOException {
+        RelojVirtual reloj = new RelojVirtual(Long.MIN_VALUE);
+        PresupuestoNotificaciones presupuesto = maximoGlobal > 0
+            ? new PresupuestoNotificaciones(maximoGlobal, ventanaGlobalMs) : null;
+        LimitadorNotificaciones limitador = new LimitadorNotificaciones(enfriamientoMs, presupuesto, reloj);
+        AnalizadorFlujoAceleracion flujo = new AnalizadorFlujoAceleracion(analizador, ventanaFiltro,
+            duracionMinimaMs, AnalizadorFlujoAceleracion.FACTOR_HISTERESIS_PREDETERMINADO);
+        InformeReproduccion informe = new InformeReproduccion();
+        // El reloj ya marca la muestra en curso cuando el análisis confirma la maniobra
+        AnalizadorFlujoAceleracion.EscuchadorManiobras escuchador = (categoria, marcaTiempoNs, valorPico) ->
+            informe.registrarDeteccion(categoria, limitador.intentarNotificar(categoria));
+
+        LoteTelemetria lote = new LoteTelemetria(TAMANO_LOTE);
+        long primeraMarcaMs = 0;
+        long ultimaMarcaMs = 0;
+        long muestras = 0;
+        boolean enExceso = false;
+        long inicioNs = System.nanoTime();
+
+        int cantidad;
+        while ((cantidad = lector.leer(lote)) > 0) {
+            long[] marcasMs = lote.obtenerMarcasTiempoMs();
+            int[] velocidades = lote.obtenerVelocidadesKmh();
+            int[] limites = lote.obtenerLimitesKmh();
+            float[] longitudinales = lote.obtenerAceleracionesLongitudinales();
+            float[] laterales = lote.obtenerAceleracionesLaterales();
+            if (muestras == 0) {
+                primeraMarcaMs = marcasMs[0];
+            }
+            for (int i = 0; i < cantidad; i++) {
+                reloj.avanzarHasta(marcasMs[i]);
+                boolean exceso = limites[i] > 0 && analizador.esExcesoVelocidad(velocidades[i], limites[i]);
+                if (exceso && !enExceso) {
+                    String categoria = AnalizadorComportamientoConductor.CATEGORIA_EXCESO_VELOCIDAD;
+                    informe.registrarDeteccion(categoria, limitador.intentarNotificar(categoria));
+                }
+                enExceso = exceso;
+                flujo.procesar(marcasMs[i] * 1_000_000L, longitudinales[i], laterales[i], escuchador);
+            }
+            ultimaMarcaMs = marcasMs[cantidad - 1];
+            muestras += cantidad;
+        }
+
+        informe.registrarTraza(muestras, ultimaMarcaMs - primeraMarcaMs, System.nanoTime() - inicioNs);
+        return informe;
+    }
+
+    public static void main(String[] argumentos) {
+        AnalizadorComportamientoConductor analizador = new AnalizadorComportamientoConductor();
+        long enfriamientoMs = ENFRIAMIENTO_PREDETERMINADO_MS;
+        int maximoGlobal = 0;
+        long ventanaGlobalMs = 0;
+        int ventanaFiltro = AnalizadorFlujoAceleracion.VENTANA_FILTRO_PREDETERMINADA;
+        long duracionMinimaMs = AnalizadorFlujoAceleracion.DURACION_MINIMA_PREDETERMINADA_MS;
+        List<File> trazas = new ArrayList<>();
+
+        ReproductorTrazas reproductor;
+        try {
+            for (String argumento : argumentos) {
+                if (!argumento.startsWith("--")) {
+                    trazas.add(new File(argumento));
+                    continue;
+                }
+                int igual = argumento.indexOf('=');
+                if (igual < 0) {
+                    throw new IllegalArgumentException("Falta el valor de " + argumento);
+                }
+                String opcion = argumento.substring(2, igual);
+                String valor = argumento.substring(igual + 1);
+                switch (opcion) {
+                    case "umbral-velocidad":
+                        analizador.establecerUmbralVelocidad(Integer.parseInt(valor));
+                        break;
+                    case "umbral-frenada":
+                        analizador.establecerUmbralFrenadaBrusca(Float.parseFloat(valor));
+                        break;
+                    case "umbral-aceleracion":
+                        analizador.establecerUmbralAceleracionBrusca(Float.parseFloat(valor));
+                        break;
+                    case "umbral-giro":
+                        analizador.establecerUmbralGiroBrusco(Float.parseFloat(valor));
+                        break;
+                    case "enfriamiento-ms":
+                        enfriamientoMs = Long.parseLong(valor);
+                        break;
+                    case "maximo-global":
+                        maximoGlobal = Integer.parseInt(valor);
+                        break;
+                    case "ventana-global-ms":
+                        ventanaGlobalMs = Long.parseLong(valor);
+                        break;
+                    case "ventana-filtro":
+                        ventanaFiltro = Integer.parseInt(valor);
+                        break;
+                    case "duracion-minima-ms":
+                        duracionMinimaMs = Long.parseLong(valor);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + opcion);
+                }
+            }
+            if (trazas.isEmpty()) {
+                throw new IllegalArgumentException("No se indicó ninguna traza");
+            }
+            reproductor = new ReproductorTrazas(analizador, enfriamientoMs, maximoGlobal,
+                ventanaGlobalMs, ventanaFiltro, duracionMinimaMs);
+        } catch (IllegalArgumentException excepcion) {
+            // NumberFormatException también llega aquí
+            System.err.println(excepcion.getMessage());
+            System.err.println("Uso: ReproductorTrazas [--opcion=valor ...] traza.csv [traza2.csv ...]");
+            System.exit(2);
+            return;
+        }
+
+        InformeReproduccion total = new InformeReproduccion();
+        for (File traza : trazas) {
+            try (LectorTelemetria lector = new LectorTelemetria(traza)) {
+                InformeReproduccion informe = reproductor.reproducir(lector);
+                System.out.println("== " + traza.getName());
+                System.out.print(informe.formatear());
+                total.acumular(informe);
+            } catch (IOException excepcion) {
+                System.err.println(traza + ": " + excepcion.getMessage());
+                System.exit(1);
+            }
+        }
+        if (trazas.size() > 1) {
+            System.out.println("== total");
+            System.out.print(total.formatear());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.notificacionesvoz.herramientas;
+
+import com.notificacionesvoz.utilidades.AnalizadorComportamientoConductor;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para ReproductorTrazas y LectorTelemetria
+ */
+public class ReproductorTrazasTest {
+
+    private static LectorTelemetria lector(String csv) {
+        return new LectorTelemetria(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Traza a 10 Hz: tres tramos de exceso de velocidad separados 5 s y una frenada de 1 s
+     */
+    private static String traza() {
+        StringBuilder csv = new StringBuilder(LectorTelemetria.CABECERA).append('\n');
+        for (int i = 0; i < 200; i++) {
+            long ms = i * 100L;
+            int segundo = i / 10;
+            boolean exceso = segundo == 2 || segundo == 7 || segundo == 12;
+            float longitudinal = segundo == 15 ? -9.5f : 0.2f;
+            csv.append(ms).append(',').append(exceso ? "95.5" : "70").append(",80,")
+                .append(longitudinal).append(",0.1\r\n");
+        }
+        return csv.toString();
+    }
+
+    @Test
+    public void testReproducir_enfriamientoEnTiempoDeTraza() throws IOException {
+        ReproductorTrazas reproductor = new ReproductorTrazas(new AnalizadorComportamientoConductor(), 8_000);
+
+        InformeReproduccion informe = reproductor.reproducir(lector(traza()));
+
+        String exceso = AnalizadorComportamientoConductor.CATEGORIA_EXCESO_VELOCIDAD;
+        assertEquals(3, informe.obtenerDetecciones(exceso));
+        // 2 s -> notifica, 7 s -> en enfriamiento, 12 s -> notifica
+        assertEquals(2, informe.obtenerNotificadas(exceso));
+        assertEquals(1, informe.obtenerSuprimidas(exceso));
+        assertEquals(1, informe.obtenerDetecciones(AnalizadorComportamientoConductor.CATEGORIA_FRENADA_BRUSCA));
+        assertEquals(200, informe.obtenerMuestras());
+        assertEquals(19_900, informe.obtenerDuracionTrazaMs());
+    }
+
+    @Test
+    public void testReproducir_umbralMasAlto_sinDetecciones() throws IOException {
+        AnalizadorComportamientoConductor analizador = new AnalizadorComportamientoConductor();
+        analizador.establecerUmbralVelocidad(20);
+
+        InformeReproduccion informe = new ReproductorTrazas(analizador, 0).reproducir(lector(traza()));
+
+        assertEquals(0, informe.obtenerDetecciones(AnalizadorComportamientoConductor.CATEGORIA_EXCESO_VELOCIDAD));
+    }
+
+    @Test
+    public void testLeer_comentariosYDecimales() throws IOException {
+        LoteTelemetria lote = new LoteTelemetria(8);
+        try (LectorTelemetria lector = lector("# viaje de prueba\n1000, 50.4 ,0,-1.25,3e-1\n\n1010,51,60,+2,-.5")) {
+            assertEquals(2, lector.leer(lote));
+            assertEquals(0, lector.leer(lote));
+        }
+        assertEquals(1000, lote.obtenerMarcasTiempoMs()[0]);
+        assertEquals(50, lote.obtenerVelocidadesKmh()[0]);
+        assertEquals(-1.25f, lote.obtenerAceleracionesLongitudinales()[0], 0f);
+        assertEquals(0.3f, lote.obtenerAceleracionesLaterales()[0], 1e-6f);
+        assertEquals(60, lote.obtenerLimitesKmh()[1]);
+        assertEquals(-0.5f, lote.obtenerAceleracionesLaterales()[1], 0f);
+    }
+
+    @Test
+    public void testLeer_marcaQueRetrocede_lanzaExcepcionConLinea() {
+        try (LectorTelemetria lector = lector("2000,50,0,0,0\n1000,50,0,0,0\n")) {
+            lector.leer(new LoteTelemetria(8));
+            fail("Se esperaba IOException");
+        } catch (IOException excepcion) {
+            assertTrue(excepcion.getMessage().startsWith("Línea 2"));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.notificacionesvoz.datos.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Caché en disco de audio sintetizado para mensajes repetidos
+ *
+ * Cada archivo se identifica por texto, idioma, velocidad y tono, de modo que un
+ * cambio de configuración nunca reproduce audio obsoleto. Las entradas se
+ * desalojan por LRU cuando el tamaño total supera el presupuesto.
+ * Todas las operaciones son thread-safe.
+ */
+public class CacheAudioNotificaciones {
+
+    private static final String EXTENSION = ".wav";
+    private static final String EXTENSION_TEMPORAL = ".tmp";
+
+    private final File directorio;
+    private final long presupuestoBytes;
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long tamanoTotal = 0;
+
+    /**
+     * Constructor. Recupera las entradas que ya existan en el directorio.
+     * @param directorio Directorio donde se guardan los archivos de audio
+     * @param presupuestoBytes Tamaño máximo total de la caché en bytes
+     */
+    public CacheAudioNotificaciones(@NonNull File directorio, long presupuestoBytes) {
+        if (presupuestoBytes <= 0) {
+            throw new IllegalArgumentException("El presupuesto debe ser mayor que 0");
+        }
+        this.directorio = directorio;
+        this.presupuestoBytes = presupuestoBytes;
+        cargarExistentes();
+    }
+
+    /**
+     * Calcula la clave de caché para un mensaje con una configuración de voz
+     */
+    @NonNull
+    public static String calcularClave(@NonNull String texto, @NonNull Locale idioma,
+                                       float velocidadVoz, float tonoVoz) {
+        // FNV-1a de 64 bits: suficiente para unos cientos de mensajes y apto como nombre de archivo
+        long hash = 0xcbf29ce484222325L;
+        hash = mezclar(hash, idioma.toLanguageTag());
+        hash = mezclar(hash, Float.floatToIntBits(velocidadVoz));
+        hash = mezclar(hash, Float.floatToIntBits(tonoVoz));
+        hash = mezclar(hash, texto);
+        return "audio_" + Long.toHexString(hash);
+    }
+
+    /**
+     * Obtiene el archivo de audio de una clave y lo marca como usado recientemente.
+     * No comprueba que siga en disco: si alguien lo borró, el motor falla al
+     * reproducirlo y la entrada se retira con {@link #eliminar(String)}.
+     * @return El archivo, o null si no está en caché
+     */
+    @Nullable
+    public synchronized File obtener(@NonNull String clave) {
+        Entrada entrada = entradas.get(clave);
+        return entrada != null ? entrada.archivo : null;
+    }
+
+    /**
+     * Retira una entrada y borra su archivo, p. ej. cuando el motor no pudo reproducirlo
+     * @return true si la clave estaba en caché
+     */
+    public synchronized boolean eliminar(@NonNull String clave) {
+        Entrada entrada = entradas.remove(clave);
+        if (entrada == null) {
+            return false;
+        }
+        tamanoTotal -= entrada.tamano;
+        entrada.archivo.delete();
+        return true;
+    }
+
+    /**
+     * Obtiene el archivo temporal donde sintetizar el audio de una clave
+     */
+    @NonNull
+    public File obtenerArchivoTemporal(@NonNull String clave) {
+        if (!directorio.exists()) {
+            directorio.mkdirs();
+        }
+        return new File(directorio, clave + EXTENSION_TEMPORAL);
+    }
+
+    /**
+     * Incorpora a la caché el audio ya sintetizado en el archivo temporal
+     * @return El archivo definitivo, o null si el temporal no es válido
+     */
+    @Nullable
+    public synchronized File confirmar(@NonNull String clave) {
+        File temporal = new File(directorio, clave + EXTENSION_TEMPORAL);
+        File definitivo = new File(directorio, clave + EXTENSION);
+        if (!temporal.exists() || temporal.length() == 0 || !temporal.renameTo(definitivo)) {
+            temporal.delete();
+            return null;
+        }
+
+        Entrada nueva = new Entrada(definitivo);
+        Entrada anterior = entradas.put(clave, nueva);
+        if (anterior != null) {
+            tamanoTotal -= anterior.tamano;
+        }
+        tamanoTotal += nueva.tamano;
+        desalojarExcedente();
+        return entradas.containsKey(clave) ? definitivo : null;
+    }
+
+    /**
+     * Descarta el archivo temporal de una síntesis fallida
+     */
+    public void descartarTemporal(@NonNull String clave) {
+        new File(directorio, clave + EXTENSION_TEMPORAL).delete();
+    }
+
+    /**
+     * Obtiene una copia de las entradas actuales (clave → archivo)
+     */
+    @NonNull
+    public synchronized Map<String, File> obtenerEntradas() {
+        LinkedHashMap<String, File> copia = new LinkedHashMap<>();
+        for (Map.Entry<String, Entrada> entrada : entradas.entrySet()) {
+            copia.put(entrada.getKey(), entrada.getValue().archivo);
+        }
+        return copia;
+    }
+
+    /**
+     * Elimina todas las entradas y sus archivos
+     */
+    public synchronized void limpiar() {
+        for (Entrada entrada : entradas.values()) {
+            entrada.archivo.delete();
+        }
+        entradas.clear();
+        tamanoTotal = 0;
+    }
+
+    public synchronized long obtenerTamanoTotal() {
+        return tamanoTotal;
+    }
+
+    public synchronized int obtenerNumeroEntradas() {
+        return entradas.size();
+    }
+
+    public long obtenerPresupuestoBytes() {
+        return presupuestoBytes;
+    }
+
+    private void desalojarExcedente() {
+        Iterator<Entrada> iterador = entradas.values().iterator();
+        while (tamanoTotal > presupuestoBytes && iterador.hasNext()) {
+            Entrada entrada = iterador.next();
+            tamanoTotal -= entrada.tamano;
+            entrada.archivo.delete();
+            iterador.remove();
+        }
+    }
+
+    private void cargarExistentes() {
+        File[] archivos = directorio.listFiles();
+        if (archivos == null) {
+            return;
+        }
+
+        List<File> validos = new ArrayList<>();
+        for (File archivo : archivos) {
+            String nombre = archivo.getName();
+            if (nombre.endsWith(EXTENSION_TEMPORAL)) {
+                archivo.delete();
+            } else if (nombre.endsWith(EXTENSION)) {
+                validos.add(archivo);
+            }
+        }
+
+        // El más antiguo primero, para conservar el orden LRU entre ejecuciones
+        File[] ordenados = validos.toArray(new File[0]);
+        Arrays.sort(ordenados, Comparator.comparingLong(File::lastModified));
+        for (File archivo : ordenados) {
+            String nombre = archivo.getName();
+            Entrada entrada = new Entrada(archivo);
+            entradas.put(nombre.substring(0, nombre.length() - EXTENSION.length()), entrada);
+            tamanoTotal += entrada.tamano;
+        }
+        desalojarExcedente();
+    }
+
+    private static long mezclar(long hash, String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            hash = mezclar(hash, valor.charAt(i));
+        }
+        return mezclar(hash, 0);
+    }
+
+    private static long mezclar(long hash, int valor) {
+        hash ^= valor;
+        return hash * 0x100000001b3L;
+    }
+
+    /**
+     * Archivo de una entrada con el tamaño que se le contó al incorporarlo, que es
+     * el que se descuenta al retirarlo aunque el archivo ya no exista
+     */
+    private static final class Entrada {
+        final File archivo;
+        final long tamano;
+
+        Entrada(@NonNull File archivo) {
+            this.archivo = archivo;
+            this.tamano = archivo.length();
+        }
+    }
+}
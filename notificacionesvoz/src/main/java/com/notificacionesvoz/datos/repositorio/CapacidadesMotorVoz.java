@@ -0,0 +1,120 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.Voice;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de lo que ofrece el motor de voz: disponibilidad de cada idioma y voces
+ *
+ * Consultar al motor (isLanguageAvailable, getVoices) puede tardar porque el motor
+ * revisa sus datos de voz; aquí cada idioma se consulta una sola vez y la lista de
+ * voces se obtiene al crear la caché, justo tras inicializar el motor.
+ * Todas las operaciones son thread-safe.
+ */
+public class CapacidadesMotorVoz {
+
+    private final SondaMotor sonda;
+    private final ConcurrentHashMap<Locale, Integer> disponibilidades = new ConcurrentHashMap<>();
+    private final List<Voice> voces;
+
+    CapacidadesMotorVoz(@NonNull SondaMotor sonda, @NonNull Locale... idiomas) {
+        this.sonda = sonda;
+        Set<Voice> disponibles = sonda.obtenerVoces();
+        this.voces = disponibles != null
+            ? Collections.unmodifiableList(new ArrayList<>(disponibles))
+            : Collections.emptyList();
+        for (Locale idioma : idiomas) {
+            obtenerDisponibilidad(idioma);
+        }
+    }
+
+    /**
+     * Sondea un motor ya inicializado
+     * @param idiomas Idiomas que se consultan desde el principio (p. ej. el configurado y el del sistema)
+     */
+    @NonNull
+    static CapacidadesMotorVoz sondear(@NonNull TextToSpeech motor, @NonNull Locale... idiomas) {
+        return new CapacidadesMotorVoz(new SondaMotor() {
+            @Override
+            public int comprobarIdioma(@NonNull Locale idioma) {
+                return motor.isLanguageAvailable(idioma);
+            }
+
+            @Nullable
+            @Override
+            public Set<Voice> obtenerVoces() {
+                return motor.getVoices();
+            }
+        }, idiomas);
+    }
+
+    /**
+     * Resultado de isLanguageAvailable para el idioma (LANG_*), consultado una sola vez
+     */
+    public int obtenerDisponibilidad(@NonNull Locale idioma) {
+        Integer disponibilidad = disponibilidades.get(idioma);
+        if (disponibilidad == null) {
+            disponibilidad = sonda.comprobarIdioma(idioma);
+            disponibilidades.putIfAbsent(idioma, disponibilidad);
+        }
+        return disponibilidad;
+    }
+
+    /**
+     * Indica si el motor tiene datos para el idioma
+     */
+    public boolean estaIdiomaDisponible(@NonNull Locale idioma) {
+        return obtenerDisponibilidad(idioma) >= TextToSpeech.LANG_AVAILABLE;
+    }
+
+    /**
+     * Corrige la disponibilidad guardada con la que ha devuelto el motor (p. ej. setLanguage)
+     */
+    void registrarDisponibilidad(@NonNull Locale idioma, int disponibilidad) {
+        disponibilidades.put(idioma, disponibilidad);
+    }
+
+    /**
+     * Voces del motor al inicializarse
+     */
+    @NonNull
+    public List<Voice> obtenerVoces() {
+        return voces;
+    }
+
+    /**
+     * Voces del motor para un idioma (mismo idioma; el país solo si el idioma indicado lo tiene)
+     */
+    @NonNull
+    public List<Voice> obtenerVoces(@NonNull Locale idioma) {
+        List<Voice> resultado = new ArrayList<>();
+        for (Voice voz : voces) {
+            Locale idiomaVoz = voz.getLocale();
+            if (idiomaVoz != null && idiomaVoz.getLanguage().equals(idioma.getLanguage())
+                    && (idioma.getCountry().isEmpty() || idiomaVoz.getCountry().equals(idioma.getCountry()))) {
+                resultado.add(voz);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Consultas al motor; separadas para poder sustituirlas en los tests
+     */
+    interface SondaMotor {
+        int comprobarIdioma(@NonNull Locale idioma);
+
+        @Nullable
+        Set<Voice> obtenerVoces();
+    }
+}
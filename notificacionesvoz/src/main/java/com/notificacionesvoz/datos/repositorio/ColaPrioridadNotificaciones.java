@@ -0,0 +1,188 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Cola acotada de notificaciones ordenada por prioridad
+ *
+ * Mantiene una cola FIFO por cada nivel de {@link NotificacionVoz.Prioridad}.
+ * Cuando la cola está llena, una notificación entrante desplaza a la más antigua
+ * de menor prioridad; si no existe ninguna de menor prioridad, se rechaza.
+ * Todas las operaciones son thread-safe.
+ */
+public class ColaPrioridadNotificaciones {
+
+    private final int capacidad;
+    private final ArrayDeque<ExpresionPendiente>[] colasPorPrioridad;
+    private int profundidad = 0;
+
+    /**
+     * Constructor
+     * @param capacidad Número máximo de notificaciones pendientes
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ColaPrioridadNotificaciones(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que 0");
+        }
+        this.capacidad = capacidad;
+        NotificacionVoz.Prioridad[] prioridades = NotificacionVoz.Prioridad.values();
+        this.colasPorPrioridad = new ArrayDeque[prioridades.length];
+        for (int i = 0; i < prioridades.length; i++) {
+            colasPorPrioridad[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Encola una notificación respetando la capacidad máxima
+     * @param expresion Notificación a encolar
+     * @return La notificación descartada para hacer espacio, la propia notificación
+     *         si fue rechazada, o null si se encoló sin descartar nada
+     */
+    @Nullable
+    public synchronized ExpresionPendiente ofrecer(@NonNull ExpresionPendiente expresion) {
+        int nivel = expresion.obtenerPrioridad().ordinal();
+        ExpresionPendiente descartada = null;
+
+        if (profundidad >= capacidad) {
+            descartada = descartarMenorPrioridadQue(nivel);
+            if (descartada == null) {
+                return expresion;
+            }
+        }
+
+        colasPorPrioridad[nivel].addLast(expresion);
+        profundidad++;
+        return descartada;
+    }
+
+    /**
+     * Retira de la cola una notificación concreta
+     * @param notificacion La misma instancia que se encoló
+     * @return Su expresión, o null si no estaba en la cola
+     */
+    @Nullable
+    public synchronized ExpresionPendiente eliminar(@NonNull NotificacionVoz notificacion) {
+        Iterator<ExpresionPendiente> iterador = colasPorPrioridad[notificacion.obtenerPrioridad().ordinal()].iterator();
+        while (iterador.hasNext()) {
+            ExpresionPendiente expresion = iterador.next();
+            if (expresion.obtenerNotificacion() == notificacion) {
+                iterador.remove();
+                profundidad--;
+                return expresion;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extrae la siguiente notificación a reproducir (mayor prioridad, más antigua primero)
+     * @return La notificación, o null si la cola está vacía
+     */
+    @Nullable
+    public synchronized ExpresionPendiente extraerSiguiente() {
+        for (int i = colasPorPrioridad.length - 1; i >= 0; i--) {
+            ExpresionPendiente expresion = colasPorPrioridad[i].pollFirst();
+            if (expresion != null) {
+                profundidad--;
+                return expresion;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Descarta las notificaciones pendientes con prioridad menor o igual a la indicada
+     * @param prioridad Prioridad máxima a descartar
+     * @return Número de notificaciones descartadas
+     */
+    public int descartarHasta(@NonNull NotificacionVoz.Prioridad prioridad) {
+        return descartarHasta(prioridad, null);
+    }
+
+    /**
+     * Descarta las notificaciones pendientes con prioridad menor o igual a la indicada
+     * @param prioridad Prioridad máxima a descartar
+     * @param destino Colección donde añadir las descartadas, o null para olvidarlas
+     * @return Número de notificaciones descartadas
+     */
+    public synchronized int descartarHasta(@NonNull NotificacionVoz.Prioridad prioridad,
+                                           @Nullable Collection<ExpresionPendiente> destino) {
+        int descartadas = 0;
+        for (int i = 0; i <= prioridad.ordinal(); i++) {
+            descartadas += vaciar(colasPorPrioridad[i], destino);
+        }
+        profundidad -= descartadas;
+        return descartadas;
+    }
+
+    /**
+     * Vacía la cola por completo
+     */
+    public void limpiar() {
+        limpiar(null);
+    }
+
+    /**
+     * Vacía la cola por completo
+     * @param destino Colección donde añadir las descartadas, o null para olvidarlas
+     * @return Número de notificaciones descartadas
+     */
+    public synchronized int limpiar(@Nullable Collection<ExpresionPendiente> destino) {
+        int descartadas = 0;
+        for (ArrayDeque<ExpresionPendiente> cola : colasPorPrioridad) {
+            descartadas += vaciar(cola, destino);
+        }
+        profundidad = 0;
+        return descartadas;
+    }
+
+    /**
+     * Obtiene el número total de notificaciones pendientes
+     */
+    public synchronized int obtenerProfundidad() {
+        return profundidad;
+    }
+
+    /**
+     * Obtiene el número de notificaciones pendientes de una prioridad
+     */
+    public synchronized int obtenerProfundidad(@NonNull NotificacionVoz.Prioridad prioridad) {
+        return colasPorPrioridad[prioridad.ordinal()].size();
+    }
+
+    public int obtenerCapacidad() {
+        return capacidad;
+    }
+
+    public synchronized boolean estaVacia() {
+        return profundidad == 0;
+    }
+
+    private static int vaciar(ArrayDeque<ExpresionPendiente> cola, @Nullable Collection<ExpresionPendiente> destino) {
+        int descartadas = cola.size();
+        if (destino != null) {
+            destino.addAll(cola);
+        }
+        cola.clear();
+        return descartadas;
+    }
+
+    private ExpresionPendiente descartarMenorPrioridadQue(int nivel) {
+        for (int i = 0; i < nivel; i++) {
+            ExpresionPendiente descartada = colasPorPrioridad[i].pollFirst();
+            if (descartada != null) {
+                profundidad--;
+                return descartada;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Notificación aceptada por el repositorio junto con el instante en que se encoló
+ * y, opcionalmente, el receptor de su desenlace
+ *
+ * Cada expresión recibe un identificador único tomado de una secuencia atómica,
+ * que es el que se entrega al motor y vuelve en sus callbacks.
+ */
+public final class ExpresionPendiente {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong();
+
+    private final NotificacionVoz notificacion;
+    private final long instanteEncoladoMs;
+    private final String idExpresion;
+    private long instanteInicioMs;
+    private volatile boolean iniciada;
+    @Nullable
+    private final AtomicReference<RepositorioNotificacionesVoz.EscuchadorResultado> escuchadorResultado;
+
+    public ExpresionPendiente(@NonNull NotificacionVoz notificacion, long instanteEncoladoMs) {
+        this(notificacion, instanteEncoladoMs, null);
+    }
+
+    /**
+     * Constructor
+     * @param notificacion Notificación aceptada
+     * @param instanteEncoladoMs Instante de encolado según el reloj del repositorio
+     * @param escuchadorResultado Receptor del desenlace, o null si no interesa
+     */
+    public ExpresionPendiente(@NonNull NotificacionVoz notificacion, long instanteEncoladoMs,
+                              @Nullable RepositorioNotificacionesVoz.EscuchadorResultado escuchadorResultado) {
+        this.notificacion = notificacion;
+        this.instanteEncoladoMs = instanteEncoladoMs;
+        this.idExpresion = generarIdExpresion(SECUENCIA.incrementAndGet(), notificacion.obtenerCategoria());
+        this.escuchadorResultado = escuchadorResultado != null ? new AtomicReference<>(escuchadorResultado) : null;
+    }
+
+    /**
+     * Construye el identificador: la secuencia primero, para que ninguna categoría
+     * pueda coincidir con otros prefijos reservados del repositorio
+     */
+    @NonNull
+    static String generarIdExpresion(long secuencia, @Nullable String categoria) {
+        return secuencia + "_" + (categoria != null ? categoria : "notificacion");
+    }
+
+    /**
+     * Identificador único de la expresión ante el motor de voz
+     */
+    @NonNull
+    public String obtenerIdExpresion() {
+        return idExpresion;
+    }
+
+    @NonNull
+    public NotificacionVoz obtenerNotificacion() {
+        return notificacion;
+    }
+
+    @NonNull
+    public NotificacionVoz.Prioridad obtenerPrioridad() {
+        return notificacion.obtenerPrioridad();
+    }
+
+    /**
+     * Instante de encolado según el reloj monotónico del repositorio
+     */
+    public long obtenerInstanteEncoladoMs() {
+        return instanteEncoladoMs;
+    }
+
+    /**
+     * Registra el instante en que el motor empezó a reproducirla
+     */
+    public void marcarInicio(long instanteMs) {
+        instanteInicioMs = instanteMs;
+        iniciada = true;
+    }
+
+    public boolean haIniciado() {
+        return iniciada;
+    }
+
+    /**
+     * Instante de inicio de la reproducción; solo es válido si {@link #haIniciado()}
+     */
+    public long obtenerInstanteInicioMs() {
+        return instanteInicioMs;
+    }
+
+    /**
+     * Indica si alguien espera el desenlace de esta expresión
+     */
+    public boolean tieneEscuchadorResultado() {
+        return escuchadorResultado != null && escuchadorResultado.get() != null;
+    }
+
+    /**
+     * Informa al receptor de que la expresión salió de la cola hacia el motor, si aún
+     * no tiene desenlace
+     */
+    public void notificarDespacho() {
+        RepositorioNotificacionesVoz.EscuchadorResultado receptor =
+            escuchadorResultado != null ? escuchadorResultado.get() : null;
+        if (receptor != null) {
+            receptor.alDespachar();
+        }
+    }
+
+    /**
+     * Informa al receptor de que empezó la reproducción, si aún no tiene desenlace
+     */
+    public void notificarInicio() {
+        RepositorioNotificacionesVoz.EscuchadorResultado receptor =
+            escuchadorResultado != null ? escuchadorResultado.get() : null;
+        if (receptor != null) {
+            receptor.alIniciar();
+        }
+    }
+
+    /**
+     * Informa del desenlace al receptor. Solo la primera llamada tiene efecto.
+     * @param completada true si se reprodujo hasta el final
+     */
+    public void notificarResultado(boolean completada) {
+        if (escuchadorResultado == null) {
+            return;
+        }
+        RepositorioNotificacionesVoz.EscuchadorResultado receptor = escuchadorResultado.getAndSet(null);
+        if (receptor != null) {
+            receptor.alFinalizar(completada);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.util.ArrayList;
+
+/**
+ * Base de los motores alternativos que reproducen audio propio (tonos, clips grabados)
+ *
+ * Comparte el comportamiento del motor de voz: cola acotada por prioridad, una
+ * notificación sonando a la vez, las URGENTE interrumpen la actual y cada una
+ * informa de su inicio y su desenlace. Las subclases solo arrancan y liberan el
+ * audio, y avisan con {@link #alTerminarAudio(ExpresionPendiente, boolean)}.
+ *
+ * Los receptores de resultado se invocan siempre fuera del cerrojo.
+ */
+public abstract class RepositorioAudioSecuencial implements RepositorioNotificacionesVoz {
+
+    public static final int CAPACIDAD_COLA_PREDETERMINADA = 8;
+
+    private final ColaPrioridadNotificaciones cola;
+    private final Object cerrojo = new Object();
+    @Nullable
+    private ExpresionPendiente expresionEnCurso;
+    private volatile ConfiguracionVoz configuracionActual = ConfiguracionVoz.obtenerPredeterminada();
+    private volatile boolean finalizado = false;
+    private final Reloj reloj = Reloj.MONOTONICO;
+
+    protected RepositorioAudioSecuencial(int capacidadCola) {
+        this.cola = new ColaPrioridadNotificaciones(capacidadCola);
+    }
+
+    /**
+     * Arranca el audio de una expresión. Se invoca con el cerrojo tomado.
+     * @return true si empezó a sonar
+     */
+    protected abstract boolean iniciarAudio(@NonNull ExpresionPendiente expresion);
+
+    /**
+     * Corta (si sigue sonando) y libera el audio de la expresión en curso, tanto al
+     * interrumpirla como cuando termina. Se invoca con el cerrojo tomado.
+     */
+    protected abstract void liberarAudio(@NonNull ExpresionPendiente expresion);
+
+    /**
+     * Libera los recursos del motor al finalizar
+     */
+    protected void liberarRecursos() {
+    }
+
+    /**
+     * La subclase avisa de que el audio de una expresión terminó
+     * @param completada true si sonó hasta el final
+     */
+    protected final void alTerminarAudio(@NonNull ExpresionPendiente expresion, boolean completada) {
+        Desenlaces desenlaces = new Desenlaces();
+        synchronized (cerrojo) {
+            if (expresionEnCurso != expresion) {
+                // Ya interrumpida o descartada
+                return;
+            }
+            liberarAudio(expresion);
+            expresionEnCurso = null;
+            despacharSiguiente(desenlaces);
+        }
+        expresion.notificarResultado(completada);
+        desenlaces.entregar();
+    }
+
+    @Override
+    public void reproducir(@NonNull NotificacionVoz notificacion,
+                           @Nullable EscuchadorResultado escuchadorResultado) {
+        ExpresionPendiente expresion = new ExpresionPendiente(notificacion, reloj.ahoraMs(), escuchadorResultado);
+        if (!puedeReproducir(notificacion)) {
+            expresion.notificarResultado(false);
+            return;
+        }
+
+        Desenlaces desenlaces = new Desenlaces();
+        synchronized (cerrojo) {
+            if (notificacion.obtenerPrioridad() == NotificacionVoz.Prioridad.URGENTE) {
+                cortarEnCurso(desenlaces);
+                if (!iniciar(expresion, desenlaces)) {
+                    despacharSiguiente(desenlaces);
+                }
+            } else {
+                ExpresionPendiente descartada = cola.ofrecer(expresion);
+                if (descartada != null) {
+                    desenlaces.fallidas.add(descartada);
+                }
+                if (expresionEnCurso == null) {
+                    despacharSiguiente(desenlaces);
+                }
+            }
+        }
+        desenlaces.entregar();
+    }
+
+    /**
+     * Debe invocarse con el cerrojo tomado.
+     */
+    private void despacharSiguiente(@NonNull Desenlaces desenlaces) {
+        ExpresionPendiente siguiente = cola.extraerSiguiente();
+        while (siguiente != null && !iniciar(siguiente, desenlaces)) {
+            siguiente = cola.extraerSiguiente();
+        }
+    }
+
+    /**
+     * Debe invocarse con el cerrojo tomado.
+     */
+    private boolean iniciar(@NonNull ExpresionPendiente expresion, @NonNull Desenlaces desenlaces) {
+        expresionEnCurso = expresion;
+        if (iniciarAudio(expresion)) {
+            expresion.marcarInicio(reloj.ahoraMs());
+            desenlaces.iniciadas.add(expresion);
+            return true;
+        }
+        expresionEnCurso = null;
+        desenlaces.fallidas.add(expresion);
+        return false;
+    }
+
+    /**
+     * Debe invocarse con el cerrojo tomado.
+     */
+    private void cortarEnCurso(@NonNull Desenlaces desenlaces) {
+        if (expresionEnCurso != null) {
+            liberarAudio(expresionEnCurso);
+            desenlaces.fallidas.add(expresionEnCurso);
+            expresionEnCurso = null;
+        }
+    }
+
+    @Override
+    public boolean cancelar(@NonNull NotificacionVoz notificacion) {
+        Desenlaces desenlaces = new Desenlaces();
+        synchronized (cerrojo) {
+            ExpresionPendiente cancelada = cola.eliminar(notificacion);
+            if (cancelada != null) {
+                desenlaces.fallidas.add(cancelada);
+            } else if (expresionEnCurso != null && expresionEnCurso.obtenerNotificacion() == notificacion) {
+                cortarEnCurso(desenlaces);
+                despacharSiguiente(desenlaces);
+            } else {
+                return false;
+            }
+        }
+        desenlaces.entregar();
+        return true;
+    }
+
+    @Override
+    public void detener() {
+        Desenlaces desenlaces = new Desenlaces();
+        synchronized (cerrojo) {
+            cola.limpiar(desenlaces.fallidas);
+            cortarEnCurso(desenlaces);
+        }
+        desenlaces.entregar();
+    }
+
+    @Override
+    public boolean estaReproduciendo() {
+        synchronized (cerrojo) {
+            return expresionEnCurso != null;
+        }
+    }
+
+    @Override
+    public int obtenerProfundidadCola() {
+        return cola.obtenerProfundidad();
+    }
+
+    @Override
+    public void configurar(@NonNull ConfiguracionVoz configuracion) {
+        this.configuracionActual = configuracion;
+    }
+
+    @Override
+    public boolean puedeReproducir(@NonNull NotificacionVoz notificacion) {
+        return !finalizado && configuracionActual.estaHabilitado() && estaDisponible();
+    }
+
+    @Override
+    public void finalizar() {
+        finalizado = true;
+        detener();
+        liberarRecursos();
+    }
+
+    /**
+     * Inicios y desenlaces acumulados con el cerrojo tomado, para entregarlos al soltarlo
+     */
+    private static final class Desenlaces {
+        final ArrayList<ExpresionPendiente> iniciadas = new ArrayList<>(1);
+        final ArrayList<ExpresionPendiente> fallidas = new ArrayList<>(1);
+
+        void entregar() {
+            for (int i = 0; i < iniciadas.size(); i++) {
+                iniciadas.get(i).notificarInicio();
+            }
+            for (int i = 0; i < fallidas.size(); i++) {
+                fallidas.get(i).notificarResultado(false);
+            }
+        }
+    }
+}
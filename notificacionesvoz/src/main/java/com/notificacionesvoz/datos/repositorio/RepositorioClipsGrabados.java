@@ -0,0 +1,79 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import android.content.Context;
+import android.media.MediaPlayer;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Motor que reproduce clips de audio grabados de antemano, uno por categoría
+ *
+ * Sirve de respaldo con el mensaje completo cuando el motor de voz no responde:
+ * solo acepta las notificaciones cuya categoría tiene un clip (recurso raw de la app).
+ */
+public class RepositorioClipsGrabados extends RepositorioAudioSecuencial {
+
+    private static final String ETIQUETA = "RepoClipsGrabados";
+
+    private final Context contexto;
+    private final Map<String, Integer> clipsPorCategoria;
+    @Nullable
+    private MediaPlayer reproductor; // solo con el cerrojo de la base tomado
+
+    /**
+     * Constructor
+     * @param contexto Contexto de la aplicación
+     * @param clipsPorCategoria Recurso raw (R.raw.*) de cada categoría de notificación
+     */
+    public RepositorioClipsGrabados(@NonNull Context contexto, @NonNull Map<String, Integer> clipsPorCategoria) {
+        super(CAPACIDAD_COLA_PREDETERMINADA);
+        this.contexto = contexto.getApplicationContext();
+        this.clipsPorCategoria = Collections.unmodifiableMap(new HashMap<>(clipsPorCategoria));
+    }
+
+    @Override
+    public boolean puedeReproducir(@NonNull NotificacionVoz notificacion) {
+        String categoria = notificacion.obtenerCategoria();
+        return categoria != null && clipsPorCategoria.containsKey(categoria) && super.puedeReproducir(notificacion);
+    }
+
+    @Override
+    protected boolean iniciarAudio(@NonNull ExpresionPendiente expresion) {
+        Integer recurso = clipsPorCategoria.get(expresion.obtenerNotificacion().obtenerCategoria());
+        MediaPlayer nuevo = recurso != null ? MediaPlayer.create(contexto, recurso) : null;
+        if (nuevo == null) {
+            Log.e(ETIQUETA, "No se pudo abrir el clip de " + expresion.obtenerNotificacion().obtenerCategoria());
+            return false;
+        }
+        nuevo.setOnCompletionListener(mp -> alTerminarAudio(expresion, true));
+        nuevo.setOnErrorListener((mp, que, extra) -> {
+            Log.e(ETIQUETA, "Error reproduciendo clip: " + que + "/" + extra);
+            alTerminarAudio(expresion, false);
+            return true;
+        });
+        nuevo.start();
+        reproductor = nuevo;
+        return true;
+    }
+
+    @Override
+    protected void liberarAudio(@NonNull ExpresionPendiente expresion) {
+        if (reproductor != null) {
+            reproductor.release();
+            reproductor = null;
+        }
+    }
+
+    @Override
+    public boolean estaDisponible() {
+        return !clipsPorCategoria.isEmpty();
+    }
+}
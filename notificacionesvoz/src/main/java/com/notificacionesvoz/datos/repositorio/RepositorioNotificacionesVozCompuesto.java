@@ -0,0 +1,612 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repositorio que reparte las notificaciones entre varios motores por orden de preferencia
+ * (p. ej. voz, clips grabados y tonos)
+ *
+ * Cada notificación va al primer motor sano que {@link #puedeReproducir(NotificacionVoz)}.
+ * Si falla antes de empezar, o no empieza dentro de su presupuesto de latencia, pasa al
+ * siguiente:
+ * - NORMAL y menores: conmutación. Se retira del motor lento y se entrega al siguiente.
+ * - URGENTE: cobertura. El presupuesto es más corto y el motor lento sigue intentándolo
+ *   en paralelo con el siguiente; el primero que empieza gana y los demás se cancelan.
+ *   Las URGENTE ignoran además el aislamiento de los motores si no queda ninguno sano.
+ *
+ * En los motores que {@link RepositorioNotificacionesVoz#informaDespacho() informan del
+ * despacho} el presupuesto empieza cuando la notificación sale de su cola: esperar
+ * detrás de otra expresión o a que el motor arranque no cuenta como fallo. Las URGENTE
+ * se cubren igualmente desde la entrega, pero sin anotar fallo al motor que aún las
+ * tiene en cola.
+ *
+ * Tras varios fallos seguidos un motor se aísla durante un enfriamiento y después recibe
+ * de nuevo notificaciones a modo de prueba; un inicio correcto lo rehabilita.
+ *
+ * El receptor de resultado de cada notificación se invoca una sola vez, con el desenlace
+ * del motor que la reprodujo. Los plazos se vigilan en un hilo propio, y las llamadas a
+ * cada motor se hacen en su {@link RepositorioNotificacionesVoz#obtenerEjecutorMotor()}.
+ */
+public class RepositorioNotificacionesVozCompuesto implements RepositorioNotificacionesVoz {
+
+    private static final String ETIQUETA = "RepoNotificacionesCompuesto";
+    private static final String NOMBRE_HILO_PLAZOS = "PlazosNotificacionesVoz";
+    public static final long PRESUPUESTO_INICIO_PREDETERMINADO_MS = 3000;
+    public static final long PRESUPUESTO_URGENTE_PREDETERMINADO_MS = 1000;
+    public static final int FALLOS_PARA_AISLAR_PREDETERMINADO = 3;
+    public static final long ENFRIAMIENTO_PREDETERMINADO_MS = 30_000;
+
+    private final Motor[] motores;
+    private final long presupuestoUrgenteMs;
+    private final int fallosParaAislar;
+    private final long enfriamientoMs;
+    private final Reloj reloj;
+    private final ScheduledExecutorService temporizador;
+    private final boolean temporizadorPropio;
+    private final Set<Intento> intentosActivos = ConcurrentHashMap.newKeySet();
+
+    private RepositorioNotificacionesVozCompuesto(Constructor constructor) {
+        this.motores = new Motor[constructor.repositorios.size()];
+        for (int i = 0; i < motores.length; i++) {
+            motores[i] = new Motor(constructor.repositorios.get(i), constructor.presupuestosMs.get(i));
+        }
+        this.presupuestoUrgenteMs = constructor.presupuestoUrgenteMs;
+        this.fallosParaAislar = constructor.fallosParaAislar;
+        this.enfriamientoMs = constructor.enfriamientoMs;
+        this.reloj = constructor.reloj;
+        this.temporizadorPropio = constructor.temporizador == null;
+        this.temporizador = temporizadorPropio
+            ? Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, NOMBRE_HILO_PLAZOS);
+                hilo.setDaemon(true);
+                return hilo;
+            })
+            : constructor.temporizador;
+    }
+
+    @Override
+    public void reproducir(@NonNull NotificacionVoz notificacion,
+                           @Nullable EscuchadorResultado escuchadorResultado) {
+        Intento intento = new Intento(notificacion, escuchadorResultado);
+        intentosActivos.add(intento);
+        intento.lanzarSiguiente();
+    }
+
+    @Override
+    public boolean cancelar(@NonNull NotificacionVoz notificacion) {
+        for (Intento intento : intentosActivos) {
+            if (intento.notificacion == notificacion) {
+                intento.abortar(true);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void detener() {
+        for (Intento intento : intentosActivos) {
+            intento.abortar(false);
+        }
+        for (Motor motor : motores) {
+            motor.ejecutar(motor.repositorio::detener);
+        }
+    }
+
+    @Override
+    public boolean estaReproduciendo() {
+        for (Motor motor : motores) {
+            if (motor.repositorio.estaReproduciendo()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int obtenerProfundidadCola() {
+        int profundidad = 0;
+        for (Motor motor : motores) {
+            profundidad += motor.repositorio.obtenerProfundidadCola();
+        }
+        return profundidad;
+    }
+
+    @Override
+    public void configurar(@NonNull ConfiguracionVoz configuracion) {
+        for (Motor motor : motores) {
+            motor.ejecutar(() -> motor.repositorio.configurar(configuracion));
+        }
+    }
+
+    @Override
+    public boolean estaDisponible() {
+        long ahora = reloj.ahoraMs();
+        for (Motor motor : motores) {
+            if (motor.estaSano(ahora) && motor.repositorio.estaDisponible()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean puedeReproducir(@NonNull NotificacionVoz notificacion) {
+        for (Motor motor : motores) {
+            if (motor.repositorio.puedeReproducir(notificacion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void finalizar() {
+        detener();
+        for (Motor motor : motores) {
+            // Tras el detener ya enviado al mismo ejecutor
+            motor.ejecutar(motor.repositorio::finalizar);
+        }
+        if (temporizadorPropio) {
+            temporizador.shutdownNow();
+        }
+    }
+
+    /**
+     * Indica si un motor recibe notificaciones o está aislado por fallos recientes
+     * @param indice Posición del motor en el orden de preferencia
+     */
+    public boolean estaMotorSano(int indice) {
+        return motores[indice].estaSano(reloj.ahoraMs());
+    }
+
+    /**
+     * Obtiene el número de fallos seguidos de un motor desde su último inicio correcto
+     * @param indice Posición del motor en el orden de preferencia
+     */
+    public int obtenerFallosConsecutivos(int indice) {
+        return motores[indice].fallosConsecutivos.get();
+    }
+
+    /**
+     * Elige el siguiente motor a partir de una posición
+     * @return Su posición, o -1 si no queda ninguno
+     */
+    private int elegirMotor(int desde, @NonNull NotificacionVoz notificacion) {
+        long ahora = reloj.ahoraMs();
+        for (int i = desde; i < motores.length; i++) {
+            if (motores[i].estaSano(ahora) && motores[i].repositorio.puedeReproducir(notificacion)) {
+                return i;
+            }
+        }
+        if (notificacion.obtenerPrioridad() == NotificacionVoz.Prioridad.URGENTE) {
+            // Mejor un motor aislado que el silencio
+            for (int i = desde; i < motores.length; i++) {
+                if (motores[i].repositorio.puedeReproducir(notificacion)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Motor delegado y su estado de salud
+     */
+    private final class Motor {
+        final RepositorioNotificacionesVoz repositorio;
+        final Executor ejecutor;
+        final long presupuestoInicioMs;
+        final AtomicInteger fallosConsecutivos = new AtomicInteger();
+        private volatile boolean aislado = false;
+        private volatile long aisladoHastaMs;
+
+        Motor(RepositorioNotificacionesVoz repositorio, long presupuestoInicioMs) {
+            this.repositorio = repositorio;
+            this.ejecutor = repositorio.obtenerEjecutorMotor();
+            this.presupuestoInicioMs = presupuestoInicioMs;
+        }
+
+        /**
+         * Ejecuta una llamada al motor en su ejecutor
+         * @return false si el ejecutor ya no acepta tareas (motor finalizado)
+         */
+        boolean ejecutar(@NonNull Runnable tarea) {
+            try {
+                ejecutor.execute(tarea);
+                return true;
+            } catch (RejectedExecutionException excepcion) {
+                Log.w(ETIQUETA, "Motor finalizado, llamada ignorada: " + repositorio);
+                return false;
+            }
+        }
+
+        boolean estaSano(long ahora) {
+            return !aislado || ahora - aisladoHastaMs >= 0;
+        }
+
+        void registrarExito() {
+            fallosConsecutivos.set(0);
+            aislado = false;
+        }
+
+        void registrarFallo() {
+            // Pasado el enfriamiento, un solo fallo más lo vuelve a aislar
+            if (fallosConsecutivos.incrementAndGet() >= fallosParaAislar) {
+                aisladoHastaMs = reloj.ahoraMs() + enfriamientoMs;
+                aislado = true;
+                Log.w(ETIQUETA, "Motor aislado tras " + fallosConsecutivos.get() + " fallos: " + repositorio);
+            }
+        }
+    }
+
+    /**
+     * Entrega de una notificación a un motor concreto; recibe su inicio y su desenlace
+     */
+    private final class Entrega implements EscuchadorResultado {
+        final Intento intento;
+        final Motor motor;
+        @Nullable
+        ScheduledFuture<?> plazo; // protegido por el intento
+        boolean despachada; // protegido por el intento
+
+        Entrega(Intento intento, Motor motor) {
+            this.intento = intento;
+            this.motor = motor;
+        }
+
+        @Override
+        public void alDespachar() {
+            intento.alDespachar(this);
+        }
+
+        @Override
+        public void alIniciar() {
+            intento.alIniciar(this);
+        }
+
+        @Override
+        public void alFinalizar(boolean completada) {
+            intento.alFinalizar(this, completada);
+        }
+
+        void cancelarPlazo() {
+            if (plazo != null) {
+                plazo.cancel(false);
+                plazo = null;
+            }
+        }
+    }
+
+    /**
+     * Recorrido de una notificación por los motores. Las llamadas a los motores y al
+     * receptor se hacen siempre fuera de su cerrojo.
+     */
+    private final class Intento {
+        final NotificacionVoz notificacion;
+        final boolean urgente;
+        @Nullable
+        private final EscuchadorResultado escuchador;
+
+        // Protegido por this
+        private int siguienteMotor = 0;
+        private final ArrayList<Entrega> activas = new ArrayList<>(2);
+        @Nullable
+        private Entrega ganadora;
+        private boolean terminado = false;
+
+        Intento(NotificacionVoz notificacion, @Nullable EscuchadorResultado escuchador) {
+            this.notificacion = notificacion;
+            this.urgente = notificacion.obtenerPrioridad() == NotificacionVoz.Prioridad.URGENTE;
+            this.escuchador = escuchador;
+        }
+
+        /**
+         * Entrega la notificación al siguiente motor elegible, o termina si no queda ninguno
+         * y nada sigue en marcha
+         */
+        void lanzarSiguiente() {
+            Entrega entrega;
+            synchronized (this) {
+                if (terminado) {
+                    return;
+                }
+                int indice = elegirMotor(siguienteMotor, notificacion);
+                if (indice < 0) {
+                    if (!activas.isEmpty()) {
+                        return;
+                    }
+                    entrega = null;
+                } else {
+                    siguienteMotor = indice + 1;
+                    entrega = new Entrega(this, motores[indice]);
+                    activas.add(entrega);
+                    if (urgente || !entrega.motor.repositorio.informaDespacho()) {
+                        programarPlazo(entrega);
+                    }
+                }
+            }
+            if (entrega == null) {
+                terminar(false);
+                return;
+            }
+            Entrega entregada = entrega;
+            if (!entregada.motor.ejecutar(() -> entregada.motor.repositorio.reproducir(notificacion, entregada))) {
+                alFinalizar(entregada, false);
+            }
+        }
+
+        /**
+         * Debe invocarse con el cerrojo del intento tomado.
+         */
+        private void programarPlazo(@NonNull Entrega entrega) {
+            long presupuesto = urgente
+                ? Math.min(entrega.motor.presupuestoInicioMs, presupuestoUrgenteMs) : entrega.motor.presupuestoInicioMs;
+            try {
+                entrega.plazo = temporizador.schedule(() -> alVencerPlazo(entrega),
+                    presupuesto, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException excepcion) {
+                // Finalizado: sin plazo, se espera al desenlace del motor
+            }
+        }
+
+        /**
+         * La notificación salió de la cola del motor: empieza su presupuesto de inicio
+         */
+        void alDespachar(@NonNull Entrega entrega) {
+            synchronized (this) {
+                if (terminado || ganadora != null || !activas.contains(entrega)) {
+                    return;
+                }
+                entrega.despachada = true;
+                if (entrega.plazo == null && !urgente) {
+                    programarPlazo(entrega);
+                }
+            }
+        }
+
+        void alIniciar(@NonNull Entrega entrega) {
+            List<Entrega> perdedoras;
+            synchronized (this) {
+                if (terminado || ganadora != null || !activas.contains(entrega)) {
+                    return;
+                }
+                ganadora = entrega;
+                perdedoras = retirarActivasSalvo(entrega);
+            }
+            entrega.motor.registrarExito();
+            cancelarEn(perdedoras);
+            if (escuchador != null) {
+                escuchador.alIniciar();
+            }
+        }
+
+        void alFinalizar(@NonNull Entrega entrega, boolean completada) {
+            List<Entrega> perdedoras = null;
+            boolean fallo;
+            synchronized (this) {
+                if (terminado || !activas.remove(entrega)) {
+                    return;
+                }
+                entrega.cancelarPlazo();
+                // Un motor que no informa del inicio cuenta como iniciado al completar
+                fallo = entrega != ganadora && !completada;
+                if (!fallo && ganadora == null) {
+                    ganadora = entrega;
+                    perdedoras = retirarActivasSalvo(entrega);
+                }
+            }
+            if (fallo) {
+                entrega.motor.registrarFallo();
+                lanzarSiguiente();
+                return;
+            }
+            if (perdedoras != null) {
+                entrega.motor.registrarExito();
+                cancelarEn(perdedoras);
+            }
+            terminar(completada);
+        }
+
+        void alVencerPlazo(@NonNull Entrega entrega) {
+            boolean fallo;
+            synchronized (this) {
+                if (terminado || ganadora != null || !activas.contains(entrega)) {
+                    return;
+                }
+                entrega.plazo = null;
+                // Una URGENTE aún en cola se cubre, pero la espera no es culpa del motor
+                fallo = entrega.despachada || !entrega.motor.repositorio.informaDespacho();
+                if (elegirMotor(siguienteMotor, notificacion) < 0) {
+                    // Nada a lo que pasar: se sigue esperando al motor lento
+                    return;
+                }
+                if (!urgente) {
+                    activas.remove(entrega);
+                }
+            }
+            Log.w(ETIQUETA, "Sin inicio dentro del presupuesto, se pasa al siguiente motor: " + entrega.motor.repositorio);
+            if (fallo) {
+                entrega.motor.registrarFallo();
+            }
+            if (!urgente) {
+                cancelarEn(entrega);
+            }
+            lanzarSiguiente();
+        }
+
+        /**
+         * Termina el intento con false
+         * @param cancelarEnMotores true para retirar la notificación de los motores que la tienen
+         */
+        void abortar(boolean cancelarEnMotores) {
+            List<Entrega> pendientes;
+            synchronized (this) {
+                if (terminado) {
+                    return;
+                }
+                pendientes = retirarActivasSalvo(null);
+            }
+            if (cancelarEnMotores) {
+                cancelarEn(pendientes);
+            }
+            terminar(false);
+        }
+
+        /**
+         * Debe invocarse con el cerrojo del intento tomado.
+         */
+        private List<Entrega> retirarActivasSalvo(@Nullable Entrega conservada) {
+            List<Entrega> retiradas = new ArrayList<>(activas.size());
+            for (int i = 0; i < activas.size(); i++) {
+                Entrega entrega = activas.get(i);
+                if (entrega != conservada) {
+                    entrega.cancelarPlazo();
+                    retiradas.add(entrega);
+                }
+            }
+            activas.clear();
+            if (conservada != null) {
+                activas.add(conservada);
+            }
+            return retiradas;
+        }
+
+        private void cancelarEn(@NonNull List<Entrega> entregas) {
+            for (int i = 0; i < entregas.size(); i++) {
+                cancelarEn(entregas.get(i));
+            }
+        }
+
+        private void cancelarEn(@NonNull Entrega entrega) {
+            entrega.motor.ejecutar(() -> entrega.motor.repositorio.cancelar(notificacion));
+        }
+
+        private void terminar(boolean completada) {
+            synchronized (this) {
+                if (terminado) {
+                    return;
+                }
+                terminado = true;
+                for (int i = 0; i < activas.size(); i++) {
+                    activas.get(i).cancelarPlazo();
+                }
+                activas.clear();
+            }
+            intentosActivos.remove(this);
+            if (escuchador != null) {
+                escuchador.alFinalizar(completada);
+            }
+        }
+    }
+
+    /**
+     * Constructor del repositorio compuesto
+     */
+    public static class Constructor {
+        private final List<RepositorioNotificacionesVoz> repositorios = new ArrayList<>();
+        private final List<Long> presupuestosMs = new ArrayList<>();
+        private long presupuestoUrgenteMs = PRESUPUESTO_URGENTE_PREDETERMINADO_MS;
+        private int fallosParaAislar = FALLOS_PARA_AISLAR_PREDETERMINADO;
+        private long enfriamientoMs = ENFRIAMIENTO_PREDETERMINADO_MS;
+        private Reloj reloj = Reloj.MONOTONICO;
+        @Nullable
+        private ScheduledExecutorService temporizador;
+
+        /**
+         * Añade un motor con el presupuesto de inicio predeterminado. El orden de
+         * llamada es el orden de preferencia.
+         */
+        public Constructor agregarMotor(@NonNull RepositorioNotificacionesVoz repositorio) {
+            return agregarMotor(repositorio, PRESUPUESTO_INICIO_PREDETERMINADO_MS);
+        }
+
+        /**
+         * Añade un motor
+         * @param repositorio Motor delegado
+         * @param presupuestoInicioMs Tiempo máximo hasta que empiece a sonar antes de pasar al siguiente
+         */
+        public Constructor agregarMotor(@NonNull RepositorioNotificacionesVoz repositorio, long presupuestoInicioMs) {
+            if (presupuestoInicioMs <= 0) {
+                throw new IllegalArgumentException("El presupuesto de inicio debe ser mayor que 0");
+            }
+            repositorios.add(repositorio);
+            presupuestosMs.add(presupuestoInicioMs);
+            return this;
+        }
+
+        /**
+         * Establece el presupuesto máximo de inicio de las notificaciones URGENTE en cada motor
+         */
+        public Constructor establecerPresupuestoUrgenteMs(long presupuestoUrgenteMs) {
+            if (presupuestoUrgenteMs <= 0) {
+                throw new IllegalArgumentException("El presupuesto urgente debe ser mayor que 0");
+            }
+            this.presupuestoUrgenteMs = presupuestoUrgenteMs;
+            return this;
+        }
+
+        /**
+         * Establece cuántos fallos seguidos aíslan a un motor
+         */
+        public Constructor establecerFallosParaAislar(int fallosParaAislar) {
+            if (fallosParaAislar <= 0) {
+                throw new IllegalArgumentException("Los fallos para aislar deben ser mayor que 0");
+            }
+            this.fallosParaAislar = fallosParaAislar;
+            return this;
+        }
+
+        /**
+         * Establece cuánto tiempo queda aislado un motor antes de volver a probarlo
+         */
+        public Constructor establecerEnfriamientoMs(long enfriamientoMs) {
+            if (enfriamientoMs < 0) {
+                throw new IllegalArgumentException("El enfriamiento no puede ser negativo");
+            }
+            this.enfriamientoMs = enfriamientoMs;
+            return this;
+        }
+
+        public Constructor establecerReloj(@NonNull Reloj reloj) {
+            this.reloj = reloj;
+            return this;
+        }
+
+        /**
+         * Establece el ejecutor de los plazos. Si no se indica se crea uno propio,
+         * que se apaga al finalizar.
+         */
+        public Constructor establecerTemporizador(@NonNull ScheduledExecutorService temporizador) {
+            this.temporizador = temporizador;
+            return this;
+        }
+
+        public RepositorioNotificacionesVozCompuesto construir() {
+            if (repositorios.isEmpty()) {
+                throw new IllegalArgumentException("Se necesita al menos un motor");
+            }
+            return new RepositorioNotificacionesVozCompuesto(this);
+        }
+    }
+}
@@ -1,124 +1,592 @@
 package com.notificacionesvoz.datos.repositorio;
 
 import android.content.Context;
+import android.os.Bundle;
 import android.speech.tts.TextToSpeech;
 import android.speech.tts.UtteranceProgressListener;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.concurrent.futures.ResolvableFuture;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
+import com.notificacionesvoz.datos.cache.CacheAudioNotificaciones;
 import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
 import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
 import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+import com.notificacionesvoz.utilidades.MetricasNotificacionesVoz;
+import com.notificacionesvoz.utilidades.Reloj;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Implementación del repositorio usando TextToSpeech de Android
  * Gestiona la reproducción de notificaciones de voz
+ *
+ * Las notificaciones pasan por una cola acotada ordenada por prioridad y se
+ * entregan al motor de una en una. Las URGENTE interrumpen la reproducción actual.
+ *
+ * Los mensajes precargados se sintetizan una sola vez a disco y se reproducen
+ * como earcons del motor, evitando la síntesis en cada aparición.
+ *
+ * Cada expresión lleva un identificador único; mientras no tiene desenlace se puede
+ * recuperar su notificación a partir del identificador que devuelven los callbacks
+ * ({@link #obtenerExpresionEnVuelo(String)}).
+ *
+ * Mientras el motor arranca, las notificaciones se retienen en la misma cola y se
+ * reproducen por orden de prioridad en cuanto está listo.
+ *
+ * Los cambios de configuración solo llegan al motor en los campos que difieren de
+ * lo ya aplicado (cambiar el idioma obliga al motor a cargar datos de voz), y la
+ * disponibilidad de idiomas y las voces se consultan una vez al inicializar
+ * ({@link #obtenerCapacidadesMotor()}).
+ *
+ * Las respuestas del motor (inicialización, fin de cada expresión, precargas) se
+ * atienden en un hilo dedicado, expuesto en {@link #obtenerEjecutorMotor()} para
+ * que los llamantes envíen también ahí sus peticiones y todo acceso al motor quede
+ * confinado a un único hilo.
  */
 public class RepositorioNotificacionesVozImpl implements RepositorioNotificacionesVoz {
     
     private static final String ETIQUETA = "RepoNotificacionesVoz";
+    public static final int CAPACIDAD_COLA_PREDETERMINADA = 16;
+    public static final long PRESUPUESTO_CACHE_AUDIO_PREDETERMINADO = 8L * 1024 * 1024; // 8 MB
+    private static final String DIRECTORIO_CACHE_AUDIO = "audio_notificaciones";
+    private static final String PREFIJO_PRECARGA = "precarga_";
+    private static final String NOMBRE_HILO_MOTOR = "MotorNotificacionesVoz";
     
     private TextToSpeech motorVoz;
-    private ConfiguracionVoz configuracionActual;
-    private boolean estaInicializado = false;
-    private final Context contexto;
+    private volatile ConfiguracionVoz configuracionActual;
+    @Nullable
+    private volatile CapacidadesMotorVoz capacidadesMotor;
+    // Lo aplicado al motor; solo con cerrojoConfiguracion tomado
+    private final Object cerrojoConfiguracion = new Object();
+    @Nullable
+    private ConfiguracionVoz configuracionMotor;
+    @Nullable
+    private Locale idiomaMotor;
+    private volatile boolean estaInicializado = false;
+    private volatile boolean motorInutilizable = false;
+    private final ResolvableFuture<Boolean> futuroListo = ResolvableFuture.create();
     private EscuchadorNotificacionesVoz escuchador;
+    
+    private final ColaPrioridadNotificaciones cola;
+    private final Object cerrojo = new Object();
+    private final ArrayList<ExpresionPendiente> descartadas = new ArrayList<>(); // solo con el cerrojo tomado
+    @Nullable
+    private ExpresionPendiente expresionEnCurso;
+    // Expresiones aceptadas y aún sin desenlace, por identificador de expresión
+    private final ConcurrentHashMap<String, ExpresionPendiente> expresionesEnVuelo = new ConcurrentHashMap<>();
+    
+    private final MetricasNotificacionesVoz metricas = new MetricasNotificacionesVoz();
+    private final Reloj reloj = Reloj.MONOTONICO;
+    
+    private final CacheAudioNotificaciones cacheAudio;
+    private final Set<String> precargasPendientes = new HashSet<>();
+    
+    private final ExecutorService hiloMotor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, NOMBRE_HILO_MOTOR);
+        hilo.setDaemon(true);
+        return hilo;
+    });
 
     public RepositorioNotificacionesVozImpl(@NonNull Context contexto) {
-        this.contexto = contexto.getApplicationContext();
+        this(contexto, CAPACIDAD_COLA_PREDETERMINADA, PRESUPUESTO_CACHE_AUDIO_PREDETERMINADO);
+    }
+
+    /**
+     * Constructor
+     * @param contexto Contexto de la aplicación
+     * @param capacidadCola Número máximo de notificaciones en espera
+     * @param presupuestoCacheAudio Tamaño máximo en bytes del audio precargado en disco
+     */
+    public RepositorioNotificacionesVozImpl(@NonNull Context contexto, int capacidadCola, long presupuestoCacheAudio) {
+        this(alInicializar -> new TextToSpeech(contexto.getApplicationContext(), alInicializar),
+            new File(contexto.getApplicationContext().getCacheDir(), DIRECTORIO_CACHE_AUDIO),
+            capacidadCola, presupuestoCacheAudio);
+    }
+
+    /**
+     * Constructor con el motor inyectado, para los tests
+     * @param directorioCacheAudio Directorio del audio precargado
+     */
+    RepositorioNotificacionesVozImpl(@NonNull FabricaMotorVoz fabricaMotor, @NonNull File directorioCacheAudio,
+                                     int capacidadCola, long presupuestoCacheAudio) {
         this.configuracionActual = ConfiguracionVoz.obtenerPredeterminada();
-        inicializarTTS();
+        this.cola = new ColaPrioridadNotificaciones(capacidadCola);
+        this.cacheAudio = new CacheAudioNotificaciones(directorioCacheAudio, presupuestoCacheAudio);
+        inicializarTTS(fabricaMotor);
     }
 
     /**
      * Inicializa el motor de Text-to-Speech
      */
-    private void inicializarTTS() {
-        motorVoz = new TextToSpeech(contexto, estado -> {
-            if (estado == TextToSpeech.SUCCESS) {
-                int resultado = motorVoz.setLanguage(configuracionActual.obtenerIdioma());
-                
-                if (resultado == TextToSpeech.LANG_MISSING_DATA || 
-                    resultado == TextToSpeech.LANG_NOT_SUPPORTED) {
-                    Log.e(ETIQUETA, "Idioma no soportado: " + configuracionActual.obtenerIdioma());
-                    // Fallback al idioma por defecto
-                    motorVoz.setLanguage(Locale.getDefault());
-                }
-                
-                motorVoz.setPitch(configuracionActual.obtenerTonoVoz());
-                motorVoz.setSpeechRate(configuracionActual.obtenerVelocidadVoz());
-                
-                motorVoz.setOnUtteranceProgressListener(new UtteranceProgressListener() {
-                    @Override
-                    public void onStart(String idExpresion) {
+    private void inicializarTTS(@NonNull FabricaMotorVoz fabricaMotor) {
+        motorVoz = fabricaMotor.crear(estado -> ejecutarEnHiloMotor(() -> alInicializarMotor(estado)));
+    }
+
+    /**
+     * Configura el motor recién arrancado y reproduce lo retenido. Se ejecuta en el hilo del motor.
+     */
+    private void alInicializarMotor(int estado) {
+        if (estado == TextToSpeech.SUCCESS) {
+            capacidadesMotor = CapacidadesMotorVoz.sondear(motorVoz,
+                configuracionActual.obtenerIdioma(), Locale.getDefault());
+            sincronizarConfiguracionMotor();
+            
+            motorVoz.setOnUtteranceProgressListener(new UtteranceProgressListener() {
+                @Override
+                public void onStart(String idExpresion) {
+                    ejecutarEnHiloMotor(() -> {
+                        if (esPrecarga(idExpresion)) {
+                            return;
+                        }
                         Log.d(ETIQUETA, "Iniciando reproducción: " + idExpresion);
+                        alIniciarExpresion(idExpresion);
                         if (escuchador != null) {
                             escuchador.alIniciar(idExpresion);
                         }
-                    }
+                    });
+                }
 
-                    @Override
-                    public void onDone(String idExpresion) {
+                @Override
+                public void onDone(String idExpresion) {
+                    ejecutarEnHiloMotor(() -> {
+                        if (esPrecarga(idExpresion)) {
+                            alFinalizarPrecarga(idExpresion, true);
+                            return;
+                        }
                         Log.d(ETIQUETA, "Reproducción finalizada: " + idExpresion);
+                        metricas.registrar(MetricasNotificacionesVoz.Evento.COMPLETADA);
                         if (escuchador != null) {
                             escuchador.alCompletar(idExpresion);
                         }
-                    }
+                        alFinalizarExpresion(idExpresion, true);
+                    });
+                }
 
-                    @Override
-                    public void onError(String idExpresion) {
+                @Override
+                public void onError(String idExpresion) {
+                    ejecutarEnHiloMotor(() -> {
+                        if (esPrecarga(idExpresion)) {
+                            alFinalizarPrecarga(idExpresion, false);
+                            return;
+                        }
                         Log.e(ETIQUETA, "Error en reproducción: " + idExpresion);
+                        metricas.registrar(MetricasNotificacionesVoz.Evento.ERROR);
                         if (escuchador != null) {
                             escuchador.alOcurrirError(idExpresion);
                         }
+                        alFinalizarExpresion(idExpresion, false);
+                    });
+                }
+
+                @Override
+                public void onStop(String idExpresion, boolean interrumpido) {
+                    if (esPrecarga(idExpresion)) {
+                        ejecutarEnHiloMotor(() -> alFinalizarPrecarga(idExpresion, false));
+                        return;
                     }
-                });
-                
+                    Log.d(ETIQUETA, "Reproducción interrumpida: " + idExpresion);
+                    ejecutarEnHiloMotor(() -> {
+                        // Las cerradas por cancelar, detener o una urgente ya se contaron
+                        if (alFinalizarExpresion(idExpresion, false)) {
+                            metricas.registrar(MetricasNotificacionesVoz.Evento.INTERRUMPIDA);
+                        }
+                    });
+                }
+            });
+            
+            // Los archivos de ejecuciones anteriores siguen siendo válidos
+            for (Map.Entry<String, File> entrada : cacheAudio.obtenerEntradas().entrySet()) {
+                motorVoz.addEarcon(entrada.getKey(), entrada.getValue());
+            }
+            
+            synchronized (cerrojo) {
                 estaInicializado = true;
-                Log.i(ETIQUETA, "TextToSpeech inicializado exitosamente");
-            } else {
-                Log.e(ETIQUETA, "Falló la inicialización de TextToSpeech");
+                if (!cola.estaVacia()) {
+                    Log.i(ETIQUETA, "Reproduciendo " + cola.obtenerProfundidad() + " notificaciones retenidas");
+                }
+                if (expresionEnCurso == null) {
+                    despacharSiguiente();
+                }
+            }
+            futuroListo.set(true);
+            Log.i(ETIQUETA, "TextToSpeech inicializado exitosamente");
+        } else {
+            Log.e(ETIQUETA, "Falló la inicialización de TextToSpeech");
+            synchronized (cerrojo) {
                 estaInicializado = false;
+                motorInutilizable = true;
+                descartarPendientes(null, MetricasNotificacionesVoz.Evento.DESCARTADA_NO_DISPONIBLE);
             }
-        });
+            futuroListo.set(false);
+        }
     }
 
     @Override
-    public void reproducir(@NonNull NotificacionVoz notificacion) {
-        if (!estaInicializado || motorVoz == null) {
-            Log.w(ETIQUETA, "TTS no inicializado, no se puede reproducir");
+    public void reproducir(@NonNull NotificacionVoz notificacion,
+                           @Nullable EscuchadorResultado escuchadorResultado) {
+        metricas.registrar(MetricasNotificacionesVoz.Evento.SOLICITADA);
+        ExpresionPendiente expresion = new ExpresionPendiente(notificacion, reloj.ahoraMs(), escuchadorResultado);
+        
+        if (motorInutilizable) {
+            Log.w(ETIQUETA, "TTS no disponible, no se puede reproducir");
+            metricas.registrar(MetricasNotificacionesVoz.Evento.DESCARTADA_NO_DISPONIBLE);
+            expresion.notificarResultado(false);
             return;
         }
 
         if (!configuracionActual.estaHabilitado()) {
             Log.d(ETIQUETA, "Notificaciones de voz deshabilitadas");
+            metricas.registrar(MetricasNotificacionesVoz.Evento.DESCARTADA_DESHABILITADA);
+            expresion.notificarResultado(false);
             return;
         }
+        
+        synchronized (cerrojo) {
+            expresionesEnVuelo.put(expresion.obtenerIdExpresion(), expresion);
+            
+            if (!estaInicializado) {
+                // El motor aún arranca: retener hasta que esté listo
+                encolar(expresion);
+                return;
+            }
 
-        // Generar ID único usando categoría (si existe) o timestamp
-        String categoria = notificacion.obtenerCategoria() != null 
-            ? notificacion.obtenerCategoria() 
-            : "notificacion";
-        String idExpresion = categoria + "_" + notificacion.obtenerMarcaTiempo();
+            if (notificacion.obtenerPrioridad() == NotificacionVoz.Prioridad.URGENTE) {
+                // Las urgentes no esperan: se reproducen ya, interrumpiendo la actual
+                if (expresionEnCurso != null) {
+                    cerrarExpresion(expresionEnCurso, false);
+                }
+                if (!hablar(expresion, TextToSpeech.QUEUE_FLUSH)) {
+                    // El motor la rechazó: que no se queden paradas las pendientes
+                    despacharSiguiente();
+                }
+                return;
+            }
+
+            if (configuracionActual.obtenerModoCola() == TextToSpeech.QUEUE_FLUSH) {
+                // La más reciente reemplaza a las pendientes de igual o menor prioridad
+                descartarPendientes(notificacion.obtenerPrioridad(),
+                    MetricasNotificacionesVoz.Evento.DESCARTADA_REEMPLAZADA);
+            }
+
+            encolar(expresion);
+
+            if (expresionEnCurso == null) {
+                despacharSiguiente();
+            }
+        }
+    }
+
+    /**
+     * Debe invocarse con el cerrojo tomado.
+     */
+    private void encolar(@NonNull ExpresionPendiente expresion) {
+        ExpresionPendiente descartada = cola.ofrecer(expresion);
+        if (descartada != null) {
+            Log.w(ETIQUETA, "Cola llena, notificación descartada: "
+                + descartada.obtenerNotificacion().obtenerMensaje());
+            metricas.registrar(MetricasNotificacionesVoz.Evento.DESCARTADA_COLA_LLENA);
+            cerrarExpresion(descartada, false);
+        }
+        metricas.registrarProfundidadCola(cola.obtenerProfundidad());
+    }
+
+    /**
+     * Descarta las pendientes hasta una prioridad (todas si es null) informando
+     * a quien espere su resultado. Debe invocarse con el cerrojo tomado.
+     */
+    private void descartarPendientes(@Nullable NotificacionVoz.Prioridad hasta,
+                                     @NonNull MetricasNotificacionesVoz.Evento motivo) {
+        int cantidad = hasta != null ? cola.descartarHasta(hasta, descartadas) : cola.limpiar(descartadas);
+        metricas.registrar(motivo, cantidad);
+        for (int i = 0; i < descartadas.size(); i++) {
+            cerrarExpresion(descartadas.get(i), false);
+        }
+        descartadas.clear();
+    }
+
+    /**
+     * Da por terminada una expresión que no llegará a completarse con onDone.
+     * El resultado se entrega en el hilo del motor, fuera del cerrojo, para que el
+     * receptor pueda volver a llamar al repositorio sin riesgo.
+     */
+    private void cerrarExpresion(@NonNull ExpresionPendiente expresion, boolean completada) {
+        expresionesEnVuelo.remove(expresion.obtenerIdExpresion());
+        if (expresion.tieneEscuchadorResultado()
+                && !ejecutarEnHiloMotor(() -> expresion.notificarResultado(completada))) {
+            expresion.notificarResultado(completada);
+        }
+    }
+
+    private boolean ejecutarEnHiloMotor(@NonNull Runnable tarea) {
+        try {
+            hiloMotor.execute(tarea);
+            return true;
+        } catch (RejectedExecutionException excepcion) {
+            Log.w(ETIQUETA, "Hilo del motor finalizado, tarea ignorada");
+            return false;
+        }
+    }
+
+    /**
+     * Entrega al motor la siguiente notificación de la cola, si la hay.
+     * Debe invocarse con el cerrojo tomado.
+     */
+    private void despacharSiguiente() {
+        ExpresionPendiente siguiente = cola.extraerSiguiente();
+        while (siguiente != null && !hablar(siguiente, TextToSpeech.QUEUE_ADD)) {
+            siguiente = cola.extraerSiguiente();
+        }
+    }
+
+    /**
+     * Entrega una notificación al motor. Debe invocarse con el cerrojo tomado.
+     * @return true si el motor aceptó la expresión
+     */
+    private boolean hablar(@NonNull ExpresionPendiente expresion, int modoCola) {
+        NotificacionVoz notificacion = expresion.obtenerNotificacion();
+        String idExpresion = expresion.obtenerIdExpresion();
         
         HashMap<String, String> parametros = new HashMap<>();
         parametros.put(TextToSpeech.Engine.KEY_PARAM_UTTERANCE_ID, idExpresion);
         
-        int modoCola = notificacion.obtenerPrioridad().obtenerNivel() >= NotificacionVoz.Prioridad.ALTA.obtenerNivel() 
-            ? TextToSpeech.QUEUE_FLUSH 
-            : configuracionActual.obtenerModoCola();
+        expresionEnCurso = expresion;
+        
+        String claveAudio = calcularClaveAudio(notificacion.obtenerMensaje());
+        int resultado = TextToSpeech.ERROR;
+        if (cacheAudio.obtener(claveAudio) != null) {
+            resultado = motorVoz.playEarcon(claveAudio, modoCola, null, idExpresion);
+            if (resultado == TextToSpeech.ERROR) {
+                // El archivo ya no sirve: se retira y se sintetiza en vivo
+                cacheAudio.eliminar(claveAudio);
+            }
+        }
+        if (resultado == TextToSpeech.ERROR) {
+            resultado = motorVoz.speak(notificacion.obtenerMensaje(), modoCola, parametros);
+        }
         
-        motorVoz.speak(notificacion.obtenerMensaje(), modoCola, parametros);
+        if (resultado == TextToSpeech.ERROR) {
+            Log.e(ETIQUETA, "El motor rechazó la notificación: " + notificacion.obtenerMensaje());
+            expresionEnCurso = null;
+            cerrarExpresion(expresion, false);
+            return false;
+        }
         
+        if (expresion.tieneEscuchadorResultado()) {
+            // Fuera del cerrojo, como el resto de avisos al receptor
+            ejecutarEnHiloMotor(expresion::notificarDespacho);
+        }
         Log.d(ETIQUETA, "Reproduciendo notificación: " + notificacion.obtenerMensaje());
+        return true;
+    }
+
+    /**
+     * Registra el inicio de una expresión. Se ejecuta en el hilo del motor.
+     */
+    private void alIniciarExpresion(String idExpresion) {
+        ExpresionPendiente expresion = expresionesEnVuelo.get(idExpresion);
+        if (expresion == null || expresion.haIniciado()) {
+            return;
+        }
+        long ahora = reloj.ahoraMs();
+        expresion.marcarInicio(ahora);
+        metricas.registrar(MetricasNotificacionesVoz.Evento.INICIADA);
+        metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.ESPERA, expresion.obtenerNotificacion(),
+            ahora - expresion.obtenerInstanteEncoladoMs());
+        expresion.notificarInicio();
+    }
+
+    /**
+     * Avanza la cola cuando termina (o se interrumpe) la expresión en curso.
+     * Se ejecuta en el hilo del motor.
+     * @return false si la expresión ya no estaba en vuelo
+     */
+    private boolean alFinalizarExpresion(String idExpresion, boolean completada) {
+        // Un onStop tardío de una expresión ya reemplazada o descartada no está en vuelo
+        ExpresionPendiente finalizada = expresionesEnVuelo.remove(idExpresion);
+        if (finalizada == null) {
+            return false;
+        }
+        if (finalizada.haIniciado()) {
+            metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.REPRODUCCION,
+                finalizada.obtenerNotificacion(), reloj.ahoraMs() - finalizada.obtenerInstanteInicioMs());
+        }
+        synchronized (cerrojo) {
+            if (expresionEnCurso == finalizada) {
+                expresionEnCurso = null;
+                if (estaInicializado && motorVoz != null) {
+                    despacharSiguiente();
+                }
+            }
+        }
+        finalizada.notificarResultado(completada);
+        return true;
+    }
+
+    /**
+     * Sintetiza a disco los mensajes indicados para que las siguientes
+     * reproducciones no paguen el coste de síntesis. Los mensajes ya en caché
+     * para la configuración actual se ignoran.
+     * @param mensajes Textos a precargar (p. ej. los de FabricaMensajesNotificacion)
+     */
+    public void precargarMensajes(@NonNull Collection<String> mensajes) {
+        if (!estaInicializado || motorVoz == null) {
+            Log.w(ETIQUETA, "TTS no inicializado, no se puede precargar");
+            return;
+        }
+
+        for (String mensaje : mensajes) {
+            String clave = calcularClaveAudio(mensaje);
+            synchronized (precargasPendientes) {
+                if (cacheAudio.obtener(clave) != null || !precargasPendientes.add(clave)) {
+                    continue;
+                }
+            }
+            int resultado = motorVoz.synthesizeToFile(mensaje, new Bundle(),
+                cacheAudio.obtenerArchivoTemporal(clave), PREFIJO_PRECARGA + clave);
+            if (resultado == TextToSpeech.ERROR) {
+                synchronized (precargasPendientes) {
+                    precargasPendientes.remove(clave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene un futuro que se completa cuando el motor termina de inicializarse
+     * @return Futuro con true si el motor está listo, false si falló o se finalizó
+     */
+    @NonNull
+    public ListenableFuture<Boolean> obtenerFuturoListo() {
+        return futuroListo;
+    }
+
+    /**
+     * Recupera una expresión aceptada a partir del identificador que entregan los
+     * callbacks, en O(1). Solo está disponible hasta que la expresión termina.
+     * @return La expresión (notificación e instante de encolado), o null si ya terminó
+     */
+    @Nullable
+    public ExpresionPendiente obtenerExpresionEnVuelo(@NonNull String idExpresion) {
+        return expresionesEnVuelo.get(idExpresion);
+    }
+
+    /**
+     * Obtiene el número de expresiones aceptadas que aún no han terminado
+     */
+    public int obtenerExpresionesEnVuelo() {
+        return expresionesEnVuelo.size();
+    }
+
+    /**
+     * Obtiene el ejecutor del hilo dedicado al motor de voz. Enviar ahí las llamadas
+     * a este repositorio evita bloquear al llamante y serializa el acceso al motor.
+     */
+    @NonNull
+    @Override
+    public Executor obtenerEjecutorMotor() {
+        return hiloMotor;
+    }
+
+    /**
+     * Obtiene el registro de métricas de reproducción
+     */
+    @NonNull
+    public MetricasNotificacionesVoz obtenerMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Obtiene la caché de audio sintetizado
+     */
+    @NonNull
+    public CacheAudioNotificaciones obtenerCacheAudio() {
+        return cacheAudio;
+    }
+
+    private boolean esPrecarga(String idExpresion) {
+        return idExpresion != null && idExpresion.startsWith(PREFIJO_PRECARGA);
+    }
+
+    private void alFinalizarPrecarga(String idExpresion, boolean exito) {
+        String clave = idExpresion.substring(PREFIJO_PRECARGA.length());
+        synchronized (precargasPendientes) {
+            precargasPendientes.remove(clave);
+        }
+
+        if (!exito) {
+            cacheAudio.descartarTemporal(clave);
+            return;
+        }
+
+        File archivo = cacheAudio.confirmar(clave);
+        if (archivo != null && motorVoz != null) {
+            motorVoz.addEarcon(clave, archivo);
+            Log.d(ETIQUETA, "Audio precargado: " + clave);
+        }
+    }
+
+    private String calcularClaveAudio(String mensaje) {
+        ConfiguracionVoz configuracion = configuracionActual;
+        return CacheAudioNotificaciones.calcularClave(mensaje, configuracion.obtenerIdioma(),
+            configuracion.obtenerVelocidadVoz(), configuracion.obtenerTonoVoz());
+    }
+
+    @Override
+    public boolean cancelar(@NonNull NotificacionVoz notificacion) {
+        synchronized (cerrojo) {
+            ExpresionPendiente cancelada = cola.eliminar(notificacion);
+            boolean enCurso = false;
+            if (cancelada == null && expresionEnCurso != null
+                    && expresionEnCurso.obtenerNotificacion() == notificacion) {
+                cancelada = expresionEnCurso;
+                enCurso = true;
+            }
+            if (cancelada == null) {
+                return false;
+            }
+            metricas.registrar(MetricasNotificacionesVoz.Evento.CANCELADA);
+            cerrarExpresion(cancelada, false);
+            if (enCurso) {
+                // El motor solo tiene esta expresión; su onStop tardío se ignora
+                expresionEnCurso = null;
+                if (estaInicializado && motorVoz != null) {
+                    motorVoz.stop();
+                    despacharSiguiente();
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean puedeReproducir(@NonNull NotificacionVoz notificacion) {
+        // Mientras arranca retiene lo recibido; solo un motor que no pudo iniciarse queda fuera
+        return !motorInutilizable && configuracionActual.estaHabilitado();
     }
 
     @Override
     public void detener() {
+        synchronized (cerrojo) {
+            descartarPendientes(null, MetricasNotificacionesVoz.Evento.DESCARTADA_DETENIDA);
+            liberarExpresionEnCurso();
+        }
         if (motorVoz != null && estaInicializado) {
             motorVoz.stop();
             Log.d(ETIQUETA, "Reproducción detenida");
@@ -130,16 +598,86 @@ public class RepositorioNotificacionesVozImpl implements RepositorioNotificacion
         return motorVoz != null && estaInicializado && motorVoz.isSpeaking();
     }
 
+    @Override
+    public int obtenerProfundidadCola() {
+        return cola.obtenerProfundidad();
+    }
+
+    /**
+     * Obtiene el número de notificaciones en espera de una prioridad
+     */
+    public int obtenerProfundidadCola(@NonNull NotificacionVoz.Prioridad prioridad) {
+        return cola.obtenerProfundidad(prioridad);
+    }
+
     @Override
     public void configurar(@NonNull ConfiguracionVoz configuracion) {
         this.configuracionActual = configuracion;
         
-        if (motorVoz != null && estaInicializado) {
-            motorVoz.setLanguage(configuracion.obtenerIdioma());
-            motorVoz.setPitch(configuracion.obtenerTonoVoz());
-            motorVoz.setSpeechRate(configuracion.obtenerVelocidadVoz());
-            Log.i(ETIQUETA, "Configuración de voz actualizada");
+        // Antes de inicializarse el motor, la configuración se aplica al terminar
+        if (motorVoz != null && capacidadesMotor != null && !motorInutilizable) {
+            sincronizarConfiguracionMotor();
+        }
+    }
+
+    /**
+     * Lleva al motor los campos de la configuración actual que difieren de lo ya
+     * aplicado. Repetir una configuración sin cambios no llega al motor.
+     */
+    private void sincronizarConfiguracionMotor() {
+        synchronized (cerrojoConfiguracion) {
+            ConfiguracionVoz configuracion = configuracionActual;
+            int cambios = configuracion.compararCon(configuracionMotor);
+            if ((cambios & ConfiguracionVoz.CAMBIO_IDIOMA) != 0) {
+                aplicarIdioma(configuracion.obtenerIdioma());
+            }
+            if ((cambios & ConfiguracionVoz.CAMBIO_TONO) != 0) {
+                motorVoz.setPitch(configuracion.obtenerTonoVoz());
+            }
+            if ((cambios & ConfiguracionVoz.CAMBIO_VELOCIDAD) != 0) {
+                motorVoz.setSpeechRate(configuracion.obtenerVelocidadVoz());
+            }
+            configuracionMotor = configuracion;
+            if (cambios != 0) {
+                Log.i(ETIQUETA, "Configuración de voz actualizada");
+            }
+        }
+    }
+
+    /**
+     * Cambia el idioma del motor, con el del sistema como alternativa si no está
+     * disponible. Debe invocarse con cerrojoConfiguracion tomado.
+     */
+    private void aplicarIdioma(@NonNull Locale idioma) {
+        CapacidadesMotorVoz capacidades = capacidadesMotor;
+        Locale destino = idioma;
+        if (!capacidades.estaIdiomaDisponible(idioma)) {
+            Log.e(ETIQUETA, "Idioma no soportado: " + idioma);
+            destino = Locale.getDefault();
+        }
+        if (destino.equals(idiomaMotor)) {
+            return;
         }
+        int resultado = motorVoz.setLanguage(destino);
+        if (resultado == TextToSpeech.LANG_MISSING_DATA || resultado == TextToSpeech.LANG_NOT_SUPPORTED) {
+            // La caché estaba desactualizada (p. ej. se desinstalaron datos de voz)
+            capacidades.registrarDisponibilidad(destino, resultado);
+            if (!destino.equals(Locale.getDefault())) {
+                Log.e(ETIQUETA, "Idioma no soportado: " + destino);
+                destino = Locale.getDefault();
+                motorVoz.setLanguage(destino);
+            }
+        }
+        idiomaMotor = destino;
+    }
+
+    /**
+     * Obtiene la disponibilidad de idiomas y las voces del motor
+     * @return null hasta que el motor termina de inicializarse
+     */
+    @Nullable
+    public CapacidadesMotorVoz obtenerCapacidadesMotor() {
+        return capacidadesMotor;
     }
 
     @Override
@@ -147,14 +685,41 @@ public class RepositorioNotificacionesVozImpl implements RepositorioNotificacion
         return estaInicializado && motorVoz != null;
     }
 
+    /**
+     * Avisa del despacho al entregar cada expresión al motor, tras la espera en cola
+     * y la retención mientras arranca
+     */
+    @Override
+    public boolean informaDespacho() {
+        return true;
+    }
+
     @Override
     public void finalizar() {
+        synchronized (cerrojo) {
+            motorInutilizable = true;
+            descartarPendientes(null, MetricasNotificacionesVoz.Evento.DESCARTADA_DETENIDA);
+            liberarExpresionEnCurso();
+        }
         if (motorVoz != null) {
             motorVoz.stop();
             motorVoz.shutdown();
             estaInicializado = false;
             Log.i(ETIQUETA, "TextToSpeech finalizado");
         }
+        futuroListo.set(false);
+        // Las tareas ya enviadas (p. ej. resultados pendientes) aún se ejecutan
+        hiloMotor.shutdown();
+    }
+
+    /**
+     * Debe invocarse con el cerrojo tomado.
+     */
+    private void liberarExpresionEnCurso() {
+        if (expresionEnCurso != null) {
+            cerrarExpresion(expresionEnCurso, false);
+        }
+        expresionEnCurso = null;
     }
 
     /**
@@ -166,7 +731,17 @@ public class RepositorioNotificacionesVozImpl implements RepositorioNotificacion
     }
 
     /**
-     * Interface para escuchar eventos de las notificaciones de voz
+     * Crea el motor de voz; separado para poder sustituirlo en los tests
+     */
+    interface FabricaMotorVoz {
+        @NonNull
+        TextToSpeech crear(@NonNull TextToSpeech.OnInitListener alInicializar);
+    }
+
+    /**
+     * Interface para escuchar eventos de las notificaciones de voz.
+     * Se invoca en el hilo del motor, en el orden en que ocurren. Durante cada llamada la notificación sigue disponible en
+     * {@link #obtenerExpresionEnVuelo(String)}.
      */
     public interface EscuchadorNotificacionesVoz {
         void alIniciar(String idExpresion);
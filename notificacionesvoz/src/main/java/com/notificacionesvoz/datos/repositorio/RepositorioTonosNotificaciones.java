@@ -0,0 +1,108 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import android.media.AudioManager;
+import android.media.ToneGenerator;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motor de último recurso que sustituye cada notificación por un tono
+ *
+ * No necesita inicialización ni datos de idioma, así que suena en cuanto se pide:
+ * es el respaldo que garantiza que una alerta URGENTE se oiga aunque el motor de
+ * voz esté atascado. El tono y su duración dependen de la prioridad.
+ */
+public class RepositorioTonosNotificaciones extends RepositorioAudioSecuencial {
+
+    private static final String ETIQUETA = "RepoTonosNotificaciones";
+    private static final String NOMBRE_HILO = "TonosNotificacionesVoz";
+
+    // Por nivel de prioridad: BAJA, NORMAL, ALTA, URGENTE
+    private static final int[] TONOS = {
+        ToneGenerator.TONE_PROP_ACK,
+        ToneGenerator.TONE_PROP_BEEP,
+        ToneGenerator.TONE_PROP_BEEP2,
+        ToneGenerator.TONE_CDMA_EMERGENCY_RINGBACK
+    };
+    private static final int[] DURACIONES_MS = {150, 250, 400, 800};
+
+    @Nullable
+    private final ToneGenerator generador;
+    private final ScheduledExecutorService temporizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, NOMBRE_HILO);
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    @Nullable
+    private ScheduledFuture<?> finProgramado; // solo con el cerrojo de la base tomado
+
+    public RepositorioTonosNotificaciones() {
+        this(AudioManager.STREAM_NOTIFICATION, ToneGenerator.MAX_VOLUME);
+    }
+
+    /**
+     * Constructor
+     * @param tipoFlujo Flujo de audio (p. ej. AudioManager.STREAM_ALARM para que suene en silencio)
+     * @param volumen Volumen entre 0 y ToneGenerator.MAX_VOLUME
+     */
+    public RepositorioTonosNotificaciones(int tipoFlujo, int volumen) {
+        super(CAPACIDAD_COLA_PREDETERMINADA);
+        ToneGenerator creado = null;
+        try {
+            creado = new ToneGenerator(tipoFlujo, volumen);
+        } catch (RuntimeException excepcion) {
+            // El sistema puede negarse si no quedan recursos de audio
+            Log.e(ETIQUETA, "No se pudo crear el generador de tonos", excepcion);
+        }
+        this.generador = creado;
+    }
+
+    @Override
+    protected boolean iniciarAudio(@NonNull ExpresionPendiente expresion) {
+        int nivel = expresion.obtenerPrioridad().ordinal();
+        if (generador == null || !generador.startTone(TONOS[nivel], DURACIONES_MS[nivel])) {
+            return false;
+        }
+        // ToneGenerator no avisa al terminar: el fin se programa con la duración pedida
+        try {
+            finProgramado = temporizador.schedule(() -> alTerminarAudio(expresion, true),
+                DURACIONES_MS[nivel], TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException excepcion) {
+            generador.stopTone();
+            return false;
+        }
+    }
+
+    @Override
+    protected void liberarAudio(@NonNull ExpresionPendiente expresion) {
+        if (finProgramado != null) {
+            finProgramado.cancel(false);
+            finProgramado = null;
+        }
+        if (generador != null) {
+            generador.stopTone();
+        }
+    }
+
+    @Override
+    protected void liberarRecursos() {
+        temporizador.shutdownNow();
+        if (generador != null) {
+            generador.release();
+        }
+    }
+
+    @Override
+    public boolean estaDisponible() {
+        return generador != null && !temporizador.isShutdown();
+    }
+}
@@ -0,0 +1,373 @@
+package com.notificacionesvoz.presentacion;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus de eventos del ciclo de vida de las notificaciones, sin pérdidas por fusión
+ *
+ * A diferencia de LiveData.postValue, que solo entrega el último valor, cada evento
+ * publicado se entrega a todos los suscriptores. Los eventos viven en un buffer
+ * circular de objetos preasignados: publicar no reserva memoria ni toma cerrojos, y
+ * admite varios productores a la vez. Cada suscriptor recibe los eventos en orden,
+ * en su propio ejecutor.
+ *
+ * Cuando el suscriptor más lento se queda una vuelta completa atrás se aplica la
+ * {@link PoliticaDesbordamiento} elegida; las pérdidas quedan contabilizadas.
+ */
+public class BusEventosNotificacionesVoz {
+
+    public static final int CAPACIDAD_PREDETERMINADA = 1024;
+
+    /**
+     * Qué hacer al publicar con el buffer lleno
+     */
+    public enum PoliticaDesbordamiento {
+        /** Se descarta el evento nuevo y se contabiliza en obtenerEventosDescartados() */
+        DESCARTAR_NUEVOS,
+        /** Se sobrescribe el más antiguo; los suscriptores rezagados lo cuentan como perdido */
+        SOBRESCRIBIR_ANTIGUOS,
+        /**
+         * El productor espera a que haya hueco. No usar si algún suscriptor se
+         * ejecuta en el mismo hilo que publica.
+         */
+        BLOQUEAR
+    }
+
+    private static final long ESPERA_BLOQUEO_NS = 50_000;
+    private static final long ESCRIBIENDO = Long.MIN_VALUE;
+
+    private final int capacidad;
+    private final int mascara;
+    private final PoliticaDesbordamiento politica;
+    private final Reloj reloj;
+
+    private final Evento[] eventos;
+    // Secuencia publicada en cada hueco, ESCRIBIENDO mientras un productor lo rellena
+    private final AtomicLongArray publicadas;
+    private final AtomicLong siguienteSecuencia = new AtomicLong();
+    private final AtomicLong eventosDescartados = new AtomicLong();
+    private volatile Suscripcion[] suscripciones = new Suscripcion[0];
+
+    public BusEventosNotificacionesVoz() {
+        this(CAPACIDAD_PREDETERMINADA, PoliticaDesbordamiento.DESCARTAR_NUEVOS, Reloj.MONOTONICO);
+    }
+
+    /**
+     * Constructor
+     * @param capacidad Número de eventos en el buffer (potencia de 2)
+     * @param politica Comportamiento con el buffer lleno
+     * @param reloj Fuente de las marcas de tiempo de los eventos
+     */
+    public BusEventosNotificacionesVoz(int capacidad, @NonNull PoliticaDesbordamiento politica,
+                                       @NonNull Reloj reloj) {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de 2");
+        }
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+        this.politica = politica;
+        this.reloj = reloj;
+        this.eventos = new Evento[capacidad];
+        this.publicadas = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            eventos[i] = new Evento();
+            // Cada hueco queda como si hubiera publicado la vuelta anterior
+            publicadas.set(i, i - (long) capacidad);
+        }
+    }
+
+    /**
+     * Publica un evento. Puede llamarse desde cualquier hilo.
+     * @param tipo Tipo de evento
+     * @param mensaje Identificador de la expresión o descripción del error
+     * @return false si el evento se descartó por falta de hueco
+     */
+    public boolean publicar(@NonNull GestorNotificacionesVoz.EventoNotificacion.Tipo tipo, @Nullable String mensaje) {
+        return publicar(tipo, mensaje, MetadatosNotificacion.vacios());
+    }
+
+    /**
+     * Publica un evento con los metadatos de su notificación. Puede llamarse desde cualquier hilo.
+     * @param tipo Tipo de evento
+     * @param mensaje Identificador de la expresión o descripción del error
+     * @param metadatos Metadatos tipados de la notificación (inmutables, no se copian)
+     * @return false si el evento se descartó por falta de hueco
+     */
+    public boolean publicar(@NonNull GestorNotificacionesVoz.EventoNotificacion.Tipo tipo, @Nullable String mensaje,
+                            @NonNull MetadatosNotificacion metadatos) {
+        long secuencia = reservar();
+        if (secuencia < 0) {
+            eventosDescartados.incrementAndGet();
+            return false;
+        }
+
+        int indice = (int) secuencia & mascara;
+        // Con SOBRESCRIBIR_ANTIGUOS otro productor podría seguir en este hueco una vuelta atrás
+        while (publicadas.get(indice) != secuencia - capacidad) {
+            Thread.yield();
+        }
+        publicadas.set(indice, ESCRIBIENDO);
+        Evento evento = eventos[indice];
+        evento.secuencia = secuencia;
+        evento.tipo = tipo;
+        evento.mensaje = mensaje;
+        evento.metadatos = metadatos;
+        evento.marcaTiempoMs = reloj.ahoraMs();
+        publicadas.set(indice, secuencia);
+
+        for (Suscripcion suscripcion : suscripciones) {
+            suscripcion.programar();
+        }
+        return true;
+    }
+
+    /**
+     * @return La secuencia reservada, o -1 si el evento debe descartarse
+     */
+    private long reservar() {
+        while (true) {
+            long secuencia = siguienteSecuencia.get();
+            if (politica != PoliticaDesbordamiento.SOBRESCRIBIR_ANTIGUOS
+                    && secuencia - obtenerCursorMinimo(secuencia) >= capacidad) {
+                if (politica == PoliticaDesbordamiento.DESCARTAR_NUEVOS) {
+                    return -1;
+                }
+                LockSupport.parkNanos(ESPERA_BLOQUEO_NS);
+                continue;
+            }
+            if (siguienteSecuencia.compareAndSet(secuencia, secuencia + 1)) {
+                return secuencia;
+            }
+        }
+    }
+
+    private long obtenerCursorMinimo(long predeterminado) {
+        long minimo = predeterminado;
+        for (Suscripcion suscripcion : suscripciones) {
+            minimo = Math.min(minimo, suscripcion.cursor.get());
+        }
+        return minimo;
+    }
+
+    /**
+     * Suscribe un receptor a los eventos publicados a partir de ahora
+     * @param ejecutor Ejecutor en el que se entregan los eventos (p. ej. el del hilo principal)
+     * @param suscriptor Receptor de los eventos
+     * @return Suscripción, para cancelarla o consultar sus pérdidas
+     */
+    @NonNull
+    public Suscripcion suscribir(@NonNull Executor ejecutor, @NonNull Suscriptor suscriptor) {
+        Suscripcion suscripcion = new Suscripcion(ejecutor, suscriptor, siguienteSecuencia.get());
+        synchronized (this) {
+            Suscripcion[] actuales = suscripciones;
+            Suscripcion[] nuevas = new Suscripcion[actuales.length + 1];
+            System.arraycopy(actuales, 0, nuevas, 0, actuales.length);
+            nuevas[actuales.length] = suscripcion;
+            suscripciones = nuevas;
+        }
+        return suscripcion;
+    }
+
+    private synchronized void eliminar(@NonNull Suscripcion suscripcion) {
+        Suscripcion[] actuales = suscripciones;
+        for (int i = 0; i < actuales.length; i++) {
+            if (actuales[i] == suscripcion) {
+                Suscripcion[] nuevas = new Suscripcion[actuales.length - 1];
+                System.arraycopy(actuales, 0, nuevas, 0, i);
+                System.arraycopy(actuales, i + 1, nuevas, i, actuales.length - i - 1);
+                suscripciones = nuevas;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Obtiene cuántos eventos se han descartado con DESCARTAR_NUEVOS
+     */
+    public long obtenerEventosDescartados() {
+        return eventosDescartados.get();
+    }
+
+    /**
+     * Obtiene cuántos eventos ha aceptado el bus desde su creación
+     */
+    public long obtenerEventosPublicados() {
+        return siguienteSecuencia.get();
+    }
+
+    public int obtenerCapacidad() {
+        return capacidad;
+    }
+
+    @NonNull
+    public PoliticaDesbordamiento obtenerPolitica() {
+        return politica;
+    }
+
+    /**
+     * Receptor de eventos del bus
+     */
+    public interface Suscriptor {
+        /**
+         * Recibe un evento. El objeto se reutiliza: copiar los campos necesarios
+         * en lugar de conservar la referencia.
+         */
+        void alRecibirEvento(@NonNull Evento evento);
+    }
+
+    /**
+     * Evento del ciclo de vida de una notificación. Los objetos se preasignan y se reutilizan.
+     */
+    public static final class Evento {
+        volatile long secuencia;
+        volatile GestorNotificacionesVoz.EventoNotificacion.Tipo tipo;
+        volatile String mensaje;
+        volatile MetadatosNotificacion metadatos = MetadatosNotificacion.vacios();
+        volatile long marcaTiempoMs;
+
+        /**
+         * Número de orden del evento en el bus; los huecos indican eventos perdidos
+         */
+        public long obtenerSecuencia() {
+            return secuencia;
+        }
+
+        public GestorNotificacionesVoz.EventoNotificacion.Tipo obtenerTipo() {
+            return tipo;
+        }
+
+        /**
+         * Identificador de la expresión o descripción del error
+         */
+        @Nullable
+        public String obtenerMensaje() {
+            return mensaje;
+        }
+
+        /**
+         * Metadatos tipados de la notificación (vacíos si no los tiene o es un error general)
+         */
+        @NonNull
+        public MetadatosNotificacion obtenerMetadatos() {
+            return metadatos;
+        }
+
+        /**
+         * Instante de publicación según el reloj del bus
+         */
+        public long obtenerMarcaTiempoMs() {
+            return marcaTiempoMs;
+        }
+
+        void copiarDe(Evento otro) {
+            secuencia = otro.secuencia;
+            tipo = otro.tipo;
+            mensaje = otro.mensaje;
+            metadatos = otro.metadatos;
+            marcaTiempoMs = otro.marcaTiempoMs;
+        }
+    }
+
+    /**
+     * Suscripción a los eventos del bus con su propio cursor de lectura
+     */
+    public final class Suscripcion {
+        private final Executor ejecutor;
+        private final Suscriptor suscriptor;
+        private final AtomicLong cursor;
+        private final AtomicBoolean programada = new AtomicBoolean();
+        private final AtomicLong eventosPerdidos = new AtomicLong();
+        private final Evento copia = new Evento();
+        private final Runnable tareaDrenado = this::drenar;
+        private volatile boolean cancelada;
+
+        Suscripcion(Executor ejecutor, Suscriptor suscriptor, long primeraSecuencia) {
+            this.ejecutor = ejecutor;
+            this.suscriptor = suscriptor;
+            this.cursor = new AtomicLong(primeraSecuencia);
+        }
+
+        /**
+         * Deja de recibir eventos. Los que estén entregándose pueden llegar todavía.
+         */
+        public void cancelar() {
+            cancelada = true;
+            eliminar(this);
+        }
+
+        /**
+         * Obtiene cuántos eventos se sobrescribieron antes de que este suscriptor los leyera
+         */
+        public long obtenerEventosPerdidos() {
+            return eventosPerdidos.get();
+        }
+
+        /**
+         * Obtiene cuántos eventos publicados quedan por entregar a este suscriptor
+         */
+        public long obtenerPendientes() {
+            return Math.max(0, siguienteSecuencia.get() - cursor.get());
+        }
+
+        void programar() {
+            if (!cancelada && programada.compareAndSet(false, true)) {
+                ejecutor.execute(tareaDrenado);
+            }
+        }
+
+        private void drenar() {
+            do {
+                while (!cancelada && leerSiguiente()) {
+                    suscriptor.alRecibirEvento(copia);
+                }
+                programada.set(false);
+                // Un productor pudo publicar entre la última lectura y liberar la marca
+            } while (!cancelada && hayDisponible() && programada.compareAndSet(false, true));
+        }
+
+        private boolean hayDisponible() {
+            long siguiente = cursor.get();
+            return publicadas.get((int) siguiente & mascara) >= siguiente;
+        }
+
+        /**
+         * Copia el siguiente evento en {@link #copia} y avanza el cursor
+         * @return false si no hay evento publicado todavía
+         */
+        private boolean leerSiguiente() {
+            while (true) {
+                long siguiente = cursor.get();
+                int indice = (int) siguiente & mascara;
+                long publicada = publicadas.get(indice);
+                if (publicada == siguiente) {
+                    copia.copiarDe(eventos[indice]);
+                    if (publicadas.get(indice) == siguiente) {
+                        cursor.set(siguiente + 1);
+                        return true;
+                    }
+                    // Sobrescrito mientras se copiaba: se recalcula abajo en la siguiente vuelta
+                } else if (publicada != ESCRIBIENDO && publicada < siguiente) {
+                    return false;
+                } else if (publicada == ESCRIBIENDO && siguienteSecuencia.get() - siguiente <= capacidad) {
+                    // El productor de este hueco aún no ha terminado
+                    return false;
+                }
+                // El productor dio la vuelta: saltar a lo más antiguo que sigue en el buffer
+                long masAntigua = Math.max(siguiente + 1, siguienteSecuencia.get() - capacidad);
+                if (cursor.compareAndSet(siguiente, masAntigua)) {
+                    eventosPerdidos.addAndGet(masAntigua - siguiente);
+                }
+            }
+        }
+    }
+}
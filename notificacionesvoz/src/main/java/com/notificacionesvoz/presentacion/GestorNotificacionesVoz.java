@@ -3,18 +3,38 @@ package com.notificacionesvoz.presentacion;
 import android.content.Context;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.concurrent.futures.ResolvableFuture;
 import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleEventObserver;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.notificacionesvoz.datos.bitacora.BitacoraNotificaciones;
+import com.notificacionesvoz.datos.bitacora.RegistroBitacora;
+import com.notificacionesvoz.datos.repositorio.ExpresionPendiente;
+import com.notificacionesvoz.datos.repositorio.RepositorioClipsGrabados;
+import com.notificacionesvoz.datos.repositorio.RepositorioNotificacionesVozCompuesto;
 import com.notificacionesvoz.datos.repositorio.RepositorioNotificacionesVozImpl;
+import com.notificacionesvoz.datos.repositorio.RepositorioTonosNotificaciones;
 import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
 import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
 import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
 import com.notificacionesvoz.dominio.casosuso.ConfigurarVozCasoUso;
 import com.notificacionesvoz.dominio.casosuso.ReproducirNotificacionCasoUso;
+import com.notificacionesvoz.utilidades.LimitadorNotificaciones;
+import com.notificacionesvoz.utilidades.MetricasNotificacionesVoz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Gestor principal de notificaciones de voz
@@ -22,38 +42,66 @@ import com.notificacionesvoz.dominio.casosuso.ReproducirNotificacionCasoUso;
  * 
  * Gestiona el ciclo de vida y proporciona una API simple para reproducir
  * cualquier tipo de notificación de voz en cualquier dominio de negocio
+ *
+ * Las operaciones que actúan sobre el motor se ejecutan en un hilo dedicado, por lo
+ * que se pueden invocar desde cualquier hilo (principal, sensores...) sin bloquearlo.
+ *
+ * Si el motor de voz no empieza a tiempo o falla, la notificación se sustituye por su
+ * clip grabado (si la app registró uno para su categoría) o por un tono, de modo que
+ * una alerta URGENTE nunca se queda sin sonar. Lo que reproducen estos motores de
+ * respaldo cuenta en las métricas y se publica como evento igual que la voz.
  */
 public class GestorNotificacionesVoz implements LifecycleEventObserver {
     
     private static volatile GestorNotificacionesVoz instancia;
     
     private final RepositorioNotificacionesVoz repositorio;
-    private final ReproducirNotificacionCasoUso casoUsoReproducir;
+    private final RepositorioNotificacionesVozImpl repositorioTTS;
+    private ReproducirNotificacionCasoUso casoUsoReproducir; // solo en el hilo del motor
     private final ConfigurarVozCasoUso casoUsoConfigurar;
+    private final Executor hiloMotor;
     private final MutableLiveData<EventoNotificacion> eventosLiveData;
+    private final BusEventosNotificacionesVoz busEventos;
+    @Nullable
+    private volatile BitacoraNotificaciones bitacora;
+    @Nullable
+    private volatile LimitadorNotificaciones limitador;
     
-    private GestorNotificacionesVoz(@NonNull Context contexto) {
+    private GestorNotificacionesVoz(@NonNull Context contexto, @NonNull Map<String, Integer> clipsPorCategoria) {
         RepositorioNotificacionesVozImpl repositorioImpl = new RepositorioNotificacionesVozImpl(contexto);
-        this.repositorio = repositorioImpl;
+        MetricasNotificacionesVoz metricas = repositorioImpl.obtenerMetricas();
+        RepositorioNotificacionesVozCompuesto.Constructor constructor = new RepositorioNotificacionesVozCompuesto.Constructor()
+            .agregarMotor(repositorioImpl);
+        if (!clipsPorCategoria.isEmpty()) {
+            constructor.agregarMotor(new MotorAlternativoObservado(
+                new RepositorioClipsGrabados(contexto, clipsPorCategoria), metricas, this::publicarEvento));
+        }
+        this.repositorio = constructor
+            .agregarMotor(new MotorAlternativoObservado(
+                new RepositorioTonosNotificaciones(), metricas, this::publicarEvento))
+            .construir();
+        this.repositorioTTS = repositorioImpl;
         this.casoUsoReproducir = new ReproducirNotificacionCasoUso(repositorio);
         this.casoUsoConfigurar = new ConfigurarVozCasoUso(repositorio);
+        this.hiloMotor = repositorioImpl.obtenerEjecutorMotor();
         this.eventosLiveData = new MutableLiveData<>();
+        this.busEventos = new BusEventosNotificacionesVoz();
         
         // Configurar escuchador para eventos
         repositorioImpl.establecerEscuchador(new RepositorioNotificacionesVozImpl.EscuchadorNotificacionesVoz() {
             @Override
             public void alIniciar(String idExpresion) {
-                eventosLiveData.postValue(new EventoNotificacion(EventoNotificacion.Tipo.INICIADO, idExpresion));
+                publicarEvento(EventoNotificacion.Tipo.INICIADO, idExpresion);
             }
 
             @Override
             public void alCompletar(String idExpresion) {
-                eventosLiveData.postValue(new EventoNotificacion(EventoNotificacion.Tipo.COMPLETADO, idExpresion));
+                publicarEvento(EventoNotificacion.Tipo.COMPLETADO, idExpresion);
             }
 
             @Override
             public void alOcurrirError(String idExpresion) {
-                eventosLiveData.postValue(new EventoNotificacion(EventoNotificacion.Tipo.ERROR, idExpresion));
+                publicarEvento(EventoNotificacion.Tipo.ERROR, idExpresion);
             }
         });
     }
@@ -63,10 +111,23 @@ public class GestorNotificacionesVoz implements LifecycleEventObserver {
      */
     @NonNull
     public static GestorNotificacionesVoz obtenerInstancia(@NonNull Context contexto) {
+        return obtenerInstancia(contexto, Collections.emptyMap());
+    }
+
+    /**
+     * Obtiene la instancia singleton (thread-safe) registrando clips grabados como
+     * respaldo del motor de voz. Los clips solo se tienen en cuenta al crear la
+     * instancia, así que debe llamarse antes que cualquier otro obtenerInstancia
+     * (p. ej. en Application.onCreate).
+     * @param clipsPorCategoria Recurso raw (R.raw.*) de cada categoría de notificación
+     */
+    @NonNull
+    public static GestorNotificacionesVoz obtenerInstancia(@NonNull Context contexto,
+                                                           @NonNull Map<String, Integer> clipsPorCategoria) {
         if (instancia == null) {
             synchronized (GestorNotificacionesVoz.class) {
                 if (instancia == null) {
-                    instancia = new GestorNotificacionesVoz(contexto.getApplicationContext());
+                    instancia = new GestorNotificacionesVoz(contexto.getApplicationContext(), clipsPorCategoria);
                 }
             }
         }
@@ -74,14 +135,103 @@ public class GestorNotificacionesVoz implements LifecycleEventObserver {
     }
 
     /**
-     * Reproduce una notificación de voz
+     * Reproduce una notificación de voz. No bloquea: la notificación se entrega
+     * al motor desde su hilo dedicado.
      * @param notificacion Notificación a reproducir
      */
     public void reproducir(@NonNull NotificacionVoz notificacion) {
+        ejecutarEnHiloMotor(() -> ejecutarReproduccion(notificacion, null));
+    }
+
+    /**
+     * Reproduce una notificación de voz y devuelve un futuro con su desenlace
+     * @param notificacion Notificación a reproducir
+     * @return Futuro con true cuando la notificación termina de reproducirse, o false
+     *         si se fusionó con una reciente, la suprimió el limitador, se descartó,
+     *         se interrumpió o falló
+     */
+    @NonNull
+    public ListenableFuture<Boolean> reproducirAsync(@NonNull NotificacionVoz notificacion) {
+        ResolvableFuture<Boolean> futuro = ResolvableFuture.create();
+        if (!ejecutarEnHiloMotor(() -> ejecutarReproduccion(notificacion, futuro))) {
+            futuro.set(false);
+        }
+        return futuro;
+    }
+
+    private void ejecutarReproduccion(@NonNull NotificacionVoz notificacion,
+                                      @Nullable ResolvableFuture<Boolean> futuro) {
+        BitacoraNotificaciones bitacoraActual = bitacora;
+        RepositorioNotificacionesVoz.EscuchadorResultado escuchador = futuro != null ? futuro::set : null;
+        if (bitacoraActual != null) {
+            bitacoraActual.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion);
+            escuchador = new EscuchadorBitacora(bitacoraActual, notificacion, escuchador);
+        }
+        LimitadorNotificaciones limitadorActual = limitador;
+        if (limitadorActual != null && !limitadorActual.intentarNotificar(notificacion.obtenerCategoria())) {
+            registrarDescarte(notificacion, MetricasNotificacionesVoz.Evento.SUPRIMIDA,
+                RegistroBitacora.Evento.SUPRIMIDA, bitacoraActual, futuro);
+            return;
+        }
         try {
-            casoUsoReproducir.ejecutar(notificacion);
+            boolean enviada = casoUsoReproducir.ejecutar(notificacion, escuchador);
+            if (!enviada) {
+                registrarDescarte(notificacion, MetricasNotificacionesVoz.Evento.FUSIONADA,
+                    RegistroBitacora.Evento.FUSIONADA, bitacoraActual, futuro);
+            }
         } catch (Exception excepcion) {
-            eventosLiveData.postValue(new EventoNotificacion(EventoNotificacion.Tipo.ERROR, excepcion.getMessage()));
+            publicarEvento(EventoNotificacion.Tipo.ERROR, excepcion.getMessage());
+            if (futuro != null) {
+                futuro.setException(excepcion);
+            }
+        }
+    }
+
+    /**
+     * Cuenta y registra una notificación que no llegó al motor
+     */
+    private void registrarDescarte(@NonNull NotificacionVoz notificacion,
+                                   @NonNull MetricasNotificacionesVoz.Evento eventoMetricas,
+                                   @NonNull RegistroBitacora.Evento eventoBitacora,
+                                   @Nullable BitacoraNotificaciones bitacoraActual,
+                                   @Nullable ResolvableFuture<Boolean> futuro) {
+        repositorioTTS.obtenerMetricas().registrar(eventoMetricas);
+        if (bitacoraActual != null) {
+            bitacoraActual.registrar(eventoBitacora, notificacion);
+        }
+        if (futuro != null) {
+            futuro.set(false);
+        }
+    }
+
+    private void publicarEvento(@NonNull EventoNotificacion.Tipo tipo, String mensaje) {
+        ExpresionPendiente expresion = mensaje != null ? repositorioTTS.obtenerExpresionEnVuelo(mensaje) : null;
+        publicarEvento(tipo, mensaje, expresion != null
+            ? expresion.obtenerNotificacion().obtenerMetadatosTipados()
+            : MetadatosNotificacion.vacios());
+    }
+
+    /**
+     * Evento de un motor de respaldo: no tiene identificador de expresión, así que
+     * el mensaje es el texto de la notificación
+     */
+    private void publicarEvento(@NonNull EventoNotificacion.Tipo tipo, @NonNull NotificacionVoz notificacion) {
+        publicarEvento(tipo, notificacion.obtenerMensaje(), notificacion.obtenerMetadatosTipados());
+    }
+
+    private void publicarEvento(@NonNull EventoNotificacion.Tipo tipo, String mensaje,
+                                @NonNull MetadatosNotificacion metadatos) {
+        busEventos.publicar(tipo, mensaje, metadatos);
+        eventosLiveData.postValue(new EventoNotificacion(tipo, mensaje));
+    }
+
+    private boolean ejecutarEnHiloMotor(@NonNull Runnable tarea) {
+        try {
+            hiloMotor.execute(tarea);
+            return true;
+        } catch (RejectedExecutionException excepcion) {
+            // El gestor ya se finalizó
+            return false;
         }
     }
 
@@ -106,18 +256,42 @@ public class GestorNotificacionesVoz implements LifecycleEventObserver {
         reproducir(notificacion);
     }
 
+    /**
+     * Establece la ventana en la que las notificaciones equivalentes (misma categoría
+     * y texto) se reproducen una sola vez; las repetidas se descartan como fusionadas.
+     * Por defecto es {@link ReproducirNotificacionCasoUso#VENTANA_FUSION_PREDETERMINADA_MS}
+     * (2 s), para que la lectura repetida de un sensor no se anuncie varias veces.
+     * @param ventanaFusionMs Ventana en milisegundos, o 0 para reproducir todas
+     */
+    public void establecerVentanaFusionMs(long ventanaFusionMs) {
+        if (ventanaFusionMs < 0) {
+            throw new IllegalArgumentException("La ventana de fusión no puede ser negativa");
+        }
+        ejecutarEnHiloMotor(() -> casoUsoReproducir = new ReproducirNotificacionCasoUso(repositorio, ventanaFusionMs));
+    }
+
     /**
      * Configura el motor de voz
      */
     public void configurar(@NonNull ConfiguracionVoz configuracion) {
-        casoUsoConfigurar.ejecutar(configuracion);
+        ejecutarEnHiloMotor(() -> casoUsoConfigurar.ejecutar(configuracion));
+    }
+
+    /**
+     * Sintetiza a disco mensajes que se repiten con frecuencia para reproducirlos
+     * sin esperar a la síntesis. Llamar una vez el motor esté disponible.
+     * @param mensajes Textos a precargar
+     */
+    public void precargarMensajes(@NonNull Collection<String> mensajes) {
+        List<String> copia = new ArrayList<>(mensajes);
+        ejecutarEnHiloMotor(() -> repositorioTTS.precargarMensajes(copia));
     }
 
     /**
      * Detiene la reproducción actual
      */
     public void detener() {
-        repositorio.detener();
+        ejecutarEnHiloMotor(repositorio::detener);
     }
 
     /**
@@ -127,6 +301,24 @@ public class GestorNotificacionesVoz implements LifecycleEventObserver {
         return repositorio.estaReproduciendo();
     }
 
+    /**
+     * Obtiene el número de notificaciones en espera de ser reproducidas
+     */
+    public int obtenerProfundidadCola() {
+        return repositorio.obtenerProfundidadCola();
+    }
+
+    /**
+     * Recupera la notificación a la que corresponde un identificador de expresión
+     * (el mensaje de los eventos INICIADO, COMPLETADO y ERROR del motor)
+     * @return La notificación, o null si ya terminó o el identificador no es de una expresión
+     */
+    @Nullable
+    public NotificacionVoz obtenerNotificacion(@NonNull String idExpresion) {
+        ExpresionPendiente expresion = repositorioTTS.obtenerExpresionEnVuelo(idExpresion);
+        return expresion != null ? expresion.obtenerNotificacion() : null;
+    }
+
     /**
      * Verifica si el servicio está disponible
      */
@@ -135,13 +327,82 @@ public class GestorNotificacionesVoz implements LifecycleEventObserver {
     }
 
     /**
-     * Obtiene LiveData para observar eventos
+     * Obtiene un futuro que se completa cuando el motor de voz está listo.
+     * Las notificaciones enviadas antes se retienen y se reproducen al completarse.
+     * @return Futuro con true si el motor está listo, false si no está disponible
+     */
+    @NonNull
+    public ListenableFuture<Boolean> obtenerFuturoListo() {
+        return repositorioTTS.obtenerFuturoListo();
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas de reproducción: contadores de
+     * notificaciones solicitadas, reproducidas y descartadas por motivo, y
+     * latencias de espera y reproducción por prioridad y categoría
+     */
+    @NonNull
+    public MetricasNotificacionesVoz.Instantanea obtenerMetricas() {
+        return repositorioTTS.obtenerMetricas().obtenerInstantanea();
+    }
+
+    /**
+     * Pone a cero las métricas, p. ej. tras enviarlas a telemetría
+     */
+    public void reiniciarMetricas() {
+        repositorioTTS.obtenerMetricas().reiniciar();
+    }
+
+    /**
+     * Obtiene LiveData para observar eventos.
+     * LiveData solo entrega el último valor: con ráfagas de eventos se pierden los
+     * intermedios. Para recibirlos todos usar {@link #suscribirEventos}.
      */
     @NonNull
     public LiveData<EventoNotificacion> obtenerEventos() {
         return eventosLiveData;
     }
 
+    /**
+     * Suscribe un receptor a todos los eventos de inicio, fin y error, sin fusionarlos
+     * @param ejecutor Ejecutor en el que se entregan los eventos
+     * @param suscriptor Receptor de los eventos
+     * @return Suscripción, para cancelarla o consultar pérdidas
+     */
+    @NonNull
+    public BusEventosNotificacionesVoz.Suscripcion suscribirEventos(@NonNull Executor ejecutor,
+                                                                    @NonNull BusEventosNotificacionesVoz.Suscriptor suscriptor) {
+        return busEventos.suscribir(ejecutor, suscriptor);
+    }
+
+    /**
+     * Obtiene el bus de eventos, p. ej. para consultar los eventos descartados
+     */
+    @NonNull
+    public BusEventosNotificacionesVoz obtenerBusEventos() {
+        return busEventos;
+    }
+
+    /**
+     * Establece la bitácora donde se registra cada notificación pedida y su desenlace
+     * (suprimida por el limitador, fusionada, iniciada, completada, interrumpida o
+     * descartada). El gestor no la cierra: su ciclo de vida es el del viaje.
+     * @param bitacora La bitácora, o null para dejar de registrar
+     */
+    public void establecerBitacora(@Nullable BitacoraNotificaciones bitacora) {
+        this.bitacora = bitacora;
+    }
+
+    /**
+     * Establece el limitador que el gestor consulta antes de cada notificación. Las
+     * que rechaza (categoría en enfriamiento o presupuesto agotado) no llegan al
+     * motor y cuentan como SUPRIMIDA en las métricas y en la bitácora.
+     * @param limitador El limitador, o null para reproducirlas todas
+     */
+    public void establecerLimitador(@Nullable LimitadorNotificaciones limitador) {
+        this.limitador = limitador;
+    }
+
     // Callback del ciclo de vida
     @Override
     public void onStateChanged(@NonNull LifecycleOwner propietario, @NonNull Lifecycle.Event evento) {
@@ -150,11 +411,49 @@ public class GestorNotificacionesVoz implements LifecycleEventObserver {
             detener();
         } else if (evento == Lifecycle.Event.ON_DESTROY) {
             // Liberar recursos
-            repositorio.finalizar();
+            ejecutarEnHiloMotor(repositorio::finalizar);
             propietario.getLifecycle().removeObserver(this);
         }
     }
 
+    /**
+     * Registra en la bitácora el inicio y el desenlace de una notificación y
+     * después avisa al receptor original
+     */
+    private static final class EscuchadorBitacora implements RepositorioNotificacionesVoz.EscuchadorResultado {
+        private final BitacoraNotificaciones bitacora;
+        private final NotificacionVoz notificacion;
+        @Nullable
+        private final RepositorioNotificacionesVoz.EscuchadorResultado siguiente;
+        private volatile boolean iniciada = false;
+
+        EscuchadorBitacora(@NonNull BitacoraNotificaciones bitacora, @NonNull NotificacionVoz notificacion,
+                           @Nullable RepositorioNotificacionesVoz.EscuchadorResultado siguiente) {
+            this.bitacora = bitacora;
+            this.notificacion = notificacion;
+            this.siguiente = siguiente;
+        }
+
+        @Override
+        public void alIniciar() {
+            iniciada = true;
+            bitacora.registrar(RegistroBitacora.Evento.INICIADA, notificacion);
+            if (siguiente != null) {
+                siguiente.alIniciar();
+            }
+        }
+
+        @Override
+        public void alFinalizar(boolean completada) {
+            bitacora.registrar(completada ? RegistroBitacora.Evento.COMPLETADA
+                : iniciada ? RegistroBitacora.Evento.INTERRUMPIDA
+                : RegistroBitacora.Evento.DESCARTADA, notificacion);
+            if (siguiente != null) {
+                siguiente.alFinalizar(completada);
+            }
+        }
+    }
+
     /**
      * Clase para eventos de notificaciones
      */
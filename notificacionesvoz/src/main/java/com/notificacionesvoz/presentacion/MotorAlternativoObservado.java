@@ -0,0 +1,192 @@
+package com.notificacionesvoz.presentacion;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+import com.notificacionesvoz.utilidades.MetricasNotificacionesVoz;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Envoltorio de un motor alternativo (tonos, clips) que contabiliza sus
+ * reproducciones en las métricas y las publica como eventos, igual que hace el
+ * motor de voz con las suyas
+ *
+ * La espera se mide desde que el compuesto le entrega la notificación.
+ */
+final class MotorAlternativoObservado implements RepositorioNotificacionesVoz {
+
+    /**
+     * Destino de los eventos de inicio, fin y error
+     */
+    interface Publicador {
+        void publicar(@NonNull GestorNotificacionesVoz.EventoNotificacion.Tipo tipo,
+                      @NonNull NotificacionVoz notificacion);
+    }
+
+    private final RepositorioNotificacionesVoz motor;
+    private final MetricasNotificacionesVoz metricas;
+    private final Publicador publicador;
+    private final Reloj reloj;
+    private final Map<NotificacionVoz, EscuchadorObservado> enCurso =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    MotorAlternativoObservado(@NonNull RepositorioNotificacionesVoz motor,
+                              @NonNull MetricasNotificacionesVoz metricas,
+                              @NonNull Publicador publicador) {
+        this(motor, metricas, publicador, Reloj.MONOTONICO);
+    }
+
+    MotorAlternativoObservado(@NonNull RepositorioNotificacionesVoz motor,
+                              @NonNull MetricasNotificacionesVoz metricas,
+                              @NonNull Publicador publicador,
+                              @NonNull Reloj reloj) {
+        this.motor = motor;
+        this.metricas = metricas;
+        this.publicador = publicador;
+        this.reloj = reloj;
+    }
+
+    @Override
+    public void reproducir(@NonNull NotificacionVoz notificacion,
+                           @Nullable EscuchadorResultado escuchadorResultado) {
+        EscuchadorObservado observado = new EscuchadorObservado(notificacion, reloj.ahoraMs(), escuchadorResultado);
+        enCurso.put(notificacion, observado);
+        motor.reproducir(notificacion, observado);
+    }
+
+    @Override
+    public boolean cancelar(@NonNull NotificacionVoz notificacion) {
+        EscuchadorObservado observado = enCurso.get(notificacion);
+        if (observado != null) {
+            observado.motivoFallo = MetricasNotificacionesVoz.Evento.CANCELADA;
+        }
+        return motor.cancelar(notificacion);
+    }
+
+    @Override
+    public void detener() {
+        List<EscuchadorObservado> pendientes;
+        synchronized (enCurso) {
+            pendientes = new ArrayList<>(enCurso.values());
+        }
+        for (EscuchadorObservado observado : pendientes) {
+            observado.motivoFallo = MetricasNotificacionesVoz.Evento.DESCARTADA_DETENIDA;
+        }
+        motor.detener();
+    }
+
+    @Override
+    public boolean estaReproduciendo() {
+        return motor.estaReproduciendo();
+    }
+
+    @Override
+    public int obtenerProfundidadCola() {
+        return motor.obtenerProfundidadCola();
+    }
+
+    @Override
+    public void configurar(@NonNull ConfiguracionVoz configuracion) {
+        motor.configurar(configuracion);
+    }
+
+    @Override
+    public boolean estaDisponible() {
+        return motor.estaDisponible();
+    }
+
+    @Override
+    public boolean puedeReproducir(@NonNull NotificacionVoz notificacion) {
+        return motor.puedeReproducir(notificacion);
+    }
+
+    @Override
+    public boolean informaDespacho() {
+        return motor.informaDespacho();
+    }
+
+    @NonNull
+    @Override
+    public Executor obtenerEjecutorMotor() {
+        return motor.obtenerEjecutorMotor();
+    }
+
+    @Override
+    public void finalizar() {
+        motor.finalizar();
+    }
+
+    /**
+     * Registra el inicio y el desenlace de una notificación y después avisa al
+     * receptor del compuesto
+     */
+    private final class EscuchadorObservado implements EscuchadorResultado {
+        private final NotificacionVoz notificacion;
+        private final long instanteEntregaMs;
+        @Nullable
+        private final EscuchadorResultado siguiente;
+        private volatile long instanteInicioMs = -1;
+        private volatile MetricasNotificacionesVoz.Evento motivoFallo = MetricasNotificacionesVoz.Evento.ERROR;
+
+        EscuchadorObservado(@NonNull NotificacionVoz notificacion, long instanteEntregaMs,
+                            @Nullable EscuchadorResultado siguiente) {
+            this.notificacion = notificacion;
+            this.instanteEntregaMs = instanteEntregaMs;
+            this.siguiente = siguiente;
+        }
+
+        @Override
+        public void alDespachar() {
+            if (siguiente != null) {
+                siguiente.alDespachar();
+            }
+        }
+
+        @Override
+        public void alIniciar() {
+            long ahora = reloj.ahoraMs();
+            instanteInicioMs = ahora;
+            metricas.registrar(MetricasNotificacionesVoz.Evento.INICIADA);
+            metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.ESPERA, notificacion, ahora - instanteEntregaMs);
+            publicador.publicar(GestorNotificacionesVoz.EventoNotificacion.Tipo.INICIADO, notificacion);
+            if (siguiente != null) {
+                siguiente.alIniciar();
+            }
+        }
+
+        @Override
+        public void alFinalizar(boolean completada) {
+            enCurso.remove(notificacion, this);
+            long inicio = instanteInicioMs;
+            if (completada) {
+                metricas.registrar(MetricasNotificacionesVoz.Evento.COMPLETADA);
+                if (inicio >= 0) {
+                    metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.REPRODUCCION, notificacion,
+                        reloj.ahoraMs() - inicio);
+                }
+                publicador.publicar(GestorNotificacionesVoz.EventoNotificacion.Tipo.COMPLETADO, notificacion);
+            } else if (inicio >= 0) {
+                metricas.registrar(MetricasNotificacionesVoz.Evento.INTERRUMPIDA);
+            } else {
+                MetricasNotificacionesVoz.Evento motivo = motivoFallo;
+                metricas.registrar(motivo);
+                if (motivo == MetricasNotificacionesVoz.Evento.ERROR) {
+                    publicador.publicar(GestorNotificacionesVoz.EventoNotificacion.Tipo.ERROR, notificacion);
+                }
+            }
+            if (siguiente != null) {
+                siguiente.alFinalizar(completada);
+            }
+        }
+    }
+}
@@ -6,17 +6,42 @@ import androidx.annotation.NonNull;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
 import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Trabajador para procesar notificaciones de voz en background
  * Útil para notificaciones programadas o diferidas
+ * 
+ * Acepta una sola notificación (CLAVE_MENSAJE) o un lote (CLAVE_MENSAJES y
+ * sus arrays paralelos), que se reproduce en orden. Los metadatos tipados llegan
+ * como máscara (CLAVE_METADATOS_MASCARA, o una por mensaje en CLAVE_METADATOS_MASCARAS)
+ * y valores crudos consecutivos (CLAVE_METADATOS_VALORES).
  */
 public class TrabajadorNotificacionesVoz extends Worker {
     
     public static final String CLAVE_CATEGORIA = "categoria";
     public static final String CLAVE_MENSAJE = "mensaje";
     public static final String CLAVE_PRIORIDAD = "prioridad";
+    public static final String CLAVE_CATEGORIAS = "categorias";
+    public static final String CLAVE_MENSAJES = "mensajes";
+    public static final String CLAVE_PRIORIDADES = "prioridades";
+    public static final String CLAVE_METADATOS_MASCARA = "metadatos_mascara";
+    public static final String CLAVE_METADATOS_MASCARAS = "metadatos_mascaras";
+    public static final String CLAVE_METADATOS_VALORES = "metadatos_valores";
+    
+    private static final long ESPERA_MAXIMA_POR_MENSAJE_MS = 30_000;
+    // WorkManager detiene los trabajos a los 10 minutos; se deja margen para terminar
+    private static final long DURACION_MAXIMA_LOTE_MS = 9 * 60_000;
+    
+    private volatile ListenableFuture<Boolean> reproduccionEnCurso;
 
     public TrabajadorNotificacionesVoz(@NonNull Context contexto, @NonNull WorkerParameters parametros) {
         super(contexto, parametros);
@@ -26,6 +51,11 @@ public class TrabajadorNotificacionesVoz extends Worker {
     @Override
     public Result doWork() {
         try {
+            String[] mensajes = getInputData().getStringArray(CLAVE_MENSAJES);
+            if (mensajes != null) {
+                return reproducirLote(mensajes);
+            }
+            
             String categoria = getInputData().getString(CLAVE_CATEGORIA);
             String mensaje = getInputData().getString(CLAVE_MENSAJE);
             String prioridadTexto = getInputData().getString(CLAVE_PRIORIDAD);
@@ -38,10 +68,16 @@ public class TrabajadorNotificacionesVoz extends Worker {
                 ? NotificacionVoz.Prioridad.valueOf(prioridadTexto)
                 : NotificacionVoz.Prioridad.NORMAL;
             
+            long[] valoresMetadatos = getInputData().getLongArray(CLAVE_METADATOS_VALORES);
+            MetadatosNotificacion metadatos = valoresMetadatos != null
+                ? MetadatosNotificacion.desdeCrudos(getInputData().getLong(CLAVE_METADATOS_MASCARA, 0L), valoresMetadatos)
+                : MetadatosNotificacion.vacios();
+            
             NotificacionVoz notificacion = new NotificacionVoz.Constructor()
                     .establecerMensaje(mensaje)
                     .establecerCategoria(categoria)
                     .establecerPrioridad(prioridad)
+                    .establecerMetadatosTipados(metadatos)
                     .construir();
             
             GestorNotificacionesVoz gestor = GestorNotificacionesVoz.obtenerInstancia(getApplicationContext());
@@ -52,4 +88,66 @@ public class TrabajadorNotificacionesVoz extends Worker {
             return Result.failure();
         }
     }
+
+    /**
+     * Reproduce el lote de uno en uno: enviarlo entero de golpe podría desbordar la
+     * cola del repositorio o, con QUEUE_FLUSH, reemplazar unos mensajes por otros.
+     * Un mensaje que falla no detiene el lote. Si el lote se acerca al límite de
+     * ejecución de WorkManager, los mensajes restantes se entregan al gestor sin
+     * esperarlos; su cola los reproduce tras terminar el trabajo y, si no caben,
+     * descarta los de menor prioridad.
+     */
+    private Result reproducirLote(@NonNull String[] mensajes) throws InterruptedException {
+        String[] categorias = getInputData().getStringArray(CLAVE_CATEGORIAS);
+        String[] prioridades = getInputData().getStringArray(CLAVE_PRIORIDADES);
+        long[] mascaras = getInputData().getLongArray(CLAVE_METADATOS_MASCARAS);
+        long[] valoresMetadatos = getInputData().getLongArray(CLAVE_METADATOS_VALORES);
+        int posicionMetadatos = 0;
+        GestorNotificacionesVoz gestor = GestorNotificacionesVoz.obtenerInstancia(getApplicationContext());
+        long limiteMs = Reloj.MONOTONICO.ahoraMs() + DURACION_MAXIMA_LOTE_MS;
+        
+        for (int i = 0; i < mensajes.length && !isStopped(); i++) {
+            MetadatosNotificacion metadatos = MetadatosNotificacion.vacios();
+            if (mascaras != null && valoresMetadatos != null && i < mascaras.length) {
+                metadatos = MetadatosNotificacion.desdeCrudos(mascaras[i], valoresMetadatos, posicionMetadatos);
+                posicionMetadatos += Long.bitCount(mascaras[i]);
+            }
+            if (mensajes[i] == null) {
+                continue;
+            }
+            NotificacionVoz.Prioridad prioridad = prioridades != null && i < prioridades.length && prioridades[i] != null
+                ? NotificacionVoz.Prioridad.valueOf(prioridades[i])
+                : NotificacionVoz.Prioridad.NORMAL;
+            
+            NotificacionVoz notificacion = new NotificacionVoz.Constructor()
+                    .establecerMensaje(mensajes[i])
+                    .establecerCategoria(categorias != null && i < categorias.length ? categorias[i] : null)
+                    .establecerPrioridad(prioridad)
+                    .establecerMetadatosTipados(metadatos)
+                    .construir();
+            long restanteMs = limiteMs - Reloj.MONOTONICO.ahoraMs();
+            if (restanteMs <= 0) {
+                gestor.reproducir(notificacion);
+                continue;
+            }
+            ListenableFuture<Boolean> reproduccion = gestor.reproducirAsync(notificacion);
+            reproduccionEnCurso = reproduccion;
+            try {
+                reproduccion.get(Math.min(ESPERA_MAXIMA_POR_MENSAJE_MS, restanteMs), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | CancellationException | ExecutionException excepcion) {
+                // Se pasa al siguiente mensaje; si el trabajo se detuvo, el bucle termina
+            }
+        }
+        reproduccionEnCurso = null;
+        return Result.success();
+    }
+
+    @Override
+    public void onStopped() {
+        ListenableFuture<Boolean> reproduccion = reproduccionEnCurso;
+        if (reproduccion != null) {
+            // Desbloquea la espera de reproducirLote
+            reproduccion.cancel(false);
+        }
+    }
 }
@@ -7,17 +7,35 @@ import androidx.work.Data;
 import androidx.work.OneTimeWorkRequest;
 import androidx.work.WorkManager;
 
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
 import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
 import com.notificacionesvoz.presentacion.TrabajadorNotificacionesVoz;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Utilidad para programar notificaciones de voz diferidas
  * Usa WorkManager para garantizar la entrega
+ * 
+ * Para programar muchas notificaciones, {@link #programarNotificaciones(List, long[], long)}
+ * agrupa las que vencen en la misma cubeta de tiempo en una única solicitud de trabajo,
+ * evitando una fila de base de datos y un trabajo del planificador por mensaje.
+ *
+ * Los metadatos tipados de cada notificación viajan en el Data como máscara y
+ * valores crudos, y el trabajador los reconstruye al reproducirla.
  */
 public class ProgramadorNotificacionesVoz {
     
+    public static final long ANCHO_CUBETA_PREDETERMINADO_MS = 60_000;
+    // Margen bajo Data.MAX_DATA_BYTES (10 KB) para claves y cabeceras de serialización
+    private static final int MAXIMO_BYTES_POR_LOTE = 8 * 1024;
+    private static final int MAXIMO_NOTIFICACIONES_POR_LOTE = 100;
+    
     private final WorkManager gestorTrabajos;
 
     public ProgramadorNotificacionesVoz(@NonNull Context contexto) {
@@ -32,11 +50,17 @@ public class ProgramadorNotificacionesVoz {
             ? notificacion.obtenerCategoria() 
             : "notificacion";
         
-        Data datosEntrada = new Data.Builder()
+        Data.Builder constructorDatos = new Data.Builder()
                 .putString(TrabajadorNotificacionesVoz.CLAVE_CATEGORIA, categoria)
                 .putString(TrabajadorNotificacionesVoz.CLAVE_MENSAJE, notificacion.obtenerMensaje())
-                .putString(TrabajadorNotificacionesVoz.CLAVE_PRIORIDAD, notificacion.obtenerPrioridad().name())
-                .build();
+                .putString(TrabajadorNotificacionesVoz.CLAVE_PRIORIDAD, notificacion.obtenerPrioridad().name());
+        MetadatosNotificacion metadatos = notificacion.obtenerMetadatosTipados();
+        if (!metadatos.estaVacio()) {
+            constructorDatos
+                .putLong(TrabajadorNotificacionesVoz.CLAVE_METADATOS_MASCARA, metadatos.obtenerMascara())
+                .putLongArray(TrabajadorNotificacionesVoz.CLAVE_METADATOS_VALORES, metadatos.obtenerValoresCrudos());
+        }
+        Data datosEntrada = constructorDatos.build();
 
         OneTimeWorkRequest solicitudTrabajo = new OneTimeWorkRequest.Builder(TrabajadorNotificacionesVoz.class)
                 .setInputData(datosEntrada)
@@ -47,6 +71,123 @@ public class ProgramadorNotificacionesVoz {
         gestorTrabajos.enqueue(solicitudTrabajo);
     }
 
+    /**
+     * Programa un grupo de notificaciones, agrupando en una sola solicitud de trabajo
+     * las que vencen dentro de la misma cubeta de tiempo. Cada grupo se reproduce
+     * cuando vence su notificación más temprana, en el orden de la lista.
+     * @param notificaciones Notificaciones a programar
+     * @param retrasosMs Retraso de cada notificación, en el mismo orden
+     * @param anchoCubetaMs Ancho de la cubeta: una notificación puede adelantarse hasta este tiempo
+     */
+    public void programarNotificaciones(@NonNull List<NotificacionVoz> notificaciones,
+                                        @NonNull long[] retrasosMs, long anchoCubetaMs) {
+        if (notificaciones.size() != retrasosMs.length) {
+            throw new IllegalArgumentException("Debe haber un retraso por notificación");
+        }
+        if (anchoCubetaMs <= 0) {
+            throw new IllegalArgumentException("El ancho de cubeta debe ser mayor que 0");
+        }
+        
+        TreeMap<Long, List<Integer>> cubetas = new TreeMap<>();
+        for (int i = 0; i < retrasosMs.length; i++) {
+            cubetas.computeIfAbsent(Math.max(0, retrasosMs[i]) / anchoCubetaMs, clave -> new ArrayList<>()).add(i);
+        }
+        
+        List<OneTimeWorkRequest> solicitudes = new ArrayList<>();
+        for (List<Integer> indices : cubetas.values()) {
+            int desde = 0;
+            while (desde < indices.size()) {
+                int hasta = calcularFinLote(notificaciones, indices, desde);
+                solicitudes.add(crearSolicitudLote(notificaciones, retrasosMs, indices.subList(desde, hasta)));
+                desde = hasta;
+            }
+        }
+        
+        if (!solicitudes.isEmpty()) {
+            gestorTrabajos.enqueue(solicitudes);
+        }
+    }
+
+    /**
+     * Programa un grupo de notificaciones con la cubeta predeterminada (1 minuto)
+     */
+    public void programarNotificaciones(@NonNull List<NotificacionVoz> notificaciones, @NonNull long[] retrasosMs) {
+        programarNotificaciones(notificaciones, retrasosMs, ANCHO_CUBETA_PREDETERMINADO_MS);
+    }
+
+    private int calcularFinLote(List<NotificacionVoz> notificaciones, List<Integer> indices, int desde) {
+        int bytes = 0;
+        int hasta = desde;
+        while (hasta < indices.size() && hasta - desde < MAXIMO_NOTIFICACIONES_POR_LOTE) {
+            NotificacionVoz notificacion = notificaciones.get(indices.get(hasta));
+            // Estimación conservadora: 3 bytes por carácter en UTF-8, 8 por metadato y máscara, más el resto
+            int tamano = 3 * (notificacion.obtenerMensaje().length() + obtenerCategoria(notificacion).length())
+                + 8 * (notificacion.obtenerMetadatosTipados().obtenerCantidad() + 1) + 16;
+            if (hasta > desde && bytes + tamano > MAXIMO_BYTES_POR_LOTE) {
+                break;
+            }
+            bytes += tamano;
+            hasta++;
+        }
+        return hasta;
+    }
+
+    private OneTimeWorkRequest crearSolicitudLote(List<NotificacionVoz> notificaciones, long[] retrasosMs,
+                                                  List<Integer> indices) {
+        int cantidad = indices.size();
+        String[] mensajes = new String[cantidad];
+        String[] categorias = new String[cantidad];
+        String[] prioridades = new String[cantidad];
+        long[] mascaras = new long[cantidad];
+        Set<String> etiquetas = new LinkedHashSet<>();
+        long retraso = Long.MAX_VALUE;
+        int totalMetadatos = 0;
+        
+        for (int i = 0; i < cantidad; i++) {
+            int indice = indices.get(i);
+            NotificacionVoz notificacion = notificaciones.get(indice);
+            mensajes[i] = notificacion.obtenerMensaje();
+            categorias[i] = obtenerCategoria(notificacion);
+            prioridades[i] = notificacion.obtenerPrioridad().name();
+            mascaras[i] = notificacion.obtenerMetadatosTipados().obtenerMascara();
+            totalMetadatos += notificacion.obtenerMetadatosTipados().obtenerCantidad();
+            etiquetas.add(categorias[i]);
+            retraso = Math.min(retraso, Math.max(0, retrasosMs[indice]));
+        }
+        
+        Data.Builder constructorDatos = new Data.Builder()
+                .putStringArray(TrabajadorNotificacionesVoz.CLAVE_MENSAJES, mensajes)
+                .putStringArray(TrabajadorNotificacionesVoz.CLAVE_CATEGORIAS, categorias)
+                .putStringArray(TrabajadorNotificacionesVoz.CLAVE_PRIORIDADES, prioridades);
+        if (totalMetadatos > 0) {
+            // Valores de todas las notificaciones seguidos; cada máscara indica cuántos le tocan
+            long[] valores = new long[totalMetadatos];
+            int posicion = 0;
+            for (int i = 0; i < cantidad; i++) {
+                posicion = notificaciones.get(indices.get(i)).obtenerMetadatosTipados().copiarValoresCrudos(valores, posicion);
+            }
+            constructorDatos
+                .putLongArray(TrabajadorNotificacionesVoz.CLAVE_METADATOS_MASCARAS, mascaras)
+                .putLongArray(TrabajadorNotificacionesVoz.CLAVE_METADATOS_VALORES, valores);
+        }
+        Data datosEntrada = constructorDatos.build();
+        
+        OneTimeWorkRequest.Builder constructor = new OneTimeWorkRequest.Builder(TrabajadorNotificacionesVoz.class)
+                .setInputData(datosEntrada)
+                .setInitialDelay(retraso, TimeUnit.MILLISECONDS);
+        // Cancelar una categoría cancela el lote completo que la contiene
+        for (String etiqueta : etiquetas) {
+            constructor.addTag(etiqueta);
+        }
+        return constructor.build();
+    }
+
+    private static String obtenerCategoria(NotificacionVoz notificacion) {
+        return notificacion.obtenerCategoria() != null 
+            ? notificacion.obtenerCategoria() 
+            : "notificacion";
+    }
+
     /**
      * Cancela todas las notificaciones programadas de una categoría específica
      * @param categoria Categoría de las notificaciones a cancelar
@@ -0,0 +1,120 @@
+package com.notificacionesvoz.datos.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para CacheAudioNotificaciones
+ */
+public class CacheAudioNotificacionesTest {
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    private File directorio;
+    private CacheAudioNotificaciones cache;
+
+    @Before
+    public void setUp() throws IOException {
+        directorio = carpeta.newFolder("audio");
+        cache = new CacheAudioNotificaciones(directorio, 100);
+    }
+
+    private void sintetizar(String clave, int bytes) throws IOException {
+        try (FileOutputStream salida = new FileOutputStream(cache.obtenerArchivoTemporal(clave))) {
+            salida.write(new byte[bytes]);
+        }
+    }
+
+    @Test
+    public void testCalcularClave_dependeDeLaConfiguracion() {
+        Locale es = new Locale("es", "ES");
+        String base = CacheAudioNotificaciones.calcularClave("Hola", es, 1.0f, 1.0f);
+
+        assertEquals(base, CacheAudioNotificaciones.calcularClave("Hola", es, 1.0f, 1.0f));
+        assertNotEquals(base, CacheAudioNotificaciones.calcularClave("Hola", Locale.ENGLISH, 1.0f, 1.0f));
+        assertNotEquals(base, CacheAudioNotificaciones.calcularClave("Hola", es, 1.5f, 1.0f));
+        assertNotEquals(base, CacheAudioNotificaciones.calcularClave("Hola", es, 1.0f, 0.8f));
+        assertNotEquals(base, CacheAudioNotificaciones.calcularClave("Adiós", es, 1.0f, 1.0f));
+    }
+
+    @Test
+    public void testConfirmar_registraEntrada() throws IOException {
+        sintetizar("a", 40);
+
+        File archivo = cache.confirmar("a");
+
+        assertNotNull(archivo);
+        assertEquals(archivo, cache.obtener("a"));
+        assertEquals(40, cache.obtenerTamanoTotal());
+    }
+
+    @Test
+    public void testConfirmar_sinTemporal_retornaNulo() {
+        assertNull(cache.confirmar("inexistente"));
+        assertNull(cache.obtener("inexistente"));
+    }
+
+    @Test
+    public void testConfirmar_excedePresupuesto_desalojaMenosReciente() throws IOException {
+        sintetizar("a", 40);
+        cache.confirmar("a");
+        sintetizar("b", 40);
+        cache.confirmar("b");
+
+        cache.obtener("a"); // "b" pasa a ser la menos reciente
+        sintetizar("c", 40);
+        cache.confirmar("c");
+
+        assertNotNull(cache.obtener("a"));
+        assertNull(cache.obtener("b"));
+        assertNotNull(cache.obtener("c"));
+        assertEquals(80, cache.obtenerTamanoTotal());
+    }
+
+    @Test
+    public void testConstructor_recuperaEntradasExistentes() throws IOException {
+        sintetizar("a", 40);
+        cache.confirmar("a");
+        sintetizar("pendiente", 10);
+
+        CacheAudioNotificaciones recuperada = new CacheAudioNotificaciones(directorio, 100);
+
+        assertNotNull(recuperada.obtener("a"));
+        assertEquals(1, recuperada.obtenerNumeroEntradas());
+        assertFalse(new File(directorio, "pendiente.tmp").exists());
+    }
+
+    @Test
+    public void testEliminar_archivoBorradoFuera_descuentaSuTamano() throws IOException {
+        sintetizar("a", 40);
+        File archivo = cache.confirmar("a");
+        assertTrue(archivo.delete());
+
+        assertTrue(cache.eliminar("a"));
+
+        assertNull(cache.obtener("a"));
+        assertEquals(0, cache.obtenerTamanoTotal());
+        assertFalse(cache.eliminar("a"));
+    }
+
+    @Test
+    public void testLimpiar_eliminaArchivos() throws IOException {
+        sintetizar("a", 40);
+        File archivo = cache.confirmar("a");
+
+        cache.limpiar();
+
+        assertFalse(archivo.exists());
+        assertEquals(0, cache.obtenerNumeroEntradas());
+    }
+}
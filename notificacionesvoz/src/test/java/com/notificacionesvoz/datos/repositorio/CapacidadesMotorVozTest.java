@@ -0,0 +1,68 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.Voice;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para CapacidadesMotorVoz
+ */
+public class CapacidadesMotorVozTest {
+
+    private static final Locale ESPANOL = new Locale("es", "ES");
+    private static final Locale KLINGON = new Locale("tlh");
+
+    private final Map<Locale, Integer> consultas = new HashMap<>();
+
+    private final CapacidadesMotorVoz.SondaMotor sonda = new CapacidadesMotorVoz.SondaMotor() {
+        @Override
+        public int comprobarIdioma(Locale idioma) {
+            consultas.merge(idioma, 1, Integer::sum);
+            return idioma.equals(KLINGON) ? TextToSpeech.LANG_NOT_SUPPORTED : TextToSpeech.LANG_COUNTRY_AVAILABLE;
+        }
+
+        @Override
+        public Set<Voice> obtenerVoces() {
+            return null;
+        }
+    };
+
+    @Test
+    public void testDisponibilidad_seConsultaUnaSolaVez() {
+        CapacidadesMotorVoz capacidades = new CapacidadesMotorVoz(sonda, ESPANOL);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(capacidades.estaIdiomaDisponible(ESPANOL));
+            assertFalse(capacidades.estaIdiomaDisponible(KLINGON));
+        }
+
+        assertEquals(1, (int) consultas.get(ESPANOL));
+        assertEquals(1, (int) consultas.get(KLINGON));
+    }
+
+    @Test
+    public void testRegistrarDisponibilidad_corrigeLaCache() {
+        CapacidadesMotorVoz capacidades = new CapacidadesMotorVoz(sonda, ESPANOL);
+
+        capacidades.registrarDisponibilidad(ESPANOL, TextToSpeech.LANG_MISSING_DATA);
+
+        assertFalse(capacidades.estaIdiomaDisponible(ESPANOL));
+        assertEquals(1, (int) consultas.get(ESPANOL));
+    }
+
+    @Test
+    public void testSinVoces_listaVacia() {
+        CapacidadesMotorVoz capacidades = new CapacidadesMotorVoz(sonda);
+
+        assertTrue(capacidades.obtenerVoces().isEmpty());
+        assertTrue(capacidades.obtenerVoces(ESPANOL).isEmpty());
+    }
+}
@@ -0,0 +1,120 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para ColaPrioridadNotificaciones
+ */
+public class ColaPrioridadNotificacionesTest {
+
+    private ColaPrioridadNotificaciones cola;
+
+    @Before
+    public void setUp() {
+        cola = new ColaPrioridadNotificaciones(3);
+    }
+
+    private ExpresionPendiente crear(String mensaje, NotificacionVoz.Prioridad prioridad) {
+        return new ExpresionPendiente(new NotificacionVoz.Constructor()
+                .establecerMensaje(mensaje)
+                .establecerPrioridad(prioridad)
+                .construir(), 0);
+    }
+
+    private String mensaje(ExpresionPendiente expresion) {
+        return expresion.obtenerNotificacion().obtenerMensaje();
+    }
+
+    @Test
+    public void testExtraerSiguiente_ordenaPorPrioridadYLlegada() {
+        cola.ofrecer(crear("normal 1", NotificacionVoz.Prioridad.NORMAL));
+        cola.ofrecer(crear("alta", NotificacionVoz.Prioridad.ALTA));
+        cola.ofrecer(crear("normal 2", NotificacionVoz.Prioridad.NORMAL));
+
+        assertEquals("alta", mensaje(cola.extraerSiguiente()));
+        assertEquals("normal 1", mensaje(cola.extraerSiguiente()));
+        assertEquals("normal 2", mensaje(cola.extraerSiguiente()));
+        assertNull(cola.extraerSiguiente());
+    }
+
+    @Test
+    public void testOfrecer_colaLlena_desplazaMenorPrioridad() {
+        cola.ofrecer(crear("baja", NotificacionVoz.Prioridad.BAJA));
+        cola.ofrecer(crear("normal 1", NotificacionVoz.Prioridad.NORMAL));
+        cola.ofrecer(crear("normal 2", NotificacionVoz.Prioridad.NORMAL));
+
+        ExpresionPendiente descartada = cola.ofrecer(crear("alta", NotificacionVoz.Prioridad.ALTA));
+
+        assertEquals("baja", mensaje(descartada));
+        assertEquals(3, cola.obtenerProfundidad());
+        assertEquals(1, cola.obtenerProfundidad(NotificacionVoz.Prioridad.ALTA));
+        assertEquals(0, cola.obtenerProfundidad(NotificacionVoz.Prioridad.BAJA));
+    }
+
+    @Test
+    public void testOfrecer_colaLlenaSinMenorPrioridad_rechazaEntrante() {
+        cola.ofrecer(crear("alta 1", NotificacionVoz.Prioridad.ALTA));
+        cola.ofrecer(crear("alta 2", NotificacionVoz.Prioridad.ALTA));
+        cola.ofrecer(crear("alta 3", NotificacionVoz.Prioridad.ALTA));
+
+        ExpresionPendiente entrante = crear("normal", NotificacionVoz.Prioridad.NORMAL);
+
+        assertSame(entrante, cola.ofrecer(entrante));
+        assertEquals(3, cola.obtenerProfundidad());
+    }
+
+    @Test
+    public void testDescartarHasta_conservaMayorPrioridad() {
+        cola.ofrecer(crear("baja", NotificacionVoz.Prioridad.BAJA));
+        cola.ofrecer(crear("normal", NotificacionVoz.Prioridad.NORMAL));
+        cola.ofrecer(crear("alta", NotificacionVoz.Prioridad.ALTA));
+
+        assertEquals(2, cola.descartarHasta(NotificacionVoz.Prioridad.NORMAL));
+        assertEquals(1, cola.obtenerProfundidad());
+        assertEquals("alta", mensaje(cola.extraerSiguiente()));
+    }
+
+    @Test
+    public void testLimpiar_conDestino_devuelveLasDescartadas() {
+        cola.ofrecer(crear("normal", NotificacionVoz.Prioridad.NORMAL));
+        cola.ofrecer(crear("alta", NotificacionVoz.Prioridad.ALTA));
+        List<ExpresionPendiente> descartadas = new ArrayList<>();
+
+        assertEquals(2, cola.limpiar(descartadas));
+        assertEquals(2, descartadas.size());
+        assertTrue(cola.estaVacia());
+    }
+
+    @Test
+    public void testLimpiar_vaciaLaCola() {
+        cola.ofrecer(crear("normal", NotificacionVoz.Prioridad.NORMAL));
+        cola.limpiar();
+
+        assertTrue(cola.estaVacia());
+        assertNull(cola.extraerSiguiente());
+    }
+
+    @Test
+    public void testEliminar_notificacionEncolada_laRetira() {
+        ExpresionPendiente normal = crear("normal", NotificacionVoz.Prioridad.NORMAL);
+        cola.ofrecer(normal);
+        cola.ofrecer(crear("alta", NotificacionVoz.Prioridad.ALTA));
+
+        assertSame(normal, cola.eliminar(normal.obtenerNotificacion()));
+        assertNull(cola.eliminar(normal.obtenerNotificacion()));
+        assertEquals(1, cola.obtenerProfundidad());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_capacidadInvalida_lanzaExcepcion() {
+        new ColaPrioridadNotificaciones(0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para ExpresionPendiente
+ */
+public class ExpresionPendienteTest {
+
+    private NotificacionVoz crear(String categoria) {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje("Frenada brusca detectada")
+                .establecerCategoria(categoria)
+                .establecerMarcaTiempo(1000)
+                .construir();
+    }
+
+    @Test
+    public void testIdExpresion_mismaCategoriaYMarcaTiempo_noColisiona() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ids.add(new ExpresionPendiente(crear("frenada_brusca"), 0).obtenerIdExpresion()));
+        }
+    }
+
+    @Test
+    public void testGenerarIdExpresion_empiezaPorLaSecuencia() {
+        assertEquals("42_frenada_brusca", ExpresionPendiente.generarIdExpresion(42, "frenada_brusca"));
+        assertEquals("7_notificacion", ExpresionPendiente.generarIdExpresion(7, null));
+    }
+
+    @Test
+    public void testNotificarResultado_soloLaPrimeraVez() {
+        AtomicInteger llamadas = new AtomicInteger();
+        ExpresionPendiente expresion = new ExpresionPendiente(crear(null), 0, completada -> llamadas.incrementAndGet());
+
+        assertTrue(expresion.tieneEscuchadorResultado());
+        expresion.notificarResultado(true);
+        expresion.notificarResultado(false);
+
+        assertEquals(1, llamadas.get());
+        assertFalse(expresion.tieneEscuchadorResultado());
+    }
+
+    @Test
+    public void testMarcarInicio_registraElInstante() {
+        ExpresionPendiente expresion = new ExpresionPendiente(crear(null), 100);
+        assertFalse(expresion.haIniciado());
+
+        expresion.marcarInicio(250);
+
+        assertTrue(expresion.haIniciado());
+        assertEquals(250, expresion.obtenerInstanteInicioMs());
+        assertEquals(100, expresion.obtenerInstanteEncoladoMs());
+    }
+}
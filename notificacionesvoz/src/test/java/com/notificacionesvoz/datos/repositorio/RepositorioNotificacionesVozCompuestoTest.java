@@ -0,0 +1,361 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para RepositorioNotificacionesVozCompuesto
+ */
+public class RepositorioNotificacionesVozCompuestoTest {
+
+    private static final long PRESUPUESTO_MS = 50;
+    private static final long ESPERA_MAXIMA_MS = 2000;
+
+    private ScheduledExecutorService temporizador;
+    private MotorFalso principal;
+    private MotorFalso respaldo;
+    private AtomicLong ahora;
+
+    @Before
+    public void setUp() {
+        temporizador = Executors.newSingleThreadScheduledExecutor();
+        principal = new MotorFalso();
+        respaldo = new MotorFalso();
+        ahora = new AtomicLong();
+    }
+
+    @After
+    public void tearDown() {
+        temporizador.shutdownNow();
+    }
+
+    private RepositorioNotificacionesVozCompuesto crear(long presupuestoPrincipalMs) {
+        return new RepositorioNotificacionesVozCompuesto.Constructor()
+                .agregarMotor(principal, presupuestoPrincipalMs)
+                .agregarMotor(respaldo, presupuestoPrincipalMs)
+                .establecerPresupuestoUrgenteMs(PRESUPUESTO_MS)
+                .establecerFallosParaAislar(2)
+                .establecerEnfriamientoMs(1000)
+                .establecerReloj(ahora::get)
+                .establecerTemporizador(temporizador)
+                .construir();
+    }
+
+    private NotificacionVoz notificacion(NotificacionVoz.Prioridad prioridad) {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje("Exceso de velocidad")
+                .establecerPrioridad(prioridad)
+                .construir();
+    }
+
+    @Test
+    public void testReproducir_principalCompleta_noUsaRespaldo() {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+        Resultado resultado = new Resultado();
+
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), resultado);
+        principal.iniciar(0);
+        principal.finalizar(0, true);
+
+        assertTrue(resultado.iniciada);
+        assertEquals(Boolean.TRUE, resultado.completada.get());
+        assertTrue(respaldo.recibidas.isEmpty());
+    }
+
+    @Test
+    public void testReproducir_principalFallaAntesDeIniciar_pasaAlRespaldo() {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+        Resultado resultado = new Resultado();
+
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), resultado);
+        principal.finalizar(0, false);
+
+        assertEquals(1, respaldo.recibidas.size());
+        assertNull(resultado.completada.get());
+        respaldo.finalizar(0, true);
+        assertEquals(Boolean.TRUE, resultado.completada.get());
+        assertEquals(1, repositorio.obtenerFallosConsecutivos(0));
+    }
+
+    @Test
+    public void testReproducir_principalNoIniciaEnPresupuesto_retiraYConmuta() throws InterruptedException {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(PRESUPUESTO_MS);
+        NotificacionVoz normal = notificacion(NotificacionVoz.Prioridad.NORMAL);
+
+        repositorio.reproducir(normal, new Resultado());
+
+        assertTrue(respaldo.recibida.await(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS));
+        assertTrue(principal.canceladas.contains(normal));
+    }
+
+    @Test
+    public void testReproducir_esperaEnColaDelMotor_noCuentaParaElPresupuesto() throws InterruptedException {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(PRESUPUESTO_MS);
+        principal.informaDespacho = true;
+        Resultado resultado = new Resultado();
+
+        // El principal la retiene en cola detrás de una expresión larga
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), resultado);
+        Thread.sleep(PRESUPUESTO_MS * 4);
+
+        assertTrue(respaldo.recibidas.isEmpty());
+        assertEquals(0, repositorio.obtenerFallosConsecutivos(0));
+
+        // Al salir de la cola empieza el presupuesto, y si entonces no arranca se conmuta
+        principal.despachar(0);
+        assertTrue(respaldo.recibida.await(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, repositorio.obtenerFallosConsecutivos(0));
+    }
+
+    @Test
+    public void testReproducir_despachadaEIniciadaATiempo_noConmuta() throws InterruptedException {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(PRESUPUESTO_MS);
+        principal.informaDespacho = true;
+        Resultado resultado = new Resultado();
+
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), resultado);
+        Thread.sleep(PRESUPUESTO_MS * 2);
+        principal.despachar(0);
+        principal.iniciar(0);
+        Thread.sleep(PRESUPUESTO_MS * 2);
+        principal.finalizar(0, true);
+
+        assertTrue(respaldo.recibidas.isEmpty());
+        assertEquals(Boolean.TRUE, resultado.completada.get());
+    }
+
+    @Test
+    public void testCancelar_seEjecutaEnElEjecutorDelMotor() throws Exception {
+        ExecutorService hiloMotor = Executors.newSingleThreadExecutor();
+        try {
+            principal.ejecutor = hiloMotor;
+            RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+            NotificacionVoz normal = notificacion(NotificacionVoz.Prioridad.NORMAL);
+            repositorio.reproducir(normal, new Resultado());
+
+            assertTrue(repositorio.cancelar(normal));
+            Thread hilo = hiloMotor.submit(Thread::currentThread).get();
+
+            assertEquals(1, principal.recibidas.size());
+            assertEquals(1, principal.canceladas.size());
+            assertSame(hilo, principal.hiloCancelacion);
+        } finally {
+            hiloMotor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDetenerConfigurarFinalizar_seEjecutanEnElEjecutorDelMotor() throws Exception {
+        ExecutorService hiloMotor = Executors.newSingleThreadExecutor();
+        try {
+            principal.ejecutor = hiloMotor;
+            RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+            Thread hilo = hiloMotor.submit(Thread::currentThread).get();
+
+            repositorio.configurar(ConfiguracionVoz.obtenerPredeterminada());
+            repositorio.finalizar();
+            hiloMotor.submit(() -> { }).get();
+
+            assertEquals(3, principal.hilosControl.size());
+            for (Thread hiloControl : principal.hilosControl) {
+                assertSame(hilo, hiloControl);
+            }
+        } finally {
+            hiloMotor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReproducir_urgenteSinInicio_cubreYCancelaAlPerdedor() throws InterruptedException {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+        NotificacionVoz urgente = notificacion(NotificacionVoz.Prioridad.URGENTE);
+        Resultado resultado = new Resultado();
+
+        repositorio.reproducir(urgente, resultado);
+
+        assertTrue(respaldo.recibida.await(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS));
+        // Con cobertura el principal sigue intentándolo hasta que otro empiece
+        assertTrue(principal.canceladas.isEmpty());
+        respaldo.iniciar(0);
+        assertTrue(principal.canceladas.contains(urgente));
+        principal.finalizar(0, false);
+        respaldo.finalizar(0, true);
+        assertEquals(Boolean.TRUE, resultado.completada.get());
+    }
+
+    @Test
+    public void testReproducir_fallosConsecutivos_aislanHastaElEnfriamiento() {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+        for (int i = 0; i < 2; i++) {
+            repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), new Resultado());
+            principal.finalizar(i, false);
+        }
+        assertFalse(repositorio.estaMotorSano(0));
+
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), new Resultado());
+        assertEquals(2, principal.recibidas.size());
+        assertEquals(3, respaldo.recibidas.size());
+
+        ahora.addAndGet(1000);
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), new Resultado());
+        principal.iniciar(2);
+        assertTrue(repositorio.estaMotorSano(0));
+        assertEquals(0, repositorio.obtenerFallosConsecutivos(0));
+    }
+
+    @Test
+    public void testReproducir_ningunMotorPuede_resultadoFalse() {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+        principal.disponible = false;
+        respaldo.disponible = false;
+        Resultado resultado = new Resultado();
+
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.URGENTE), resultado);
+
+        assertEquals(Boolean.FALSE, resultado.completada.get());
+    }
+
+    @Test
+    public void testDetener_terminaLasPendientesSinConmutar() {
+        RepositorioNotificacionesVozCompuesto repositorio = crear(10_000);
+        Resultado resultado = new Resultado();
+        repositorio.reproducir(notificacion(NotificacionVoz.Prioridad.NORMAL), resultado);
+
+        repositorio.detener();
+        principal.finalizar(0, false);
+
+        assertEquals(Boolean.FALSE, resultado.completada.get());
+        assertTrue(respaldo.recibidas.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_sinMotores_lanzaExcepcion() {
+        new RepositorioNotificacionesVozCompuesto.Constructor().construir();
+    }
+
+    /**
+     * Receptor que guarda lo recibido
+     */
+    private static class Resultado implements RepositorioNotificacionesVoz.EscuchadorResultado {
+        volatile boolean iniciada;
+        final AtomicReference<Boolean> completada = new AtomicReference<>();
+
+        @Override
+        public void alIniciar() {
+            iniciada = true;
+        }
+
+        @Override
+        public void alFinalizar(boolean completada) {
+            assertTrue("Desenlace entregado más de una vez", this.completada.compareAndSet(null, completada));
+        }
+    }
+
+    /**
+     * Motor controlado por el test: no inicia ni termina hasta que se le indica
+     */
+    private static class MotorFalso implements RepositorioNotificacionesVoz {
+        final List<NotificacionVoz> recibidas = new ArrayList<>();
+        final List<EscuchadorResultado> escuchadores = new ArrayList<>();
+        final List<NotificacionVoz> canceladas = new ArrayList<>();
+        final CountDownLatch recibida = new CountDownLatch(1);
+        volatile boolean disponible = true;
+        volatile boolean informaDespacho = false;
+        volatile Executor ejecutor = Runnable::run;
+        volatile Thread hiloCancelacion;
+        // Hilos de detener, configurar y finalizar, por orden
+        final List<Thread> hilosControl = new ArrayList<>();
+
+        @Override
+        public synchronized void reproducir(@NonNull NotificacionVoz notificacion,
+                                            @Nullable EscuchadorResultado escuchadorResultado) {
+            recibidas.add(notificacion);
+            escuchadores.add(escuchadorResultado);
+            recibida.countDown();
+        }
+
+        void despachar(int indice) {
+            escuchador(indice).alDespachar();
+        }
+
+        void iniciar(int indice) {
+            escuchador(indice).alIniciar();
+        }
+
+        void finalizar(int indice, boolean completada) {
+            escuchador(indice).alFinalizar(completada);
+        }
+
+        private synchronized EscuchadorResultado escuchador(int indice) {
+            return escuchadores.get(indice);
+        }
+
+        @Override
+        public synchronized boolean cancelar(@NonNull NotificacionVoz notificacion) {
+            canceladas.add(notificacion);
+            hiloCancelacion = Thread.currentThread();
+            return true;
+        }
+
+        @Override
+        public boolean informaDespacho() {
+            return informaDespacho;
+        }
+
+        @Override
+        public Executor obtenerEjecutorMotor() {
+            return ejecutor;
+        }
+
+        @Override
+        public synchronized void detener() {
+            hilosControl.add(Thread.currentThread());
+        }
+
+        @Override
+        public boolean estaReproduciendo() {
+            return false;
+        }
+
+        @Override
+        public int obtenerProfundidadCola() {
+            return 0;
+        }
+
+        @Override
+        public synchronized void configurar(@NonNull ConfiguracionVoz configuracion) {
+            hilosControl.add(Thread.currentThread());
+        }
+
+        @Override
+        public boolean estaDisponible() {
+            return disponible;
+        }
+
+        @Override
+        public synchronized void finalizar() {
+            hilosControl.add(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.notificacionesvoz.datos.repositorio;
+
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.utilidades.MetricasNotificacionesVoz;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para RepositorioNotificacionesVozImpl
+ */
+public class RepositorioNotificacionesVozImplTest {
+
+    private static final long ESPERA_MAXIMA_MS = 2000;
+
+    private MotorFalso motor;
+    private RepositorioNotificacionesVozImpl repositorio;
+
+    @Before
+    public void setUp() throws Exception {
+        File directorio = Files.createTempDirectory("audio").toFile();
+        motor = new MotorFalso();
+        repositorio = new RepositorioNotificacionesVozImpl(alInicializar -> {
+            motor.alInicializar = alInicializar;
+            return motor;
+        }, directorio, RepositorioNotificacionesVozImpl.CAPACIDAD_COLA_PREDETERMINADA, 1024);
+        motor.alInicializar.onInit(TextToSpeech.SUCCESS);
+        assertTrue(repositorio.obtenerFuturoListo().get(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        repositorio.finalizar();
+    }
+
+    private NotificacionVoz notificacion(String mensaje, NotificacionVoz.Prioridad prioridad) {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje(mensaje)
+                .establecerPrioridad(prioridad)
+                .construir();
+    }
+
+    @Test
+    public void testReproducir_urgenteRechazada_despachaLaSiguiente() {
+        repositorio.reproducir(notificacion("en curso", NotificacionVoz.Prioridad.NORMAL));
+        repositorio.reproducir(notificacion("pendiente", NotificacionVoz.Prioridad.NORMAL));
+        motor.rechazados.add("urgente");
+
+        repositorio.reproducir(notificacion("urgente", NotificacionVoz.Prioridad.URGENTE));
+
+        assertEquals("pendiente", motor.ultimoAceptado());
+        assertEquals(0, repositorio.obtenerProfundidadCola());
+    }
+
+    @Test
+    public void testOnStop_expresionYaCerrada_noCuentaInterrumpida() throws Exception {
+        repositorio.reproducir(notificacion("en curso", NotificacionVoz.Prioridad.NORMAL));
+        String idReemplazada = motor.ultimoIdAceptado();
+        repositorio.reproducir(notificacion("urgente", NotificacionVoz.Prioridad.URGENTE));
+        String idUrgente = motor.ultimoIdAceptado();
+
+        // El QUEUE_FLUSH de la urgente detiene la anterior, que ya se cerró
+        motor.escuchador.onStop(idReemplazada, true);
+        motor.escuchador.onStop(idUrgente, true);
+        esperarHiloMotor();
+
+        assertEquals(1, repositorio.obtenerMetricas().obtenerInstantanea()
+            .obtenerContador(MetricasNotificacionesVoz.Evento.INTERRUMPIDA));
+    }
+
+    private void esperarHiloMotor() throws Exception {
+        FutureTask<Void> marca = new FutureTask<>(() -> null);
+        repositorio.obtenerEjecutorMotor().execute(marca);
+        marca.get(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Motor que acepta todo salvo los mensajes indicados
+     */
+    static class MotorFalso extends TextToSpeech {
+        TextToSpeech.OnInitListener alInicializar;
+        volatile UtteranceProgressListener escuchador;
+        final Set<String> rechazados = new HashSet<>();
+        final List<String> aceptados = new ArrayList<>();
+        final List<String> idsAceptados = new ArrayList<>();
+
+        MotorFalso() {
+            super(null, null);
+        }
+
+        @Override
+        public synchronized int speak(String texto, int modoCola, HashMap<String, String> parametros) {
+            if (rechazados.contains(texto)) {
+                return ERROR;
+            }
+            aceptados.add(texto);
+            idsAceptados.add(parametros.get(Engine.KEY_PARAM_UTTERANCE_ID));
+            return SUCCESS;
+        }
+
+        @Override
+        public int setOnUtteranceProgressListener(UtteranceProgressListener escuchador) {
+            this.escuchador = escuchador;
+            return SUCCESS;
+        }
+
+        synchronized String ultimoAceptado() {
+            return aceptados.isEmpty() ? null : aceptados.get(aceptados.size() - 1);
+        }
+
+        synchronized String ultimoIdAceptado() {
+            return idsAceptados.isEmpty() ? null : idsAceptados.get(idsAceptados.size() - 1);
+        }
+    }
+}
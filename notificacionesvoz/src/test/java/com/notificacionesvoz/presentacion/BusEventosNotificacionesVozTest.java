@@ -0,0 +1,165 @@
+package com.notificacionesvoz.presentacion;
+
+import com.notificacionesvoz.presentacion.BusEventosNotificacionesVoz.PoliticaDesbordamiento;
+import com.notificacionesvoz.presentacion.GestorNotificacionesVoz.EventoNotificacion;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para BusEventosNotificacionesVoz
+ */
+public class BusEventosNotificacionesVozTest {
+
+    /**
+     * Ejecutor que retiene las tareas hasta que se le pide ejecutarlas
+     */
+    private static class EjecutorManual implements Executor {
+        final List<Runnable> tareas = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable tarea) {
+            tareas.add(tarea);
+        }
+
+        void ejecutarTodo() {
+            while (!tareas.isEmpty()) {
+                tareas.remove(0).run();
+            }
+        }
+    }
+
+    private BusEventosNotificacionesVoz crearBus(int capacidad, PoliticaDesbordamiento politica) {
+        return new BusEventosNotificacionesVoz(capacidad, politica, () -> 0);
+    }
+
+    @Test
+    public void testPublicar_variosSuscriptores_recibenTodosEnOrden() {
+        BusEventosNotificacionesVoz bus = crearBus(8, PoliticaDesbordamiento.DESCARTAR_NUEVOS);
+        List<String> primero = new ArrayList<>();
+        List<String> segundo = new ArrayList<>();
+        bus.suscribir(Runnable::run, evento -> primero.add(evento.obtenerMensaje()));
+        bus.suscribir(Runnable::run, evento -> segundo.add(evento.obtenerTipo() + ":" + evento.obtenerMensaje()));
+
+        for (int i = 0; i < 20; i++) {
+            bus.publicar(EventoNotificacion.Tipo.INICIADO, "id_" + i);
+        }
+
+        assertEquals(20, primero.size());
+        assertEquals("id_0", primero.get(0));
+        assertEquals("id_19", primero.get(19));
+        assertEquals("INICIADO:id_7", segundo.get(7));
+        assertEquals(0, bus.obtenerEventosDescartados());
+    }
+
+    @Test
+    public void testPublicar_descartarNuevos_contabilizaLosDescartados() {
+        BusEventosNotificacionesVoz bus = crearBus(4, PoliticaDesbordamiento.DESCARTAR_NUEVOS);
+        EjecutorManual ejecutor = new EjecutorManual();
+        List<Long> secuencias = new ArrayList<>();
+        bus.suscribir(ejecutor, evento -> secuencias.add(evento.obtenerSecuencia()));
+
+        int aceptados = 0;
+        for (int i = 0; i < 6; i++) {
+            if (bus.publicar(EventoNotificacion.Tipo.COMPLETADO, "id_" + i)) {
+                aceptados++;
+            }
+        }
+        ejecutor.ejecutarTodo();
+
+        assertEquals(4, aceptados);
+        assertEquals(2, bus.obtenerEventosDescartados());
+        assertEquals(4, secuencias.size());
+        assertEquals(Long.valueOf(3), secuencias.get(3));
+    }
+
+    @Test
+    public void testPublicar_sobrescribirAntiguos_elRezagadoCuentaPerdidos() {
+        BusEventosNotificacionesVoz bus = crearBus(4, PoliticaDesbordamiento.SOBRESCRIBIR_ANTIGUOS);
+        EjecutorManual ejecutor = new EjecutorManual();
+        List<String> recibidos = new ArrayList<>();
+        BusEventosNotificacionesVoz.Suscripcion suscripcion =
+                bus.suscribir(ejecutor, evento -> recibidos.add(evento.obtenerMensaje()));
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(bus.publicar(EventoNotificacion.Tipo.ERROR, "id_" + i));
+        }
+        ejecutor.ejecutarTodo();
+
+        assertEquals(2, suscripcion.obtenerEventosPerdidos());
+        assertEquals(4, recibidos.size());
+        assertEquals("id_2", recibidos.get(0));
+        assertEquals("id_5", recibidos.get(3));
+    }
+
+    @Test
+    public void testCancelar_dejaDeRecibirYNoLimitaAlProductor() {
+        BusEventosNotificacionesVoz bus = crearBus(2, PoliticaDesbordamiento.DESCARTAR_NUEVOS);
+        EjecutorManual ejecutor = new EjecutorManual();
+        List<String> recibidos = new ArrayList<>();
+        BusEventosNotificacionesVoz.Suscripcion suscripcion =
+                bus.suscribir(ejecutor, evento -> recibidos.add(evento.obtenerMensaje()));
+
+        suscripcion.cancelar();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bus.publicar(EventoNotificacion.Tipo.INICIADO, "id_" + i));
+        }
+        ejecutor.ejecutarTodo();
+
+        assertTrue(recibidos.isEmpty());
+    }
+
+    @Test
+    public void testPublicar_variosProductoresBloqueando_noPierdeNiDesordena() throws Exception {
+        BusEventosNotificacionesVoz bus = crearBus(64, PoliticaDesbordamiento.BLOQUEAR);
+        ExecutorService consumidor = Executors.newSingleThreadExecutor();
+        AtomicLong recibidos = new AtomicLong();
+        AtomicLong desordenados = new AtomicLong();
+        long[] ultima = {-1};
+        bus.suscribir(consumidor, evento -> {
+            if (evento.obtenerSecuencia() != ultima[0] + 1) {
+                desordenados.incrementAndGet();
+            }
+            ultima[0] = evento.obtenerSecuencia();
+            recibidos.incrementAndGet();
+        });
+
+        int productores = 4;
+        int porProductor = 10_000;
+        CountDownLatch fin = new CountDownLatch(productores);
+        for (int p = 0; p < productores; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < porProductor; i++) {
+                    bus.publicar(EventoNotificacion.Tipo.COMPLETADO, "id");
+                }
+                fin.countDown();
+            }).start();
+        }
+        assertTrue(fin.await(10, TimeUnit.SECONDS));
+
+        long limite = System.currentTimeMillis() + 5_000;
+        while (recibidos.get() < productores * porProductor && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        consumidor.shutdown();
+
+        assertEquals(productores * porProductor, recibidos.get());
+        assertEquals(0, desordenados.get());
+        assertEquals(0, bus.obtenerEventosDescartados());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_capacidadNoPotenciaDeDos_lanzaExcepcion() {
+        crearBus(10, PoliticaDesbordamiento.DESCARTAR_NUEVOS);
+    }
+}
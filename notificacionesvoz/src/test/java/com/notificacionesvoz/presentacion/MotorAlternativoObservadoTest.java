@@ -0,0 +1,141 @@
+package com.notificacionesvoz.presentacion;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+import com.notificacionesvoz.presentacion.GestorNotificacionesVoz.EventoNotificacion;
+import com.notificacionesvoz.utilidades.MetricasNotificacionesVoz;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para MotorAlternativoObservado
+ */
+public class MotorAlternativoObservadoTest {
+
+    private MotorFalso motor;
+    private MetricasNotificacionesVoz metricas;
+    private List<EventoNotificacion.Tipo> eventos;
+    private AtomicLong ahora;
+    private MotorAlternativoObservado observado;
+
+    @Before
+    public void setUp() {
+        motor = new MotorFalso();
+        metricas = new MetricasNotificacionesVoz();
+        eventos = new ArrayList<>();
+        ahora = new AtomicLong();
+        observado = new MotorAlternativoObservado(motor, metricas,
+            (tipo, notificacion) -> eventos.add(tipo), ahora::get);
+    }
+
+    private NotificacionVoz notificacion() {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje("Frenada brusca")
+                .establecerPrioridad(NotificacionVoz.Prioridad.URGENTE)
+                .construir();
+    }
+
+    @Test
+    public void testReproducir_completada_registraMetricasYEventos() {
+        AtomicReference<Boolean> resultado = new AtomicReference<>();
+        observado.reproducir(notificacion(), resultado::set);
+
+        ahora.addAndGet(30);
+        motor.escuchador.alIniciar();
+        ahora.addAndGet(200);
+        motor.escuchador.alFinalizar(true);
+
+        MetricasNotificacionesVoz.Instantanea instantanea = metricas.obtenerInstantanea();
+        assertEquals(1, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.INICIADA));
+        assertEquals(1, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.COMPLETADA));
+        assertEquals(30, instantanea.obtenerLatencia(MetricasNotificacionesVoz.Fase.ESPERA,
+            NotificacionVoz.Prioridad.URGENTE).obtenerMaximo());
+        assertEquals(1, instantanea.obtenerLatencia(MetricasNotificacionesVoz.Fase.REPRODUCCION,
+            NotificacionVoz.Prioridad.URGENTE).obtenerTotal());
+        assertEquals(2, eventos.size());
+        assertEquals(EventoNotificacion.Tipo.INICIADO, eventos.get(0));
+        assertEquals(EventoNotificacion.Tipo.COMPLETADO, eventos.get(1));
+        assertEquals(Boolean.TRUE, resultado.get());
+    }
+
+    @Test
+    public void testReproducir_falloSinIniciar_publicaError() {
+        observado.reproducir(notificacion(), null);
+        motor.escuchador.alFinalizar(false);
+
+        assertEquals(1, metricas.obtenerInstantanea().obtenerContador(MetricasNotificacionesVoz.Evento.ERROR));
+        assertEquals(1, eventos.size());
+        assertEquals(EventoNotificacion.Tipo.ERROR, eventos.get(0));
+    }
+
+    @Test
+    public void testCancelar_sinIniciar_cuentaComoCanceladaSinEvento() {
+        NotificacionVoz notificacion = notificacion();
+        observado.reproducir(notificacion, null);
+
+        assertTrue(observado.cancelar(notificacion));
+        motor.escuchador.alFinalizar(false);
+
+        MetricasNotificacionesVoz.Instantanea instantanea = metricas.obtenerInstantanea();
+        assertEquals(1, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.CANCELADA));
+        assertEquals(0, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.ERROR));
+        assertTrue(eventos.isEmpty());
+    }
+
+    /**
+     * Motor que guarda el receptor de la última notificación
+     */
+    private static class MotorFalso implements RepositorioNotificacionesVoz {
+        EscuchadorResultado escuchador;
+
+        @Override
+        public void reproducir(@NonNull NotificacionVoz notificacion,
+                               @Nullable EscuchadorResultado escuchadorResultado) {
+            escuchador = escuchadorResultado;
+        }
+
+        @Override
+        public boolean cancelar(@NonNull NotificacionVoz notificacion) {
+            return true;
+        }
+
+        @Override
+        public void detener() {
+        }
+
+        @Override
+        public boolean estaReproduciendo() {
+            return false;
+        }
+
+        @Override
+        public int obtenerProfundidadCola() {
+            return 0;
+        }
+
+        @Override
+        public void configurar(@NonNull ConfiguracionVoz configuracion) {
+        }
+
+        @Override
+        public boolean estaDisponible() {
+            return true;
+        }
+
+        @Override
+        public void finalizar() {
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.notificacionesvoz.datos.bitacora;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bitácora de solo escritura con cada notificación y su desenlace
+ *
+ * Los registros tienen tamaño fijo ({@link #TAMANO_REGISTRO} bytes) y se escriben
+ * en segmentos de archivo mapeados en memoria: añadir un registro es copiar unos
+ * pocos primitivos al mapa, sin llamadas al sistema ni reservas de memoria. Cuando
+ * un segmento se llena se mapea el siguiente. Es el sistema operativo quien vuelca
+ * las páginas a disco; {@link #forzar()} lo hace explícitamente (p. ej. al acabar el
+ * viaje).
+ *
+ * Cada registro lleva una comprobación, así que uno a medio escribir por un cierre
+ * abrupto se detecta al leer. Al reabrir el directorio se continúa tras el último
+ * registro válido. Los registros se leen con {@link LectorBitacora}, sin pasar por
+ * el cerrojo de escritura.
+ *
+ * No depende de Android. Thread-safe.
+ */
+public class BitacoraNotificaciones implements Closeable {
+
+    public static final int TAMANO_REGISTRO = 128;
+    public static final long TAMANO_SEGMENTO_PREDETERMINADO = 4L * 1024 * 1024; // 32768 registros
+    /** Metadatos que caben en un registro; se guardan los de menor id */
+    public static final int MAXIMO_VALORES = 11;
+
+    private final File directorio;
+    private final int tamanoSegmento;
+    private final Reloj relojPared;
+    private final Object cerrojo = new Object();
+    private final AtomicLong registrosPerdidos = new AtomicLong();
+
+    // Protegidos por el cerrojo
+    @Nullable
+    private MappedByteBuffer segmento;
+    private long numeroSegmento;
+    private long secuencia;
+    private boolean cerrada = false;
+
+    /**
+     * Abre (o crea) la bitácora de un directorio con el tamaño de segmento predeterminado
+     * @throws IOException si no se puede crear el directorio o mapear el segmento
+     */
+    public BitacoraNotificaciones(@NonNull File directorio) throws IOException {
+        this(directorio, TAMANO_SEGMENTO_PREDETERMINADO, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor
+     * @param directorio Directorio de los segmentos; si ya contiene una bitácora se continúa
+     * @param tamanoSegmento Bytes por segmento (se redondea a un múltiplo del tamaño de registro)
+     * @param relojPared Fuente de las marcas de tiempo (milisegundos desde la época)
+     * @throws IOException si no se puede crear el directorio o mapear el segmento
+     */
+    public BitacoraNotificaciones(@NonNull File directorio, long tamanoSegmento,
+                                  @NonNull Reloj relojPared) throws IOException {
+        if (tamanoSegmento < 2L * TAMANO_REGISTRO || tamanoSegmento > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El tamaño de segmento debe estar entre "
+                + (2 * TAMANO_REGISTRO) + " y " + Integer.MAX_VALUE + " bytes");
+        }
+        if (!directorio.isDirectory() && !directorio.mkdirs()) {
+            throw new IOException("No se pudo crear el directorio " + directorio);
+        }
+        this.directorio = directorio;
+        this.tamanoSegmento = (int) (tamanoSegmento - tamanoSegmento % TAMANO_REGISTRO);
+        this.relojPared = relojPared;
+        reanudar();
+    }
+
+    /**
+     * Añade un registro de una notificación
+     * @return false si la bitácora está cerrada o no se pudo abrir un segmento nuevo
+     */
+    public boolean registrar(@NonNull RegistroBitacora.Evento evento, @NonNull NotificacionVoz notificacion) {
+        String categoria = notificacion.obtenerCategoria();
+        return registrar(evento, notificacion.obtenerPrioridad(), notificacion.obtenerMensaje().hashCode(),
+            categoria != null ? categoria.hashCode() : 0, notificacion.obtenerMetadatosTipados());
+    }
+
+    /**
+     * Añade un registro a partir de sus campos
+     * @return false si la bitácora está cerrada o no se pudo abrir un segmento nuevo
+     */
+    public boolean registrar(@NonNull RegistroBitacora.Evento evento, @NonNull NotificacionVoz.Prioridad prioridad,
+                             int huellaMensaje, int huellaCategoria, @NonNull MetadatosNotificacion metadatos) {
+        long marcaTiempo = relojPared.ahoraMs();
+        synchronized (cerrojo) {
+            if (cerrada || (!hayHueco() && !rotar())) {
+                registrosPerdidos.incrementAndGet();
+                return false;
+            }
+            MappedByteBuffer destino = segmento;
+            int inicio = destino.position();
+            int cantidad = Math.min(metadatos.obtenerCantidad(), MAXIMO_VALORES);
+            long mascara = metadatos.obtenerMascara();
+            for (int i = cantidad; i < metadatos.obtenerCantidad(); i++) {
+                // Se quitan de la máscara los campos que no caben
+                mascara &= ~Long.highestOneBit(mascara);
+            }
+
+            destino.putLong(inicio + FormatoBitacora.SECUENCIA, ++secuencia);
+            destino.putLong(inicio + FormatoBitacora.MARCA_TIEMPO, marcaTiempo);
+            destino.put(inicio + FormatoBitacora.EVENTO, (byte) evento.obtenerCodigo());
+            destino.put(inicio + FormatoBitacora.PRIORIDAD, (byte) prioridad.ordinal());
+            destino.putShort(inicio + FormatoBitacora.NUMERO_VALORES, (short) cantidad);
+            destino.putInt(inicio + FormatoBitacora.HUELLA_MENSAJE, huellaMensaje);
+            destino.putInt(inicio + FormatoBitacora.HUELLA_CATEGORIA, huellaCategoria);
+            destino.putLong(inicio + FormatoBitacora.MASCARA, mascara);
+            for (int i = 0; i < MAXIMO_VALORES; i++) {
+                // Se escriben también los vacíos: la ranura puede reutilizar un registro roto
+                destino.putLong(inicio + FormatoBitacora.VALORES + 8 * i,
+                    i < cantidad ? metadatos.obtenerValorCrudo(i) : 0L);
+            }
+            // La comprobación va al final: sin ella el lector descarta el registro
+            destino.putInt(inicio + FormatoBitacora.COMPROBACION,
+                FormatoBitacora.calcularComprobacion(destino, inicio));
+            destino.position(inicio + TAMANO_REGISTRO);
+            return true;
+        }
+    }
+
+    /**
+     * Fuerza el volcado a disco del segmento actual
+     */
+    public void forzar() {
+        synchronized (cerrojo) {
+            if (segmento != null) {
+                segmento.force();
+            }
+        }
+    }
+
+    /**
+     * Obtiene la secuencia del último registro escrito (0 si no hay ninguno)
+     */
+    public long obtenerUltimaSecuencia() {
+        synchronized (cerrojo) {
+            return secuencia;
+        }
+    }
+
+    /**
+     * Obtiene el número de registros que no se pudieron escribir
+     */
+    public long obtenerRegistrosPerdidos() {
+        return registrosPerdidos.get();
+    }
+
+    @NonNull
+    public File obtenerDirectorio() {
+        return directorio;
+    }
+
+    /**
+     * Vuelca el segmento actual y deja de aceptar registros
+     */
+    @Override
+    public void close() {
+        synchronized (cerrojo) {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            if (segmento != null) {
+                segmento.force();
+                segmento = null;
+            }
+        }
+    }
+
+    private boolean hayHueco() {
+        return segmento != null && segmento.remaining() >= TAMANO_REGISTRO;
+    }
+
+    /**
+     * Continúa la bitácora existente en el directorio, o empieza una nueva
+     */
+    private void reanudar() throws IOException {
+        List<File> segmentos = FormatoBitacora.listarSegmentos(directorio);
+        if (segmentos.isEmpty()) {
+            abrirSegmento(1, 1);
+            return;
+        }
+        File ultimo = segmentos.get(segmentos.size() - 1);
+        long numero = FormatoBitacora.obtenerNumeroSegmento(ultimo);
+        MappedByteBuffer mapa = FormatoBitacora.mapear(ultimo, FileChannel.MapMode.READ_WRITE, ultimo.length());
+        long primeraSecuencia = FormatoBitacora.leerPrimeraSecuencia(mapa);
+        if (primeraSecuencia <= 0 || mapa.capacity() < 2 * TAMANO_REGISTRO) {
+            // Cabecera rota: el segmento se creó pero nunca llegó a usarse
+            abrirSegmento(numero, 1 + ultimaSecuenciaValida(segmentos.subList(0, segmentos.size() - 1)));
+            return;
+        }
+        int posicion = TAMANO_REGISTRO;
+        long esperada = primeraSecuencia;
+        while (posicion + TAMANO_REGISTRO <= mapa.capacity()
+                && FormatoBitacora.esRegistroValido(mapa, posicion, esperada)) {
+            posicion += TAMANO_REGISTRO;
+            esperada++;
+        }
+        mapa.position(posicion);
+        segmento = mapa;
+        numeroSegmento = numero;
+        secuencia = esperada - 1;
+    }
+
+    private long ultimaSecuenciaValida(List<File> segmentos) throws IOException {
+        for (int i = segmentos.size() - 1; i >= 0; i--) {
+            File archivo = segmentos.get(i);
+            MappedByteBuffer mapa = FormatoBitacora.mapear(archivo, FileChannel.MapMode.READ_ONLY,
+                archivo.length());
+            long primera = FormatoBitacora.leerPrimeraSecuencia(mapa);
+            if (primera > 0) {
+                long esperada = primera;
+                for (int posicion = TAMANO_REGISTRO; posicion + TAMANO_REGISTRO <= mapa.capacity()
+                        && FormatoBitacora.esRegistroValido(mapa, posicion, esperada); posicion += TAMANO_REGISTRO) {
+                    esperada++;
+                }
+                return esperada - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Mapea el segmento siguiente. Debe invocarse con el cerrojo tomado.
+     */
+    private boolean rotar() {
+        if (segmento != null) {
+            segmento.force();
+        }
+        try {
+            abrirSegmento(numeroSegmento + 1, secuencia + 1);
+            return true;
+        } catch (IOException excepcion) {
+            segmento = null;
+            return false;
+        }
+    }
+
+    private void abrirSegmento(long numero, long primeraSecuencia) throws IOException {
+        File archivo = new File(directorio, FormatoBitacora.nombreSegmento(numero));
+        MappedByteBuffer mapa = FormatoBitacora.mapear(archivo, FileChannel.MapMode.READ_WRITE, tamanoSegmento);
+        mapa.putInt(FormatoBitacora.CABECERA_MAGICO, FormatoBitacora.MAGICO);
+        mapa.putInt(FormatoBitacora.CABECERA_VERSION, FormatoBitacora.VERSION);
+        mapa.putInt(FormatoBitacora.CABECERA_TAMANO_REGISTRO, TAMANO_REGISTRO);
+        mapa.putLong(FormatoBitacora.CABECERA_NUMERO_SEGMENTO, numero);
+        mapa.putLong(FormatoBitacora.CABECERA_PRIMERA_SECUENCIA, primeraSecuencia);
+        mapa.position(TAMANO_REGISTRO);
+        segmento = mapa;
+        numeroSegmento = numero;
+    }
+}
@@ -0,0 +1,134 @@
+package com.notificacionesvoz.datos.bitacora;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formato en disco de la bitácora, compartido por quien escribe y quien lee
+ *
+ * Cada segmento empieza con una cabecera del tamaño de un registro, seguida de
+ * registros de {@link BitacoraNotificaciones#TAMANO_REGISTRO} bytes en little-endian:
+ * secuencia (8), marca de tiempo (8), evento (1), prioridad (1), número de valores (2),
+ * huella del mensaje (4), huella de la categoría (4), comprobación (4), máscara de
+ * metadatos (8) y {@link BitacoraNotificaciones#MAXIMO_VALORES} valores (8 cada uno).
+ */
+final class FormatoBitacora {
+
+    static final String PREFIJO_SEGMENTO = "bitacora_";
+    static final String EXTENSION_SEGMENTO = ".seg";
+    static final int MAGICO = 0x424E5631; // "BNV1"
+    static final int VERSION = 1;
+
+    // Cabecera del segmento (ocupa la primera ranura)
+    static final int CABECERA_MAGICO = 0;
+    static final int CABECERA_VERSION = 4;
+    static final int CABECERA_TAMANO_REGISTRO = 8;
+    static final int CABECERA_NUMERO_SEGMENTO = 16;
+    static final int CABECERA_PRIMERA_SECUENCIA = 24;
+
+    // Campos del registro, relativos a su inicio
+    static final int SECUENCIA = 0;
+    static final int MARCA_TIEMPO = 8;
+    static final int EVENTO = 16;
+    static final int PRIORIDAD = 17;
+    static final int NUMERO_VALORES = 18;
+    static final int HUELLA_MENSAJE = 20;
+    static final int HUELLA_CATEGORIA = 24;
+    static final int COMPROBACION = 28;
+    static final int MASCARA = 32;
+    static final int VALORES = 40;
+
+    private FormatoBitacora() {
+    }
+
+    static MappedByteBuffer mapear(File archivo, FileChannel.MapMode modo, long tamano) throws IOException {
+        try (RandomAccessFile acceso = new RandomAccessFile(archivo,
+                modo == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+            if (modo != FileChannel.MapMode.READ_ONLY && acceso.length() < tamano) {
+                acceso.setLength(tamano);
+            }
+            // El mapa sigue siendo válido después de cerrar el archivo
+            MappedByteBuffer mapa = acceso.getChannel().map(modo, 0, tamano);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+            return mapa;
+        }
+    }
+
+    /**
+     * Primera secuencia del segmento, o 0 si la cabecera no es válida
+     */
+    static long leerPrimeraSecuencia(ByteBuffer mapa) {
+        if (mapa.capacity() < BitacoraNotificaciones.TAMANO_REGISTRO
+                || mapa.getInt(CABECERA_MAGICO) != MAGICO
+                || mapa.getInt(CABECERA_VERSION) != VERSION
+                || mapa.getInt(CABECERA_TAMANO_REGISTRO) != BitacoraNotificaciones.TAMANO_REGISTRO) {
+            return 0;
+        }
+        return mapa.getLong(CABECERA_PRIMERA_SECUENCIA);
+    }
+
+    static boolean esRegistroValido(ByteBuffer mapa, int inicio, long secuenciaEsperada) {
+        return mapa.getLong(inicio + SECUENCIA) == secuenciaEsperada
+            && mapa.getInt(inicio + COMPROBACION) == calcularComprobacion(mapa, inicio);
+    }
+
+    /**
+     * Comprobación de todo el registro salvo su propio campo
+     */
+    static int calcularComprobacion(ByteBuffer mapa, int inicio) {
+        long huella = 0xCBF29CE484222325L;
+        huella = mezclar(huella, mapa.getLong(inicio + SECUENCIA));
+        huella = mezclar(huella, mapa.getLong(inicio + MARCA_TIEMPO));
+        huella = mezclar(huella, mapa.getLong(inicio + EVENTO));
+        huella = mezclar(huella, mapa.getInt(inicio + HUELLA_CATEGORIA));
+        for (int campo = MASCARA; campo < BitacoraNotificaciones.TAMANO_REGISTRO; campo += 8) {
+            huella = mezclar(huella, mapa.getLong(inicio + campo));
+        }
+        return (int) (huella ^ (huella >>> 32));
+    }
+
+    private static long mezclar(long huella, long valor) {
+        return (huella ^ valor) * 0x100000001B3L;
+    }
+
+    @NonNull
+    static List<File> listarSegmentos(@NonNull File directorio) {
+        File[] archivos = directorio.listFiles((dir, nombre) ->
+            nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(EXTENSION_SEGMENTO));
+        List<File> segmentos = new ArrayList<>();
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                if (obtenerNumeroSegmento(archivo) > 0) {
+                    segmentos.add(archivo);
+                }
+            }
+        }
+        Collections.sort(segmentos, (a, b) -> Long.compare(obtenerNumeroSegmento(a), obtenerNumeroSegmento(b)));
+        return segmentos;
+    }
+
+    static long obtenerNumeroSegmento(@NonNull File archivo) {
+        String nombre = archivo.getName();
+        try {
+            return Long.parseLong(nombre.substring(PREFIJO_SEGMENTO.length(),
+                nombre.length() - EXTENSION_SEGMENTO.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException excepcion) {
+            return -1;
+        }
+    }
+
+    static String nombreSegmento(long numero) {
+        return String.format(Locale.ROOT, "%s%06d%s", PREFIJO_SEGMENTO, numero, EXTENSION_SEGMENTO);
+    }
+}
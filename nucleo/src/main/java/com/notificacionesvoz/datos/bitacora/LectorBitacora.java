@@ -0,0 +1,161 @@
+package com.notificacionesvoz.datos.bitacora;
+
+import androidx.annotation.NonNull;
+
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lector de una bitácora de notificaciones
+ *
+ * Recorre los segmentos en orden mapeándolos en solo lectura, de modo que puede
+ * exportar la bitácora mientras se sigue escribiendo sin frenar a quien escribe.
+ * Cada segmento se lee hasta el primer registro vacío o roto.
+ */
+public class LectorBitacora implements Iterable<RegistroBitacora> {
+
+    private static final NotificacionVoz.Prioridad[] PRIORIDADES = NotificacionVoz.Prioridad.values();
+
+    private final File directorio;
+
+    public LectorBitacora(@NonNull File directorio) {
+        this.directorio = directorio;
+    }
+
+    /**
+     * Recorre los registros en orden de secuencia
+     * @throws UncheckedIOException durante la iteración si un segmento no se puede leer
+     */
+    @NonNull
+    @Override
+    public Iterator<RegistroBitacora> iterator() {
+        return new Recorrido(FormatoBitacora.listarSegmentos(directorio));
+    }
+
+    /**
+     * Exporta los registros como CSV (una fila por registro, con cabecera)
+     * @param destino Donde escribir, p. ej. un Writer o un StringBuilder
+     * @return Número de registros exportados
+     */
+    public long exportarCsv(@NonNull Appendable destino) throws IOException {
+        destino.append("secuencia,marca_tiempo_ms,evento,prioridad,huella_mensaje,huella_categoria,metadatos\n");
+        long cantidad = 0;
+        for (RegistroBitacora registro : this) {
+            destino.append(String.valueOf(registro.obtenerSecuencia())).append(',')
+                .append(String.valueOf(registro.obtenerMarcaTiempoMs())).append(',')
+                .append(registro.obtenerEvento().name()).append(',')
+                .append(registro.obtenerPrioridad().name()).append(',')
+                .append(String.valueOf(registro.obtenerHuellaMensaje())).append(',')
+                .append(String.valueOf(registro.obtenerHuellaCategoria())).append(',');
+            escribirMetadatos(destino, registro.obtenerMetadatos());
+            destino.append('\n');
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Metadatos como nombre=valor separados por punto y coma
+     */
+    private static void escribirMetadatos(Appendable destino, MetadatosNotificacion metadatos) throws IOException {
+        long restantes = metadatos.obtenerMascara();
+        int posicion = 0;
+        while (restantes != 0) {
+            int id = Long.numberOfTrailingZeros(restantes);
+            restantes &= restantes - 1;
+            MetadatosNotificacion.Campo campo = MetadatosNotificacion.obtenerCampo(id);
+            long crudo = metadatos.obtenerValorCrudo(posicion);
+            if (posicion++ > 0) {
+                destino.append(';');
+            }
+            destino.append(campo != null ? campo.obtenerNombre() : String.valueOf(id)).append('=');
+            destino.append(campo != null && campo.obtenerTipo() == MetadatosNotificacion.Tipo.DECIMAL
+                ? String.valueOf(Double.longBitsToDouble(crudo)) : String.valueOf(crudo));
+        }
+    }
+
+    private static RegistroBitacora decodificar(MappedByteBuffer mapa, int inicio) {
+        RegistroBitacora.Evento evento =
+            RegistroBitacora.Evento.desdeCodigo(mapa.get(inicio + FormatoBitacora.EVENTO));
+        int nivel = mapa.get(inicio + FormatoBitacora.PRIORIDAD);
+        int cantidad = mapa.getShort(inicio + FormatoBitacora.NUMERO_VALORES);
+        long[] valores = new long[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            valores[i] = mapa.getLong(inicio + FormatoBitacora.VALORES + 8 * i);
+        }
+        return new RegistroBitacora(
+            mapa.getLong(inicio + FormatoBitacora.SECUENCIA),
+            mapa.getLong(inicio + FormatoBitacora.MARCA_TIEMPO),
+            evento != null ? evento : RegistroBitacora.Evento.DESCARTADA,
+            nivel >= 0 && nivel < PRIORIDADES.length ? PRIORIDADES[nivel] : NotificacionVoz.Prioridad.NORMAL,
+            mapa.getInt(inicio + FormatoBitacora.HUELLA_MENSAJE),
+            mapa.getInt(inicio + FormatoBitacora.HUELLA_CATEGORIA),
+            MetadatosNotificacion.desdeCrudos(mapa.getLong(inicio + FormatoBitacora.MASCARA), valores));
+    }
+
+    /**
+     * Iterador sobre los segmentos; mapea cada uno al llegar a él
+     */
+    private static final class Recorrido implements Iterator<RegistroBitacora> {
+        private final List<File> segmentos;
+        private int indiceSegmento = 0;
+        private MappedByteBuffer mapa;
+        private int posicion;
+        private long esperada;
+        private RegistroBitacora siguiente;
+
+        Recorrido(List<File> segmentos) {
+            this.segmentos = segmentos;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (siguiente == null) {
+                if (mapa != null && posicion + BitacoraNotificaciones.TAMANO_REGISTRO <= mapa.capacity()
+                        && FormatoBitacora.esRegistroValido(mapa, posicion, esperada)) {
+                    siguiente = decodificar(mapa, posicion);
+                    posicion += BitacoraNotificaciones.TAMANO_REGISTRO;
+                    esperada++;
+                } else if (indiceSegmento < segmentos.size()) {
+                    abrir(segmentos.get(indiceSegmento++));
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public RegistroBitacora next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RegistroBitacora registro = siguiente;
+            siguiente = null;
+            return registro;
+        }
+
+        private void abrir(File archivo) {
+            try {
+                mapa = FormatoBitacora.mapear(archivo, FileChannel.MapMode.READ_ONLY, archivo.length());
+            } catch (IOException excepcion) {
+                throw new UncheckedIOException(excepcion);
+            }
+            esperada = FormatoBitacora.leerPrimeraSecuencia(mapa);
+            posicion = BitacoraNotificaciones.TAMANO_REGISTRO;
+            if (esperada <= 0) {
+                // Segmento sin cabecera válida: no aporta registros
+                mapa = null;
+            }
+        }
+    }
+}
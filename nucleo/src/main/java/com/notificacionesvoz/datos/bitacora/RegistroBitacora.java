@@ -0,0 +1,135 @@
+package com.notificacionesvoz.datos.bitacora;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+/**
+ * Registro leído de la bitácora de notificaciones
+ *
+ * El texto del mensaje no se guarda (el registro tiene tamaño fijo): se conserva su
+ * huella (String.hashCode, estable entre ejecuciones) junto con los metadatos tipados,
+ * que son los que permiten reconstruir qué se avisó y por qué.
+ */
+public final class RegistroBitacora {
+
+    /**
+     * Suceso registrado. Los códigos se escriben en disco: no deben cambiar.
+     */
+    public enum Evento {
+        /** La app pidió la notificación */
+        SOLICITADA(1),
+        /** La rechazó el limitador (enfriamiento de su categoría o presupuesto global) */
+        SUPRIMIDA(2),
+        /** Empezó a sonar */
+        INICIADA(3),
+        /** Sonó hasta el final */
+        COMPLETADA(4),
+        /** Empezó a sonar pero se cortó (otra URGENTE, detención, error del motor) */
+        INTERRUMPIDA(5),
+        /** No llegó a sonar (cola llena, reemplazada, motor no disponible o fallido) */
+        DESCARTADA(6),
+        /** Se fusionó con una equivalente reciente y no llegó al motor */
+        FUSIONADA(7);
+
+        private final int codigo;
+
+        Evento(int codigo) {
+            this.codigo = codigo;
+        }
+
+        public int obtenerCodigo() {
+            return codigo;
+        }
+
+        @Nullable
+        public static Evento desdeCodigo(int codigo) {
+            for (Evento evento : values()) {
+                if (evento.codigo == codigo) {
+                    return evento;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final long secuencia;
+    private final long marcaTiempoMs;
+    private final Evento evento;
+    private final NotificacionVoz.Prioridad prioridad;
+    private final int huellaMensaje;
+    private final int huellaCategoria;
+    private final MetadatosNotificacion metadatos;
+
+    RegistroBitacora(long secuencia, long marcaTiempoMs, @NonNull Evento evento,
+                     @NonNull NotificacionVoz.Prioridad prioridad, int huellaMensaje, int huellaCategoria,
+                     @NonNull MetadatosNotificacion metadatos) {
+        this.secuencia = secuencia;
+        this.marcaTiempoMs = marcaTiempoMs;
+        this.evento = evento;
+        this.prioridad = prioridad;
+        this.huellaMensaje = huellaMensaje;
+        this.huellaCategoria = huellaCategoria;
+        this.metadatos = metadatos;
+    }
+
+    /**
+     * Número de orden del registro en la bitácora, empezando en 1
+     */
+    public long obtenerSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Instante del suceso en milisegundos desde la época (reloj de pared)
+     */
+    public long obtenerMarcaTiempoMs() {
+        return marcaTiempoMs;
+    }
+
+    @NonNull
+    public Evento obtenerEvento() {
+        return evento;
+    }
+
+    @NonNull
+    public NotificacionVoz.Prioridad obtenerPrioridad() {
+        return prioridad;
+    }
+
+    /**
+     * Huella del mensaje: String.hashCode() del texto
+     */
+    public int obtenerHuellaMensaje() {
+        return huellaMensaje;
+    }
+
+    /**
+     * Huella de la categoría: String.hashCode() del nombre, o 0 si no tenía
+     */
+    public int obtenerHuellaCategoria() {
+        return huellaCategoria;
+    }
+
+    /**
+     * Metadatos guardados (como máximo {@link BitacoraNotificaciones#MAXIMO_VALORES}, los de menor id)
+     */
+    @NonNull
+    public MetadatosNotificacion obtenerMetadatos() {
+        return metadatos;
+    }
+
+    @Override
+    public String toString() {
+        return "RegistroBitacora{" +
+                "secuencia=" + secuencia +
+                ", marcaTiempoMs=" + marcaTiempoMs +
+                ", evento=" + evento +
+                ", prioridad=" + prioridad +
+                ", huellaMensaje=" + huellaMensaje +
+                ", metadatos=" + metadatos +
+                '}';
+    }
+}
@@ -0,0 +1,126 @@
+package com.notificacionesvoz.datos.fabrica;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo de plantillas de mensajes por idioma
+ *
+ * Cada idioma se carga la primera vez que se pide, desde un recurso
+ * {@code <base>_<idioma>_<PAIS>.properties} en UTF-8, y sus plantillas se
+ * precompilan en ese momento. Las claves que falten se heredan del idioma sin
+ * país y, por último, del catálogo base ({@code <base>.properties}). La herencia
+ * se resuelve al cargar, así que cada consulta es una sola búsqueda.
+ *
+ * Añadir un mercado consiste en añadir su archivo de recursos. No depende de
+ * Android, por lo que funciona también en una JVM normal. Thread-safe.
+ */
+public class CatalogoMensajes {
+
+    private static final String EXTENSION = ".properties";
+
+    private final Class<?> claseRecursos;
+    private final String nombreBase;
+
+    // Plantillas ya combinadas con su herencia, por sufijo ("", "_es", "_es_MX")
+    private final ConcurrentHashMap<String, Map<String, PlantillaMensaje>> porSufijo = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Locale, Map<String, PlantillaMensaje>> porIdioma = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     * @param claseRecursos Clase desde la que se resuelven los recursos
+     * @param nombreBase Nombre de los recursos, relativo al paquete de la clase (p. ej. "mensajes")
+     */
+    public CatalogoMensajes(@NonNull Class<?> claseRecursos, @NonNull String nombreBase) {
+        this.claseRecursos = claseRecursos;
+        this.nombreBase = nombreBase;
+    }
+
+    /**
+     * Obtiene la plantilla de una clave en un idioma
+     * @return La plantilla, o null si no existe en el idioma ni en los catálogos de los que hereda
+     */
+    @Nullable
+    public PlantillaMensaje obtenerPlantilla(@NonNull String clave, @NonNull Locale idioma) {
+        return obtenerPlantillas(idioma).get(clave);
+    }
+
+    /**
+     * Obtiene todas las plantillas disponibles para un idioma (incluidas las heredadas)
+     */
+    @NonNull
+    public Map<String, PlantillaMensaje> obtenerPlantillas(@NonNull Locale idioma) {
+        Map<String, PlantillaMensaje> plantillas = porIdioma.get(idioma);
+        if (plantillas == null) {
+            plantillas = resolver(idioma);
+            Map<String, PlantillaMensaje> previas = porIdioma.putIfAbsent(idioma, plantillas);
+            if (previas != null) {
+                plantillas = previas;
+            }
+        }
+        return plantillas;
+    }
+
+    private Map<String, PlantillaMensaje> resolver(Locale idioma) {
+        Map<String, PlantillaMensaje> plantillas = cargarNivel("", null);
+        String lenguaje = idioma.getLanguage();
+        if (!lenguaje.isEmpty()) {
+            plantillas = cargarNivel("_" + lenguaje, plantillas);
+            String pais = idioma.getCountry();
+            if (!pais.isEmpty()) {
+                plantillas = cargarNivel("_" + lenguaje + "_" + pais, plantillas);
+            }
+        }
+        return plantillas;
+    }
+
+    private Map<String, PlantillaMensaje> cargarNivel(String sufijo, @Nullable Map<String, PlantillaMensaje> padre) {
+        Map<String, PlantillaMensaje> nivel = porSufijo.get(sufijo);
+        if (nivel != null) {
+            return nivel;
+        }
+
+        Properties propiedades = leer(nombreBase + sufijo + EXTENSION);
+        if (propiedades == null) {
+            // Sin recurso propio: el nivel equivale a su padre
+            nivel = padre != null ? padre : Collections.emptyMap();
+        } else {
+            Map<String, PlantillaMensaje> combinadas = padre != null ? new HashMap<>(padre) : new HashMap<>();
+            for (String clave : propiedades.stringPropertyNames()) {
+                combinadas.put(clave, PlantillaMensaje.compilar(propiedades.getProperty(clave)));
+            }
+            nivel = Collections.unmodifiableMap(combinadas);
+        }
+
+        Map<String, PlantillaMensaje> previo = porSufijo.putIfAbsent(sufijo, nivel);
+        return previo != null ? previo : nivel;
+    }
+
+    @Nullable
+    private Properties leer(String recurso) {
+        InputStream entrada = claseRecursos.getResourceAsStream(recurso);
+        if (entrada == null) {
+            return null;
+        }
+        try (Reader lector = new InputStreamReader(entrada, StandardCharsets.UTF_8)) {
+            Properties propiedades = new Properties();
+            propiedades.load(lector);
+            return propiedades;
+        } catch (IOException | IllegalArgumentException excepcion) {
+            // Un catálogo empaquetado con la librería ilegible es un error de construcción
+            throw new IllegalStateException("No se pudo leer el catálogo " + recurso, excepcion);
+        }
+    }
+}
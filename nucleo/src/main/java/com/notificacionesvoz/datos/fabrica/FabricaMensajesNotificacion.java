@@ -0,0 +1,90 @@
+package com.notificacionesvoz.datos.fabrica;
+
+import androidx.annotation.NonNull;
+
+import com.notificacionesvoz.dominio.modelo.TipoNotificacion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Fábrica para generar mensajes de notificación predefinidos
+ *
+ * Los textos viven en catálogos por idioma (recursos mensajes*.properties de este
+ * paquete) que se cargan y precompilan la primera vez que se usa cada idioma.
+ * Los idiomas sin catálogo propio usan el catálogo base, en inglés.
+ */
+public class FabricaMensajesNotificacion {
+    
+    /** Clave de la plantilla de exceso de velocidad con datos: {0} velocidad, {1} límite */
+    public static final String CLAVE_EXCESO_VELOCIDAD_DETALLE = "EXCESO_VELOCIDAD_DETALLE";
+    
+    private static final Locale ESPANOL = new Locale("es", "ES");
+    private static final CatalogoMensajes CATALOGO = new CatalogoMensajes(FabricaMensajesNotificacion.class, "mensajes");
+
+    /**
+     * Obtiene un mensaje predefinido para un tipo de notificación
+     * @param tipo Tipo de notificación
+     * @param idioma Idioma del mensaje
+     * @return Mensaje predefinido
+     */
+    @NonNull
+    public static String obtenerMensaje(@NonNull TipoNotificacion tipo, @NonNull Locale idioma) {
+        PlantillaMensaje plantilla = CATALOGO.obtenerPlantilla(tipo.name(), idioma);
+        return plantilla != null ? plantilla.formatear() : tipo.obtenerDescripcion();
+    }
+
+    /**
+     * Obtiene un mensaje predefinido en español
+     */
+    @NonNull
+    public static String obtenerMensajeEspanol(@NonNull TipoNotificacion tipo) {
+        return obtenerMensaje(tipo, ESPANOL);
+    }
+
+    /**
+     * Obtiene un mensaje predefinido en inglés
+     */
+    @NonNull
+    public static String obtenerMensajeIngles(@NonNull TipoNotificacion tipo) {
+        return obtenerMensaje(tipo, Locale.ENGLISH);
+    }
+
+    /**
+     * Genera un mensaje personalizado con datos dinámicos para exceso de velocidad
+     */
+    @NonNull
+    public static String obtenerMensajeExcesoVelocidad(int velocidadActual, int limiteVelocidad) {
+        return obtenerMensajeExcesoVelocidad(velocidadActual, limiteVelocidad, ESPANOL);
+    }
+
+    /**
+     * Genera un mensaje de exceso de velocidad con datos dinámicos en un idioma
+     */
+    @NonNull
+    public static String obtenerMensajeExcesoVelocidad(int velocidadActual, int limiteVelocidad,
+                                                       @NonNull Locale idioma) {
+        PlantillaMensaje plantilla = CATALOGO.obtenerPlantilla(CLAVE_EXCESO_VELOCIDAD_DETALLE, idioma);
+        if (plantilla == null) {
+            return obtenerMensaje(TipoNotificacion.EXCESO_VELOCIDAD, idioma);
+        }
+        return plantilla.formatear(velocidadActual, limiteVelocidad);
+    }
+
+    /**
+     * Obtiene todos los mensajes sin datos dinámicos de un idioma, p. ej. para
+     * precargarlos con GestorNotificacionesVoz.precargarMensajes
+     */
+    @NonNull
+    public static List<String> obtenerMensajesPredefinidos(@NonNull Locale idioma) {
+        List<String> mensajes = new ArrayList<>();
+        for (TipoNotificacion tipo : TipoNotificacion.values()) {
+            PlantillaMensaje plantilla = CATALOGO.obtenerPlantilla(tipo.name(), idioma);
+            if (plantilla != null && plantilla.obtenerNumeroArgumentos() == 0) {
+                mensajes.add(plantilla.formatear());
+            }
+        }
+        return mensajes;
+    }
+}
@@ -0,0 +1,175 @@
+package com.notificacionesvoz.datos.fabrica;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plantilla de mensaje precompilada
+ *
+ * El patrón se analiza una sola vez en tramos de texto literal y referencias a
+ * argumentos ({0}, {1}...). Formatear solo concatena: sin volver a analizar el
+ * patrón, sin expresiones regulares y sin convertir los números a objetos. Una
+ * plantilla sin argumentos devuelve siempre la misma cadena.
+ *
+ * Las instancias son inmutables y pueden compartirse entre hilos.
+ */
+public final class PlantillaMensaje {
+
+    private final String patron;
+    // literales[i] precede al argumento indicesArgumentos[i]; el último literal cierra el mensaje
+    private final String[] literales;
+    private final int[] indicesArgumentos;
+    private final int numeroArgumentos;
+    private final int longitudLiterales;
+
+    private PlantillaMensaje(String patron, String[] literales, int[] indicesArgumentos) {
+        this.patron = patron;
+        this.literales = literales;
+        this.indicesArgumentos = indicesArgumentos;
+        int maximo = -1;
+        for (int indice : indicesArgumentos) {
+            maximo = Math.max(maximo, indice);
+        }
+        this.numeroArgumentos = maximo + 1;
+        int longitud = 0;
+        for (String literal : literales) {
+            longitud += literal.length();
+        }
+        this.longitudLiterales = longitud;
+    }
+
+    /**
+     * Analiza un patrón. Las llaves que no encierran un número se copian tal cual.
+     * @param patron Texto con referencias {0}, {1}...
+     * @return Plantilla lista para formatear
+     */
+    @NonNull
+    public static PlantillaMensaje compilar(@NonNull String patron) {
+        List<String> literales = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < patron.length()) {
+            char caracter = patron.charAt(i);
+            int cierre = caracter == '{' ? patron.indexOf('}', i + 1) : -1;
+            if (cierre > i + 1 && esNumero(patron, i + 1, cierre)) {
+                literales.add(literal.toString());
+                literal.setLength(0);
+                indices.add(Integer.parseInt(patron.substring(i + 1, cierre)));
+                i = cierre + 1;
+            } else {
+                literal.append(caracter);
+                i++;
+            }
+        }
+        literales.add(literal.toString());
+
+        int[] indicesArgumentos = new int[indices.size()];
+        for (int j = 0; j < indicesArgumentos.length; j++) {
+            indicesArgumentos[j] = indices.get(j);
+        }
+        return new PlantillaMensaje(patron, literales.toArray(new String[0]), indicesArgumentos);
+    }
+
+    private static boolean esNumero(String texto, int desde, int hasta) {
+        if (hasta - desde > 2) {
+            return false;
+        }
+        for (int i = desde; i < hasta; i++) {
+            if (!Character.isDigit(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formatea una plantilla sin argumentos
+     * @throws IllegalStateException si el patrón tiene referencias {n}
+     */
+    @NonNull
+    public String formatear() {
+        if (indicesArgumentos.length > 0) {
+            throw new IllegalStateException("La plantilla espera " + numeroArgumentos + " argumentos: " + patron);
+        }
+        return literales[0];
+    }
+
+    /**
+     * Formatea con un argumento numérico
+     */
+    @NonNull
+    public String formatear(long argumento0) {
+        StringBuilder destino = new StringBuilder(longitudLiterales + 20);
+        for (int i = 0; i < indicesArgumentos.length; i++) {
+            destino.append(literales[i]);
+            if (indicesArgumentos[i] == 0) {
+                destino.append(argumento0);
+            }
+        }
+        return destino.append(literales[indicesArgumentos.length]).toString();
+    }
+
+    /**
+     * Formatea con dos argumentos numéricos
+     */
+    @NonNull
+    public String formatear(long argumento0, long argumento1) {
+        StringBuilder destino = new StringBuilder(longitudLiterales + 40);
+        for (int i = 0; i < indicesArgumentos.length; i++) {
+            destino.append(literales[i]);
+            int indice = indicesArgumentos[i];
+            if (indice == 0) {
+                destino.append(argumento0);
+            } else if (indice == 1) {
+                destino.append(argumento1);
+            }
+        }
+        return destino.append(literales[indicesArgumentos.length]).toString();
+    }
+
+    /**
+     * Formatea con cualquier número de argumentos
+     * @param argumentos Valores de {0}, {1}...; las referencias sin valor se omiten
+     */
+    @NonNull
+    public String formatear(@NonNull long[] argumentos) {
+        StringBuilder destino = new StringBuilder(longitudLiterales + 20 * argumentos.length);
+        escribir(destino, argumentos);
+        return destino.toString();
+    }
+
+    /**
+     * Escribe el mensaje al final de un StringBuilder reutilizado por el llamante
+     */
+    public void escribir(@NonNull StringBuilder destino, @NonNull long[] argumentos) {
+        for (int i = 0; i < indicesArgumentos.length; i++) {
+            destino.append(literales[i]);
+            int indice = indicesArgumentos[i];
+            if (indice < argumentos.length) {
+                destino.append(argumentos[indice]);
+            }
+        }
+        destino.append(literales[indicesArgumentos.length]);
+    }
+
+    /**
+     * Número de argumentos que espera (uno más que la mayor referencia)
+     */
+    public int obtenerNumeroArgumentos() {
+        return numeroArgumentos;
+    }
+
+    @NonNull
+    public String obtenerPatron() {
+        return patron;
+    }
+
+    @Override
+    public String toString() {
+        return patron;
+    }
+}
@@ -0,0 +1,437 @@
+package com.notificacionesvoz.datos.limites;
+
+import androidx.annotation.NonNull;
+
+import com.notificacionesvoz.utilidades.FuenteLimitesVelocidad;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Índice espacial de límites de velocidad, sin conexión
+ *
+ * Se construye una vez con {@link Constructor} a partir de un extracto de tramos de
+ * vía y se guarda en un archivo binario que se mapea en memoria al abrirlo: no se
+ * carga nada en el heap y el sistema operativo solo lee las páginas que se consultan.
+ *
+ * El área se divide en una rejilla de celdas; cada celda lista los tramos que pasan
+ * a menos de la distancia máxima de ella (formato CSR: un array de inicios por celda
+ * y otro con los tramos de todas las celdas seguidos). Una consulta calcula su celda,
+ * recorre sus pocos tramos y devuelve el límite del más cercano cuyo sentido
+ * coincide con el rumbo. No reserva memoria y tarda del orden de microsegundos, así
+ * que puede consultarse a la frecuencia del GPS.
+ *
+ * Formato (little-endian): cabecera de {@link #TAMANO_CABECERA} bytes, inicios de
+ * celda (int, filas × columnas + 1), tramos de cada celda (int) y tramos
+ * ({@link #TAMANO_TRAMO} bytes: latitud y longitud de A y B en microgrados, límite
+ * en km/h y sentido).
+ *
+ * No depende de Android. Thread-safe: las consultas solo hacen lecturas absolutas.
+ */
+public class IndiceLimitesVelocidad implements FuenteLimitesVelocidad {
+
+    public static final int TAMANO_CABECERA = 64;
+    public static final int TAMANO_TRAMO = 20;
+    /** Diferencia máxima entre el rumbo y la dirección del tramo para tenerlo en cuenta */
+    public static final float TOLERANCIA_RUMBO_GRADOS = 60f;
+
+    private static final int MAGICO = 0x564D494C; // "LIMV"
+    private static final int VERSION = 1;
+    private static final double METROS_POR_MICROGRADO = 0.11132;
+    private static final double COSENO_TOLERANCIA_RUMBO = Math.cos(Math.toRadians(TOLERANCIA_RUMBO_GRADOS));
+
+    // Cabecera
+    private static final int CABECERA_MAGICO = 0;
+    private static final int CABECERA_VERSION = 4;
+    private static final int CABECERA_LATITUD_MINIMA = 8;
+    private static final int CABECERA_LONGITUD_MINIMA = 12;
+    private static final int CABECERA_TAMANO_CELDA = 16;
+    private static final int CABECERA_FILAS = 20;
+    private static final int CABECERA_COLUMNAS = 24;
+    private static final int CABECERA_NUMERO_TRAMOS = 28;
+    private static final int CABECERA_NUMERO_ENTRADAS = 32;
+    private static final int CABECERA_DISTANCIA_MAXIMA = 36;
+
+    // Tramo
+    private static final int TRAMO_LATITUD_A = 0;
+    private static final int TRAMO_LONGITUD_A = 4;
+    private static final int TRAMO_LATITUD_B = 8;
+    private static final int TRAMO_LONGITUD_B = 12;
+    private static final int TRAMO_LIMITE = 16;
+    private static final int TRAMO_SENTIDO = 18;
+
+    private static final byte AMBOS_SENTIDOS = 0;
+    private static final byte SOLO_A_HACIA_B = 1;
+
+    private final MappedByteBuffer mapa;
+    private final int latitudMinimaE6;
+    private final int longitudMinimaE6;
+    private final int tamanoCeldaE6;
+    private final int filas;
+    private final int columnas;
+    private final int numeroTramos;
+    private final double distanciaMaximaM;
+    private final int inicioCeldas;
+    private final int inicioEntradas;
+    private final int inicioTramos;
+
+    /**
+     * Abre un índice escrito por {@link Constructor#escribir(File)}
+     * @throws IOException si el archivo no se puede mapear o no es un índice válido
+     */
+    public IndiceLimitesVelocidad(@NonNull File archivo) throws IOException {
+        try (RandomAccessFile acceso = new RandomAccessFile(archivo, "r");
+             FileChannel canal = acceso.getChannel()) {
+            if (canal.size() < TAMANO_CABECERA || canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño de índice no válido: " + archivo);
+            }
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        mapa.order(ByteOrder.LITTLE_ENDIAN);
+        if (mapa.getInt(CABECERA_MAGICO) != MAGICO || mapa.getInt(CABECERA_VERSION) != VERSION) {
+            throw new IOException("No es un índice de límites de velocidad: " + archivo);
+        }
+        latitudMinimaE6 = mapa.getInt(CABECERA_LATITUD_MINIMA);
+        longitudMinimaE6 = mapa.getInt(CABECERA_LONGITUD_MINIMA);
+        tamanoCeldaE6 = mapa.getInt(CABECERA_TAMANO_CELDA);
+        filas = mapa.getInt(CABECERA_FILAS);
+        columnas = mapa.getInt(CABECERA_COLUMNAS);
+        numeroTramos = mapa.getInt(CABECERA_NUMERO_TRAMOS);
+        int numeroEntradas = mapa.getInt(CABECERA_NUMERO_ENTRADAS);
+        distanciaMaximaM = mapa.getFloat(CABECERA_DISTANCIA_MAXIMA);
+
+        long esperado = TAMANO_CABECERA + 4L * ((long) filas * columnas + 1) + 4L * numeroEntradas
+            + (long) TAMANO_TRAMO * numeroTramos;
+        if (tamanoCeldaE6 <= 0 || filas <= 0 || columnas <= 0 || numeroEntradas < 0 || numeroTramos < 0
+                || esperado != mapa.capacity()) {
+            throw new IOException("Índice de límites de velocidad truncado o corrupto: " + archivo);
+        }
+        inicioCeldas = TAMANO_CABECERA;
+        inicioEntradas = inicioCeldas + 4 * (filas * columnas + 1);
+        inicioTramos = inicioEntradas + 4 * numeroEntradas;
+    }
+
+    /**
+     * Límite de la vía más cercana, sin tener en cuenta el sentido de circulación
+     * @return Límite en km/h o {@link #SIN_LIMITE}
+     */
+    public int obtenerLimiteKmh(double latitud, double longitud) {
+        return obtenerLimiteKmh(latitud, longitud, Float.NaN);
+    }
+
+    /**
+     * Límite de la vía más cercana que se recorre en el sentido del rumbo
+     * @param rumboGrados Rumbo del vehículo (0 = norte, 90 = este), o NaN si no se conoce
+     * @return Límite en km/h o {@link #SIN_LIMITE} si no hay ningún tramo a menos de la
+     *         distancia máxima con un sentido compatible
+     */
+    @Override
+    public int obtenerLimiteKmh(double latitud, double longitud, float rumboGrados) {
+        int latitudE6 = (int) Math.round(latitud * 1e6);
+        int longitudE6 = (int) Math.round(longitud * 1e6);
+        int fila = Math.floorDiv(latitudE6 - latitudMinimaE6, tamanoCeldaE6);
+        int columna = Math.floorDiv(longitudE6 - longitudMinimaE6, tamanoCeldaE6);
+        if (fila < 0 || fila >= filas || columna < 0 || columna >= columnas) {
+            return SIN_LIMITE;
+        }
+        int celda = fila * columnas + columna;
+        int desde = mapa.getInt(inicioCeldas + 4 * celda);
+        int hasta = mapa.getInt(inicioCeldas + 4 * (celda + 1));
+
+        // Coordenadas locales en metros centradas en el punto (proyección equirectangular)
+        double escalaLongitud = METROS_POR_MICROGRADO * Math.cos(Math.toRadians(latitud));
+        boolean conRumbo = !Float.isNaN(rumboGrados);
+        double rumboEste = conRumbo ? Math.sin(Math.toRadians(rumboGrados)) : 0;
+        double rumboNorte = conRumbo ? Math.cos(Math.toRadians(rumboGrados)) : 0;
+
+        double mejorDistancia2 = distanciaMaximaM * distanciaMaximaM;
+        int limite = SIN_LIMITE;
+        for (int k = desde; k < hasta; k++) {
+            int tramo = inicioTramos + TAMANO_TRAMO * mapa.getInt(inicioEntradas + 4 * k);
+            double ax = (mapa.getInt(tramo + TRAMO_LONGITUD_A) - longitudE6) * escalaLongitud;
+            double ay = (mapa.getInt(tramo + TRAMO_LATITUD_A) - latitudE6) * METROS_POR_MICROGRADO;
+            double dx = (mapa.getInt(tramo + TRAMO_LONGITUD_B) - longitudE6) * escalaLongitud - ax;
+            double dy = (mapa.getInt(tramo + TRAMO_LATITUD_B) - latitudE6) * METROS_POR_MICROGRADO - ay;
+            double longitud2 = dx * dx + dy * dy;
+
+            // Punto del tramo más cercano al origen (la posición consultada)
+            double t = longitud2 > 0 ? Math.max(0, Math.min(1, -(ax * dx + ay * dy) / longitud2)) : 0;
+            double px = ax + t * dx;
+            double py = ay + t * dy;
+            double distancia2 = px * px + py * py;
+            if (distancia2 >= mejorDistancia2) {
+                continue;
+            }
+            if (conRumbo && longitud2 > 0) {
+                double coseno = (rumboEste * dx + rumboNorte * dy) / Math.sqrt(longitud2);
+                boolean soloAB = mapa.get(tramo + TRAMO_SENTIDO) == SOLO_A_HACIA_B;
+                if ((soloAB ? coseno : Math.abs(coseno)) < COSENO_TOLERANCIA_RUMBO) {
+                    continue;
+                }
+            }
+            mejorDistancia2 = distancia2;
+            limite = mapa.getShort(tramo + TRAMO_LIMITE);
+        }
+        return limite;
+    }
+
+    public int obtenerNumeroTramos() {
+        return numeroTramos;
+    }
+
+    /**
+     * Distancia máxima (m) entre la posición y un tramo para usar su límite
+     */
+    public double obtenerDistanciaMaximaM() {
+        return distanciaMaximaM;
+    }
+
+    /**
+     * Constructor del archivo de índice a partir de tramos de vía
+     */
+    public static class Constructor {
+        public static final double TAMANO_CELDA_PREDETERMINADO_GRADOS = 0.001; // ~110 m
+        public static final float DISTANCIA_MAXIMA_PREDETERMINADA_M = 30f;
+        private static final long MAXIMO_CELDAS = 64L * 1024 * 1024;
+
+        private int tamanoCeldaE6 = (int) Math.round(TAMANO_CELDA_PREDETERMINADO_GRADOS * 1e6);
+        private float distanciaMaximaM = DISTANCIA_MAXIMA_PREDETERMINADA_M;
+        private int[] coordenadas = new int[4 * 1024]; // latA, lonA, latB, lonB por tramo
+        private short[] limites = new short[1024];
+        private byte[] sentidos = new byte[1024];
+        private int numeroTramos;
+
+        /**
+         * Lado de las celdas de la rejilla. Celdas menores dan menos tramos por consulta
+         * a cambio de un archivo mayor.
+         */
+        public Constructor establecerTamanoCeldaGrados(double grados) {
+            if (grados <= 0 || grados > 10) {
+                throw new IllegalArgumentException("El tamaño de celda debe estar entre 0 y 10 grados");
+            }
+            this.tamanoCeldaE6 = Math.max(1, (int) Math.round(grados * 1e6));
+            return this;
+        }
+
+        /**
+         * Distancia máxima entre la posición y un tramo para usar su límite
+         * (cubre el error del GPS y el ancho de la vía)
+         */
+        public Constructor establecerDistanciaMaximaMetros(float metros) {
+            if (metros <= 0) {
+                throw new IllegalArgumentException("La distancia máxima debe ser mayor que 0");
+            }
+            this.distanciaMaximaM = metros;
+            return this;
+        }
+
+        /**
+         * Añade un tramo recto de vía
+         * @param limiteKmh Límite de velocidad del tramo (1–32767)
+         * @param soloSentidoAB true si es de sentido único de A hacia B
+         */
+        public Constructor agregarTramo(double latitudA, double longitudA, double latitudB, double longitudB,
+                                        int limiteKmh, boolean soloSentidoAB) {
+            if (limiteKmh <= 0 || limiteKmh > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Límite de velocidad no válido: " + limiteKmh);
+            }
+            comprobarCoordenadas(latitudA, longitudA);
+            comprobarCoordenadas(latitudB, longitudB);
+            if (numeroTramos == limites.length) {
+                int capacidad = limites.length * 2;
+                coordenadas = Arrays.copyOf(coordenadas, 4 * capacidad);
+                limites = Arrays.copyOf(limites, capacidad);
+                sentidos = Arrays.copyOf(sentidos, capacidad);
+            }
+            int base = 4 * numeroTramos;
+            coordenadas[base] = (int) Math.round(latitudA * 1e6);
+            coordenadas[base + 1] = (int) Math.round(longitudA * 1e6);
+            coordenadas[base + 2] = (int) Math.round(latitudB * 1e6);
+            coordenadas[base + 3] = (int) Math.round(longitudB * 1e6);
+            limites[numeroTramos] = (short) limiteKmh;
+            sentidos[numeroTramos] = soloSentidoAB ? SOLO_A_HACIA_B : AMBOS_SENTIDOS;
+            numeroTramos++;
+            return this;
+        }
+
+        /**
+         * Añade los tramos de un extracto CSV con las columnas
+         * <pre>latitud_a,longitud_a,latitud_b,longitud_b,limite_kmh[,solo_sentido_ab]</pre>
+         * (la última es 1 para sentido único). Se ignoran la cabecera, las líneas vacías
+         * y las que empiezan por '#'.
+         * @throws IOException si falla la lectura o una línea no tiene el formato esperado
+         */
+        public Constructor agregarTramosCsv(@NonNull Reader extracto) throws IOException {
+            BufferedReader lector = new BufferedReader(extracto);
+            String linea;
+            int numeroLinea = 0;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                linea = linea.trim();
+                if (linea.isEmpty() || linea.startsWith("#") || Character.isLetter(linea.charAt(0))) {
+                    continue;
+                }
+                String[] campos = linea.split(",");
+                if (campos.length < 5 || campos.length > 6) {
+                    throw new IOException("Línea " + numeroLinea + ": se esperaban 5 o 6 columnas");
+                }
+                try {
+                    agregarTramo(Double.parseDouble(campos[0].trim()), Double.parseDouble(campos[1].trim()),
+                        Double.parseDouble(campos[2].trim()), Double.parseDouble(campos[3].trim()),
+                        Integer.parseInt(campos[4].trim()), campos.length == 6 && "1".equals(campos[5].trim()));
+                } catch (IllegalArgumentException excepcion) {
+                    throw new IOException("Línea " + numeroLinea + ": " + excepcion.getMessage(), excepcion);
+                }
+            }
+            return this;
+        }
+
+        public int obtenerNumeroTramos() {
+            return numeroTramos;
+        }
+
+        /**
+         * Escribe el índice. Se escribe en un archivo temporal y se renombra al final,
+         * así que quien tenga abierto el índice anterior no ve un archivo a medias.
+         * @throws IllegalStateException si no hay tramos
+         * @throws IllegalArgumentException si la rejilla resultante es demasiado grande
+         */
+        public void escribir(@NonNull File destino) throws IOException {
+            if (numeroTramos == 0) {
+                throw new IllegalStateException("No hay tramos que indexar");
+            }
+            // Área cubierta, ampliada con la distancia máxima para los puntos del borde
+            int latitudMinima = Integer.MAX_VALUE;
+            int latitudMaxima = Integer.MIN_VALUE;
+            int longitudMinima = Integer.MAX_VALUE;
+            int longitudMaxima = Integer.MIN_VALUE;
+            for (int i = 0; i < numeroTramos; i++) {
+                for (int extremo = 0; extremo < 4; extremo += 2) {
+                    int latitud = coordenadas[4 * i + extremo];
+                    int longitud = coordenadas[4 * i + extremo + 1];
+                    latitudMinima = Math.min(latitudMinima, latitud);
+                    latitudMaxima = Math.max(latitudMaxima, latitud);
+                    longitudMinima = Math.min(longitudMinima, longitud);
+                    longitudMaxima = Math.max(longitudMaxima, longitud);
+                }
+            }
+            int margenLatitud = (int) Math.ceil(distanciaMaximaM / METROS_POR_MICROGRADO);
+            double latitudExtrema = Math.min(89.0, Math.max(Math.abs(latitudMinima), Math.abs(latitudMaxima)) / 1e6);
+            int margenLongitud = (int) Math.ceil(margenLatitud / Math.cos(Math.toRadians(latitudExtrema)));
+            latitudMinima -= margenLatitud;
+            longitudMinima -= margenLongitud;
+            int filas = (latitudMaxima + margenLatitud - latitudMinima) / tamanoCeldaE6 + 1;
+            int columnas = (longitudMaxima + margenLongitud - longitudMinima) / tamanoCeldaE6 + 1;
+            if ((long) filas * columnas > MAXIMO_CELDAS) {
+                throw new IllegalArgumentException("La rejilla tendría " + ((long) filas * columnas)
+                    + " celdas; aumente el tamaño de celda");
+            }
+
+            // Dos pasadas: contar los tramos de cada celda y después repartirlos (CSR)
+            int numeroCeldas = filas * columnas;
+            int[] inicios = new int[numeroCeldas + 1];
+            int[] rango = new int[4];
+            for (int i = 0; i < numeroTramos; i++) {
+                calcularRango(i, latitudMinima, longitudMinima, filas, columnas,
+                    margenLatitud, margenLongitud, rango);
+                for (int fila = rango[0]; fila <= rango[1]; fila++) {
+                    for (int columna = rango[2]; columna <= rango[3]; columna++) {
+                        inicios[fila * columnas + columna + 1]++;
+                    }
+                }
+            }
+            for (int celda = 0; celda < numeroCeldas; celda++) {
+                inicios[celda + 1] += inicios[celda];
+            }
+            int numeroEntradas = inicios[numeroCeldas];
+            int[] entradas = new int[numeroEntradas];
+            int[] cursores = Arrays.copyOf(inicios, numeroCeldas);
+            for (int i = 0; i < numeroTramos; i++) {
+                calcularRango(i, latitudMinima, longitudMinima, filas, columnas,
+                    margenLatitud, margenLongitud, rango);
+                for (int fila = rango[0]; fila <= rango[1]; fila++) {
+                    for (int columna = rango[2]; columna <= rango[3]; columna++) {
+                        entradas[cursores[fila * columnas + columna]++] = i;
+                    }
+                }
+            }
+
+            long tamano = TAMANO_CABECERA + 4L * (numeroCeldas + 1) + 4L * numeroEntradas
+                + (long) TAMANO_TRAMO * numeroTramos;
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("El índice ocuparía " + tamano
+                    + " bytes; aumente el tamaño de celda");
+            }
+            File temporal = new File(destino.getPath() + ".tmp");
+            try (RandomAccessFile acceso = new RandomAccessFile(temporal, "rw");
+                 FileChannel canal = acceso.getChannel()) {
+                acceso.setLength(0);
+                MappedByteBuffer salida = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+                salida.order(ByteOrder.LITTLE_ENDIAN);
+                salida.putInt(CABECERA_MAGICO, MAGICO);
+                salida.putInt(CABECERA_VERSION, VERSION);
+                salida.putInt(CABECERA_LATITUD_MINIMA, latitudMinima);
+                salida.putInt(CABECERA_LONGITUD_MINIMA, longitudMinima);
+                salida.putInt(CABECERA_TAMANO_CELDA, tamanoCeldaE6);
+                salida.putInt(CABECERA_FILAS, filas);
+                salida.putInt(CABECERA_COLUMNAS, columnas);
+                salida.putInt(CABECERA_NUMERO_TRAMOS, numeroTramos);
+                salida.putInt(CABECERA_NUMERO_ENTRADAS, numeroEntradas);
+                salida.putFloat(CABECERA_DISTANCIA_MAXIMA, distanciaMaximaM);
+                salida.position(TAMANO_CABECERA);
+                for (int inicio : inicios) {
+                    salida.putInt(inicio);
+                }
+                for (int entrada : entradas) {
+                    salida.putInt(entrada);
+                }
+                for (int i = 0; i < numeroTramos; i++) {
+                    salida.putInt(coordenadas[4 * i]);
+                    salida.putInt(coordenadas[4 * i + 1]);
+                    salida.putInt(coordenadas[4 * i + 2]);
+                    salida.putInt(coordenadas[4 * i + 3]);
+                    salida.putShort(limites[i]);
+                    salida.put(sentidos[i]);
+                    salida.put((byte) 0);
+                }
+                salida.force();
+            }
+            if (!temporal.renameTo(destino)) {
+                // En algunos sistemas renameTo no reemplaza un archivo existente
+                if (!destino.delete() || !temporal.renameTo(destino)) {
+                    throw new IOException("No se pudo reemplazar " + destino);
+                }
+            }
+        }
+
+        /**
+         * Celdas (fila mínima, fila máxima, columna mínima, columna máxima) que cubre la
+         * caja del tramo ampliada con la distancia máxima
+         */
+        private void calcularRango(int tramo, int latitudMinima, int longitudMinima, int filas, int columnas,
+                                   int margenLatitud, int margenLongitud, int[] rango) {
+            int base = 4 * tramo;
+            int latitudBaja = Math.min(coordenadas[base], coordenadas[base + 2]) - margenLatitud;
+            int latitudAlta = Math.max(coordenadas[base], coordenadas[base + 2]) + margenLatitud;
+            int longitudBaja = Math.min(coordenadas[base + 1], coordenadas[base + 3]) - margenLongitud;
+            int longitudAlta = Math.max(coordenadas[base + 1], coordenadas[base + 3]) + margenLongitud;
+            rango[0] = Math.max(0, (latitudBaja - latitudMinima) / tamanoCeldaE6);
+            rango[1] = Math.min(filas - 1, (latitudAlta - latitudMinima) / tamanoCeldaE6);
+            rango[2] = Math.max(0, (longitudBaja - longitudMinima) / tamanoCeldaE6);
+            rango[3] = Math.min(columnas - 1, (longitudAlta - longitudMinima) / tamanoCeldaE6);
+        }
+
+        private static void comprobarCoordenadas(double latitud, double longitud) {
+            if (!(latitud >= -90 && latitud <= 90 && longitud >= -180 && longitud <= 180)) {
+                throw new IllegalArgumentException("Coordenadas fuera de rango: " + latitud + ", " + longitud);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.notificacionesvoz.dominio.casosuso;
+
+import androidx.annotation.NonNull;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.util.Arrays;
+
+/**
+ * Detecta notificaciones equivalentes (misma categoría y mismo texto) dentro de una ventana
+ *
+ * Guarda solo una huella de 64 bits y un instante por entrada en una tabla de
+ * tamaño fijo con correspondencia directa. Una colisión de índice reemplaza la
+ * entrada anterior, por lo que en el peor caso deja pasar un duplicado, pero
+ * nunca suprime una notificación distinta.
+ */
+public class FiltroNotificacionesDuplicadas {
+
+    public static final int TAMANO_TABLA_PREDETERMINADO = 64;
+
+    private final long ventanaMs;
+    private final long[] huellas;
+    private final long[] instantes;
+    private final int mascara;
+    private final Reloj reloj;
+
+    /**
+     * Constructor
+     * @param ventanaMs Tiempo durante el cual una notificación equivalente se considera duplicada
+     * @param tamanoTabla Número de entradas de la tabla (se redondea a potencia de 2)
+     * @param reloj Fuente de tiempo (monotónica)
+     */
+    public FiltroNotificacionesDuplicadas(long ventanaMs, int tamanoTabla, @NonNull Reloj reloj) {
+        if (tamanoTabla <= 0) {
+            throw new IllegalArgumentException("El tamaño de la tabla debe ser mayor que 0");
+        }
+        int tamano = Integer.highestOneBit(tamanoTabla);
+        if (tamano < tamanoTabla) {
+            tamano <<= 1;
+        }
+        this.ventanaMs = ventanaMs;
+        this.huellas = new long[tamano];
+        this.instantes = new long[tamano];
+        this.mascara = tamano - 1;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Registra la notificación y determina si es duplicada de una reciente.
+     * Un duplicado no prolonga la ventana: una condición persistente vuelve a
+     * anunciarse cada ventanaMs.
+     * @return true si ya se vio una equivalente dentro de la ventana
+     */
+    public synchronized boolean esDuplicada(@NonNull NotificacionVoz notificacion) {
+        long huella = calcularHuella(notificacion);
+        int indice = (int) (huella ^ (huella >>> 32)) & mascara;
+        long ahora = reloj.ahoraMs();
+
+        if (huellas[indice] == huella && (ahora - instantes[indice]) < ventanaMs) {
+            return true;
+        }
+        huellas[indice] = huella;
+        instantes[indice] = ahora;
+        return false;
+    }
+
+    /**
+     * Olvida todas las notificaciones registradas
+     */
+    public synchronized void reiniciar() {
+        Arrays.fill(huellas, 0L);
+    }
+
+    public long obtenerVentanaMs() {
+        return ventanaMs;
+    }
+
+    private static long calcularHuella(NotificacionVoz notificacion) {
+        // FNV-1a de 64 bits sobre categoría y mensaje, separados por un valor que no es un char
+        long hash = 0xcbf29ce484222325L;
+        String categoria = notificacion.obtenerCategoria();
+        if (categoria != null) {
+            for (int i = 0; i < categoria.length(); i++) {
+                hash = (hash ^ categoria.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        hash = (hash ^ 0x10000) * 0x100000001b3L;
+        String mensaje = notificacion.obtenerMensaje();
+        for (int i = 0; i < mensaje.length(); i++) {
+            hash = (hash ^ mensaje.charAt(i)) * 0x100000001b3L;
+        }
+        // 0 marca las entradas vacías
+        return hash != 0 ? hash : 1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.notificacionesvoz.dominio.casosuso;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+import com.notificacionesvoz.utilidades.Reloj;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caso de uso para reproducir notificaciones de voz
+ * Encapsula la lógica de negocio para la reproducción
+ * 
+ * Las notificaciones equivalentes (misma categoría y texto) que llegan dentro de la
+ * ventana de fusión se reproducen una sola vez, evitando detener y reiniciar el motor
+ * por cada lectura repetida de un sensor ruidoso.
+ */
+public class ReproducirNotificacionCasoUso {
+    
+    public static final long VENTANA_FUSION_PREDETERMINADA_MS = 2000;
+    
+    private final RepositorioNotificacionesVoz repositorio;
+    @Nullable
+    private final FiltroNotificacionesDuplicadas filtroDuplicadas;
+    private final AtomicLong notificacionesFusionadas = new AtomicLong();
+
+    public ReproducirNotificacionCasoUso(@NonNull RepositorioNotificacionesVoz repositorio) {
+        this(repositorio, VENTANA_FUSION_PREDETERMINADA_MS);
+    }
+
+    /**
+     * Constructor
+     * @param repositorio Repositorio de reproducción
+     * @param ventanaFusionMs Ventana en la que se fusionan notificaciones equivalentes (0 para desactivar)
+     */
+    public ReproducirNotificacionCasoUso(@NonNull RepositorioNotificacionesVoz repositorio, long ventanaFusionMs) {
+        this(repositorio, ventanaFusionMs > 0
+            ? new FiltroNotificacionesDuplicadas(ventanaFusionMs,
+                FiltroNotificacionesDuplicadas.TAMANO_TABLA_PREDETERMINADO, Reloj.MONOTONICO)
+            : null);
+    }
+
+    /**
+     * Constructor con filtro de duplicadas propio
+     * @param repositorio Repositorio de reproducción
+     * @param filtroDuplicadas Filtro a aplicar, o null para reproducir todas
+     */
+    public ReproducirNotificacionCasoUso(@NonNull RepositorioNotificacionesVoz repositorio,
+                                         @Nullable FiltroNotificacionesDuplicadas filtroDuplicadas) {
+        this.repositorio = repositorio;
+        this.filtroDuplicadas = filtroDuplicadas;
+    }
+
+    /**
+     * Ejecuta el caso de uso
+     * @param notificacion La notificación a reproducir
+     * @return true si se envió al repositorio, false si se fusionó con una reciente
+     */
+    public boolean ejecutar(@NonNull NotificacionVoz notificacion) {
+        return ejecutar(notificacion, null);
+    }
+
+    /**
+     * Ejecuta el caso de uso informando del desenlace de la reproducción
+     * @param notificacion La notificación a reproducir
+     * @param escuchadorResultado Receptor del resultado; no se invoca si la notificación se fusiona
+     * @return true si se envió al repositorio, false si se fusionó con una reciente
+     */
+    public boolean ejecutar(@NonNull NotificacionVoz notificacion,
+                            @Nullable RepositorioNotificacionesVoz.EscuchadorResultado escuchadorResultado) {
+        if (filtroDuplicadas != null && filtroDuplicadas.esDuplicada(notificacion)) {
+            notificacionesFusionadas.incrementAndGet();
+            return false;
+        }
+        
+        // El repositorio ordena por prioridad y gestiona la interrupción de las urgentes;
+        // detenerlo aquí vaciaría también la cola de pendientes
+        repositorio.reproducir(notificacion, escuchadorResultado);
+        return true;
+    }
+
+    /**
+     * Obtiene cuántas notificaciones se han fusionado con una equivalente reciente
+     */
+    public long obtenerNotificacionesFusionadas() {
+        return notificacionesFusionadas.get();
+    }
+}
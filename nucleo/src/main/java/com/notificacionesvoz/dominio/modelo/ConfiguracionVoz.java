@@ -2,6 +2,7 @@ package com.notificacionesvoz.dominio.modelo;
 
 import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import java.util.Locale;
 
@@ -9,6 +10,13 @@ import java.util.Locale;
  * Configuración para el motor de Text-to-Speech
  */
 public class ConfiguracionVoz {
+
+    // Bits de compararCon
+    public static final int CAMBIO_IDIOMA = 1;
+    public static final int CAMBIO_TONO = 1 << 1;
+    public static final int CAMBIO_VELOCIDAD = 1 << 2;
+    public static final int CAMBIO_HABILITADO = 1 << 3;
+    public static final int CAMBIO_MODO_COLA = 1 << 4;
     
     private final float velocidadVoz;
     private final float tonoVoz;
@@ -47,6 +55,34 @@ public class ConfiguracionVoz {
         return modoCola;
     }
 
+    /**
+     * Campos que difieren de otra configuración, para aplicar al motor solo lo que cambia
+     * @param anterior Configuración con la que comparar, o null si no hay ninguna
+     * @return Combinación de bits CAMBIO_* (todos si anterior es null, 0 si son iguales)
+     */
+    public int compararCon(@Nullable ConfiguracionVoz anterior) {
+        if (anterior == null) {
+            return CAMBIO_IDIOMA | CAMBIO_TONO | CAMBIO_VELOCIDAD | CAMBIO_HABILITADO | CAMBIO_MODO_COLA;
+        }
+        int cambios = 0;
+        if (!idioma.equals(anterior.idioma)) {
+            cambios |= CAMBIO_IDIOMA;
+        }
+        if (Float.compare(tonoVoz, anterior.tonoVoz) != 0) {
+            cambios |= CAMBIO_TONO;
+        }
+        if (Float.compare(velocidadVoz, anterior.velocidadVoz) != 0) {
+            cambios |= CAMBIO_VELOCIDAD;
+        }
+        if (habilitado != anterior.habilitado) {
+            cambios |= CAMBIO_HABILITADO;
+        }
+        if (modoCola != anterior.modoCola) {
+            cambios |= CAMBIO_MODO_COLA;
+        }
+        return cambios;
+    }
+
     /**
      * Constructor para crear configuraciones de voz
      */
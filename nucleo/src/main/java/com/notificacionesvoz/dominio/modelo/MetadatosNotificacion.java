@@ -0,0 +1,316 @@
+package com.notificacionesvoz.dominio.modelo;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Metadatos tipados y compactos de una notificación
+ *
+ * Cada valor ocupa una ranura primitiva (int, long o double) identificada por un
+ * {@link Campo} registrado con un id fijo entre 0 y 63. Los valores se guardan
+ * densamente en un único long[] junto con una máscara de presencia, de modo que
+ * una notificación con n campos ocupa siempre lo mismo (8 bytes por campo más la
+ * cabecera) y la consulta es O(1). Las instancias son inmutables.
+ *
+ * La máscara y los valores crudos permiten guardar los metadatos en el Data de
+ * WorkManager y recuperarlos al reproducir una notificación programada. Por eso
+ * los ids deben ser estables entre versiones de la app: se fijan al registrar,
+ * no se asignan por orden de llegada.
+ */
+public final class MetadatosNotificacion {
+
+    public static final int MAXIMO_CAMPOS = 64;
+
+    /**
+     * Tipo primitivo de un campo
+     */
+    public enum Tipo {
+        ENTERO, LARGO, DECIMAL
+    }
+
+    private static final Campo[] CAMPOS = new Campo[MAXIMO_CAMPOS];
+
+    // Ids 0-15 reservados para la librería; las apps registran los suyos a partir de 16
+    public static final Campo VELOCIDAD_KMH = registrar(0, "velocidad_kmh", Tipo.DECIMAL);
+    public static final Campo LIMITE_VELOCIDAD_KMH = registrar(1, "limite_velocidad_kmh", Tipo.ENTERO);
+    public static final Campo LATITUD = registrar(2, "latitud", Tipo.DECIMAL);
+    public static final Campo LONGITUD = registrar(3, "longitud", Tipo.DECIMAL);
+    public static final Campo ID_VEHICULO = registrar(4, "id_vehiculo", Tipo.LARGO);
+    public static final Campo MAGNITUD = registrar(5, "magnitud", Tipo.DECIMAL);
+    public static final Campo MARCA_TIEMPO_EVENTO_MS = registrar(6, "marca_tiempo_evento_ms", Tipo.LARGO);
+
+    public static final int PRIMER_ID_APLICACION = 16;
+
+    private static final MetadatosNotificacion VACIOS = new MetadatosNotificacion(0L, new long[0]);
+
+    private final long presentes;
+    private final long[] valores;
+
+    private MetadatosNotificacion(long presentes, long[] valores) {
+        this.presentes = presentes;
+        this.valores = valores;
+    }
+
+    /**
+     * Registra un campo. Registrar de nuevo el mismo id con el mismo nombre y tipo
+     * devuelve el campo existente.
+     * @param id Identificador estable entre 0 y 63
+     * @param nombre Nombre descriptivo (para depuración y telemetría)
+     * @param tipo Tipo primitivo del valor
+     * @throws IllegalArgumentException si el id está fuera de rango u ocupado por otro campo
+     */
+    @NonNull
+    public static synchronized Campo registrar(int id, @NonNull String nombre, @NonNull Tipo tipo) {
+        if (id < 0 || id >= MAXIMO_CAMPOS) {
+            throw new IllegalArgumentException("El id del campo debe estar entre 0 y " + (MAXIMO_CAMPOS - 1));
+        }
+        Campo existente = CAMPOS[id];
+        if (existente != null) {
+            if (existente.nombre.equals(nombre) && existente.tipo == tipo) {
+                return existente;
+            }
+            throw new IllegalArgumentException("El id " + id + " ya está registrado como " + existente.nombre);
+        }
+        Campo campo = new Campo(id, nombre, tipo);
+        CAMPOS[id] = campo;
+        return campo;
+    }
+
+    /**
+     * Obtiene el campo registrado con un id, o null si no existe
+     */
+    @Nullable
+    public static synchronized Campo obtenerCampo(int id) {
+        return id >= 0 && id < MAXIMO_CAMPOS ? CAMPOS[id] : null;
+    }
+
+    /**
+     * Metadatos sin ningún campo
+     */
+    @NonNull
+    public static MetadatosNotificacion vacios() {
+        return VACIOS;
+    }
+
+    /**
+     * Reconstruye unos metadatos a partir de su forma cruda
+     * @param presentes Máscara de campos presentes (bit i = campo con id i)
+     * @param valores Valores en orden creciente de id; se usan los primeros bitCount(presentes)
+     * @throws IllegalArgumentException si faltan valores para la máscara
+     */
+    @NonNull
+    public static MetadatosNotificacion desdeCrudos(long presentes, @NonNull long[] valores) {
+        return desdeCrudos(presentes, valores, 0);
+    }
+
+    /**
+     * Reconstruye unos metadatos a partir de valores crudos que empiezan en una posición,
+     * p. ej. los de un lote con los valores de varias notificaciones seguidos
+     * @throws IllegalArgumentException si faltan valores para la máscara
+     */
+    @NonNull
+    public static MetadatosNotificacion desdeCrudos(long presentes, @NonNull long[] valores, int desde) {
+        int cantidad = Long.bitCount(presentes);
+        if (desde < 0 || valores.length - desde < cantidad) {
+            throw new IllegalArgumentException("Faltan valores para la máscara de campos");
+        }
+        return cantidad == 0 ? VACIOS
+            : new MetadatosNotificacion(presentes, Arrays.copyOfRange(valores, desde, desde + cantidad));
+    }
+
+    public boolean contiene(@NonNull Campo campo) {
+        return (presentes & (1L << campo.id)) != 0;
+    }
+
+    public int obtenerCantidad() {
+        return valores.length;
+    }
+
+    public boolean estaVacio() {
+        return presentes == 0;
+    }
+
+    public int obtenerEntero(@NonNull Campo campo, int predeterminado) {
+        comprobarTipo(campo, Tipo.ENTERO);
+        return contiene(campo) ? (int) valores[posicion(campo.id)] : predeterminado;
+    }
+
+    public long obtenerLargo(@NonNull Campo campo, long predeterminado) {
+        comprobarTipo(campo, Tipo.LARGO);
+        return contiene(campo) ? valores[posicion(campo.id)] : predeterminado;
+    }
+
+    public double obtenerDecimal(@NonNull Campo campo, double predeterminado) {
+        comprobarTipo(campo, Tipo.DECIMAL);
+        return contiene(campo) ? Double.longBitsToDouble(valores[posicion(campo.id)]) : predeterminado;
+    }
+
+    /**
+     * Máscara de campos presentes, para serializar
+     */
+    public long obtenerMascara() {
+        return presentes;
+    }
+
+    /**
+     * Copia de los valores crudos en orden creciente de id, para serializar
+     */
+    @NonNull
+    public long[] obtenerValoresCrudos() {
+        return valores.clone();
+    }
+
+    /**
+     * Valor crudo en una posición (orden creciente de id), sin copiar el array
+     * @param posicion Entre 0 y obtenerCantidad() - 1
+     */
+    public long obtenerValorCrudo(int posicion) {
+        return valores[posicion];
+    }
+
+    /**
+     * Añade los valores crudos a un array, a partir de una posición
+     * @return La posición siguiente al último valor escrito
+     */
+    public int copiarValoresCrudos(@NonNull long[] destino, int desde) {
+        System.arraycopy(valores, 0, destino, desde, valores.length);
+        return desde + valores.length;
+    }
+
+    private int posicion(int id) {
+        return Long.bitCount(presentes & ((1L << id) - 1));
+    }
+
+    private static void comprobarTipo(Campo campo, Tipo tipo) {
+        if (campo.tipo != tipo) {
+            throw new IllegalArgumentException("El campo " + campo.nombre + " es de tipo " + campo.tipo);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MetadatosNotificacion that = (MetadatosNotificacion) o;
+        return presentes == that.presentes && Arrays.equals(valores, that.valores);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(presentes) + Arrays.hashCode(valores);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder("MetadatosNotificacion{");
+        long restantes = presentes;
+        int posicion = 0;
+        while (restantes != 0) {
+            int id = Long.numberOfTrailingZeros(restantes);
+            restantes &= restantes - 1;
+            Campo campo = obtenerCampo(id);
+            long crudo = valores[posicion++];
+            if (posicion > 1) {
+                texto.append(", ");
+            }
+            texto.append(campo != null ? campo.nombre : String.valueOf(id)).append('=');
+            if (campo != null && campo.tipo == Tipo.DECIMAL) {
+                texto.append(Double.longBitsToDouble(crudo));
+            } else {
+                texto.append(crudo);
+            }
+        }
+        return texto.append('}').toString();
+    }
+
+    /**
+     * Campo de metadatos registrado
+     */
+    public static final class Campo {
+        private final int id;
+        private final String nombre;
+        private final Tipo tipo;
+
+        private Campo(int id, String nombre, Tipo tipo) {
+            this.id = id;
+            this.nombre = nombre;
+            this.tipo = tipo;
+        }
+
+        public int obtenerId() {
+            return id;
+        }
+
+        @NonNull
+        public String obtenerNombre() {
+            return nombre;
+        }
+
+        @NonNull
+        public Tipo obtenerTipo() {
+            return tipo;
+        }
+
+        @Override
+        public String toString() {
+            return nombre;
+        }
+    }
+
+    /**
+     * Constructor de metadatos. Reutilizable: construir() copia los valores y
+     * {@link #limpiar()} permite empezar otra vez sin reservar memoria.
+     */
+    public static class Constructor {
+        private long presentes;
+        private final long[] ranuras = new long[MAXIMO_CAMPOS];
+
+        public Constructor establecerEntero(@NonNull Campo campo, int valor) {
+            comprobarTipo(campo, Tipo.ENTERO);
+            return establecerCrudo(campo, valor);
+        }
+
+        public Constructor establecerLargo(@NonNull Campo campo, long valor) {
+            comprobarTipo(campo, Tipo.LARGO);
+            return establecerCrudo(campo, valor);
+        }
+
+        public Constructor establecerDecimal(@NonNull Campo campo, double valor) {
+            comprobarTipo(campo, Tipo.DECIMAL);
+            return establecerCrudo(campo, Double.doubleToRawLongBits(valor));
+        }
+
+        private Constructor establecerCrudo(Campo campo, long crudo) {
+            presentes |= 1L << campo.id;
+            ranuras[campo.id] = crudo;
+            return this;
+        }
+
+        public Constructor limpiar() {
+            presentes = 0;
+            return this;
+        }
+
+        /**
+         * Construye los metadatos
+         * @return Metadatos inmutables con los campos establecidos
+         */
+        @NonNull
+        public MetadatosNotificacion construir() {
+            if (presentes == 0) {
+                return VACIOS;
+            }
+            long[] valores = new long[Long.bitCount(presentes)];
+            long restantes = presentes;
+            int posicion = 0;
+            while (restantes != 0) {
+                int id = Long.numberOfTrailingZeros(restantes);
+                restantes &= restantes - 1;
+                valores[posicion++] = ranuras[id];
+            }
+            return new MetadatosNotificacion(presentes, valores);
+        }
+    }
+}
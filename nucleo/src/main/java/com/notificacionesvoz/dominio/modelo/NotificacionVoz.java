@@ -18,6 +18,7 @@ public class NotificacionVoz {
     private final String categoria;
     @Nullable
     private final Object metadatos;
+    private final MetadatosNotificacion metadatosTipados;
 
     private NotificacionVoz(Constructor constructor) {
         this.mensaje = constructor.mensaje;
@@ -25,6 +26,7 @@ public class NotificacionVoz {
         this.marcaTiempo = constructor.marcaTiempo;
         this.categoria = constructor.categoria;
         this.metadatos = constructor.metadatos;
+        this.metadatosTipados = constructor.metadatosTipados;
     }
 
     @NonNull
@@ -46,11 +48,23 @@ public class NotificacionVoz {
         return categoria;
     }
 
+    /**
+     * @deprecated Usar {@link #obtenerMetadatosTipados()}, que no se pierde al programar la notificación
+     */
+    @Deprecated
     @Nullable
     public Object obtenerMetadatos() {
         return metadatos;
     }
 
+    /**
+     * Obtiene los metadatos tipados (vacíos si no se establecieron)
+     */
+    @NonNull
+    public MetadatosNotificacion obtenerMetadatosTipados() {
+        return metadatosTipados;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -86,6 +100,7 @@ public class NotificacionVoz {
         private long marcaTiempo = System.currentTimeMillis();
         private String categoria;
         private Object metadatos;
+        private MetadatosNotificacion metadatosTipados = MetadatosNotificacion.vacios();
 
         /**
          * Establece el mensaje que se reproducirá por voz
@@ -127,12 +142,24 @@ public class NotificacionVoz {
         /**
          * Establece metadatos adicionales opcionales
          * @param metadatos Cualquier objeto con información adicional
+         * @deprecated Usar {@link #establecerMetadatosTipados(MetadatosNotificacion)}
          */
+        @Deprecated
         public Constructor establecerMetadatos(@Nullable Object metadatos) {
             this.metadatos = metadatos;
             return this;
         }
 
+        /**
+         * Establece metadatos tipados (velocidad, coordenadas, vehículo...).
+         * Se conservan al programar la notificación y llegan a los escuchadores de eventos.
+         * @param metadatos Metadatos construidos con MetadatosNotificacion.Constructor
+         */
+        public Constructor establecerMetadatosTipados(@NonNull MetadatosNotificacion metadatos) {
+            this.metadatosTipados = metadatos;
+            return this;
+        }
+
         /**
          * Construye la notificación
          * @return NotificacionVoz configurada
@@ -148,6 +175,8 @@ public class NotificacionVoz {
 
     /**
      * Niveles de prioridad para las notificaciones
+     * Las pendientes se reproducen de mayor a menor prioridad; solo URGENTE
+     * interrumpe la que está sonando
      */
     public enum Prioridad {
         BAJA(0),
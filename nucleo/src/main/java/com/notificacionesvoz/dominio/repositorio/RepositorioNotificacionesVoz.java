@@ -0,0 +1,132 @@
+package com.notificacionesvoz.dominio.repositorio;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Interfaz del repositorio para gestionar notificaciones de voz
+ * Define el contrato para la capa de datos
+ */
+public interface RepositorioNotificacionesVoz {
+    
+    /**
+     * Reproduce una notificación de voz
+     * Las implementaciones ordenan las pendientes por prioridad; URGENTE interrumpe la actual
+     * @param notificacion La notificación a reproducir
+     */
+    default void reproducir(@NonNull NotificacionVoz notificacion) {
+        reproducir(notificacion, null);
+    }
+    
+    /**
+     * Reproduce una notificación de voz e informa de su desenlace
+     * @param notificacion La notificación a reproducir
+     * @param escuchadorResultado Receptor del resultado, o null si no interesa
+     */
+    void reproducir(@NonNull NotificacionVoz notificacion, @Nullable EscuchadorResultado escuchadorResultado);
+    
+    /**
+     * Retira una notificación concreta: la descarta si está en espera o la corta
+     * si se está reproduciendo. Su receptor recibe false.
+     * @param notificacion La misma instancia entregada a reproducir
+     * @return true si estaba aceptada y sin desenlace
+     */
+    default boolean cancelar(@NonNull NotificacionVoz notificacion) {
+        return false;
+    }
+    
+    /**
+     * Detiene la reproducción actual y descarta las notificaciones pendientes
+     */
+    void detener();
+    
+    /**
+     * Verifica si está reproduciendo actualmente
+     * @return true si está reproduciendo
+     */
+    boolean estaReproduciendo();
+    
+    /**
+     * Obtiene el número de notificaciones en espera de ser reproducidas
+     * @return Profundidad de la cola
+     */
+    int obtenerProfundidadCola();
+    
+    /**
+     * Configura el motor de voz
+     * @param configuracion La configuración a aplicar
+     */
+    void configurar(@NonNull ConfiguracionVoz configuracion);
+    
+    /**
+     * Verifica si el servicio de voz está disponible
+     * @return true si está disponible
+     */
+    boolean estaDisponible();
+    
+    /**
+     * Indica si este motor puede hacerse cargo de una notificación ahora (p. ej. uno
+     * de clips grabados solo de las categorías con clip). Un motor que aún arranca
+     * y retiene lo recibido cuenta como capaz. No debe bloquear.
+     * @param notificacion La notificación a reproducir
+     * @return true si merece la pena entregársela
+     */
+    default boolean puedeReproducir(@NonNull NotificacionVoz notificacion) {
+        return estaDisponible();
+    }
+    
+    /**
+     * Indica si el motor informa con {@link EscuchadorResultado#alDespachar()} de cuándo
+     * sale cada notificación de su cola. Si no, su latencia de inicio solo puede
+     * medirse desde la entrega.
+     */
+    default boolean informaDespacho() {
+        return false;
+    }
+    
+    /**
+     * Obtiene el ejecutor en el que deben hacerse las llamadas que tocan el motor
+     * (reproducir, cancelar). Por defecto se ejecutan en el hilo que llama.
+     */
+    @NonNull
+    default Executor obtenerEjecutorMotor() {
+        return Runnable::run;
+    }
+    
+    /**
+     * Finaliza y libera recursos del motor de voz
+     */
+    void finalizar();
+    
+    /**
+     * Receptor del desenlace de una notificación concreta.
+     * Se invoca una sola vez y no debe bloquear.
+     */
+    interface EscuchadorResultado {
+        /**
+         * El motor empezó a reproducirla. Opcional: no todos los motores lo
+         * informan, y si se invoca es siempre antes de {@link #alFinalizar(boolean)}.
+         */
+        default void alIniciar() {
+        }
+
+        /**
+         * La notificación salió de la cola y se entregó al motor: a partir de aquí
+         * cuenta su latencia de inicio. Solo lo informan los motores con
+         * {@link RepositorioNotificacionesVoz#informaDespacho()}.
+         */
+        default void alDespachar() {
+        }
+
+        /**
+         * @param completada true si se reprodujo hasta el final; false si se descartó,
+         *                   se interrumpió o el motor falló
+         */
+        void alFinalizar(boolean completada);
+    }
+}
@@ -0,0 +1,180 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Analizador de comportamiento del conductor
+ * 
+ * NOTA: Esta es una clase de utilidad OPCIONAL específica para aplicaciones
+ * de gestión de conductores. Si tu aplicación no maneja conductores,
+ * puedes ignorar esta clase completamente.
+ * 
+ * Proporciona lógica para analizar datos de sensores y determinar
+ * cuándo emitir notificaciones relacionadas con la conducción.
+ */
+public class AnalizadorComportamientoConductor {
+    
+    public static final String CATEGORIA_FRENADA_BRUSCA = "frenada_brusca";
+    public static final String CATEGORIA_ACELERACION_BRUSCA = "aceleracion_brusca";
+    public static final String CATEGORIA_GIRO_BRUSCO = "giro_brusco";
+    public static final String CATEGORIA_EXCESO_VELOCIDAD = "exceso_velocidad";
+
+    // Bits de la máscara que rellena evaluarLote()
+    public static final byte MASCARA_EXCESO_VELOCIDAD = 1;
+    public static final byte MASCARA_FRENADA_BRUSCA = 1 << 1;
+    public static final byte MASCARA_ACELERACION_BRUSCA = 1 << 2;
+    public static final byte MASCARA_GIRO_BRUSCO = 1 << 3;
+    
+    private static final int UMBRAL_VELOCIDAD_PREDETERMINADO = 10; // km/h sobre el límite
+    private static final float UMBRAL_FRENADA_BRUSCA_PREDETERMINADO = -8.0f; // m/s²
+    private static final float UMBRAL_ACELERACION_BRUSCA_PREDETERMINADO = 4.0f; // m/s²
+    private static final float UMBRAL_GIRO_BRUSCO_PREDETERMINADO = 5.0f; // m/s²
+    
+    private int umbralVelocidad = UMBRAL_VELOCIDAD_PREDETERMINADO;
+    private float umbralFrenadaBrusca = UMBRAL_FRENADA_BRUSCA_PREDETERMINADO;
+    private float umbralAceleracionBrusca = UMBRAL_ACELERACION_BRUSCA_PREDETERMINADO;
+    private float umbralGiroBrusco = UMBRAL_GIRO_BRUSCO_PREDETERMINADO;
+
+    /**
+     * Analiza si hay exceso de velocidad
+     */
+    public boolean esExcesoVelocidad(int velocidadActual, int limiteVelocidad) {
+        return velocidadActual > (limiteVelocidad + umbralVelocidad);
+    }
+
+    /**
+     * Analiza si hay exceso de velocidad tomando el límite de una fuente (p. ej. el
+     * índice sin conexión de datos.limites)
+     * @param rumboGrados Rumbo del GPS (0 = norte), o NaN si no se conoce
+     * @return false también si la fuente no conoce el límite en esa posición
+     */
+    public boolean esExcesoVelocidad(int velocidadActual, @NonNull FuenteLimitesVelocidad fuente,
+                                     double latitud, double longitud, float rumboGrados) {
+        int limite = fuente.obtenerLimiteKmh(latitud, longitud, rumboGrados);
+        return limite != FuenteLimitesVelocidad.SIN_LIMITE && esExcesoVelocidad(velocidadActual, limite);
+    }
+
+    /**
+     * Analiza si hay frenada brusca
+     * @param aceleracion Aceleración en m/s² (negativa para frenado)
+     */
+    public boolean esFrenadaBrusca(float aceleracion) {
+        return aceleracion < umbralFrenadaBrusca;
+    }
+
+    /**
+     * Analiza si hay aceleración brusca
+     * @param aceleracion Aceleración en m/s²
+     */
+    public boolean esAceleracionBrusca(float aceleracion) {
+        return aceleracion > umbralAceleracionBrusca;
+    }
+
+    /**
+     * Analiza si hay giro brusco
+     * @param aceleracionLateral Aceleración lateral en m/s²
+     */
+    public boolean esGiroBrusco(float aceleracionLateral) {
+        return Math.abs(aceleracionLateral) > umbralGiroBrusco;
+    }
+
+    /**
+     * Determina la categoría de evento basado en los datos del sensor
+     *
+     * Evalúa una lectura aislada, así que un bache cuenta igual que una frenada
+     * sostenida; para detectar maniobras en un flujo de lecturas usar
+     * {@link AnalizadorFlujoAceleracion}.
+     * @param aceleracion Aceleración en m/s²
+     * @param aceleracionLateral Aceleración lateral en m/s²
+     * @return Categoría del evento detectado, o null si no hay evento
+     */
+    @Nullable
+    public String analizarAceleracion(float aceleracion, float aceleracionLateral) {
+        if (esFrenadaBrusca(aceleracion)) {
+            return CATEGORIA_FRENADA_BRUSCA;
+        } else if (esAceleracionBrusca(aceleracion)) {
+            return CATEGORIA_ACELERACION_BRUSCA;
+        } else if (esGiroBrusco(aceleracionLateral)) {
+            return CATEGORIA_GIRO_BRUSCO;
+        }
+        return null;
+    }
+
+    /**
+     * Evalúa de una vez un lote de lecturas en arrays paralelos (p. ej. para
+     * reevaluar un viaje completo en el backend)
+     *
+     * Cada posición de {@code mascaras} recibe los bits MASCARA_* de las reglas que se
+     * cumplen en esa lectura, con los mismos criterios que esExcesoVelocidad,
+     * esFrenadaBrusca, esAceleracionBrusca y esGiroBrusco. A diferencia de
+     * analizarAceleracion no hay prioridad entre categorías: una lectura puede
+     * activar varios bits. Los umbrales se leen una vez y el bucle no tiene saltos
+     * ni llamadas, para que el JIT pueda desenrollarlo y vectorizarlo.
+     *
+     * @param desde Primera posición a evaluar (la misma en todos los arrays)
+     * @param cantidad Número de lecturas a evaluar
+     * @return Número de lecturas con al menos una regla cumplida
+     * @throws IllegalArgumentException si algún array no cubre el rango indicado
+     */
+    public int evaluarLote(@NonNull int[] velocidades, @NonNull int[] limites,
+                           @NonNull float[] aceleraciones, @NonNull float[] aceleracionesLaterales,
+                           int desde, int cantidad, @NonNull byte[] mascaras) {
+        int hasta = desde + cantidad;
+        if (desde < 0 || cantidad < 0 || hasta > velocidades.length || hasta > limites.length
+                || hasta > aceleraciones.length || hasta > aceleracionesLaterales.length
+                || hasta > mascaras.length) {
+            throw new IllegalArgumentException("Los arrays no cubren las posiciones " + desde + " a " + hasta);
+        }
+        int umbralV = umbralVelocidad;
+        float umbralF = umbralFrenadaBrusca;
+        float umbralA = umbralAceleracionBrusca;
+        float umbralG = umbralGiroBrusco;
+
+        int conDeteccion = 0;
+        for (int i = desde; i < hasta; i++) {
+            float aceleracion = aceleraciones[i];
+            int mascara = (velocidades[i] > limites[i] + umbralV ? MASCARA_EXCESO_VELOCIDAD : 0)
+                | (aceleracion < umbralF ? MASCARA_FRENADA_BRUSCA : 0)
+                | (aceleracion > umbralA ? MASCARA_ACELERACION_BRUSCA : 0)
+                | (Math.abs(aceleracionesLaterales[i]) > umbralG ? MASCARA_GIRO_BRUSCO : 0);
+            mascaras[i] = (byte) mascara;
+            conDeteccion += mascara != 0 ? 1 : 0;
+        }
+        return conDeteccion;
+    }
+
+    // Setters para personalizar umbrales
+    public void establecerUmbralVelocidad(int umbralVelocidad) {
+        this.umbralVelocidad = umbralVelocidad;
+    }
+
+    public void establecerUmbralFrenadaBrusca(float umbralFrenadaBrusca) {
+        this.umbralFrenadaBrusca = umbralFrenadaBrusca;
+    }
+
+    public void establecerUmbralAceleracionBrusca(float umbralAceleracionBrusca) {
+        this.umbralAceleracionBrusca = umbralAceleracionBrusca;
+    }
+
+    public void establecerUmbralGiroBrusco(float umbralGiroBrusco) {
+        this.umbralGiroBrusco = umbralGiroBrusco;
+    }
+
+    // Getters
+    public int obtenerUmbralVelocidad() {
+        return umbralVelocidad;
+    }
+
+    public float obtenerUmbralFrenadaBrusca() {
+        return umbralFrenadaBrusca;
+    }
+
+    public float obtenerUmbralAceleracionBrusca() {
+        return umbralAceleracionBrusca;
+    }
+
+    public float obtenerUmbralGiroBrusco() {
+        return umbralGiroBrusco;
+    }
+}
@@ -0,0 +1,352 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Analizador de la telemetría de muchos vehículos a la vez (p. ej. en un backend)
+ *
+ * Aplica a cada vehículo las mismas reglas que la app: exceso de velocidad con los
+ * umbrales de un {@link AnalizadorComportamientoConductor} compartido, maniobras con un
+ * {@link AnalizadorFlujoAceleracion} propio del vehículo y un enfriamiento por vehículo
+ * y categoría medido en tiempo de las muestras (no del servidor).
+ *
+ * Los vehículos se reparten por su id entre particiones fijas; cada partición tiene
+ * su propio {@link MapaVehiculos} con el estado de sus vehículos y solo la procesa un
+ * hilo del ForkJoinPool a la vez. Así no hay estado compartido entre hilos ni
+ * bloqueos, y el rendimiento crece con los núcleos mientras haya vehículos
+ * suficientes para repartir.
+ *
+ * Con {@link #activarUmbralesAdaptativos} cada vehículo parte de esos umbrales y los
+ * va adaptando a su propia conducción (ver {@link UmbralesAdaptativos}).
+ *
+ * {@link #procesar(LoteTelemetriaFlota)} procesa un lote cada vez (las llamadas
+ * concurrentes se serializan). Los umbrales del analizador no deben cambiarse
+ * mientras se procesa un lote.
+ */
+public class AnalizadorFlota {
+
+    public static final int PARTICIONES_POR_HILO = 4;
+
+    private final AnalizadorComportamientoConductor reglas;
+    private final long enfriamientoMs;
+    private final ForkJoinPool pool;
+    private final Particion[] particiones;
+
+    // Reutilizados entre lotes: índices de las muestras agrupados por partición
+    private int[] particionDeMuestra = new int[0];
+    private int[] orden = new int[0];
+    private final int[] inicios;
+
+    // Umbrales por vehículo; null si todos usan las reglas compartidas
+    @Nullable
+    private UmbralesAdaptativos.Constructor configuracionAdaptativa;
+    private long intervaloAjusteMs;
+
+    /**
+     * Constructor con el pool común de Java
+     * @param reglas Umbrales aplicados a todos los vehículos
+     * @param enfriamientoMs Tiempo mínimo entre notificaciones de una categoría en un vehículo
+     */
+    public AnalizadorFlota(@NonNull AnalizadorComportamientoConductor reglas, long enfriamientoMs) {
+        this(reglas, enfriamientoMs, ForkJoinPool.commonPool(),
+            ForkJoinPool.commonPool().getParallelism() * PARTICIONES_POR_HILO);
+    }
+
+    /**
+     * Constructor completo
+     * @param reglas Umbrales aplicados a todos los vehículos
+     * @param enfriamientoMs Tiempo mínimo entre notificaciones de una categoría en un vehículo
+     * @param pool Pool en el que se procesan las particiones
+     * @param numeroParticiones Unidades de reparto; varias por hilo equilibran mejor la carga
+     */
+    public AnalizadorFlota(@NonNull AnalizadorComportamientoConductor reglas, long enfriamientoMs,
+                           @NonNull ForkJoinPool pool, int numeroParticiones) {
+        if (enfriamientoMs < 0) {
+            throw new IllegalArgumentException("El enfriamiento no puede ser negativo");
+        }
+        if (numeroParticiones <= 0) {
+            throw new IllegalArgumentException("El número de particiones debe ser mayor que 0");
+        }
+        this.reglas = reglas;
+        this.enfriamientoMs = enfriamientoMs;
+        this.pool = pool;
+        this.particiones = new Particion[numeroParticiones];
+        for (int i = 0; i < numeroParticiones; i++) {
+            particiones[i] = new Particion();
+        }
+        this.inicios = new int[numeroParticiones + 1];
+    }
+
+    /**
+     * Procesa un lote de muestras de cualquier número de vehículos
+     * @return Detecciones del lote; las de cada vehículo en orden de tiempo
+     */
+    @NonNull
+    public synchronized DeteccionesFlota procesar(@NonNull LoteTelemetriaFlota lote) {
+        agruparPorParticion(lote);
+        pool.invoke(new Tarea(lote, 0, particiones.length));
+
+        int total = 0;
+        for (Particion particion : particiones) {
+            total += particion.detecciones.obtenerCantidad();
+        }
+        DeteccionesFlota resultado = new DeteccionesFlota(total);
+        for (Particion particion : particiones) {
+            resultado.agregarTodas(particion.detecciones);
+        }
+        return resultado;
+    }
+
+    /**
+     * Da a cada vehículo sus propios umbrales, que parten de las reglas compartidas y
+     * se recalculan periódicamente a partir de sus muestras
+     * @param configuracion Configuración de los umbrales de cada vehículo
+     * @param intervaloAjusteMs Tiempo de las muestras entre recálculos de un vehículo
+     * @throws IllegalStateException Si ya se han procesado muestras
+     * @throws IllegalArgumentException Si la configuración no es válida
+     */
+    public synchronized void activarUmbralesAdaptativos(@NonNull UmbralesAdaptativos.Constructor configuracion,
+                                                        long intervaloAjusteMs) {
+        if (intervaloAjusteMs <= 0) {
+            throw new IllegalArgumentException("El intervalo de ajuste debe ser mayor que 0");
+        }
+        if (obtenerNumeroVehiculos() > 0) {
+            throw new IllegalStateException("Los umbrales adaptativos deben activarse antes de procesar muestras");
+        }
+        configuracion.validar();
+        this.configuracionAdaptativa = configuracion;
+        this.intervaloAjusteMs = intervaloAjusteMs;
+    }
+
+    /**
+     * Copia de los umbrales que se aplican ahora a un vehículo
+     * @return null si el vehículo no tiene estado
+     */
+    @Nullable
+    public synchronized AnalizadorComportamientoConductor obtenerUmbralesVehiculo(long idVehiculo) {
+        EstadoVehiculo estado = particiones[particionDe(idVehiculo, particiones.length)].vehiculos.obtener(idVehiculo);
+        return estado != null ? copiar(estado.reglas) : null;
+    }
+
+    /**
+     * Número de vehículos con estado
+     */
+    public synchronized int obtenerNumeroVehiculos() {
+        int total = 0;
+        for (Particion particion : particiones) {
+            total += particion.vehiculos.obtenerCantidad();
+        }
+        return total;
+    }
+
+    /**
+     * Descarta el estado de los vehículos sin muestras desde un instante, para que la
+     * memoria no crezca con vehículos que ya no emiten
+     * @param instanteMs Se olvidan los vehículos cuya última muestra es anterior
+     * @return Número de vehículos olvidados
+     */
+    public synchronized int olvidarInactivos(long instanteMs) {
+        int olvidados = 0;
+        for (Particion particion : particiones) {
+            olvidados += particion.vehiculos.retener(estado -> estado.ultimaMuestraMs >= instanteMs);
+        }
+        return olvidados;
+    }
+
+    /**
+     * Ordenación por conteo (estable) de los índices de muestra por partición: cada
+     * partición recibe sus muestras contiguas y en el orden del lote
+     */
+    private void agruparPorParticion(LoteTelemetriaFlota lote) {
+        int cantidad = lote.obtenerCantidad();
+        if (orden.length < cantidad) {
+            orden = new int[cantidad];
+            particionDeMuestra = new int[cantidad];
+        }
+        int numeroParticiones = particiones.length;
+        int[] conteos = inicios;
+        Arrays.fill(conteos, 0);
+        for (int i = 0; i < cantidad; i++) {
+            int particion = particionDe(lote.obtenerIdVehiculo(i), numeroParticiones);
+            particionDeMuestra[i] = particion;
+            conteos[particion + 1]++;
+        }
+        for (int p = 0; p < numeroParticiones; p++) {
+            conteos[p + 1] += conteos[p];
+        }
+        // conteos[p] es ahora el inicio de p; se usa una copia como cursor de escritura
+        int[] cursores = Arrays.copyOf(conteos, numeroParticiones);
+        for (int i = 0; i < cantidad; i++) {
+            orden[cursores[particionDeMuestra[i]]++] = i;
+        }
+    }
+
+    /**
+     * Partición a partir de los bits altos de la dispersión; los bajos los usa el
+     * mapa de la partición, y tomar los mismos llenaría sus tablas de colisiones
+     */
+    private static int particionDe(long idVehiculo, int numeroParticiones) {
+        return (int) (((MapaVehiculos.dispersar(idVehiculo) & 0xffffffffL) * numeroParticiones) >>> 32);
+    }
+
+    /**
+     * Divide el rango de particiones hasta procesar una por tarea
+     */
+    private final class Tarea extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final LoteTelemetriaFlota lote;
+        private final int desde;
+        private final int hasta;
+
+        Tarea(LoteTelemetriaFlota lote, int desde, int hasta) {
+            this.lote = lote;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde == 1) {
+                particiones[desde].procesar(lote, inicios[desde], inicios[desde + 1]);
+                return;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new Tarea(lote, desde, mitad), new Tarea(lote, mitad, hasta));
+        }
+    }
+
+    /**
+     * Vehículos de una partición y sus detecciones del lote en curso. Solo la toca
+     * un hilo a la vez.
+     */
+    private final class Particion implements AnalizadorFlujoAceleracion.EscuchadorManiobras {
+        final MapaVehiculos<EstadoVehiculo> vehiculos = new MapaVehiculos<>();
+        final DeteccionesFlota detecciones = new DeteccionesFlota(64);
+
+        // Vehículo de la muestra en curso, para el escuchador de maniobras
+        private long idActual;
+        private EstadoVehiculo estadoActual;
+
+        void procesar(LoteTelemetriaFlota lote, int desde, int hasta) {
+            detecciones.vaciar();
+            for (int k = desde; k < hasta; k++) {
+                int i = orden[k];
+                long id = lote.obtenerIdVehiculo(i);
+                EstadoVehiculo estado = vehiculos.obtener(id);
+                if (estado == null) {
+                    estado = crearEstado();
+                    vehiculos.poner(id, estado);
+                }
+                long marcaTiempoMs = lote.obtenerMarcaTiempoMs(i);
+                estado.ultimaMuestraMs = marcaTiempoMs;
+
+                int velocidad = lote.obtenerVelocidadKmh(i);
+                int limite = lote.obtenerLimiteKmh(i);
+                float longitudinal = lote.obtenerAceleracionLongitudinal(i);
+                float lateral = lote.obtenerAceleracionLateral(i);
+                if (estado.umbrales != null) {
+                    adaptar(estado, marcaTiempoMs, velocidad, limite, longitudinal, lateral);
+                }
+                boolean exceso = limite > 0 && estado.reglas.esExcesoVelocidad(velocidad, limite);
+                if (exceso && !estado.enExceso) {
+                    detecciones.agregar(id, marcaTiempoMs, DeteccionesFlota.EXCESO_VELOCIDAD, velocidad - limite,
+                        estado.intentarNotificar(DeteccionesFlota.EXCESO_VELOCIDAD, marcaTiempoMs, enfriamientoMs));
+                }
+                estado.enExceso = exceso;
+
+                idActual = id;
+                estadoActual = estado;
+                estado.flujo.procesar(marcaTiempoMs * 1_000_000L, longitudinal, lateral, this);
+            }
+            estadoActual = null;
+        }
+
+        @Override
+        public void alDetectarManiobra(@NonNull String categoria, long marcaTiempoNs, float valorPico) {
+            int indice = indiceCategoria(categoria);
+            long marcaTiempoMs = marcaTiempoNs / 1_000_000L;
+            detecciones.agregar(idActual, marcaTiempoMs, indice, valorPico,
+                estadoActual.intentarNotificar(indice, marcaTiempoMs, enfriamientoMs));
+        }
+    }
+
+    private EstadoVehiculo crearEstado() {
+        if (configuracionAdaptativa == null) {
+            return new EstadoVehiculo(reglas, null);
+        }
+        return new EstadoVehiculo(copiar(reglas), configuracionAdaptativa.construir());
+    }
+
+    /**
+     * Registra la muestra en las estadísticas del vehículo y, si toca, recalcula sus umbrales
+     */
+    private void adaptar(EstadoVehiculo estado, long marcaTiempoMs, int velocidad, int limite,
+                         float longitudinal, float lateral) {
+        estado.umbrales.registrarAceleracion(longitudinal, lateral);
+        estado.umbrales.registrarVelocidad(velocidad, limite);
+        if (marcaTiempoMs >= estado.proximoAjusteMs) {
+            estado.umbrales.aplicar(estado.reglas);
+            estado.proximoAjusteMs = marcaTiempoMs + intervaloAjusteMs;
+        }
+    }
+
+    private static AnalizadorComportamientoConductor copiar(AnalizadorComportamientoConductor original) {
+        AnalizadorComportamientoConductor copia = new AnalizadorComportamientoConductor();
+        copia.establecerUmbralVelocidad(original.obtenerUmbralVelocidad());
+        copia.establecerUmbralFrenadaBrusca(original.obtenerUmbralFrenadaBrusca());
+        copia.establecerUmbralAceleracionBrusca(original.obtenerUmbralAceleracionBrusca());
+        copia.establecerUmbralGiroBrusco(original.obtenerUmbralGiroBrusco());
+        return copia;
+    }
+
+    private static int indiceCategoria(String categoria) {
+        for (int i = 1; i < DeteccionesFlota.CATEGORIAS.length; i++) {
+            if (DeteccionesFlota.CATEGORIAS[i].equals(categoria)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Categoría desconocida: " + categoria);
+    }
+
+    /**
+     * Estado de un vehículo: umbrales, filtros y maniobras en curso, exceso en curso y
+     * última notificación de cada categoría
+     */
+    private static final class EstadoVehiculo {
+        final AnalizadorComportamientoConductor reglas;
+        @Nullable
+        final UmbralesAdaptativos umbrales;
+        final AnalizadorFlujoAceleracion flujo;
+        long proximoAjusteMs;
+        final long[] ultimasNotificacionesMs = new long[DeteccionesFlota.CATEGORIAS.length];
+        int categoriasNotificadas; // bit i: la categoría i ya notificó alguna vez
+        boolean enExceso;
+        long ultimaMuestraMs;
+
+        EstadoVehiculo(AnalizadorComportamientoConductor reglas, @Nullable UmbralesAdaptativos umbrales) {
+            this.reglas = reglas;
+            this.umbrales = umbrales;
+            this.flujo = new AnalizadorFlujoAceleracion(reglas);
+        }
+
+        /**
+         * Misma regla que {@link LimitadorNotificaciones}: la primera pasa y las
+         * siguientes solo tras el enfriamiento
+         */
+        boolean intentarNotificar(int categoria, long ahoraMs, long enfriamientoMs) {
+            int bit = 1 << categoria;
+            if ((categoriasNotificadas & bit) != 0 && ahoraMs - ultimasNotificacionesMs[categoria] < enfriamientoMs) {
+                return false;
+            }
+            categoriasNotificadas |= bit;
+            ultimasNotificacionesMs[categoria] = ahoraMs;
+            return true;
+        }
+    }
+}
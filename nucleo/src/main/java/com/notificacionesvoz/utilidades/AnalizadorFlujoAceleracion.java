@@ -0,0 +1,288 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Análisis en flujo de muestras del acelerómetro
+ *
+ * A diferencia de {@link AnalizadorComportamientoConductor#analizarAceleracion(float, float)},
+ * que evalúa lecturas aisladas, procesa lotes de muestras con marca de tiempo aplicando:
+ * <ul>
+ *   <li>Filtro paso bajo (media móvil sobre un buffer circular de floats)</li>
+ *   <li>Histéresis: el evento termina al bajar de una fracción del umbral</li>
+ *   <li>Duración mínima: el evento se notifica una sola vez, tras mantenerse el tiempo indicado</li>
+ *   <li>Opcionalmente, ventana deslizante por maniobra: jerk, pico, tiempo sobre umbral
+ *       y energía, que acompañan a cada detección ({@link CaracteristicasManiobra})</li>
+ * </ul>
+ * La decisión de detectar depende solo del umbral, la histéresis y la duración
+ * mínima; las características de la ventana describen la maniobra ya confirmada
+ * (p. ej. para que la app distinga una frenada sostenida de un bache) pero no
+ * aceptan ni rechazan ninguna. La ventana solo se mantiene si se pide su duración
+ * en el constructor completo; sin ella cada detección llega por la variante de tres
+ * argumentos del escuchador.
+ * Los umbrales se leen del analizador en cada lote. No reserva memoria por muestra,
+ * por lo que puede alimentarse a 100–200 Hz sin presión sobre el GC.
+ *
+ * No es thread-safe: debe alimentarse desde un único hilo (p. ej. el de sensores).
+ */
+public class AnalizadorFlujoAceleracion {
+
+    public static final int VENTANA_FILTRO_PREDETERMINADA = 5; // muestras
+    public static final long DURACION_MINIMA_PREDETERMINADA_MS = 150;
+    public static final float FACTOR_HISTERESIS_PREDETERMINADO = 0.8f;
+    public static final long VENTANA_CARACTERISTICAS_PREDETERMINADA_MS = 1000;
+    public static final long SIN_CARACTERISTICAS = 0;
+
+    private final AnalizadorComportamientoConductor analizador;
+    private final long duracionMinimaNs;
+    private final float factorHisteresis;
+
+    private final FiltroMediaMovil filtroLongitudinal;
+    private final FiltroMediaMovil filtroLateral;
+    private final DetectorManiobra detectorFrenada;
+    private final DetectorManiobra detectorAceleracion;
+    private final DetectorManiobra detectorGiro;
+    @Nullable
+    private final CaracteristicasManiobra caracteristicas;
+
+    // Buffers de una muestra para la variante sin arrays
+    private final long[] muestraTiempo = new long[1];
+    private final float[] muestraLongitudinal = new float[1];
+    private final float[] muestraLateral = new float[1];
+
+    public AnalizadorFlujoAceleracion(@NonNull AnalizadorComportamientoConductor analizador) {
+        this(analizador, VENTANA_FILTRO_PREDETERMINADA, DURACION_MINIMA_PREDETERMINADA_MS,
+                FACTOR_HISTERESIS_PREDETERMINADO);
+    }
+
+    /**
+     * Constructor
+     * @param analizador Analizador del que se toman los umbrales
+     * @param ventanaFiltro Número de muestras promediadas por el filtro paso bajo
+     * @param duracionMinimaMs Tiempo que debe mantenerse la condición para notificar
+     * @param factorHisteresis Fracción del umbral por debajo de la cual termina el evento (0–1]
+     */
+    public AnalizadorFlujoAceleracion(@NonNull AnalizadorComportamientoConductor analizador,
+                                      int ventanaFiltro, long duracionMinimaMs, float factorHisteresis) {
+        this(analizador, ventanaFiltro, duracionMinimaMs, factorHisteresis, SIN_CARACTERISTICAS);
+    }
+
+    /**
+     * Constructor completo
+     * @param ventanaCaracteristicasMs Duración de la ventana deslizante de las características que se
+     *                                 entregan con cada maniobra (no cambia qué se detecta)
+     *                                 (p. ej. {@link #VENTANA_CARACTERISTICAS_PREDETERMINADA_MS}), o
+     *                                 {@link #SIN_CARACTERISTICAS} para no calcularlas
+     */
+    public AnalizadorFlujoAceleracion(@NonNull AnalizadorComportamientoConductor analizador,
+                                      int ventanaFiltro, long duracionMinimaMs, float factorHisteresis,
+                                      long ventanaCaracteristicasMs) {
+        if (ventanaFiltro <= 0) {
+            throw new IllegalArgumentException("La ventana del filtro debe ser mayor que 0");
+        }
+        if (factorHisteresis <= 0f || factorHisteresis > 1f) {
+            throw new IllegalArgumentException("El factor de histéresis debe estar entre 0 y 1");
+        }
+        if (ventanaCaracteristicasMs < 0) {
+            throw new IllegalArgumentException("La ventana de características no puede ser negativa");
+        }
+        this.analizador = analizador;
+        this.duracionMinimaNs = duracionMinimaMs * 1_000_000L;
+        this.factorHisteresis = factorHisteresis;
+        this.filtroLongitudinal = new FiltroMediaMovil(ventanaFiltro);
+        this.filtroLateral = new FiltroMediaMovil(ventanaFiltro);
+        this.detectorFrenada = new DetectorManiobra(ventanaCaracteristicasMs);
+        this.detectorAceleracion = new DetectorManiobra(ventanaCaracteristicasMs);
+        this.detectorGiro = new DetectorManiobra(ventanaCaracteristicasMs);
+        this.caracteristicas = ventanaCaracteristicasMs > 0 ? new CaracteristicasManiobra() : null;
+    }
+
+    /**
+     * Procesa un lote de muestras
+     * @param marcasTiempoNs Marca de tiempo de cada muestra en nanosegundos (p. ej. SensorEvent.timestamp)
+     * @param aceleracionesLongitudinales Aceleración longitudinal en m/s² (negativa al frenar)
+     * @param aceleracionesLaterales Aceleración lateral en m/s²
+     * @param cantidad Número de muestras válidas en los arrays
+     * @param escuchador Receptor de las maniobras detectadas
+     * @return Número de maniobras detectadas en el lote
+     */
+    public int procesar(@NonNull long[] marcasTiempoNs,
+                        @NonNull float[] aceleracionesLongitudinales,
+                        @NonNull float[] aceleracionesLaterales,
+                        int cantidad,
+                        @NonNull EscuchadorManiobras escuchador) {
+        float umbralFrenada = -analizador.obtenerUmbralFrenadaBrusca();
+        float umbralAceleracion = analizador.obtenerUmbralAceleracionBrusca();
+        float umbralGiro = analizador.obtenerUmbralGiroBrusco();
+        int detecciones = 0;
+
+        for (int i = 0; i < cantidad; i++) {
+            long marcaTiempo = marcasTiempoNs[i];
+            float longitudinal = filtroLongitudinal.agregar(aceleracionesLongitudinales[i]);
+            float lateral = filtroLateral.agregar(aceleracionesLaterales[i]);
+
+            if (detectorFrenada.actualizar(-longitudinal, umbralFrenada, marcaTiempo)) {
+                notificar(detectorFrenada, AnalizadorComportamientoConductor.CATEGORIA_FRENADA_BRUSCA,
+                        marcaTiempo, -detectorFrenada.pico, escuchador);
+                detecciones++;
+            }
+            if (detectorAceleracion.actualizar(longitudinal, umbralAceleracion, marcaTiempo)) {
+                notificar(detectorAceleracion, AnalizadorComportamientoConductor.CATEGORIA_ACELERACION_BRUSCA,
+                        marcaTiempo, detectorAceleracion.pico, escuchador);
+                detecciones++;
+            }
+            if (detectorGiro.actualizar(Math.abs(lateral), umbralGiro, marcaTiempo)) {
+                notificar(detectorGiro, AnalizadorComportamientoConductor.CATEGORIA_GIRO_BRUSCO,
+                        marcaTiempo, detectorGiro.pico, escuchador);
+                detecciones++;
+            }
+        }
+        return detecciones;
+    }
+
+    private void notificar(@NonNull DetectorManiobra detector, @NonNull String categoria, long marcaTiempoNs,
+                           float valorPico, @NonNull EscuchadorManiobras escuchador) {
+        if (caracteristicas == null) {
+            escuchador.alDetectarManiobra(categoria, marcaTiempoNs, valorPico);
+            return;
+        }
+        detector.describir(caracteristicas, marcaTiempoNs);
+        escuchador.alDetectarManiobra(categoria, marcaTiempoNs, valorPico, caracteristicas);
+    }
+
+    /**
+     * Procesa una única muestra (p. ej. directamente desde onSensorChanged)
+     * @return Número de maniobras detectadas (0 o más)
+     */
+    public int procesar(long marcaTiempoNs, float aceleracionLongitudinal, float aceleracionLateral,
+                        @NonNull EscuchadorManiobras escuchador) {
+        muestraTiempo[0] = marcaTiempoNs;
+        muestraLongitudinal[0] = aceleracionLongitudinal;
+        muestraLateral[0] = aceleracionLateral;
+        return procesar(muestraTiempo, muestraLongitudinal, muestraLateral, 1, escuchador);
+    }
+
+    /**
+     * Descarta el estado de filtros y maniobras en curso
+     */
+    public void reiniciar() {
+        filtroLongitudinal.reiniciar();
+        filtroLateral.reiniciar();
+        detectorFrenada.reiniciar();
+        detectorAceleracion.reiniciar();
+        detectorGiro.reiniciar();
+    }
+
+    /**
+     * Receptor de maniobras detectadas. Se invoca en el hilo que llama a procesar().
+     */
+    public interface EscuchadorManiobras {
+        /**
+         * @param categoria Una de las constantes CATEGORIA_* de AnalizadorComportamientoConductor
+         * @param marcaTiempoNs Marca de tiempo de la muestra que confirmó la maniobra
+         * @param valorPico Valor filtrado más extremo de la maniobra hasta ese momento (m/s²)
+         */
+        void alDetectarManiobra(@NonNull String categoria, long marcaTiempoNs, float valorPico);
+
+        /**
+         * Variante con las características de la maniobra en su ventana; solo se invoca
+         * si el analizador se creó con ventana de características. Por defecto las descarta
+         * @param caracteristicas Solo válidas durante la llamada
+         */
+        default void alDetectarManiobra(@NonNull String categoria, long marcaTiempoNs, float valorPico,
+                                        @NonNull CaracteristicasManiobra caracteristicas) {
+            alDetectarManiobra(categoria, marcaTiempoNs, valorPico);
+        }
+    }
+
+    /**
+     * Media móvil sobre un buffer circular de tamaño fijo
+     */
+    private static final class FiltroMediaMovil {
+        private final float[] muestras;
+        private int indice = 0;
+        private int llenas = 0;
+        private double suma = 0;
+
+        FiltroMediaMovil(int tamano) {
+            this.muestras = new float[tamano];
+        }
+
+        float agregar(float valor) {
+            if (llenas == muestras.length) {
+                suma -= muestras[indice];
+            } else {
+                llenas++;
+            }
+            muestras[indice] = valor;
+            suma += valor;
+            indice = indice + 1 == muestras.length ? 0 : indice + 1;
+            return (float) (suma / llenas);
+        }
+
+        void reiniciar() {
+            indice = 0;
+            llenas = 0;
+            suma = 0;
+        }
+    }
+
+    /**
+     * Histéresis y duración mínima sobre una magnitud positiva, con su ventana de
+     * características si se pidió
+     */
+    private final class DetectorManiobra {
+        @Nullable
+        final VentanaManiobra ventana;
+        boolean activo;
+        boolean notificado;
+        long inicioNs;
+        float pico;
+
+        DetectorManiobra(long ventanaMs) {
+            this.ventana = ventanaMs > 0 ? new VentanaManiobra(ventanaMs) : null;
+        }
+
+        /**
+         * @return true solo en la muestra en que la maniobra queda confirmada
+         */
+        boolean actualizar(float magnitud, float umbral, long marcaTiempoNs) {
+            if (ventana != null) {
+                ventana.agregar(marcaTiempoNs, magnitud, umbral);
+            }
+            if (!activo) {
+                if (magnitud <= umbral) {
+                    return false;
+                }
+                activo = true;
+                notificado = false;
+                inicioNs = marcaTiempoNs;
+                pico = magnitud;
+            } else if (magnitud < umbral * factorHisteresis) {
+                activo = false;
+                return false;
+            } else if (magnitud > pico) {
+                pico = magnitud;
+            }
+
+            if (!notificado && marcaTiempoNs - inicioNs >= duracionMinimaNs) {
+                notificado = true;
+                return true;
+            }
+            return false;
+        }
+
+        void describir(CaracteristicasManiobra caracteristicas, long marcaTiempoNs) {
+            caracteristicas.asignar((marcaTiempoNs - inicioNs) / 1_000_000L, ventana);
+        }
+
+        void reiniciar() {
+            activo = false;
+            notificado = false;
+            if (ventana != null) {
+                ventana.reiniciar();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.notificacionesvoz.utilidades;
+
+/**
+ * Características de una maniobra en la ventana deslizante que termina en la
+ * muestra que la confirmó
+ *
+ * Las magnitudes van en el sentido de la maniobra (positivas tanto para frenar como
+ * para acelerar). Son descriptivas: la maniobra ya se confirmó por umbral,
+ * histéresis y duración mínima. El analizador reutiliza la instancia: solo es
+ * válida durante la llamada al escuchador.
+ */
+public final class CaracteristicasManiobra {
+
+    private long duracionMs;
+    private float picoVentana;
+    private float picoJerk;
+    private long tiempoSobreUmbralMs;
+    private float energia;
+
+    CaracteristicasManiobra() {
+    }
+
+    void asignar(long duracionMs, VentanaManiobra ventana) {
+        this.duracionMs = duracionMs;
+        this.picoVentana = ventana.obtenerPico();
+        this.picoJerk = ventana.obtenerPicoJerk();
+        this.tiempoSobreUmbralMs = ventana.obtenerTiempoSobreUmbralMs();
+        this.energia = ventana.obtenerEnergia();
+    }
+
+    /**
+     * Tiempo desde que la maniobra superó el umbral
+     */
+    public long obtenerDuracionMs() {
+        return duracionMs;
+    }
+
+    /**
+     * Magnitud filtrada máxima en la ventana (m/s²)
+     */
+    public float obtenerPicoVentana() {
+        return picoVentana;
+    }
+
+    /**
+     * Máximo ritmo de aumento de la magnitud en la ventana (m/s³); alto en maniobras
+     * bruscas desde el inicio
+     */
+    public float obtenerPicoJerk() {
+        return picoJerk;
+    }
+
+    /**
+     * Tiempo de la ventana con la magnitud sobre el umbral, aunque haya sido a tramos
+     */
+    public long obtenerTiempoSobreUmbralMs() {
+        return tiempoSobreUmbralMs;
+    }
+
+    /**
+     * ∫ magnitud² dt en la ventana (m²/s³): distingue una frenada fuerte y larga de un bache
+     */
+    public float obtenerEnergia() {
+        return energia;
+    }
+}
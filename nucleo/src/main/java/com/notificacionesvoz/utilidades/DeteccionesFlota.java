@@ -0,0 +1,140 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Detecciones de un lote de la flota, en arrays paralelos
+ *
+ * Cada detección lleva el vehículo, el instante, la categoría, el valor pico y si el
+ * enfriamiento de ese vehículo permitía notificarla. Las de un mismo vehículo
+ * aparecen en orden de tiempo.
+ */
+public final class DeteccionesFlota {
+
+    static final String[] CATEGORIAS = {
+        AnalizadorComportamientoConductor.CATEGORIA_EXCESO_VELOCIDAD,
+        AnalizadorComportamientoConductor.CATEGORIA_FRENADA_BRUSCA,
+        AnalizadorComportamientoConductor.CATEGORIA_ACELERACION_BRUSCA,
+        AnalizadorComportamientoConductor.CATEGORIA_GIRO_BRUSCO
+    };
+    static final int EXCESO_VELOCIDAD = 0;
+
+    private long[] idsVehiculo;
+    private long[] marcasTiempoMs;
+    private byte[] categorias;
+    private float[] valoresPico;
+    private boolean[] notificadas;
+    private int cantidad;
+
+    DeteccionesFlota(int capacidadInicial) {
+        int capacidad = Math.max(1, capacidadInicial);
+        idsVehiculo = new long[capacidad];
+        marcasTiempoMs = new long[capacidad];
+        categorias = new byte[capacidad];
+        valoresPico = new float[capacidad];
+        notificadas = new boolean[capacidad];
+    }
+
+    void agregar(long idVehiculo, long marcaTiempoMs, int categoria, float valorPico, boolean notificada) {
+        if (cantidad == idsVehiculo.length) {
+            asegurarCapacidad(cantidad * 2);
+        }
+        idsVehiculo[cantidad] = idVehiculo;
+        marcasTiempoMs[cantidad] = marcaTiempoMs;
+        categorias[cantidad] = (byte) categoria;
+        valoresPico[cantidad] = valorPico;
+        notificadas[cantidad] = notificada;
+        cantidad++;
+    }
+
+    /**
+     * Añade al final todas las detecciones de otro bloque
+     */
+    void agregarTodas(@NonNull DeteccionesFlota otras) {
+        asegurarCapacidad(cantidad + otras.cantidad);
+        System.arraycopy(otras.idsVehiculo, 0, idsVehiculo, cantidad, otras.cantidad);
+        System.arraycopy(otras.marcasTiempoMs, 0, marcasTiempoMs, cantidad, otras.cantidad);
+        System.arraycopy(otras.categorias, 0, categorias, cantidad, otras.cantidad);
+        System.arraycopy(otras.valoresPico, 0, valoresPico, cantidad, otras.cantidad);
+        System.arraycopy(otras.notificadas, 0, notificadas, cantidad, otras.cantidad);
+        cantidad += otras.cantidad;
+    }
+
+    void vaciar() {
+        cantidad = 0;
+    }
+
+    public int obtenerCantidad() {
+        return cantidad;
+    }
+
+    public long obtenerIdVehiculo(int indice) {
+        comprobarIndice(indice);
+        return idsVehiculo[indice];
+    }
+
+    /**
+     * Marca de tiempo de la muestra que confirmó la detección
+     */
+    public long obtenerMarcaTiempoMs(int indice) {
+        comprobarIndice(indice);
+        return marcasTiempoMs[indice];
+    }
+
+    /**
+     * Una de las constantes CATEGORIA_* de {@link AnalizadorComportamientoConductor}
+     */
+    @NonNull
+    public String obtenerCategoria(int indice) {
+        comprobarIndice(indice);
+        return CATEGORIAS[categorias[indice]];
+    }
+
+    /**
+     * Aceleración pico filtrada (m/s²) o, para el exceso de velocidad, km/h sobre el límite
+     */
+    public float obtenerValorPico(int indice) {
+        comprobarIndice(indice);
+        return valoresPico[indice];
+    }
+
+    /**
+     * true si el vehículo no estaba en enfriamiento para esa categoría
+     */
+    public boolean estaNotificada(int indice) {
+        comprobarIndice(indice);
+        return notificadas[indice];
+    }
+
+    /**
+     * Número de detecciones que pasaron el enfriamiento
+     */
+    public int obtenerNotificadas() {
+        int total = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (notificadas[i]) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private void comprobarIndice(int indice) {
+        if (indice < 0 || indice >= cantidad) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera de [0, " + cantidad + ")");
+        }
+    }
+
+    private void asegurarCapacidad(int capacidad) {
+        if (capacidad <= idsVehiculo.length) {
+            return;
+        }
+        idsVehiculo = Arrays.copyOf(idsVehiculo, capacidad);
+        marcasTiempoMs = Arrays.copyOf(marcasTiempoMs, capacidad);
+        categorias = Arrays.copyOf(categorias, capacidad);
+        valoresPico = Arrays.copyOf(valoresPico, capacidad);
+        notificadas = Arrays.copyOf(notificadas, capacidad);
+    }
+}
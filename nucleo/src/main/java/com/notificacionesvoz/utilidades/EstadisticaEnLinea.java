@@ -0,0 +1,149 @@
+package com.notificacionesvoz.utilidades;
+
+import java.util.Arrays;
+
+/**
+ * Media, varianza y cuantiles de un flujo de valores en memoria fija
+ *
+ * La media y la varianza se actualizan con el algoritmo de Welford (estable
+ * numéricamente, una pasada). Los cuantiles salen de un histograma de cubetas
+ * uniformes entre un mínimo y un máximo; los valores fuera del rango cuentan en la
+ * cubeta del extremo. El error de un cuantil es como mucho el ancho de una cubeta.
+ *
+ * Para que las estadísticas sigan al conductor si cambia su forma de conducir,
+ * cuando se alcanzan {@code memoria} valores se reduce a la mitad el peso de todo
+ * lo anterior (olvido exponencial). Los pesos son fraccionarios, así que el total
+ * del histograma coincide siempre con la cantidad y hasta una cubeta con un único
+ * valor atípico se desvanece al ritmo del resto. Los pesos nunca desbordan.
+ *
+ * Registrar es O(1) y no reserva memoria. No es thread-safe.
+ */
+public class EstadisticaEnLinea {
+
+    public static final int MEMORIA_PREDETERMINADA = 1 << 20;
+
+    private final double minimo;
+    private final double anchoCubeta;
+    private final double[] cubetas;
+    private final int memoria;
+
+    private double peso;
+    private double media;
+    private double sumaCuadrados; // M2 de Welford
+
+    /**
+     * @param minimo Límite inferior del histograma
+     * @param maximo Límite superior del histograma
+     * @param numeroCubetas Resolución de los cuantiles: (maximo - minimo) / numeroCubetas
+     */
+    public EstadisticaEnLinea(double minimo, double maximo, int numeroCubetas) {
+        this(minimo, maximo, numeroCubetas, MEMORIA_PREDETERMINADA);
+    }
+
+    /**
+     * @param memoria Valores tras los que se reduce a la mitad el peso de los anteriores
+     */
+    public EstadisticaEnLinea(double minimo, double maximo, int numeroCubetas, int memoria) {
+        if (!(maximo > minimo)) {
+            throw new IllegalArgumentException("El máximo debe ser mayor que el mínimo");
+        }
+        if (numeroCubetas <= 0) {
+            throw new IllegalArgumentException("El número de cubetas debe ser mayor que 0");
+        }
+        if (memoria < 2) {
+            throw new IllegalArgumentException("La memoria debe ser de al menos 2 valores");
+        }
+        this.minimo = minimo;
+        this.anchoCubeta = (maximo - minimo) / numeroCubetas;
+        this.cubetas = new double[numeroCubetas];
+        this.memoria = memoria;
+    }
+
+    /**
+     * Añade un valor (se ignoran NaN e infinitos)
+     */
+    public void agregar(double valor) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            return;
+        }
+        if (peso >= memoria) {
+            olvidarMitad();
+        }
+        peso++;
+        double diferencia = valor - media;
+        media += diferencia / peso;
+        sumaCuadrados += diferencia * (valor - media);
+
+        int cubeta = (int) ((valor - minimo) / anchoCubeta);
+        cubetas[Math.max(0, Math.min(cubetas.length - 1, cubeta))]++;
+    }
+
+    /**
+     * Peso de los valores registrados, redondeado hacia abajo (igual al número de
+     * valores hasta que actúa el olvido)
+     */
+    public long obtenerCantidad() {
+        return (long) peso;
+    }
+
+    public double obtenerMedia() {
+        return media;
+    }
+
+    /**
+     * Varianza muestral, o 0 con menos de dos valores
+     */
+    public double obtenerVarianza() {
+        return peso > 1 ? sumaCuadrados / (peso - 1) : 0;
+    }
+
+    public double obtenerDesviacionTipica() {
+        return Math.sqrt(obtenerVarianza());
+    }
+
+    /**
+     * Estima un cuantil interpolando dentro de su cubeta
+     * @param fraccion Entre 0 y 1 (p. ej. 0.99 para el percentil 99)
+     * @return El cuantil, o NaN si no hay valores
+     */
+    public double obtenerCuantil(double fraccion) {
+        if (fraccion < 0 || fraccion > 1) {
+            throw new IllegalArgumentException("La fracción debe estar entre 0 y 1");
+        }
+        if (peso == 0) {
+            return Double.NaN;
+        }
+        // Sumar unos y dividir entre dos es exacto en double: las cubetas suman el peso
+        double objetivo = fraccion * peso;
+        double acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            double contador = cubetas[i];
+            if (contador > 0 && acumulado + contador >= objetivo) {
+                double dentro = (objetivo - acumulado) / contador;
+                return minimo + (i + dentro) * anchoCubeta;
+            }
+            acumulado += contador;
+        }
+        return minimo + cubetas.length * anchoCubeta;
+    }
+
+    public void reiniciar() {
+        peso = 0;
+        media = 0;
+        sumaCuadrados = 0;
+        Arrays.fill(cubetas, 0);
+    }
+
+    /**
+     * Reduce a la mitad el peso de lo registrado, conservando la media, la varianza
+     * y la forma del histograma
+     */
+    private void olvidarMitad() {
+        double anterior = peso;
+        peso = anterior / 2;
+        sumaCuadrados *= peso > 1 ? (peso - 1) / (anterior - 1) : 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] /= 2;
+        }
+    }
+}
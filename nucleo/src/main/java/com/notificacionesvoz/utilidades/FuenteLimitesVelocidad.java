@@ -0,0 +1,20 @@
+package com.notificacionesvoz.utilidades;
+
+/**
+ * Origen del límite de velocidad de una posición (p. ej. un índice sin conexión)
+ *
+ * Las implementaciones deben ser rápidas y no bloquear: se consultan a la
+ * frecuencia del GPS.
+ */
+public interface FuenteLimitesVelocidad {
+
+    /** Devuelto cuando no se conoce el límite en la posición */
+    int SIN_LIMITE = 0;
+
+    /**
+     * Límite de la vía por la que se circula
+     * @param rumboGrados Rumbo del vehículo (0 = norte, 90 = este), o NaN si no se conoce
+     * @return Límite en km/h o {@link #SIN_LIMITE}
+     */
+    int obtenerLimiteKmh(double latitud, double longitud, float rumboGrados);
+}
@@ -0,0 +1,126 @@
+package com.notificacionesvoz.utilidades;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en milisegundos con cubetas logarítmicas (potencias de 2)
+ *
+ * La cubeta 0 cuenta valores de 0 ms; la cubeta i (i ≥ 1) cuenta valores en
+ * [2^(i-1), 2^i). La última acumula todo lo que supera ~32 s. Registrar es O(1),
+ * sin bloqueos y sin reservar memoria.
+ */
+public class HistogramaLatencia {
+
+    public static final int NUMERO_CUBETAS = 17;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(NUMERO_CUBETAS);
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una medición
+     * @param valorMs Duración en milisegundos (los negativos cuentan como 0)
+     */
+    public void registrar(long valorMs) {
+        long valor = Math.max(0, valorMs);
+        cubetas.incrementAndGet(indiceCubeta(valor));
+        suma.add(valor);
+
+        long actual = maximo.get();
+        while (valor > actual && !maximo.compareAndSet(actual, valor)) {
+            actual = maximo.get();
+        }
+    }
+
+    /**
+     * Obtiene una copia inmutable del histograma
+     */
+    public Instantanea obtenerInstantanea() {
+        long[] copia = new long[NUMERO_CUBETAS];
+        long total = 0;
+        for (int i = 0; i < NUMERO_CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        return new Instantanea(copia, total, suma.sum(), maximo.get());
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < NUMERO_CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        suma.reset();
+        maximo.set(0);
+    }
+
+    static int indiceCubeta(long valor) {
+        int indice = 64 - Long.numberOfLeadingZeros(valor);
+        return Math.min(indice, NUMERO_CUBETAS - 1);
+    }
+
+    /**
+     * Límite superior (exclusivo) en milisegundos de una cubeta
+     */
+    static long limiteSuperior(int cubeta) {
+        return 1L << cubeta;
+    }
+
+    /**
+     * Copia inmutable de un histograma
+     */
+    public static final class Instantanea {
+        private final long[] cubetas;
+        private final long total;
+        private final long suma;
+        private final long maximo;
+
+        Instantanea(long[] cubetas, long total, long suma, long maximo) {
+            this.cubetas = cubetas;
+            this.total = total;
+            this.suma = suma;
+            this.maximo = maximo;
+        }
+
+        public long obtenerTotal() {
+            return total;
+        }
+
+        public long obtenerMaximo() {
+            return maximo;
+        }
+
+        public double obtenerMedia() {
+            return total == 0 ? 0 : (double) suma / total;
+        }
+
+        /**
+         * Estima un percentil como el límite superior de la cubeta que lo contiene,
+         * acotado por el máximo observado
+         * @param fraccion Percentil entre 0 y 1 (p. ej. 0.99)
+         * @return Milisegundos, 0 si no hay mediciones
+         */
+        public long obtenerPercentil(double fraccion) {
+            if (total == 0) {
+                return 0;
+            }
+            long objetivo = (long) Math.ceil(fraccion * total);
+            long acumulado = 0;
+            for (int i = 0; i < cubetas.length; i++) {
+                acumulado += cubetas[i];
+                if (acumulado >= objetivo) {
+                    return i == 0 ? 0 : Math.min(limiteSuperior(i) - 1, maximo);
+                }
+            }
+            return maximo;
+        }
+
+        /**
+         * Copia de los recuentos por cubeta
+         */
+        public long[] obtenerCubetas() {
+            return cubetas.clone();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de notificaciones para prevenir spam
+ * Implementa un sistema de throttling por categoría de notificación
+ * Completamente genérico y transversal a cualquier dominio de negocio
+ * 
+ * Es thread-safe y no usa bloqueos: cada categoría guarda su última notificación
+ * en un AtomicLong que se actualiza con compare-and-set. El tiempo se mide con un
+ * reloj monotónico, por lo que los cambios de hora del sistema no afectan al enfriamiento.
+ * 
+ * Opcionalmente aplica además un presupuesto global ("como máximo N notificaciones
+ * por ventana") sobre todas las categorías, para que varias categorías distintas
+ * no puedan saturar al usuario a la vez.
+ */
+public class LimitadorNotificaciones {
+    
+    private final long periodoEnfriamiento; // en milisegundos
+    private final ConcurrentHashMap<String, AtomicLong> ultimasNotificaciones;
+    private final Reloj reloj;
+    @Nullable
+    private final PresupuestoNotificaciones presupuestoGlobal;
+    private static final String CATEGORIA_PREDETERMINADA = "general";
+    
+    /**
+     * Constructor
+     * @param periodoEnfriamiento Tiempo mínimo entre notificaciones de la misma categoría (ms)
+     */
+    public LimitadorNotificaciones(long periodoEnfriamiento) {
+        this(periodoEnfriamiento, Reloj.MONOTONICO);
+    }
+
+    /**
+     * Constructor con reloj inyectable
+     * @param periodoEnfriamiento Tiempo mínimo entre notificaciones de la misma categoría (ms)
+     * @param reloj Fuente de tiempo (monotónica)
+     */
+    public LimitadorNotificaciones(long periodoEnfriamiento, @NonNull Reloj reloj) {
+        this(periodoEnfriamiento, null, reloj);
+    }
+
+    /**
+     * Constructor con presupuesto global
+     * @param periodoEnfriamiento Tiempo mínimo entre notificaciones de la misma categoría (ms)
+     * @param maximoGlobal Número máximo de notificaciones de cualquier categoría por ventana
+     * @param ventanaGlobal Duración de la ventana del presupuesto global (ms)
+     */
+    public LimitadorNotificaciones(long periodoEnfriamiento, int maximoGlobal, long ventanaGlobal) {
+        this(periodoEnfriamiento, new PresupuestoNotificaciones(maximoGlobal, ventanaGlobal), Reloj.MONOTONICO);
+    }
+
+    /**
+     * Constructor completo
+     * @param periodoEnfriamiento Tiempo mínimo entre notificaciones de la misma categoría (ms)
+     * @param presupuestoGlobal Presupuesto compartido por todas las categorías, o null para no limitar
+     * @param reloj Fuente de tiempo (monotónica)
+     */
+    public LimitadorNotificaciones(long periodoEnfriamiento,
+                                   @Nullable PresupuestoNotificaciones presupuestoGlobal,
+                                   @NonNull Reloj reloj) {
+        this.periodoEnfriamiento = periodoEnfriamiento;
+        this.ultimasNotificaciones = new ConcurrentHashMap<>();
+        this.reloj = reloj;
+        this.presupuestoGlobal = presupuestoGlobal;
+    }
+
+    /**
+     * Intenta notificar. Retorna true si se puede notificar, false si aún está en cooldown
+     * o si se agotó el presupuesto global
+     * @param categoria Categoría de la notificación (ej: "alerta", "recordatorio", "info")
+     */
+    public boolean intentarNotificar(@Nullable String categoria) {
+        String clave = categoria != null ? categoria : CATEGORIA_PREDETERMINADA;
+        long ahora = reloj.ahoraMs();
+        
+        // El presupuesto global se reserva primero y se devuelve si la categoría está en cooldown
+        if (presupuestoGlobal != null && !presupuestoGlobal.intentarConsumir(ahora)) {
+            return false;
+        }
+        
+        if (reservarCategoria(clave, ahora)) {
+            return true;
+        }
+        
+        if (presupuestoGlobal != null) {
+            presupuestoGlobal.devolver();
+        }
+        return false;
+    }
+    
+    private boolean reservarCategoria(String clave, long ahora) {
+        AtomicLong ultimaNotificacion = ultimasNotificaciones.get(clave);
+        
+        if (ultimaNotificacion == null) {
+            ultimaNotificacion = ultimasNotificaciones.putIfAbsent(clave, new AtomicLong(ahora));
+            if (ultimaNotificacion == null) {
+                return true;
+            }
+        }
+        
+        while (true) {
+            long anterior = ultimaNotificacion.get();
+            if ((ahora - anterior) < periodoEnfriamiento) {
+                return false;
+            }
+            if (ultimaNotificacion.compareAndSet(anterior, ahora)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Intenta notificar sin categoría (usa categoría predeterminada)
+     */
+    public boolean intentarNotificar() {
+        return intentarNotificar(null);
+    }
+
+    /**
+     * Obtiene el tiempo restante de enfriamiento para una categoría
+     * @param categoria Categoría de la notificación
+     * @return Milisegundos restantes, 0 si puede notificar
+     */
+    public long obtenerEnfriamientoRestante(@Nullable String categoria) {
+        String clave = categoria != null ? categoria : CATEGORIA_PREDETERMINADA;
+        AtomicLong ultimaNotificacion = ultimasNotificaciones.get(clave);
+        if (ultimaNotificacion == null) {
+            return 0;
+        }
+        
+        long tiempoTranscurrido = reloj.ahoraMs() - ultimaNotificacion.get();
+        long restante = periodoEnfriamiento - tiempoTranscurrido;
+        return Math.max(0, restante);
+    }
+    
+    /**
+     * Obtiene el tiempo hasta que el presupuesto global vuelva a permitir una notificación
+     * @return Milisegundos restantes, 0 si hay presupuesto o no se configuró
+     */
+    public long obtenerEsperaPresupuestoGlobal() {
+        return presupuestoGlobal != null ? presupuestoGlobal.obtenerEsperaMs(reloj.ahoraMs()) : 0;
+    }
+    
+    /**
+     * Obtiene el tiempo restante de enfriamiento para la categoría predeterminada
+     */
+    public long obtenerEnfriamientoRestante() {
+        return obtenerEnfriamientoRestante(null);
+    }
+    
+    /**
+     * Reinicia el limitador para una categoría específica
+     * @param categoria Categoría a reiniciar
+     */
+    public void reiniciar(@Nullable String categoria) {
+        String clave = categoria != null ? categoria : CATEGORIA_PREDETERMINADA;
+        ultimasNotificaciones.remove(clave);
+    }
+    
+    /**
+     * Reinicia todos los limitadores
+     */
+    public void reiniciarTodo() {
+        ultimasNotificaciones.clear();
+        if (presupuestoGlobal != null) {
+            presupuestoGlobal.reiniciar();
+        }
+    }
+    
+    /**
+     * Obtiene el período de enfriamiento configurado
+     */
+    public long obtenerPeriodoEnfriamiento() {
+        return periodoEnfriamiento;
+    }
+    
+    /**
+     * Obtiene el presupuesto global configurado, o null si no hay
+     */
+    @Nullable
+    public PresupuestoNotificaciones obtenerPresupuestoGlobal() {
+        return presupuestoGlobal;
+    }
+}
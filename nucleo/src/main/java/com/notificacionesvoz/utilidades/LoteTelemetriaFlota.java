@@ -0,0 +1,93 @@
+package com.notificacionesvoz.utilidades;
+
+import java.util.Arrays;
+
+/**
+ * Lote de muestras de telemetría de varios vehículos, en arrays paralelos
+ *
+ * Las muestras de vehículos distintos pueden ir mezcladas en cualquier orden, pero
+ * las de un mismo vehículo deben ir en orden de tiempo. El lote se reutiliza con
+ * {@link #vaciar()} para no reservar memoria por muestra.
+ */
+public final class LoteTelemetriaFlota {
+
+    private long[] idsVehiculo;
+    private long[] marcasTiempoMs;
+    private int[] velocidadesKmh;
+    private int[] limitesKmh;
+    private float[] aceleracionesLongitudinales;
+    private float[] aceleracionesLaterales;
+    private int cantidad;
+
+    public LoteTelemetriaFlota(int capacidadInicial) {
+        if (capacidadInicial <= 0) {
+            throw new IllegalArgumentException("La capacidad del lote debe ser mayor que 0");
+        }
+        idsVehiculo = new long[capacidadInicial];
+        marcasTiempoMs = new long[capacidadInicial];
+        velocidadesKmh = new int[capacidadInicial];
+        limitesKmh = new int[capacidadInicial];
+        aceleracionesLongitudinales = new float[capacidadInicial];
+        aceleracionesLaterales = new float[capacidadInicial];
+    }
+
+    /**
+     * Añade una muestra; el lote crece si hace falta
+     * @param limiteKmh Límite de la vía, o 0 si no se conoce (no se evalúa el exceso)
+     */
+    public void agregar(long idVehiculo, long marcaTiempoMs, int velocidadKmh, int limiteKmh,
+                        float aceleracionLongitudinal, float aceleracionLateral) {
+        if (cantidad == idsVehiculo.length) {
+            crecer();
+        }
+        idsVehiculo[cantidad] = idVehiculo;
+        marcasTiempoMs[cantidad] = marcaTiempoMs;
+        velocidadesKmh[cantidad] = velocidadKmh;
+        limitesKmh[cantidad] = limiteKmh;
+        aceleracionesLongitudinales[cantidad] = aceleracionLongitudinal;
+        aceleracionesLaterales[cantidad] = aceleracionLateral;
+        cantidad++;
+    }
+
+    public void vaciar() {
+        cantidad = 0;
+    }
+
+    public int obtenerCantidad() {
+        return cantidad;
+    }
+
+    long obtenerIdVehiculo(int indice) {
+        return idsVehiculo[indice];
+    }
+
+    long obtenerMarcaTiempoMs(int indice) {
+        return marcasTiempoMs[indice];
+    }
+
+    int obtenerVelocidadKmh(int indice) {
+        return velocidadesKmh[indice];
+    }
+
+    int obtenerLimiteKmh(int indice) {
+        return limitesKmh[indice];
+    }
+
+    float obtenerAceleracionLongitudinal(int indice) {
+        return aceleracionesLongitudinales[indice];
+    }
+
+    float obtenerAceleracionLateral(int indice) {
+        return aceleracionesLaterales[indice];
+    }
+
+    private void crecer() {
+        int capacidad = idsVehiculo.length * 2;
+        idsVehiculo = Arrays.copyOf(idsVehiculo, capacidad);
+        marcasTiempoMs = Arrays.copyOf(marcasTiempoMs, capacidad);
+        velocidadesKmh = Arrays.copyOf(velocidadesKmh, capacidad);
+        limitesKmh = Arrays.copyOf(limitesKmh, capacidad);
+        aceleracionesLongitudinales = Arrays.copyOf(aceleracionesLongitudinales, capacidad);
+        aceleracionesLaterales = Arrays.copyOf(aceleracionesLaterales, capacidad);
+    }
+}
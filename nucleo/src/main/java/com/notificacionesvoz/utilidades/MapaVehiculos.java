@@ -0,0 +1,125 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Mapa de id de vehículo (long) a valor, con direccionamiento abierto
+ *
+ * Las claves se guardan en un long[] sin envolver en Long, así que buscar un vehículo
+ * no reserva memoria y recorre posiciones contiguas (sondeo lineal). La tabla se
+ * duplica al superar la mitad de ocupación. No es thread-safe.
+ */
+final class MapaVehiculos<V> {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private long[] claves;
+    private Object[] valores;
+    private int cantidad;
+
+    MapaVehiculos() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    MapaVehiculos(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(CAPACIDAD_INICIAL, capacidadEsperada * 2 - 1)) << 1;
+        claves = new long[capacidad];
+        valores = new Object[capacidad];
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V obtener(long clave) {
+        int mascara = claves.length - 1;
+        for (int i = posicion(clave, mascara); ; i = (i + 1) & mascara) {
+            Object valor = valores[i];
+            if (valor == null) {
+                return null;
+            }
+            if (claves[i] == clave) {
+                return (V) valor;
+            }
+        }
+    }
+
+    void poner(long clave, @NonNull V valor) {
+        if (2 * (cantidad + 1) > claves.length) {
+            redimensionar(claves.length * 2);
+        }
+        int mascara = claves.length - 1;
+        for (int i = posicion(clave, mascara); ; i = (i + 1) & mascara) {
+            if (valores[i] == null) {
+                claves[i] = clave;
+                valores[i] = valor;
+                cantidad++;
+                return;
+            }
+            if (claves[i] == clave) {
+                valores[i] = valor;
+                return;
+            }
+        }
+    }
+
+    int obtenerCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Conserva solo las entradas que cumplen el filtro, reconstruyendo la tabla
+     * @return Número de entradas eliminadas
+     */
+    @SuppressWarnings("unchecked")
+    int retener(@NonNull Filtro<V> filtro) {
+        long[] clavesAnteriores = claves;
+        Object[] valoresAnteriores = valores;
+        claves = new long[clavesAnteriores.length];
+        valores = new Object[valoresAnteriores.length];
+        int anteriores = cantidad;
+        cantidad = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            Object valor = valoresAnteriores[i];
+            if (valor != null && filtro.conservar((V) valor)) {
+                poner(clavesAnteriores[i], (V) valor);
+            }
+        }
+        return anteriores - cantidad;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void redimensionar(int capacidad) {
+        long[] clavesAnteriores = claves;
+        Object[] valoresAnteriores = valores;
+        claves = new long[capacidad];
+        valores = new Object[capacidad];
+        cantidad = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (valoresAnteriores[i] != null) {
+                poner(clavesAnteriores[i], (V) valoresAnteriores[i]);
+            }
+        }
+    }
+
+    /**
+     * Dispersión de la clave (finalizador de MurmurHash3): ids consecutivos no
+     * deben acabar en posiciones consecutivas
+     */
+    static int dispersar(long clave) {
+        long h = clave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int posicion(long clave, int mascara) {
+        return dispersar(clave) & mascara;
+    }
+
+    interface Filtro<V> {
+        boolean conservar(@NonNull V valor);
+    }
+}
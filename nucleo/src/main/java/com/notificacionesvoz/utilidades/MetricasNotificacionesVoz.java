@@ -0,0 +1,249 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas del flujo de notificaciones de voz
+ *
+ * Contadores de eventos (solicitadas, iniciadas, descartadas por motivo…) e
+ * histogramas de latencia por fase, prioridad y categoría. El registro no usa
+ * bloqueos y no reserva memoria en el camino crítico salvo la primera vez que
+ * aparece una categoría. {@link #obtenerInstantanea()} devuelve una copia
+ * inmutable apta para enviarse a telemetría.
+ */
+public class MetricasNotificacionesVoz {
+
+    /**
+     * Eventos contabilizados
+     */
+    public enum Evento {
+        SOLICITADA,
+        INICIADA,
+        COMPLETADA,
+        ERROR,
+        INTERRUMPIDA,
+        FUSIONADA,
+        SUPRIMIDA,
+        DESCARTADA_DESHABILITADA,
+        DESCARTADA_NO_DISPONIBLE,
+        DESCARTADA_COLA_LLENA,
+        DESCARTADA_REEMPLAZADA,
+        DESCARTADA_DETENIDA,
+        CANCELADA
+    }
+
+    /**
+     * Fases medidas de cada notificación
+     */
+    public enum Fase {
+        /** Desde que el repositorio acepta la notificación hasta onStart del motor */
+        ESPERA,
+        /** Desde onStart hasta onDone */
+        REPRODUCCION
+    }
+
+    private static final int NUMERO_PRIORIDADES = NotificacionVoz.Prioridad.values().length;
+
+    private final LongAdder[] contadores = new LongAdder[Evento.values().length];
+    private final HistogramaLatencia[] latenciasPorPrioridad;
+    private final ConcurrentHashMap<String, HistogramaLatencia[]> latenciasPorCategoria = new ConcurrentHashMap<>();
+    private final AtomicLong profundidadMaximaCola = new AtomicLong();
+
+    public MetricasNotificacionesVoz() {
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new LongAdder();
+        }
+        latenciasPorPrioridad = new HistogramaLatencia[Fase.values().length * NUMERO_PRIORIDADES];
+        for (int i = 0; i < latenciasPorPrioridad.length; i++) {
+            latenciasPorPrioridad[i] = new HistogramaLatencia();
+        }
+    }
+
+    /**
+     * Incrementa el contador de un evento
+     */
+    public void registrar(@NonNull Evento evento) {
+        contadores[evento.ordinal()].increment();
+    }
+
+    /**
+     * Incrementa el contador de un evento en una cantidad
+     */
+    public void registrar(@NonNull Evento evento, long cantidad) {
+        contadores[evento.ordinal()].add(cantidad);
+    }
+
+    /**
+     * Registra la duración de una fase de una notificación
+     * @param fase Fase medida
+     * @param notificacion Notificación medida (aporta prioridad y categoría)
+     * @param duracionMs Duración en milisegundos
+     */
+    public void registrarLatencia(@NonNull Fase fase, @NonNull NotificacionVoz notificacion, long duracionMs) {
+        latenciasPorPrioridad[indice(fase, notificacion.obtenerPrioridad())].registrar(duracionMs);
+
+        String categoria = notificacion.obtenerCategoria();
+        if (categoria != null) {
+            HistogramaLatencia[] porFase = latenciasPorCategoria.get(categoria);
+            if (porFase == null) {
+                porFase = latenciasPorCategoria.computeIfAbsent(categoria, clave -> crearPorFase());
+            }
+            porFase[fase.ordinal()].registrar(duracionMs);
+        }
+    }
+
+    /**
+     * Registra la profundidad de cola observada, conservando el máximo
+     */
+    public void registrarProfundidadCola(int profundidad) {
+        long maximo = profundidadMaximaCola.get();
+        while (profundidad > maximo && !profundidadMaximaCola.compareAndSet(maximo, profundidad)) {
+            maximo = profundidadMaximaCola.get();
+        }
+    }
+
+    /**
+     * Obtiene una copia inmutable de todas las métricas
+     */
+    @NonNull
+    public Instantanea obtenerInstantanea() {
+        long[] valores = new long[contadores.length];
+        for (int i = 0; i < contadores.length; i++) {
+            valores[i] = contadores[i].sum();
+        }
+
+        HistogramaLatencia.Instantanea[] porPrioridad = new HistogramaLatencia.Instantanea[latenciasPorPrioridad.length];
+        for (int i = 0; i < porPrioridad.length; i++) {
+            porPrioridad[i] = latenciasPorPrioridad[i].obtenerInstantanea();
+        }
+
+        Map<String, HistogramaLatencia.Instantanea[]> porCategoria = new HashMap<>();
+        for (Map.Entry<String, HistogramaLatencia[]> entrada : latenciasPorCategoria.entrySet()) {
+            HistogramaLatencia[] porFase = entrada.getValue();
+            HistogramaLatencia.Instantanea[] copia = new HistogramaLatencia.Instantanea[porFase.length];
+            for (int i = 0; i < porFase.length; i++) {
+                copia[i] = porFase[i].obtenerInstantanea();
+            }
+            porCategoria.put(entrada.getKey(), copia);
+        }
+
+        return new Instantanea(valores, porPrioridad, porCategoria, profundidadMaximaCola.get());
+    }
+
+    /**
+     * Pone a cero todas las métricas (p. ej. tras enviarlas a telemetría)
+     */
+    public void reiniciar() {
+        for (LongAdder contador : contadores) {
+            contador.reset();
+        }
+        for (HistogramaLatencia histograma : latenciasPorPrioridad) {
+            histograma.reiniciar();
+        }
+        latenciasPorCategoria.clear();
+        profundidadMaximaCola.set(0);
+    }
+
+    private static int indice(Fase fase, NotificacionVoz.Prioridad prioridad) {
+        return fase.ordinal() * NUMERO_PRIORIDADES + prioridad.ordinal();
+    }
+
+    private static HistogramaLatencia[] crearPorFase() {
+        HistogramaLatencia[] porFase = new HistogramaLatencia[Fase.values().length];
+        for (int i = 0; i < porFase.length; i++) {
+            porFase[i] = new HistogramaLatencia();
+        }
+        return porFase;
+    }
+
+    /**
+     * Copia inmutable de las métricas en un instante
+     */
+    public static final class Instantanea {
+        private final long[] contadores;
+        private final HistogramaLatencia.Instantanea[] latenciasPorPrioridad;
+        private final Map<String, HistogramaLatencia.Instantanea[]> latenciasPorCategoria;
+        private final long profundidadMaximaCola;
+
+        Instantanea(long[] contadores, HistogramaLatencia.Instantanea[] latenciasPorPrioridad,
+                    Map<String, HistogramaLatencia.Instantanea[]> latenciasPorCategoria,
+                    long profundidadMaximaCola) {
+            this.contadores = contadores;
+            this.latenciasPorPrioridad = latenciasPorPrioridad;
+            this.latenciasPorCategoria = latenciasPorCategoria;
+            this.profundidadMaximaCola = profundidadMaximaCola;
+        }
+
+        public long obtenerContador(@NonNull Evento evento) {
+            return contadores[evento.ordinal()];
+        }
+
+        @NonNull
+        public HistogramaLatencia.Instantanea obtenerLatencia(@NonNull Fase fase,
+                                                              @NonNull NotificacionVoz.Prioridad prioridad) {
+            return latenciasPorPrioridad[indice(fase, prioridad)];
+        }
+
+        /**
+         * @return El histograma de la categoría, o null si no se ha medido ninguna
+         */
+        @Nullable
+        public HistogramaLatencia.Instantanea obtenerLatencia(@NonNull Fase fase, @NonNull String categoria) {
+            HistogramaLatencia.Instantanea[] porFase = latenciasPorCategoria.get(categoria);
+            return porFase != null ? porFase[fase.ordinal()] : null;
+        }
+
+        @NonNull
+        public Set<String> obtenerCategorias() {
+            return Collections.unmodifiableSet(latenciasPorCategoria.keySet());
+        }
+
+        public long obtenerProfundidadMaximaCola() {
+            return profundidadMaximaCola;
+        }
+
+        /**
+         * Aplana las métricas en pares nombre → valor para enviarlas a telemetría.
+         * Las latencias se exportan como total, p50, p90, p99 y máximo en milisegundos.
+         */
+        @NonNull
+        public Map<String, Long> aMapa() {
+            Map<String, Long> mapa = new LinkedHashMap<>();
+            for (Evento evento : Evento.values()) {
+                mapa.put("eventos." + evento.name().toLowerCase(), contadores[evento.ordinal()]);
+            }
+            mapa.put("cola.profundidad_maxima", profundidadMaximaCola);
+            for (Fase fase : Fase.values()) {
+                String prefijoFase = "latencia." + fase.name().toLowerCase();
+                for (NotificacionVoz.Prioridad prioridad : NotificacionVoz.Prioridad.values()) {
+                    exportar(mapa, prefijoFase + ".prioridad." + prioridad.name().toLowerCase(),
+                            obtenerLatencia(fase, prioridad));
+                }
+                for (Map.Entry<String, HistogramaLatencia.Instantanea[]> entrada : latenciasPorCategoria.entrySet()) {
+                    exportar(mapa, prefijoFase + ".categoria." + entrada.getKey(), entrada.getValue()[fase.ordinal()]);
+                }
+            }
+            return mapa;
+        }
+
+        private static void exportar(Map<String, Long> mapa, String prefijo, HistogramaLatencia.Instantanea histograma) {
+            mapa.put(prefijo + ".total", histograma.obtenerTotal());
+            mapa.put(prefijo + ".p50", histograma.obtenerPercentil(0.50));
+            mapa.put(prefijo + ".p90", histograma.obtenerPercentil(0.90));
+            mapa.put(prefijo + ".p99", histograma.obtenerPercentil(0.99));
+            mapa.put(prefijo + ".max", histograma.obtenerMaximo());
+        }
+    }
+}
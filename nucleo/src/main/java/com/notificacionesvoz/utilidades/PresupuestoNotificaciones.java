@@ -0,0 +1,101 @@
+package com.notificacionesvoz.utilidades;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto global de notificaciones: como máximo N en cada ventana de tiempo
+ *
+ * Equivale a un token bucket de capacidad N que se rellena a razón de N por
+ * ventana, implementado como GCRA: todo el estado es un único instante teórico
+ * de llegada en un AtomicLong. Cada comprobación es O(1), sin bloqueos y con
+ * memoria constante.
+ *
+ * Los instantes internos se miden en N-ésimos de milisegundo, de modo que el
+ * intervalo entre emisiones (ventana / N) es exacto aunque la ventana no sea
+ * múltiplo de N.
+ */
+public class PresupuestoNotificaciones {
+
+    private final int maximoNotificaciones;
+    private final long ventanaMs;
+    // En N-ésimos de milisegundo
+    private final long intervalo;
+    private final long tolerancia;
+    private final AtomicLong instanteTeorico = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Constructor
+     * @param maximoNotificaciones Número máximo de notificaciones por ventana
+     * @param ventanaMs Duración de la ventana en milisegundos
+     */
+    public PresupuestoNotificaciones(int maximoNotificaciones, long ventanaMs) {
+        if (maximoNotificaciones <= 0 || ventanaMs <= 0) {
+            throw new IllegalArgumentException("El máximo y la ventana deben ser mayores que 0");
+        }
+        this.maximoNotificaciones = maximoNotificaciones;
+        this.ventanaMs = ventanaMs;
+        this.intervalo = ventanaMs;
+        this.tolerancia = ventanaMs * (maximoNotificaciones - 1);
+    }
+
+    /**
+     * Intenta consumir una unidad del presupuesto
+     * @param ahoraMs Instante actual según el reloj del llamador
+     * @return true si hay presupuesto disponible
+     */
+    public boolean intentarConsumir(long ahoraMs) {
+        long ahora = ahoraMs * maximoNotificaciones;
+        while (true) {
+            long anterior = instanteTeorico.get();
+            long base = anterior == Long.MIN_VALUE ? ahora : Math.max(anterior, ahora);
+            if (base - ahora > tolerancia) {
+                return false;
+            }
+            if (instanteTeorico.compareAndSet(anterior, base + intervalo)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Devuelve una unidad consumida, p. ej. si la notificación se descartó después
+     */
+    public void devolver() {
+        while (true) {
+            long anterior = instanteTeorico.get();
+            if (anterior == Long.MIN_VALUE || instanteTeorico.compareAndSet(anterior, anterior - intervalo)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el tiempo hasta que vuelva a haber presupuesto disponible
+     * @param ahoraMs Instante actual según el reloj del llamador
+     * @return Milisegundos de espera, 0 si puede notificar
+     */
+    public long obtenerEsperaMs(long ahoraMs) {
+        long anterior = instanteTeorico.get();
+        if (anterior == Long.MIN_VALUE) {
+            return 0;
+        }
+        long espera = anterior - ahoraMs * maximoNotificaciones - tolerancia;
+        // Redondeo hacia arriba: antes de ese milisegundo aún no habría presupuesto
+        return espera > 0 ? (espera + maximoNotificaciones - 1) / maximoNotificaciones : 0;
+    }
+
+    /**
+     * Restaura el presupuesto completo
+     */
+    public void reiniciar() {
+        instanteTeorico.set(Long.MIN_VALUE);
+    }
+
+    public int obtenerMaximoNotificaciones() {
+        return maximoNotificaciones;
+    }
+
+    public long obtenerVentanaMs() {
+        return ventanaMs;
+    }
+}
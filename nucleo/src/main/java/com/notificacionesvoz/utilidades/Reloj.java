@@ -0,0 +1,22 @@
+package com.notificacionesvoz.utilidades;
+
+/**
+ * Fuente de tiempo en milisegundos
+ *
+ * Permite sustituir el reloj real por uno virtual en tests o reproducciones.
+ * Los valores solo tienen sentido como diferencias entre dos lecturas.
+ */
+@FunctionalInterface
+public interface Reloj {
+
+    /**
+     * Reloj monotónico basado en System.nanoTime(): no retrocede ni salta con
+     * cambios de hora del sistema (NTP, ajustes manuales)
+     */
+    Reloj MONOTONICO = () -> System.nanoTime() / 1_000_000L;
+
+    /**
+     * Obtiene el instante actual en milisegundos
+     */
+    long ahoraMs();
+}
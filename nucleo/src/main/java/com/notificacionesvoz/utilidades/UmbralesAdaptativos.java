@@ -0,0 +1,215 @@
+package com.notificacionesvoz.utilidades;
+
+import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
+
+/**
+ * Umbrales de un conductor o vehículo calculados a partir de su propia conducción
+ *
+ * Se registran todas las muestras del conductor y, cada cierto tiempo, se llama a
+ * {@link #aplicar(AnalizadorComportamientoConductor)}: cada umbral pasa a ser un
+ * percentil de su distribución (p. ej. la frenada que solo supera el 0,1 % de las
+ * muestras). Así cada conductor recibe aproximadamente el mismo volumen de avisos,
+ * sea cual sea su vehículo, sin ajustar los umbrales a mano.
+ *
+ * Los umbrales resultantes se acotan entre unos límites de seguridad: un conductor
+ * muy suave no recibe avisos por maniobras normales y uno muy agresivo no deja de
+ * recibirlos. Mientras un canal no tenga el mínimo de muestras, su umbral no cambia.
+ *
+ * Usa memoria fija (unos 4 KB) independientemente de las muestras. No es thread-safe.
+ */
+public class UmbralesAdaptativos {
+
+    // Límites de seguridad de los umbrales adaptados
+    public static final float FRENADA_MAS_SUAVE = -3.0f; // m/s²
+    public static final float FRENADA_MAS_FUERTE = -12.0f; // m/s²
+    public static final float ACELERACION_MAS_SUAVE = 2.0f; // m/s²
+    public static final float ACELERACION_MAS_FUERTE = 8.0f; // m/s²
+    public static final float GIRO_MAS_SUAVE = 2.0f; // m/s²
+    public static final float GIRO_MAS_FUERTE = 9.0f; // m/s²
+    public static final int VELOCIDAD_MINIMA = 0; // km/h sobre el límite
+    public static final int VELOCIDAD_MAXIMA = 30; // km/h sobre el límite
+
+    private static final float ACELERACION_MAXIMA_HISTOGRAMA = 20.0f; // m/s², ~2 g
+    private static final int CUBETAS_ACELERACION = 256; // resolución ~0,16 m/s²
+    private static final int EXCESO_MAXIMO_HISTOGRAMA = 60; // km/h
+    private static final int CUBETAS_EXCESO = 120; // resolución 1 km/h
+
+    private final double percentilManiobras;
+    private final double percentilVelocidad;
+    private final long minimoMuestras;
+
+    private final EstadisticaEnLinea longitudinal;
+    private final EstadisticaEnLinea lateral; // en valor absoluto
+    private final EstadisticaEnLinea exceso; // velocidad - límite
+
+    private UmbralesAdaptativos(Constructor constructor) {
+        this.percentilManiobras = constructor.percentilManiobras;
+        this.percentilVelocidad = constructor.percentilVelocidad;
+        this.minimoMuestras = constructor.minimoMuestras;
+        this.longitudinal = new EstadisticaEnLinea(-ACELERACION_MAXIMA_HISTOGRAMA, ACELERACION_MAXIMA_HISTOGRAMA,
+            CUBETAS_ACELERACION, constructor.memoria);
+        this.lateral = new EstadisticaEnLinea(0, ACELERACION_MAXIMA_HISTOGRAMA,
+            CUBETAS_ACELERACION / 2, constructor.memoria);
+        this.exceso = new EstadisticaEnLinea(-EXCESO_MAXIMO_HISTOGRAMA, EXCESO_MAXIMO_HISTOGRAMA,
+            CUBETAS_EXCESO, constructor.memoria);
+    }
+
+    /**
+     * Registra una muestra del acelerómetro
+     * @param aceleracionLongitudinal m/s² (negativa al frenar)
+     * @param aceleracionLateral m/s²
+     */
+    public void registrarAceleracion(float aceleracionLongitudinal, float aceleracionLateral) {
+        longitudinal.agregar(aceleracionLongitudinal);
+        lateral.agregar(Math.abs(aceleracionLateral));
+    }
+
+    /**
+     * Registra una muestra de velocidad (se ignora si no se conoce el límite)
+     * @param limiteKmh Límite de la vía, o 0 o menos si no se conoce
+     */
+    public void registrarVelocidad(int velocidadKmh, int limiteKmh) {
+        if (limiteKmh > 0) {
+            exceso.agregar(velocidadKmh - limiteKmh);
+        }
+    }
+
+    /**
+     * Sustituye los umbrales del analizador por los percentiles de los canales que
+     * ya tienen muestras suficientes
+     * @return Número de umbrales actualizados (0 a 4)
+     */
+    public int aplicar(@NonNull AnalizadorComportamientoConductor analizador) {
+        int actualizados = 0;
+        if (longitudinal.obtenerCantidad() >= minimoMuestras) {
+            analizador.establecerUmbralFrenadaBrusca(acotar(
+                (float) longitudinal.obtenerCuantil(1 - percentilManiobras), FRENADA_MAS_FUERTE, FRENADA_MAS_SUAVE));
+            analizador.establecerUmbralAceleracionBrusca(acotar(
+                (float) longitudinal.obtenerCuantil(percentilManiobras), ACELERACION_MAS_SUAVE, ACELERACION_MAS_FUERTE));
+            actualizados += 2;
+        }
+        if (lateral.obtenerCantidad() >= minimoMuestras) {
+            analizador.establecerUmbralGiroBrusco(acotar(
+                (float) lateral.obtenerCuantil(percentilManiobras), GIRO_MAS_SUAVE, GIRO_MAS_FUERTE));
+            actualizados++;
+        }
+        if (exceso.obtenerCantidad() >= minimoMuestras) {
+            int umbral = (int) Math.ceil(exceso.obtenerCuantil(percentilVelocidad));
+            analizador.establecerUmbralVelocidad(Math.max(VELOCIDAD_MINIMA, Math.min(VELOCIDAD_MAXIMA, umbral)));
+            actualizados++;
+        }
+        return actualizados;
+    }
+
+    /**
+     * Aceleración longitudinal registrada (media, dispersión y cuantiles)
+     */
+    @NonNull
+    public EstadisticaEnLinea obtenerEstadisticaLongitudinal() {
+        return longitudinal;
+    }
+
+    /**
+     * Valor absoluto de la aceleración lateral registrada
+     */
+    @NonNull
+    public EstadisticaEnLinea obtenerEstadisticaLateral() {
+        return lateral;
+    }
+
+    /**
+     * Diferencia entre la velocidad y el límite registrada, en km/h
+     */
+    @NonNull
+    public EstadisticaEnLinea obtenerEstadisticaExcesoVelocidad() {
+        return exceso;
+    }
+
+    public void reiniciar() {
+        longitudinal.reiniciar();
+        lateral.reiniciar();
+        exceso.reiniciar();
+    }
+
+    private static float acotar(float valor, float minimo, float maximo) {
+        return Math.max(minimo, Math.min(maximo, valor));
+    }
+
+    /**
+     * Constructor de umbrales adaptativos; puede reutilizarse para crear los de
+     * muchos conductores con la misma configuración
+     */
+    public static class Constructor {
+        private double percentilManiobras = 0.999;
+        private double percentilVelocidad = 0.99;
+        private long minimoMuestras = 3000; // ~1 minuto a 50 Hz
+        private int memoria = EstadisticaEnLinea.MEMORIA_PREDETERMINADA;
+
+        /**
+         * Fracción de muestras que no supera los umbrales de maniobra; la frenada
+         * usa la cola opuesta (1 - percentil)
+         */
+        public Constructor establecerPercentilManiobras(@FloatRange(from = 0.5, to = 1.0) double percentil) {
+            if (percentil < 0.5 || percentil > 1.0) {
+                throw new IllegalArgumentException("El percentil debe estar entre 0.5 y 1.0");
+            }
+            this.percentilManiobras = percentil;
+            return this;
+        }
+
+        /**
+         * Fracción de muestras con límite conocido que no supera el umbral de velocidad
+         */
+        public Constructor establecerPercentilVelocidad(@FloatRange(from = 0.5, to = 1.0) double percentil) {
+            if (percentil < 0.5 || percentil > 1.0) {
+                throw new IllegalArgumentException("El percentil debe estar entre 0.5 y 1.0");
+            }
+            this.percentilVelocidad = percentil;
+            return this;
+        }
+
+        /**
+         * Muestras de un canal necesarias antes de adaptar su umbral; como mucho la
+         * mitad de la memoria, que es el peso que queda tras cada olvido
+         */
+        public Constructor establecerMinimoMuestras(long minimoMuestras) {
+            if (minimoMuestras <= 0) {
+                throw new IllegalArgumentException("El mínimo de muestras debe ser mayor que 0");
+            }
+            this.minimoMuestras = minimoMuestras;
+            return this;
+        }
+
+        /**
+         * Muestras tras las que el peso de las anteriores se reduce a la mitad; cuanto
+         * menor, antes se adaptan los umbrales a un cambio en la conducción
+         */
+        public Constructor establecerMemoria(int memoria) {
+            if (memoria < 2) {
+                throw new IllegalArgumentException("La memoria debe ser de al menos 2 muestras");
+            }
+            this.memoria = memoria;
+            return this;
+        }
+
+        public UmbralesAdaptativos construir() {
+            validar();
+            return new UmbralesAdaptativos(this);
+        }
+
+        /**
+         * Comprueba las restricciones entre parámetros
+         */
+        void validar() {
+            if (minimoMuestras > memoria / 2) {
+                throw new IllegalArgumentException("El mínimo de muestras (" + minimoMuestras
+                    + ") no puede superar la mitad de la memoria (" + memoria + ")");
+            }
+        }
+    }
+
+    public static Constructor constructor() {
+        return new Constructor();
+    }
+}
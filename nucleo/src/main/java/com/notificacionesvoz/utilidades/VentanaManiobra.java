@@ -0,0 +1,196 @@
+package com.notificacionesvoz.utilidades;
+
+/**
+ * Características de una magnitud en una ventana deslizante de tiempo
+ *
+ * Mantiene sobre buffers circulares de primitivos el jerk (derivada de la magnitud),
+ * el pico de la magnitud y del jerk, el tiempo sobre un umbral y la energía
+ * ∫ max(x, 0)² dt. Las sumas se actualizan al entrar y salir cada muestra, y los
+ * picos con colas monótonas, así que cada muestra cuesta O(1) amortizado.
+ *
+ * Los buffers empiezan pequeños y se duplican hasta {@link #MUESTRAS_MAXIMAS}; si la
+ * ventana contiene más muestras, se descartan las más antiguas. No es thread-safe.
+ */
+final class VentanaManiobra {
+
+    static final int MUESTRAS_MAXIMAS = 256;
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final float NS_POR_SEGUNDO = 1e9f;
+
+    private final long duracionNs;
+
+    // Indexados por secuencia de muestra & mascara
+    private long[] tiempos;
+    private float[] valores;
+    private float[] jerks;
+    private float[] energias;
+    private float[] segundosSobreUmbral;
+    private int mascara;
+    private int primera; // secuencia de la muestra más antigua
+    private int siguiente; // secuencia de la próxima muestra
+
+    // Colas monótonas (valor decreciente) de secuencias, indexadas por contador & mascara
+    private int[] colaPico;
+    private int inicioPico;
+    private int finPico;
+    private int[] colaJerk;
+    private int inicioJerk;
+    private int finJerk;
+
+    private double energia;
+    private double segundosSobre;
+    private float jerk;
+
+    VentanaManiobra(long duracionMs) {
+        this.duracionNs = duracionMs * 1_000_000L;
+        reservar(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Añade una muestra; las marcas de tiempo deben ser crecientes
+     * @param umbral Umbral para el tiempo sobre umbral (cuenta el intervalo entre dos muestras que lo superan)
+     */
+    void agregar(long marcaTiempoNs, float valor, float umbral) {
+        float energiaMuestra = 0f;
+        float segundosMuestra = 0f;
+        jerk = 0f;
+        if (siguiente != primera) {
+            int anterior = (siguiente - 1) & mascara;
+            long intervaloNs = marcaTiempoNs - tiempos[anterior];
+            if (intervaloNs > 0) {
+                float segundos = intervaloNs / NS_POR_SEGUNDO;
+                float positivo = Math.max(valor, 0f);
+                jerk = (valor - valores[anterior]) / segundos;
+                energiaMuestra = positivo * positivo * segundos;
+                if (valor > umbral && valores[anterior] > umbral) {
+                    segundosMuestra = segundos;
+                }
+            }
+        }
+
+        while (siguiente != primera && tiempos[primera & mascara] <= marcaTiempoNs - duracionNs) {
+            expulsar();
+        }
+        if (siguiente - primera == tiempos.length) {
+            if (tiempos.length < MUESTRAS_MAXIMAS) {
+                reservar(tiempos.length * 2);
+            } else {
+                expulsar();
+            }
+        }
+
+        int secuencia = siguiente;
+        int i = secuencia & mascara;
+        tiempos[i] = marcaTiempoNs;
+        valores[i] = valor;
+        jerks[i] = jerk;
+        energias[i] = energiaMuestra;
+        segundosSobreUmbral[i] = segundosMuestra;
+        energia += energiaMuestra;
+        segundosSobre += segundosMuestra;
+
+        while (finPico != inicioPico && valores[colaPico[(finPico - 1) & mascara] & mascara] <= valor) {
+            finPico--;
+        }
+        colaPico[finPico++ & mascara] = secuencia;
+        while (finJerk != inicioJerk && jerks[colaJerk[(finJerk - 1) & mascara] & mascara] <= jerk) {
+            finJerk--;
+        }
+        colaJerk[finJerk++ & mascara] = secuencia;
+        siguiente++;
+    }
+
+    /**
+     * Jerk de la última muestra (unidades de la magnitud por segundo)
+     */
+    float obtenerJerk() {
+        return jerk;
+    }
+
+    float obtenerPico() {
+        return finPico != inicioPico ? valores[colaPico[inicioPico & mascara] & mascara] : 0f;
+    }
+
+    float obtenerPicoJerk() {
+        return finJerk != inicioJerk ? jerks[colaJerk[inicioJerk & mascara] & mascara] : 0f;
+    }
+
+    long obtenerTiempoSobreUmbralMs() {
+        return Math.round(segundosSobre * 1000);
+    }
+
+    /**
+     * ∫ max(x, 0)² dt en la ventana; para aceleraciones, m²/s³
+     */
+    float obtenerEnergia() {
+        return (float) energia;
+    }
+
+    void reiniciar() {
+        primera = siguiente;
+        inicioPico = finPico;
+        inicioJerk = finJerk;
+        energia = 0;
+        segundosSobre = 0;
+        jerk = 0f;
+    }
+
+    private void expulsar() {
+        int secuencia = primera++;
+        int i = secuencia & mascara;
+        energia -= energias[i];
+        segundosSobre -= segundosSobreUmbral[i];
+        if (finPico != inicioPico && colaPico[inicioPico & mascara] == secuencia) {
+            inicioPico++;
+        }
+        if (finJerk != inicioJerk && colaJerk[inicioJerk & mascara] == secuencia) {
+            inicioJerk++;
+        }
+        if (primera == siguiente) {
+            // Ventana vacía: se descarta el error de redondeo acumulado en las sumas
+            energia = 0;
+            segundosSobre = 0;
+        }
+    }
+
+    /**
+     * Reserva buffers de la capacidad indicada (potencia de 2) conservando el contenido
+     */
+    private void reservar(int capacidad) {
+        long[] tiemposAnteriores = tiempos;
+        float[] valoresAnteriores = valores;
+        float[] jerksAnteriores = jerks;
+        float[] energiasAnteriores = energias;
+        float[] segundosAnteriores = segundosSobreUmbral;
+        int[] colaPicoAnterior = colaPico;
+        int[] colaJerkAnterior = colaJerk;
+        int mascaraAnterior = mascara;
+
+        tiempos = new long[capacidad];
+        valores = new float[capacidad];
+        jerks = new float[capacidad];
+        energias = new float[capacidad];
+        segundosSobreUmbral = new float[capacidad];
+        colaPico = new int[capacidad];
+        colaJerk = new int[capacidad];
+        mascara = capacidad - 1;
+        if (tiemposAnteriores == null) {
+            return;
+        }
+        for (int s = primera; s != siguiente; s++) {
+            int origen = s & mascaraAnterior;
+            int destino = s & mascara;
+            tiempos[destino] = tiemposAnteriores[origen];
+            valores[destino] = valoresAnteriores[origen];
+            jerks[destino] = jerksAnteriores[origen];
+            energias[destino] = energiasAnteriores[origen];
+            segundosSobreUmbral[destino] = segundosAnteriores[origen];
+        }
+        for (int k = inicioPico; k != finPico; k++) {
+            colaPico[k & mascara] = colaPicoAnterior[k & mascaraAnterior];
+        }
+        for (int k = inicioJerk; k != finJerk; k++) {
+            colaJerk[k & mascara] = colaJerkAnterior[k & mascaraAnterior];
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.notificacionesvoz.datos.bitacora;
+
+import com.notificacionesvoz.dominio.modelo.MetadatosNotificacion;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para BitacoraNotificaciones y LectorBitacora
+ */
+public class BitacoraNotificacionesTest {
+
+    // Cabecera + 3 registros por segmento
+    private static final long TAMANO_SEGMENTO = 4L * BitacoraNotificaciones.TAMANO_REGISTRO;
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    private BitacoraNotificaciones abrir(File directorio) throws IOException {
+        return new BitacoraNotificaciones(directorio, TAMANO_SEGMENTO, () -> 1_700_000_000_000L);
+    }
+
+    private NotificacionVoz notificacion(String mensaje) {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje(mensaje)
+                .establecerCategoria("exceso_velocidad")
+                .establecerPrioridad(NotificacionVoz.Prioridad.ALTA)
+                .establecerMetadatosTipados(new MetadatosNotificacion.Constructor()
+                        .establecerDecimal(MetadatosNotificacion.VELOCIDAD_KMH, 92.5)
+                        .establecerEntero(MetadatosNotificacion.LIMITE_VELOCIDAD_KMH, 80)
+                        .construir())
+                .construir();
+    }
+
+    private List<RegistroBitacora> leer(File directorio) {
+        List<RegistroBitacora> registros = new ArrayList<>();
+        for (RegistroBitacora registro : new LectorBitacora(directorio)) {
+            registros.add(registro);
+        }
+        return registros;
+    }
+
+    @Test
+    public void testRegistrar_seLeeIgualQueSeEscribio() throws IOException {
+        File directorio = carpeta.newFolder();
+        NotificacionVoz notificacion = notificacion("Reduce la velocidad");
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            assertTrue(bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion));
+            assertTrue(bitacora.registrar(RegistroBitacora.Evento.COMPLETADA, notificacion));
+        }
+
+        List<RegistroBitacora> registros = leer(directorio);
+        assertEquals(2, registros.size());
+        RegistroBitacora registro = registros.get(1);
+        assertEquals(2, registro.obtenerSecuencia());
+        assertEquals(1_700_000_000_000L, registro.obtenerMarcaTiempoMs());
+        assertEquals(RegistroBitacora.Evento.COMPLETADA, registro.obtenerEvento());
+        assertEquals(NotificacionVoz.Prioridad.ALTA, registro.obtenerPrioridad());
+        assertEquals("Reduce la velocidad".hashCode(), registro.obtenerHuellaMensaje());
+        assertEquals("exceso_velocidad".hashCode(), registro.obtenerHuellaCategoria());
+        assertEquals(notificacion.obtenerMetadatosTipados(), registro.obtenerMetadatos());
+    }
+
+    @Test
+    public void testRegistrar_fusionadaYSuprimida_seLeenComoEventosDistintos() throws IOException {
+        File directorio = carpeta.newFolder();
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            bitacora.registrar(RegistroBitacora.Evento.FUSIONADA, notificacion("uno"));
+            bitacora.registrar(RegistroBitacora.Evento.SUPRIMIDA, notificacion("dos"));
+        }
+
+        List<RegistroBitacora> registros = leer(directorio);
+        assertEquals(RegistroBitacora.Evento.FUSIONADA, registros.get(0).obtenerEvento());
+        assertEquals(RegistroBitacora.Evento.SUPRIMIDA, registros.get(1).obtenerEvento());
+    }
+
+    @Test
+    public void testRegistrar_segmentoLleno_rotaYElLectorLosRecorreTodos() throws IOException {
+        File directorio = carpeta.newFolder();
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            for (int i = 0; i < 7; i++) {
+                bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion("mensaje " + i));
+            }
+        }
+
+        assertEquals(3, FormatoBitacora.listarSegmentos(directorio).size());
+        List<RegistroBitacora> registros = leer(directorio);
+        assertEquals(7, registros.size());
+        for (int i = 0; i < registros.size(); i++) {
+            assertEquals(i + 1, registros.get(i).obtenerSecuencia());
+        }
+    }
+
+    @Test
+    public void testReabrir_continuaTrasElUltimoRegistro() throws IOException {
+        File directorio = carpeta.newFolder();
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            for (int i = 0; i < 4; i++) {
+                bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion("antes " + i));
+            }
+        }
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            assertEquals(4, bitacora.obtenerUltimaSecuencia());
+            bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion("despues"));
+        }
+
+        List<RegistroBitacora> registros = leer(directorio);
+        assertEquals(5, registros.size());
+        assertEquals("despues".hashCode(), registros.get(4).obtenerHuellaMensaje());
+    }
+
+    @Test
+    public void testRegistroRoto_elLectorSeDetieneYAlReabrirSeSobrescribe() throws IOException {
+        File directorio = carpeta.newFolder();
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion("uno"));
+            bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion("dos"));
+        }
+        // Simula un cierre abrupto a mitad del segundo registro
+        File segmento = FormatoBitacora.listarSegmentos(directorio).get(0);
+        try (RandomAccessFile archivo = new RandomAccessFile(segmento, "rw")) {
+            archivo.seek(2L * BitacoraNotificaciones.TAMANO_REGISTRO + FormatoBitacora.VALORES);
+            archivo.writeLong(-1L);
+        }
+        assertEquals(1, leer(directorio).size());
+
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            assertEquals(1, bitacora.obtenerUltimaSecuencia());
+            bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion("tres"));
+        }
+        List<RegistroBitacora> registros = leer(directorio);
+        assertEquals(2, registros.size());
+        assertEquals("tres".hashCode(), registros.get(1).obtenerHuellaMensaje());
+    }
+
+    @Test
+    public void testExportarCsv_unaFilaPorRegistro() throws IOException {
+        File directorio = carpeta.newFolder();
+        try (BitacoraNotificaciones bitacora = abrir(directorio)) {
+            bitacora.registrar(RegistroBitacora.Evento.SUPRIMIDA, notificacion("uno"));
+        }
+        StringBuilder csv = new StringBuilder();
+
+        assertEquals(1, new LectorBitacora(directorio).exportarCsv(csv));
+        String[] lineas = csv.toString().split("\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[1].startsWith("1,1700000000000,SUPRIMIDA,ALTA,"));
+        assertTrue(lineas[1].endsWith("velocidad_kmh=92.5;limite_velocidad_kmh=80"));
+    }
+
+    @Test
+    public void testRegistrar_cerrada_devuelveFalse() throws IOException {
+        BitacoraNotificaciones bitacora = abrir(carpeta.newFolder());
+        bitacora.close();
+
+        assertFalse(bitacora.registrar(RegistroBitacora.Evento.SOLICITADA, notificacion("uno")));
+        assertEquals(1, bitacora.obtenerRegistrosPerdidos());
+    }
+}
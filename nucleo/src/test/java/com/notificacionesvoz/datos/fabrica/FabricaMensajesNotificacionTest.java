@@ -0,0 +1,53 @@
+package com.notificacionesvoz.datos.fabrica;
+
+import com.notificacionesvoz.dominio.modelo.TipoNotificacion;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para FabricaMensajesNotificacion
+ */
+public class FabricaMensajesNotificacionTest {
+
+    @Test
+    public void testObtenerMensaje_espanolConYSinPais() {
+        String esperado = "Frenada brusca detectada. Conduzca con precaución.";
+
+        assertEquals(esperado, FabricaMensajesNotificacion.obtenerMensajeEspanol(TipoNotificacion.FRENADA_BRUSCA));
+        assertEquals(esperado, FabricaMensajesNotificacion.obtenerMensaje(TipoNotificacion.FRENADA_BRUSCA,
+                new Locale("es", "MX")));
+    }
+
+    @Test
+    public void testObtenerMensaje_idiomaSinCatalogo_usaElBase() {
+        assertEquals("Harsh braking detected. Drive carefully.",
+                FabricaMensajesNotificacion.obtenerMensaje(TipoNotificacion.FRENADA_BRUSCA, Locale.JAPANESE));
+    }
+
+    @Test
+    public void testObtenerMensaje_sinPlantilla_usaLaDescripcion() {
+        assertEquals(TipoNotificacion.PERSONALIZADA.obtenerDescripcion(),
+                FabricaMensajesNotificacion.obtenerMensajeIngles(TipoNotificacion.PERSONALIZADA));
+    }
+
+    @Test
+    public void testObtenerMensajeExcesoVelocidad_formateaLosDatos() {
+        assertEquals("Atención, está conduciendo a 95 kilómetros por hora. El límite es 80.",
+                FabricaMensajesNotificacion.obtenerMensajeExcesoVelocidad(95, 80));
+        assertEquals("Attention, you are driving at 95 kilometers per hour. The limit is 80.",
+                FabricaMensajesNotificacion.obtenerMensajeExcesoVelocidad(95, 80, Locale.UK));
+    }
+
+    @Test
+    public void testObtenerMensajesPredefinidos_unoPorTipoConPlantilla() {
+        List<String> mensajes = FabricaMensajesNotificacion.obtenerMensajesPredefinidos(new Locale("es"));
+
+        assertEquals(4, mensajes.size());
+        assertTrue(mensajes.contains("Giro brusco detectado. Reduzca la velocidad en las curvas."));
+    }
+}
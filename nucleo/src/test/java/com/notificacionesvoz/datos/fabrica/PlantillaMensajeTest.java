@@ -0,0 +1,58 @@
+package com.notificacionesvoz.datos.fabrica;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para PlantillaMensaje
+ */
+public class PlantillaMensajeTest {
+
+    @Test
+    public void testFormatear_sinArgumentos_devuelveSiempreLaMismaCadena() {
+        PlantillaMensaje plantilla = PlantillaMensaje.compilar("Frenada brusca detectada.");
+
+        assertEquals(0, plantilla.obtenerNumeroArgumentos());
+        assertSame(plantilla.formatear(), plantilla.formatear());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFormatear_sinArgumentosEnPlantillaConArgumentos_lanzaExcepcion() {
+        PlantillaMensaje.compilar("Va a {0} km/h.").formatear();
+    }
+
+    @Test
+    public void testFormatear_dosArgumentos_sustituyeEnOrden() {
+        PlantillaMensaje plantilla = PlantillaMensaje.compilar("Va a {0} km/h. El límite es {1}.");
+
+        assertEquals(2, plantilla.obtenerNumeroArgumentos());
+        assertEquals("Va a 95 km/h. El límite es 80.", plantilla.formatear(95, 80));
+    }
+
+    @Test
+    public void testFormatear_argumentosReordenados() {
+        PlantillaMensaje plantilla = PlantillaMensaje.compilar("{1} < {0}");
+
+        assertEquals("80 < 95", plantilla.formatear(95, 80));
+        assertEquals("80 < 95", plantilla.formatear(new long[]{95, 80}));
+    }
+
+    @Test
+    public void testCompilar_llavesSinNumero_seCopianTalCual() {
+        PlantillaMensaje plantilla = PlantillaMensaje.compilar("{x} {} {0} {");
+
+        assertEquals("{x} {} 7 {", plantilla.formatear(7));
+    }
+
+    @Test
+    public void testEscribir_reutilizaElStringBuilder() {
+        PlantillaMensaje plantilla = PlantillaMensaje.compilar("[{0}]");
+        StringBuilder destino = new StringBuilder("a");
+
+        plantilla.escribir(destino, new long[]{1});
+        plantilla.escribir(destino, new long[]{2});
+
+        assertEquals("a[1][2]", destino.toString());
+    }
+}
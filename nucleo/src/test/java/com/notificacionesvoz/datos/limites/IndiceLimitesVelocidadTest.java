@@ -0,0 +1,96 @@
+package com.notificacionesvoz.datos.limites;
+
+import com.notificacionesvoz.utilidades.AnalizadorComportamientoConductor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para IndiceLimitesVelocidad
+ */
+public class IndiceLimitesVelocidadTest {
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Autovía hacia el norte (120), vía de servicio paralela hacia el sur a ~17 m (50)
+     * y una calle de doble sentido que las cruza (30)
+     */
+    private File escribirIndice() throws IOException {
+        File archivo = carpeta.newFile("limites.idx");
+        new IndiceLimitesVelocidad.Constructor()
+            .agregarTramosCsv(new StringReader(
+                "latitud_a,longitud_a,latitud_b,longitud_b,limite_kmh,solo_sentido_ab\n"
+                    + "40.40,-3.7000,40.42,-3.7000,120,1\n"
+                    + "# vía de servicio\n"
+                    + "40.42,-3.6998,40.40,-3.6998,50,1\n"
+                    + "40.41,-3.7100,40.41,-3.6900,30\n"))
+            .escribir(archivo);
+        return archivo;
+    }
+
+    @Test
+    public void testObtenerLimite_eligeElTramoSegunElRumbo() throws IOException {
+        IndiceLimitesVelocidad indice = new IndiceLimitesVelocidad(escribirIndice());
+
+        assertEquals(3, indice.obtenerNumeroTramos());
+        assertEquals(120, indice.obtenerLimiteKmh(40.405, -3.70001, 0f));
+        assertEquals(50, indice.obtenerLimiteKmh(40.405, -3.70001, 180f));
+        assertEquals(120, indice.obtenerLimiteKmh(40.405, -3.70001));
+    }
+
+    @Test
+    public void testObtenerLimite_dobleSentidoAdmiteAmbosRumbos() throws IOException {
+        IndiceLimitesVelocidad indice = new IndiceLimitesVelocidad(escribirIndice());
+
+        assertEquals(30, indice.obtenerLimiteKmh(40.41005, -3.705, 90f));
+        assertEquals(30, indice.obtenerLimiteKmh(40.41005, -3.705, 270f));
+        assertEquals(IndiceLimitesVelocidad.SIN_LIMITE, indice.obtenerLimiteKmh(40.41005, -3.705, 0f));
+    }
+
+    @Test
+    public void testObtenerLimite_lejosOFueraDelIndice_sinLimite() throws IOException {
+        IndiceLimitesVelocidad indice = new IndiceLimitesVelocidad(escribirIndice());
+
+        assertEquals(IndiceLimitesVelocidad.SIN_LIMITE, indice.obtenerLimiteKmh(40.405, -3.705));
+        assertEquals(IndiceLimitesVelocidad.SIN_LIMITE, indice.obtenerLimiteKmh(41.0, -3.0));
+    }
+
+    @Test
+    public void testEsExcesoVelocidad_conIndice() throws IOException {
+        IndiceLimitesVelocidad indice = new IndiceLimitesVelocidad(escribirIndice());
+        AnalizadorComportamientoConductor analizador = new AnalizadorComportamientoConductor();
+
+        assertTrue(analizador.esExcesoVelocidad(70, indice, 40.405, -3.70001, 180f));
+        assertFalse(analizador.esExcesoVelocidad(70, indice, 40.405, -3.70001, 0f));
+        assertFalse(analizador.esExcesoVelocidad(200, indice, 41.0, -3.0, 0f));
+    }
+
+    @Test(expected = IOException.class)
+    public void testAbrir_archivoTruncado_lanzaExcepcion() throws IOException {
+        File archivo = escribirIndice();
+        try (RandomAccessFile acceso = new RandomAccessFile(archivo, "rw")) {
+            acceso.setLength(acceso.length() - 1);
+        }
+        new IndiceLimitesVelocidad(archivo);
+    }
+
+    @Test
+    public void testAgregarTramosCsv_lineaMalFormada_indicaLaLinea() {
+        try {
+            new IndiceLimitesVelocidad.Constructor().agregarTramosCsv(new StringReader("40.4,-3.7,40.5,-3.7,0\n"));
+            fail("Se esperaba IOException");
+        } catch (IOException excepcion) {
+            assertTrue(excepcion.getMessage().startsWith("Línea 1"));
+        }
+    }
+}
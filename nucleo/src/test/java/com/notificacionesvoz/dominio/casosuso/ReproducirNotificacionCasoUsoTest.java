@@ -0,0 +1,160 @@
+package com.notificacionesvoz.dominio.casosuso;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.notificacionesvoz.dominio.modelo.ConfiguracionVoz;
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+import com.notificacionesvoz.dominio.repositorio.RepositorioNotificacionesVoz;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para ReproducirNotificacionCasoUso
+ */
+public class ReproducirNotificacionCasoUsoTest {
+
+    private RepositorioFalso repositorio;
+    private AtomicLong ahora;
+    private ReproducirNotificacionCasoUso casoUso;
+
+    @Before
+    public void setUp() {
+        repositorio = new RepositorioFalso();
+        ahora = new AtomicLong(0);
+        casoUso = new ReproducirNotificacionCasoUso(repositorio,
+                new FiltroNotificacionesDuplicadas(2000, 16, ahora::get));
+    }
+
+    private NotificacionVoz crear(String categoria, String mensaje) {
+        return new NotificacionVoz.Constructor()
+                .establecerCategoria(categoria)
+                .establecerMensaje(mensaje)
+                .construir();
+    }
+
+    @Test
+    public void testEjecutar_duplicadasEnVentana_seReproduceUnaVez() {
+        for (int i = 0; i < 10; i++) {
+            casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada"));
+            ahora.addAndGet(200);
+        }
+
+        assertEquals(1, repositorio.reproducidas.size());
+        assertEquals(9, casoUso.obtenerNotificacionesFusionadas());
+    }
+
+    @Test
+    public void testEjecutar_trasLaVentana_seReproduceDeNuevo() {
+        assertTrue(casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada")));
+        ahora.addAndGet(1999);
+        assertFalse(casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada")));
+        ahora.addAndGet(1);
+        assertTrue(casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada")));
+    }
+
+    @Test
+    public void testEjecutar_distintaCategoriaOTexto_noSeFusionan() {
+        casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada"));
+        casoUso.ejecutar(crear("giro_brusco", "Frenada brusca detectada"));
+        casoUso.ejecutar(crear("frenada_brusca", "Otro texto"));
+        casoUso.ejecutar(crear(null, "Frenada brusca detectada"));
+
+        assertEquals(4, repositorio.reproducidas.size());
+    }
+
+    @Test
+    public void testEjecutar_sinFiltro_reproduceTodas() {
+        ReproducirNotificacionCasoUso sinFiltro = new ReproducirNotificacionCasoUso(repositorio, 0);
+        sinFiltro.ejecutar(crear("frenada_brusca", "Frenada brusca detectada"));
+        sinFiltro.ejecutar(crear("frenada_brusca", "Frenada brusca detectada"));
+
+        assertEquals(2, repositorio.reproducidas.size());
+    }
+
+    @Test
+    public void testEjecutar_noDetieneElRepositorio() {
+        casoUso.ejecutar(new NotificacionVoz.Constructor()
+                .establecerMensaje("Urgente")
+                .establecerPrioridad(NotificacionVoz.Prioridad.URGENTE)
+                .construir());
+
+        assertEquals(0, repositorio.detenciones);
+        assertEquals(1, repositorio.reproducidas.size());
+    }
+
+    @Test
+    public void testEjecutar_conEscuchador_loEntregaAlRepositorio() {
+        boolean[] resultado = new boolean[1];
+        assertTrue(casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada"),
+                completada -> resultado[0] = completada));
+
+        repositorio.escuchadores.get(0).alFinalizar(true);
+
+        assertTrue(resultado[0]);
+    }
+
+    @Test
+    public void testEjecutar_fusionada_noInvocaAlEscuchador() {
+        casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada"));
+        boolean[] invocado = new boolean[1];
+
+        assertFalse(casoUso.ejecutar(crear("frenada_brusca", "Frenada brusca detectada"),
+                completada -> invocado[0] = true));
+
+        assertEquals(1, repositorio.escuchadores.size());
+        assertNull(repositorio.escuchadores.get(0));
+        assertFalse(invocado[0]);
+    }
+
+    /**
+     * Repositorio en memoria que registra las llamadas
+     */
+    static class RepositorioFalso implements RepositorioNotificacionesVoz {
+        final List<NotificacionVoz> reproducidas = new ArrayList<>();
+        final List<EscuchadorResultado> escuchadores = new ArrayList<>();
+        int detenciones = 0;
+
+        @Override
+        public void reproducir(@NonNull NotificacionVoz notificacion,
+                               @Nullable EscuchadorResultado escuchadorResultado) {
+            reproducidas.add(notificacion);
+            escuchadores.add(escuchadorResultado);
+        }
+
+        @Override
+        public void detener() {
+            detenciones++;
+        }
+
+        @Override
+        public boolean estaReproduciendo() {
+            return false;
+        }
+
+        @Override
+        public int obtenerProfundidadCola() {
+            return 0;
+        }
+
+        @Override
+        public void configurar(@NonNull ConfiguracionVoz configuracion) {
+        }
+
+        @Override
+        public boolean estaDisponible() {
+            return true;
+        }
+
+        @Override
+        public void finalizar() {
+        }
+    }
+}
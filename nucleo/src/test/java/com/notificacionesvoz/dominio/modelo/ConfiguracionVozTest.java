@@ -0,0 +1,49 @@
+package com.notificacionesvoz.dominio.modelo;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para ConfiguracionVoz
+ */
+public class ConfiguracionVozTest {
+
+    @Test
+    public void testCompararCon_mismosValores_sinCambios() {
+        ConfiguracionVoz anterior = ConfiguracionVoz.constructor().establecerTonoVoz(1.2f).construir();
+        ConfiguracionVoz nueva = ConfiguracionVoz.constructor().establecerTonoVoz(1.2f).construir();
+
+        assertEquals(0, nueva.compararCon(anterior));
+    }
+
+    @Test
+    public void testCompararCon_soloCambiaLaVelocidad() {
+        ConfiguracionVoz anterior = ConfiguracionVoz.obtenerPredeterminada();
+        ConfiguracionVoz nueva = ConfiguracionVoz.constructor().establecerVelocidadVoz(1.5f).construir();
+
+        assertEquals(ConfiguracionVoz.CAMBIO_VELOCIDAD, nueva.compararCon(anterior));
+    }
+
+    @Test
+    public void testCompararCon_idiomaYModoCola() {
+        ConfiguracionVoz anterior = ConfiguracionVoz.obtenerPredeterminada();
+        ConfiguracionVoz nueva = ConfiguracionVoz.constructor()
+                .establecerIdioma(new Locale("es", "MX"))
+                .establecerModoCola(1)
+                .construir();
+
+        assertEquals(ConfiguracionVoz.CAMBIO_IDIOMA | ConfiguracionVoz.CAMBIO_MODO_COLA, nueva.compararCon(anterior));
+    }
+
+    @Test
+    public void testCompararCon_sinAnterior_todoCambia() {
+        int cambios = ConfiguracionVoz.obtenerPredeterminada().compararCon(null);
+
+        assertTrue((cambios & ConfiguracionVoz.CAMBIO_IDIOMA) != 0);
+        assertTrue((cambios & ConfiguracionVoz.CAMBIO_TONO) != 0);
+        assertTrue((cambios & ConfiguracionVoz.CAMBIO_VELOCIDAD) != 0);
+    }
+}
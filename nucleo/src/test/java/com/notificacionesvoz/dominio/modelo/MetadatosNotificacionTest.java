@@ -0,0 +1,76 @@
+package com.notificacionesvoz.dominio.modelo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para MetadatosNotificacion
+ */
+public class MetadatosNotificacionTest {
+
+    @Test
+    public void testConstruir_valoresTipados_seRecuperan() {
+        MetadatosNotificacion metadatos = new MetadatosNotificacion.Constructor()
+                .establecerDecimal(MetadatosNotificacion.VELOCIDAD_KMH, 97.5)
+                .establecerEntero(MetadatosNotificacion.LIMITE_VELOCIDAD_KMH, 80)
+                .establecerLargo(MetadatosNotificacion.ID_VEHICULO, 123456789012L)
+                .construir();
+
+        assertEquals(3, metadatos.obtenerCantidad());
+        assertEquals(97.5, metadatos.obtenerDecimal(MetadatosNotificacion.VELOCIDAD_KMH, 0), 0.0);
+        assertEquals(80, metadatos.obtenerEntero(MetadatosNotificacion.LIMITE_VELOCIDAD_KMH, 0));
+        assertEquals(123456789012L, metadatos.obtenerLargo(MetadatosNotificacion.ID_VEHICULO, 0));
+        assertFalse(metadatos.contiene(MetadatosNotificacion.LATITUD));
+        assertEquals(-1.0, metadatos.obtenerDecimal(MetadatosNotificacion.LATITUD, -1.0), 0.0);
+    }
+
+    @Test
+    public void testDesdeCrudos_idaYVuelta_conservaLosValores() {
+        MetadatosNotificacion original = new MetadatosNotificacion.Constructor()
+                .establecerDecimal(MetadatosNotificacion.LATITUD, 4.711)
+                .establecerDecimal(MetadatosNotificacion.LONGITUD, -74.072)
+                .construir();
+
+        long[] lote = new long[5];
+        int fin = original.copiarValoresCrudos(lote, 3);
+        MetadatosNotificacion recuperado = MetadatosNotificacion.desdeCrudos(original.obtenerMascara(), lote, 3);
+
+        assertEquals(5, fin);
+        assertEquals(original, recuperado);
+        assertEquals(-74.072, recuperado.obtenerDecimal(MetadatosNotificacion.LONGITUD, 0), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDesdeCrudos_faltanValores_lanzaExcepcion() {
+        MetadatosNotificacion.desdeCrudos(0b111L, new long[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testObtener_tipoIncorrecto_lanzaExcepcion() {
+        MetadatosNotificacion.vacios().obtenerLargo(MetadatosNotificacion.VELOCIDAD_KMH, 0);
+    }
+
+    @Test
+    public void testRegistrar_mismoCampo_devuelveElExistente() {
+        MetadatosNotificacion.Campo campo = MetadatosNotificacion.registrar(40, "carril", MetadatosNotificacion.Tipo.ENTERO);
+
+        assertSame(campo, MetadatosNotificacion.registrar(40, "carril", MetadatosNotificacion.Tipo.ENTERO));
+        assertSame(campo, MetadatosNotificacion.obtenerCampo(40));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegistrar_idOcupadoPorOtroCampo_lanzaExcepcion() {
+        MetadatosNotificacion.registrar(MetadatosNotificacion.VELOCIDAD_KMH.obtenerId(), "otro",
+                MetadatosNotificacion.Tipo.DECIMAL);
+    }
+
+    @Test
+    public void testConstructor_sinCampos_devuelveLosVaciosCompartidos() {
+        assertSame(MetadatosNotificacion.vacios(), new MetadatosNotificacion.Constructor().construir());
+        assertSame(MetadatosNotificacion.vacios(), new NotificacionVoz.Constructor()
+                .establecerMensaje("Mensaje")
+                .construir()
+                .obtenerMetadatosTipados());
+    }
+}
@@ -3,6 +3,8 @@ package com.notificacionesvoz.utilidades;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /**
@@ -27,6 +29,15 @@ public class AnalizadorComportamientoConductorTest {
         assertFalse(analizador.esExcesoVelocidad(85, 80)); // 5 km/h sobre el límite
     }
 
+    @Test
+    public void testEsExcesoVelocidad_fuenteSinLimite_retornaFalso() {
+        FuenteLimitesVelocidad fuente = (latitud, longitud, rumbo) ->
+            latitud > 40 ? 80 : FuenteLimitesVelocidad.SIN_LIMITE;
+
+        assertTrue(analizador.esExcesoVelocidad(95, fuente, 40.4, -3.7, 0f));
+        assertFalse(analizador.esExcesoVelocidad(95, fuente, 39.0, -3.7, 0f));
+    }
+
     @Test
     public void testEsFrenadaBrusca_bajoUmbral_retornaVerdadero() {
         assertTrue(analizador.esFrenadaBrusca(-9.0f));
@@ -90,4 +101,54 @@ public class AnalizadorComportamientoConductorTest {
         assertEquals(20, analizador.obtenerUmbralVelocidad());
         assertEquals(-10.0f, analizador.obtenerUmbralFrenadaBrusca(), 0.01f);
     }
+
+    @Test
+    public void testEvaluarLote_coincideConLasReglasEscalares() {
+        int n = 1000;
+        int[] velocidades = new int[n];
+        int[] limites = new int[n];
+        float[] longitudinales = new float[n];
+        float[] laterales = new float[n];
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < n; i++) {
+            velocidades[i] = 40 + aleatorio.nextInt(80);
+            limites[i] = 30 + 10 * aleatorio.nextInt(9);
+            longitudinales[i] = (float) aleatorio.nextGaussian() * 6f;
+            laterales[i] = (float) aleatorio.nextGaussian() * 5f;
+        }
+        byte[] mascaras = new byte[n];
+
+        int conDeteccion = analizador.evaluarLote(velocidades, limites, longitudinales, laterales, 0, n, mascaras);
+
+        int esperadas = 0;
+        for (int i = 0; i < n; i++) {
+            int mascara = mascaras[i];
+            assertEquals(analizador.esExcesoVelocidad(velocidades[i], limites[i]),
+                (mascara & AnalizadorComportamientoConductor.MASCARA_EXCESO_VELOCIDAD) != 0);
+            assertEquals(analizador.esFrenadaBrusca(longitudinales[i]),
+                (mascara & AnalizadorComportamientoConductor.MASCARA_FRENADA_BRUSCA) != 0);
+            assertEquals(analizador.esAceleracionBrusca(longitudinales[i]),
+                (mascara & AnalizadorComportamientoConductor.MASCARA_ACELERACION_BRUSCA) != 0);
+            assertEquals(analizador.esGiroBrusco(laterales[i]),
+                (mascara & AnalizadorComportamientoConductor.MASCARA_GIRO_BRUSCO) != 0);
+            esperadas += mascara != 0 ? 1 : 0;
+        }
+        assertEquals(esperadas, conDeteccion);
+    }
+
+    @Test
+    public void testEvaluarLote_soloTocaElRangoIndicado() {
+        byte[] mascaras = {9, 9, 9};
+
+        int conDeteccion = analizador.evaluarLote(new int[]{100, 100, 100}, new int[]{50, 50, 50},
+            new float[3], new float[3], 1, 1, mascaras);
+
+        assertEquals(1, conDeteccion);
+        assertArrayEquals(new byte[]{9, AnalizadorComportamientoConductor.MASCARA_EXCESO_VELOCIDAD, 9}, mascaras);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluarLote_arrayCorto_lanzaExcepcion() {
+        analizador.evaluarLote(new int[4], new int[4], new float[4], new float[3], 0, 4, new byte[4]);
+    }
 }
@@ -0,0 +1,146 @@
+package com.notificacionesvoz.utilidades;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para AnalizadorFlota
+ */
+public class AnalizadorFlotaTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private AnalizadorFlota flota(long enfriamientoMs, int particiones) {
+        return new AnalizadorFlota(new AnalizadorComportamientoConductor(), enfriamientoMs, pool, particiones);
+    }
+
+    @Test
+    public void testExcesoVelocidad_enfriamientoPorVehiculo() {
+        AnalizadorFlota flota = flota(10_000, 8);
+        LoteTelemetriaFlota lote = new LoteTelemetriaFlota(4);
+        // Vehículo 1: dos tramos de exceso a 3 s; vehículo 2: uno solo
+        lote.agregar(1, 0, 100, 80, 0f, 0f);
+        lote.agregar(2, 0, 100, 80, 0f, 0f);
+        lote.agregar(1, 1_000, 70, 80, 0f, 0f);
+        lote.agregar(1, 3_000, 100, 80, 0f, 0f);
+
+        DeteccionesFlota detecciones = flota.procesar(lote);
+
+        assertEquals(3, detecciones.obtenerCantidad());
+        assertEquals(2, detecciones.obtenerNotificadas());
+        for (int i = 0; i < detecciones.obtenerCantidad(); i++) {
+            assertEquals(AnalizadorComportamientoConductor.CATEGORIA_EXCESO_VELOCIDAD,
+                detecciones.obtenerCategoria(i));
+            if (detecciones.obtenerIdVehiculo(i) == 1 && detecciones.obtenerMarcaTiempoMs(i) == 3_000) {
+                assertFalse(detecciones.estaNotificada(i));
+                assertEquals(20f, detecciones.obtenerValorPico(i), 0f);
+            } else {
+                assertTrue(detecciones.estaNotificada(i));
+            }
+        }
+        assertEquals(2, flota.obtenerNumeroVehiculos());
+    }
+
+    @Test
+    public void testEstadoEntreLotes_laManiobraSeCompletaEnElSiguiente() {
+        AnalizadorFlota flota = flota(0, 4);
+        LoteTelemetriaFlota lote = new LoteTelemetriaFlota(16);
+        for (int i = 0; i < 10; i++) {
+            lote.agregar(7, i * 10L, 50, 0, -10f, 0f);
+        }
+        assertEquals(0, flota.procesar(lote).obtenerCantidad());
+
+        lote.vaciar();
+        for (int i = 10; i < 30; i++) {
+            lote.agregar(7, i * 10L, 50, 0, -10f, 0f);
+        }
+        DeteccionesFlota detecciones = flota.procesar(lote);
+
+        assertEquals(1, detecciones.obtenerCantidad());
+        assertEquals(AnalizadorComportamientoConductor.CATEGORIA_FRENADA_BRUSCA, detecciones.obtenerCategoria(0));
+    }
+
+    @Test
+    public void testParalelo_mismasDeteccionesQueUnaParticion() {
+        LoteTelemetriaFlota lote = new LoteTelemetriaFlota(1024);
+        Random aleatorio = new Random(42);
+        for (int muestra = 0; muestra < 200; muestra++) {
+            for (long vehiculo = 0; vehiculo < 500; vehiculo++) {
+                lote.agregar(vehiculo * 7919, muestra * 20L, 70 + aleatorio.nextInt(30), 80,
+                    (float) aleatorio.nextGaussian() * 5f, (float) aleatorio.nextGaussian() * 4f);
+            }
+        }
+
+        List<String> secuencial = resumen(flota(5_000, 1).procesar(lote));
+        List<String> paralelo = resumen(flota(5_000, 64).procesar(lote));
+
+        assertFalse(secuencial.isEmpty());
+        assertEquals(secuencial.size(), paralelo.size());
+        assertTrue(paralelo.containsAll(secuencial));
+    }
+
+    @Test
+    public void testOlvidarInactivos_eliminaSoloLosAntiguos() {
+        AnalizadorFlota flota = flota(0, 4);
+        LoteTelemetriaFlota lote = new LoteTelemetriaFlota(1);
+        for (long vehiculo = 0; vehiculo < 100; vehiculo++) {
+            lote.agregar(vehiculo, vehiculo < 30 ? 1_000 : 5_000, 50, 80, 0f, 0f);
+        }
+        flota.procesar(lote);
+
+        assertEquals(30, flota.olvidarInactivos(2_000));
+        assertEquals(70, flota.obtenerNumeroVehiculos());
+    }
+
+    private static List<String> resumen(DeteccionesFlota detecciones) {
+        List<String> lineas = new ArrayList<>();
+        for (int i = 0; i < detecciones.obtenerCantidad(); i++) {
+            lineas.add(detecciones.obtenerIdVehiculo(i) + "@" + detecciones.obtenerMarcaTiempoMs(i) + ":"
+                + detecciones.obtenerCategoria(i) + ":" + detecciones.estaNotificada(i));
+        }
+        return lineas;
+    }
+
+    @Test
+    public void testUmbralesAdaptativos_cadaVehiculoConLosSuyos() {
+        AnalizadorFlota flota = flota(0, 4);
+        flota.activarUmbralesAdaptativos(UmbralesAdaptativos.constructor().establecerMinimoMuestras(500), 1_000);
+        LoteTelemetriaFlota lote = new LoteTelemetriaFlota(4_000);
+        Random aleatorio = new Random(11);
+        // Vehículo 1: turismo suave; vehículo 2: deportivo con aceleraciones fuertes
+        for (int i = 0; i < 2_000; i++) {
+            lote.agregar(1, i * 20L, 80, 80, (float) aleatorio.nextGaussian(), 0f);
+            lote.agregar(2, i * 20L, 80, 80, (float) aleatorio.nextGaussian() * 2.5f, 0f);
+        }
+
+        flota.procesar(lote);
+
+        float suave = flota.obtenerUmbralesVehiculo(1).obtenerUmbralAceleracionBrusca();
+        float deportivo = flota.obtenerUmbralesVehiculo(2).obtenerUmbralAceleracionBrusca();
+        assertTrue(suave < 4.0f);
+        assertTrue(deportivo > 6.0f);
+        assertNull(flota.obtenerUmbralesVehiculo(3));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testActivarUmbralesAdaptativos_trasProcesar_lanzaExcepcion() {
+        AnalizadorFlota flota = flota(0, 4);
+        LoteTelemetriaFlota lote = new LoteTelemetriaFlota(1);
+        lote.agregar(1, 0, 50, 50, 0f, 0f);
+        flota.procesar(lote);
+
+        flota.activarUmbralesAdaptativos(UmbralesAdaptativos.constructor(), 1_000);
+    }
+}
@@ -0,0 +1,192 @@
+package com.notificacionesvoz.utilidades;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para AnalizadorFlujoAceleracion
+ */
+public class AnalizadorFlujoAceleracionTest {
+
+    private static final long PERIODO_NS = 10_000_000L; // 100 Hz
+
+    private AnalizadorFlujoAceleracion analizadorFlujo;
+    private final List<String> detecciones = new ArrayList<>();
+    private final AnalizadorFlujoAceleracion.EscuchadorManiobras escuchador =
+            (categoria, marcaTiempoNs, valorPico) -> detecciones.add(categoria);
+
+    @Before
+    public void setUp() {
+        // Sin filtrado para controlar exactamente los valores; 50 ms de duración mínima
+        analizadorFlujo = new AnalizadorFlujoAceleracion(
+                new AnalizadorComportamientoConductor(), 1, 50, 0.8f);
+        detecciones.clear();
+    }
+
+    private void alimentar(float longitudinal, float lateral, int muestras, long inicioNs) {
+        long[] tiempos = new long[muestras];
+        float[] longitudinales = new float[muestras];
+        float[] laterales = new float[muestras];
+        for (int i = 0; i < muestras; i++) {
+            tiempos[i] = inicioNs + i * PERIODO_NS;
+            longitudinales[i] = longitudinal;
+            laterales[i] = lateral;
+        }
+        analizadorFlujo.procesar(tiempos, longitudinales, laterales, muestras, escuchador);
+    }
+
+    @Test
+    public void testPicoAislado_noSeNotifica() {
+        alimentar(-9.0f, 0f, 3, 0); // 20 ms por encima del umbral
+        alimentar(0f, 0f, 5, 3 * PERIODO_NS);
+
+        assertTrue(detecciones.isEmpty());
+    }
+
+    @Test
+    public void testFrenadaSostenida_seNotificaUnaVez() {
+        alimentar(-9.0f, 0f, 30, 0);
+
+        assertEquals(1, detecciones.size());
+        assertEquals(AnalizadorComportamientoConductor.CATEGORIA_FRENADA_BRUSCA, detecciones.get(0));
+    }
+
+    @Test
+    public void testHisteresis_oscilacionSobreElUmbralNoRedispara() {
+        alimentar(-9.0f, 0f, 10, 0);
+        // Por debajo del umbral pero por encima del 80 %: la maniobra continúa
+        alimentar(-7.0f, 0f, 10, 10 * PERIODO_NS);
+        alimentar(-9.0f, 0f, 10, 20 * PERIODO_NS);
+
+        assertEquals(1, detecciones.size());
+    }
+
+    @Test
+    public void testManiobrasSeparadas_seNotificanAmbas() {
+        alimentar(-9.0f, 0f, 10, 0);
+        alimentar(0f, 0f, 10, 10 * PERIODO_NS);
+        alimentar(-9.0f, 0f, 10, 20 * PERIODO_NS);
+
+        assertEquals(2, detecciones.size());
+    }
+
+    @Test
+    public void testGiroYAceleracion_categoriasIndependientes() {
+        alimentar(5.0f, -6.0f, 10, 0);
+
+        assertTrue(detecciones.contains(AnalizadorComportamientoConductor.CATEGORIA_ACELERACION_BRUSCA));
+        assertTrue(detecciones.contains(AnalizadorComportamientoConductor.CATEGORIA_GIRO_BRUSCO));
+    }
+
+    @Test
+    public void testFiltroPasoBajo_suavizaPicoDeUnaMuestra() {
+        AnalizadorFlujoAceleracion filtrado = new AnalizadorFlujoAceleracion(
+                new AnalizadorComportamientoConductor(), 5, 0, 0.8f);
+        filtrado.procesar(0, -20.0f, 0f, escuchador);
+        for (int i = 1; i < 5; i++) {
+            filtrado.procesar(i * PERIODO_NS, 0f, 0f, escuchador);
+        }
+        // La media de la primera muestra sola supera el umbral; tras ella se diluye
+        assertEquals(1, detecciones.size());
+
+        detecciones.clear();
+        for (int i = 5; i < 10; i++) {
+            filtrado.procesar(i * PERIODO_NS, i == 7 ? -20.0f : 0f, 0f, escuchador);
+        }
+        assertTrue(detecciones.isEmpty()); // -20 / 5 = -4 m/s²
+    }
+
+    @Test
+    public void testCaracteristicas_frenadaSostenidaFrenteABache() {
+        List<CaracteristicasManiobra> maniobras = new ArrayList<>();
+        List<Long> duraciones = new ArrayList<>();
+        AnalizadorFlujoAceleracion.EscuchadorManiobras conCaracteristicas =
+                new AnalizadorFlujoAceleracion.EscuchadorManiobras() {
+                    @Override
+                    public void alDetectarManiobra(String categoria, long marcaTiempoNs, float valorPico) {
+                        fail("Debe recibirse la variante con características");
+                    }
+
+                    @Override
+                    public void alDetectarManiobra(String categoria, long marcaTiempoNs, float valorPico,
+                                                   CaracteristicasManiobra caracteristicas) {
+                        maniobras.add(caracteristicas);
+                        duraciones.add(caracteristicas.obtenerDuracionMs());
+                    }
+                };
+        AnalizadorComportamientoConductor reglas = new AnalizadorComportamientoConductor();
+        AnalizadorFlujoAceleracion sostenida = new AnalizadorFlujoAceleracion(reglas, 1, 50, 0.8f, 1000);
+        AnalizadorFlujoAceleracion bache = new AnalizadorFlujoAceleracion(reglas, 1, 50, 0.8f, 1000);
+
+        // 0 -> -9 m/s² en 100 ms y se mantiene; bache: salto instantáneo a -12 m/s²
+        for (int i = 0; i < 30; i++) {
+            sostenida.procesar(i * PERIODO_NS, -Math.min(9f, i * 0.9f), 0f, conCaracteristicas);
+        }
+        float energiaSostenida = maniobras.get(0).obtenerEnergia();
+        float jerkSostenida = maniobras.get(0).obtenerPicoJerk();
+        long sobreUmbralSostenida = maniobras.get(0).obtenerTiempoSobreUmbralMs();
+        bache.procesar(0, 0f, 0f, conCaracteristicas);
+        for (int i = 1; i < 7; i++) {
+            bache.procesar(i * PERIODO_NS, -12f, 0f, conCaracteristicas);
+        }
+
+        assertEquals(2, maniobras.size());
+        assertEquals(50, (long) duraciones.get(0));
+        assertEquals(50, sobreUmbralSostenida);
+        assertEquals(90f, jerkSostenida, 0.01f); // 0,9 m/s² cada 10 ms
+        CaracteristicasManiobra caracteristicasBache = maniobras.get(1);
+        assertEquals(1200f, caracteristicasBache.obtenerPicoJerk(), 0.01f);
+        assertEquals(12f, caracteristicasBache.obtenerPicoVentana(), 0f);
+        assertTrue(energiaSostenida > 0f);
+    }
+
+    @Test
+    public void testCaracteristicas_sinVentana_usaVarianteSinCaracteristicas() {
+        List<Float> picos = new ArrayList<>();
+        AnalizadorFlujoAceleracion sinVentana = new AnalizadorFlujoAceleracion(
+                new AnalizadorComportamientoConductor(), 1, 50, 0.8f);
+
+        for (int i = 0; i < 10; i++) {
+            sinVentana.procesar(i * PERIODO_NS, -9f, 0f, new AnalizadorFlujoAceleracion.EscuchadorManiobras() {
+                @Override
+                public void alDetectarManiobra(String categoria, long marcaTiempoNs, float valorPico) {
+                    picos.add(valorPico);
+                }
+
+                @Override
+                public void alDetectarManiobra(String categoria, long marcaTiempoNs, float valorPico,
+                                               CaracteristicasManiobra caracteristicas) {
+                    fail("Sin ventana no hay características");
+                }
+            });
+        }
+
+        assertEquals(1, picos.size());
+        assertEquals(-9f, picos.get(0), 0f);
+    }
+
+    @Test
+    public void testVentanaManiobra_descartaMuestrasAntiguas() {
+        VentanaManiobra ventana = new VentanaManiobra(100);
+        for (int i = 0; i < 1000; i++) {
+            // Pico de 10 al principio y luego 1 constante
+            ventana.agregar(i * PERIODO_NS, i < 5 ? 10f : 1f, 0.5f);
+        }
+
+        assertEquals(1f, ventana.obtenerPico(), 0f);
+        assertEquals(0f, ventana.obtenerPicoJerk(), 0f);
+        // 10 intervalos de 10 ms dentro de la ventana: 1² · 0,1 s
+        assertEquals(0.1f, ventana.obtenerEnergia(), 1e-4f);
+        assertEquals(100, ventana.obtenerTiempoSobreUmbralMs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_histeresisInvalida_lanzaExcepcion() {
+        new AnalizadorFlujoAceleracion(new AnalizadorComportamientoConductor(), 5, 100, 1.5f);
+    }
+}
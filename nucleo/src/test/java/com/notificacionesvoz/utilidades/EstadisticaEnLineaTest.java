@@ -0,0 +1,79 @@
+package com.notificacionesvoz.utilidades;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para EstadisticaEnLinea
+ */
+public class EstadisticaEnLineaTest {
+
+    @Test
+    public void testMediaVarianza_coincidenConElCalculoDirecto() {
+        EstadisticaEnLinea estadistica = new EstadisticaEnLinea(-10, 10, 100);
+        double[] valores = {2, 4, 4, 4, 5, 5, 7, 9};
+        for (double valor : valores) {
+            estadistica.agregar(valor);
+        }
+
+        assertEquals(8, estadistica.obtenerCantidad());
+        assertEquals(5.0, estadistica.obtenerMedia(), 1e-12);
+        assertEquals(32.0 / 7, estadistica.obtenerVarianza(), 1e-12);
+    }
+
+    @Test
+    public void testCuantiles_distribucionNormal_errorMenorQueUnaCubeta() {
+        EstadisticaEnLinea estadistica = new EstadisticaEnLinea(-10, 10, 200);
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            estadistica.agregar(aleatorio.nextGaussian());
+        }
+
+        assertEquals(0.0, estadistica.obtenerCuantil(0.5), 0.1);
+        assertEquals(2.326, estadistica.obtenerCuantil(0.99), 0.1);
+        assertEquals(-2.326, estadistica.obtenerCuantil(0.01), 0.1);
+        assertEquals(1.0, estadistica.obtenerDesviacionTipica(), 0.01);
+    }
+
+    @Test
+    public void testOlvido_sigueElCambioDeDistribucionSinCrecer() {
+        EstadisticaEnLinea estadistica = new EstadisticaEnLinea(0, 100, 100, 1_000);
+        for (int i = 0; i < 5_000; i++) {
+            estadistica.agregar(10);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            estadistica.agregar(50);
+        }
+
+        assertTrue(estadistica.obtenerCantidad() <= 1_000);
+        assertEquals(50, estadistica.obtenerMedia(), 1.0);
+        assertEquals(50.5, estadistica.obtenerCuantil(0.5), 1.0);
+    }
+
+    @Test
+    public void testOlvido_valorAisladoPierdePesoComoElResto() {
+        EstadisticaEnLinea estadistica = new EstadisticaEnLinea(0, 100, 100, 1_000);
+        estadistica.agregar(99);
+        for (int i = 0; i < 20_000; i++) {
+            estadistica.agregar(10);
+        }
+
+        // El atípico pesa 1/2^n tras n olvidos, y el histograma sigue sumando la cantidad
+        assertEquals(11.0, estadistica.obtenerCuantil(0.9995), 0.01);
+        assertEquals(10.5, estadistica.obtenerCuantil(0.5), 0.01);
+        assertTrue(estadistica.obtenerCantidad() <= 1_000);
+        assertTrue(estadistica.obtenerCantidad() >= 500);
+    }
+
+    @Test
+    public void testSinValores_cuantilNaN() {
+        EstadisticaEnLinea estadistica = new EstadisticaEnLinea(0, 1, 10);
+        estadistica.agregar(Double.NaN);
+
+        assertEquals(0, estadistica.obtenerCantidad());
+        assertTrue(Double.isNaN(estadistica.obtenerCuantil(0.5)));
+    }
+}
@@ -3,6 +3,10 @@ package com.notificacionesvoz.utilidades;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.Assert.*;
 
 /**
@@ -86,4 +90,59 @@ public class LimitadorNotificacionesTest {
         assertTrue(limitador.intentarNotificar("alerta"));
         assertTrue(limitador.intentarNotificar("recordatorio"));
     }
+
+    @Test
+    public void testRelojInyectado_controlaElEnfriamiento() {
+        AtomicLong ahora = new AtomicLong(5_000);
+        LimitadorNotificaciones limitadorVirtual = new LimitadorNotificaciones(1000, ahora::get);
+
+        assertTrue(limitadorVirtual.intentarNotificar("alerta"));
+        ahora.addAndGet(999);
+        assertFalse(limitadorVirtual.intentarNotificar("alerta"));
+        assertEquals(1, limitadorVirtual.obtenerEnfriamientoRestante("alerta"));
+        ahora.addAndGet(1);
+        assertTrue(limitadorVirtual.intentarNotificar("alerta"));
+    }
+
+    @Test
+    public void testRelojInyectado_valoresNegativos() {
+        // Un reloj monotónico puede tener un origen arbitrario
+        AtomicLong ahora = new AtomicLong(-10_000);
+        LimitadorNotificaciones limitadorVirtual = new LimitadorNotificaciones(1000, ahora::get);
+
+        assertTrue(limitadorVirtual.intentarNotificar("alerta"));
+        assertFalse(limitadorVirtual.intentarNotificar("alerta"));
+        ahora.addAndGet(1000);
+        assertTrue(limitadorVirtual.intentarNotificar("alerta"));
+    }
+
+    @Test
+    public void testIntentarNotificar_concurrente_soloUnHiloGana() throws InterruptedException {
+        LimitadorNotificaciones limitadorVirtual = new LimitadorNotificaciones(1000, () -> 0L);
+        int hilos = 8;
+        AtomicInteger exitos = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(hilos);
+
+        for (int i = 0; i < hilos; i++) {
+            new Thread(() -> {
+                try {
+                    inicio.await();
+                    for (int j = 0; j < 10_000; j++) {
+                        if (limitadorVirtual.intentarNotificar("alerta")) {
+                            exitos.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException ignorada) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fin.countDown();
+                }
+            }).start();
+        }
+
+        inicio.countDown();
+        fin.await();
+        assertEquals(1, exitos.get());
+    }
 }
@@ -0,0 +1,125 @@
+package com.notificacionesvoz.utilidades;
+
+import com.notificacionesvoz.dominio.modelo.NotificacionVoz;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para MetricasNotificacionesVoz e HistogramaLatencia
+ */
+public class MetricasNotificacionesVozTest {
+
+    private MetricasNotificacionesVoz metricas;
+
+    @Before
+    public void setUp() {
+        metricas = new MetricasNotificacionesVoz();
+    }
+
+    private NotificacionVoz crear(String categoria, NotificacionVoz.Prioridad prioridad) {
+        return new NotificacionVoz.Constructor()
+                .establecerMensaje("mensaje")
+                .establecerCategoria(categoria)
+                .establecerPrioridad(prioridad)
+                .construir();
+    }
+
+    @Test
+    public void testRegistrar_acumulaContadores() {
+        metricas.registrar(MetricasNotificacionesVoz.Evento.SOLICITADA);
+        metricas.registrar(MetricasNotificacionesVoz.Evento.SOLICITADA);
+        metricas.registrar(MetricasNotificacionesVoz.Evento.DESCARTADA_COLA_LLENA, 3);
+
+        MetricasNotificacionesVoz.Instantanea instantanea = metricas.obtenerInstantanea();
+        assertEquals(2, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.SOLICITADA));
+        assertEquals(3, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.DESCARTADA_COLA_LLENA));
+        assertEquals(0, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.ERROR));
+    }
+
+    @Test
+    public void testRegistrarLatencia_porPrioridadYCategoria() {
+        metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.ESPERA,
+                crear("frenada_brusca", NotificacionVoz.Prioridad.URGENTE), 40);
+        metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.ESPERA,
+                crear(null, NotificacionVoz.Prioridad.NORMAL), 300);
+
+        MetricasNotificacionesVoz.Instantanea instantanea = metricas.obtenerInstantanea();
+        HistogramaLatencia.Instantanea urgente = instantanea.obtenerLatencia(
+                MetricasNotificacionesVoz.Fase.ESPERA, NotificacionVoz.Prioridad.URGENTE);
+        assertEquals(1, urgente.obtenerTotal());
+        assertEquals(40, urgente.obtenerMaximo());
+        assertEquals(1, instantanea.obtenerLatencia(
+                MetricasNotificacionesVoz.Fase.ESPERA, "frenada_brusca").obtenerTotal());
+        assertNull(instantanea.obtenerLatencia(MetricasNotificacionesVoz.Fase.ESPERA, "giro_brusco"));
+        assertEquals(0, instantanea.obtenerLatencia(
+                MetricasNotificacionesVoz.Fase.REPRODUCCION, NotificacionVoz.Prioridad.URGENTE).obtenerTotal());
+    }
+
+    @Test
+    public void testHistograma_percentilesAcotadosPorCubeta() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        for (int i = 0; i < 90; i++) {
+            histograma.registrar(10);  // cubeta [8, 16)
+        }
+        for (int i = 0; i < 10; i++) {
+            histograma.registrar(500); // cubeta [256, 512)
+        }
+
+        HistogramaLatencia.Instantanea instantanea = histograma.obtenerInstantanea();
+        assertEquals(100, instantanea.obtenerTotal());
+        assertEquals(15, instantanea.obtenerPercentil(0.5));
+        assertEquals(15, instantanea.obtenerPercentil(0.9));
+        assertEquals(500, instantanea.obtenerPercentil(0.99));
+        assertEquals(59.0, instantanea.obtenerMedia(), 0.001);
+    }
+
+    @Test
+    public void testHistograma_valoresExtremos() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        histograma.registrar(-5);
+        histograma.registrar(Long.MAX_VALUE / 2);
+
+        long[] cubetas = histograma.obtenerInstantanea().obtenerCubetas();
+        assertEquals(1, cubetas[0]);
+        assertEquals(1, cubetas[HistogramaLatencia.NUMERO_CUBETAS - 1]);
+    }
+
+    @Test
+    public void testProfundidadCola_conservaElMaximo() {
+        metricas.registrarProfundidadCola(3);
+        metricas.registrarProfundidadCola(7);
+        metricas.registrarProfundidadCola(2);
+
+        assertEquals(7, metricas.obtenerInstantanea().obtenerProfundidadMaximaCola());
+    }
+
+    @Test
+    public void testAMapa_incluyeContadoresYLatencias() {
+        metricas.registrar(MetricasNotificacionesVoz.Evento.INICIADA);
+        metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.REPRODUCCION,
+                crear("giro_brusco", NotificacionVoz.Prioridad.ALTA), 1200);
+
+        Map<String, Long> mapa = metricas.obtenerInstantanea().aMapa();
+        assertEquals(Long.valueOf(1), mapa.get("eventos.iniciada"));
+        assertEquals(Long.valueOf(1200), mapa.get("latencia.reproduccion.categoria.giro_brusco.max"));
+        assertEquals(Long.valueOf(1), mapa.get("latencia.reproduccion.prioridad.alta.total"));
+    }
+
+    @Test
+    public void testReiniciar_poneACero() {
+        metricas.registrar(MetricasNotificacionesVoz.Evento.SOLICITADA);
+        metricas.registrarLatencia(MetricasNotificacionesVoz.Fase.ESPERA,
+                crear("frenada_brusca", NotificacionVoz.Prioridad.NORMAL), 10);
+
+        metricas.reiniciar();
+
+        MetricasNotificacionesVoz.Instantanea instantanea = metricas.obtenerInstantanea();
+        assertEquals(0, instantanea.obtenerContador(MetricasNotificacionesVoz.Evento.SOLICITADA));
+        assertTrue(instantanea.obtenerCategorias().isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+package com.notificacionesvoz.utilidades;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para PresupuestoNotificaciones y su uso en LimitadorNotificaciones
+ */
+public class PresupuestoNotificacionesTest {
+
+    private PresupuestoNotificaciones presupuesto;
+
+    @Before
+    public void setUp() {
+        presupuesto = new PresupuestoNotificaciones(3, 60_000); // 3 por minuto
+    }
+
+    @Test
+    public void testIntentarConsumir_permiteRafagaHastaElMaximo() {
+        assertTrue(presupuesto.intentarConsumir(0));
+        assertTrue(presupuesto.intentarConsumir(0));
+        assertTrue(presupuesto.intentarConsumir(0));
+        assertFalse(presupuesto.intentarConsumir(0));
+    }
+
+    @Test
+    public void testIntentarConsumir_recuperaUnaUnidadPorIntervalo() {
+        for (int i = 0; i < 3; i++) {
+            presupuesto.intentarConsumir(0);
+        }
+
+        assertFalse(presupuesto.intentarConsumir(19_999));
+        assertTrue(presupuesto.intentarConsumir(20_000));
+        assertFalse(presupuesto.intentarConsumir(20_000));
+    }
+
+    @Test
+    public void testIntentarConsumir_ventanaNoMultiploDelMaximo_noAmpliaLaRafaga() {
+        PresupuestoNotificaciones presupuestoCorto = new PresupuestoNotificaciones(3, 5);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(presupuestoCorto.intentarConsumir(0));
+        }
+
+        // Una unidad cada 5/3 ms
+        assertFalse(presupuestoCorto.intentarConsumir(0));
+        assertFalse(presupuestoCorto.intentarConsumir(1));
+        assertEquals(1, presupuestoCorto.obtenerEsperaMs(1));
+        assertTrue(presupuestoCorto.intentarConsumir(2));
+    }
+
+    @Test
+    public void testIntentarConsumir_ventanaNoMultiploDelMaximo_respetaLaTasa() {
+        PresupuestoNotificaciones presupuestoTercios = new PresupuestoNotificaciones(3, 100);
+        int aceptadas = 0;
+        for (long ahora = 0; ahora <= 10_000; ahora++) {
+            if (presupuestoTercios.intentarConsumir(ahora)) {
+                aceptadas++;
+            }
+        }
+
+        // La ráfaga inicial más 3 por cada 100 ms
+        assertEquals(3 + 300, aceptadas);
+    }
+
+    @Test
+    public void testObtenerEsperaMs_indicaCuandoHayPresupuesto() {
+        assertEquals(0, presupuesto.obtenerEsperaMs(0));
+        for (int i = 0; i < 3; i++) {
+            presupuesto.intentarConsumir(0);
+        }
+        assertEquals(20_000, presupuesto.obtenerEsperaMs(0));
+        assertEquals(5_000, presupuesto.obtenerEsperaMs(15_000));
+    }
+
+    @Test
+    public void testDevolver_restauraUnaUnidad() {
+        for (int i = 0; i < 3; i++) {
+            presupuesto.intentarConsumir(0);
+        }
+        presupuesto.devolver();
+        assertTrue(presupuesto.intentarConsumir(0));
+    }
+
+    @Test
+    public void testLimitador_presupuestoGlobalEntreCategorias() {
+        AtomicLong ahora = new AtomicLong(0);
+        LimitadorNotificaciones limitador = new LimitadorNotificaciones(
+                1000, new PresupuestoNotificaciones(2, 60_000), ahora::get);
+
+        assertTrue(limitador.intentarNotificar("frenada"));
+        assertTrue(limitador.intentarNotificar("giro"));
+        assertFalse(limitador.intentarNotificar("velocidad")); // Presupuesto agotado
+        assertTrue(limitador.obtenerEsperaPresupuestoGlobal() > 0);
+    }
+
+    @Test
+    public void testLimitador_cooldownNoConsumePresupuesto() {
+        AtomicLong ahora = new AtomicLong(0);
+        LimitadorNotificaciones limitador = new LimitadorNotificaciones(
+                1000, new PresupuestoNotificaciones(2, 60_000), ahora::get);
+
+        assertTrue(limitador.intentarNotificar("frenada"));
+        assertFalse(limitador.intentarNotificar("frenada")); // En cooldown, devuelve la unidad
+        assertTrue(limitador.intentarNotificar("giro"));
+    }
+
+    @Test
+    public void testLimitador_reiniciarTodoRestauraPresupuesto() {
+        AtomicLong ahora = new AtomicLong(0);
+        LimitadorNotificaciones limitador = new LimitadorNotificaciones(
+                1000, new PresupuestoNotificaciones(1, 60_000), ahora::get);
+
+        assertTrue(limitador.intentarNotificar("frenada"));
+        assertFalse(limitador.intentarNotificar("giro"));
+        limitador.reiniciarTodo();
+        assertTrue(limitador.intentarNotificar("giro"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_maximoInvalido_lanzaExcepcion() {
+        new PresupuestoNotificaciones(0, 60_000);
+    }
+}
@@ -0,0 +1,79 @@
+package com.notificacionesvoz.utilidades;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para UmbralesAdaptativos
+ */
+public class UmbralesAdaptativosTest {
+
+    private static UmbralesAdaptativos conConduccion(float desviacion, int excesoMedio) {
+        UmbralesAdaptativos umbrales = UmbralesAdaptativos.constructor()
+            .establecerMinimoMuestras(1_000)
+            .construir();
+        Random aleatorio = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            umbrales.registrarAceleracion((float) aleatorio.nextGaussian() * desviacion,
+                (float) aleatorio.nextGaussian() * desviacion);
+            umbrales.registrarVelocidad(80 + excesoMedio + (int) Math.round(aleatorio.nextGaussian() * 3), 80);
+        }
+        return umbrales;
+    }
+
+    @Test
+    public void testAplicar_conductorAgresivo_umbralesMasAltos() {
+        AnalizadorComportamientoConductor suave = new AnalizadorComportamientoConductor();
+        AnalizadorComportamientoConductor agresivo = new AnalizadorComportamientoConductor();
+
+        assertEquals(4, conConduccion(1.2f, 0).aplicar(suave));
+        assertEquals(4, conConduccion(2.0f, 5).aplicar(agresivo));
+
+        // Percentil 99,9 de una normal: 3,09 desviaciones
+        assertEquals(1.2f * 3.09f, suave.obtenerUmbralAceleracionBrusca(), 0.3f);
+        assertEquals(-2.0f * 3.09f, agresivo.obtenerUmbralFrenadaBrusca(), 0.3f);
+        assertTrue(agresivo.obtenerUmbralAceleracionBrusca() > suave.obtenerUmbralAceleracionBrusca());
+        assertTrue(agresivo.obtenerUmbralGiroBrusco() > suave.obtenerUmbralGiroBrusco());
+        assertTrue(agresivo.obtenerUmbralVelocidad() > suave.obtenerUmbralVelocidad());
+    }
+
+    @Test
+    public void testAplicar_conductorMuySuave_respetaLosLimites() {
+        AnalizadorComportamientoConductor analizador = new AnalizadorComportamientoConductor();
+
+        conConduccion(0.1f, -20).aplicar(analizador);
+
+        assertEquals(UmbralesAdaptativos.FRENADA_MAS_SUAVE, analizador.obtenerUmbralFrenadaBrusca(), 0f);
+        assertEquals(UmbralesAdaptativos.ACELERACION_MAS_SUAVE, analizador.obtenerUmbralAceleracionBrusca(), 0f);
+        assertEquals(UmbralesAdaptativos.GIRO_MAS_SUAVE, analizador.obtenerUmbralGiroBrusco(), 0f);
+        assertEquals(UmbralesAdaptativos.VELOCIDAD_MINIMA, analizador.obtenerUmbralVelocidad());
+    }
+
+    @Test
+    public void testAplicar_sinMuestrasSuficientes_noCambiaUmbrales() {
+        UmbralesAdaptativos umbrales = UmbralesAdaptativos.constructor().construir();
+        AnalizadorComportamientoConductor analizador = new AnalizadorComportamientoConductor();
+        umbrales.registrarAceleracion(-9f, 0f);
+        umbrales.registrarVelocidad(120, 0); // límite desconocido
+
+        assertEquals(0, umbrales.aplicar(analizador));
+        assertEquals(-8.0f, analizador.obtenerUmbralFrenadaBrusca(), 0f);
+        assertEquals(0, umbrales.obtenerEstadisticaExcesoVelocidad().obtenerCantidad());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_percentilFueraDeRango_lanzaExcepcion() {
+        UmbralesAdaptativos.constructor().establecerPercentilManiobras(0.2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_minimoMayorQueMediaMemoria_lanzaExcepcion() {
+        UmbralesAdaptativos.constructor()
+            .establecerMemoria(1_000)
+            .establecerMinimoMuestras(501)
+            .construir();
+    }
+}